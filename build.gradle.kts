@@ -24,8 +24,18 @@ java {
     targetCompatibility = JavaVersion.VERSION_17
 }
 
+// SmallAclMatcher의 벡터 구현 (실행 시 모듈이 없으면 스칼라 구현 사용)
+tasks.withType<JavaCompile> {
+    options.compilerArgs.addAll(listOf("--add-modules", "jdk.incubator.vector"))
+    // 인큐베이터 모듈 사용 경고는 의도된 것이므로 끔 (JDK 21부터 있는 lint 항목이라 그 이전 javac에는 넘기지 않음)
+    if (JavaVersion.current() >= JavaVersion.VERSION_21) {
+        options.compilerArgs.add("-Xlint:-incubating")
+    }
+}
+
 tasks.test {
     useJUnitPlatform()
+    jvmArgs("--add-modules", "jdk.incubator.vector")
     
     testLogging {
         events("passed", "skipped", "failed")
@@ -38,6 +48,7 @@ tasks.javadoc {
         (options as StandardJavadocDocletOptions).addBooleanOption("html5", true)
     }
     options.encoding = "UTF-8"
+    (options as StandardJavadocDocletOptions).addStringOption("-add-modules", "jdk.incubator.vector")
 }
 
 publishing {
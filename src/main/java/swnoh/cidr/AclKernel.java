@@ -0,0 +1,65 @@
+package swnoh.cidr;
+
+/**
+ * {@link SmallAclMatcher}의 마스크 비교 루프.
+ *
+ * 배열 길이는 {@link #PADDING}의 배수로 채워져 있고, 채운 칸은
+ * (mask 0, network -1)이라 어떤 주소와도 일치하지 않습니다.
+ */
+interface AclKernel {
+
+    /**
+     * 규칙 배열 길이를 맞출 단위. 512비트 벡터의 int 레인 수와 같습니다.
+     */
+    int PADDING = 16;
+
+    /**
+     * (address &amp; masks[i]) == networks[i]인 첫 i를 반환합니다. 없으면 -1.
+     */
+    int firstMatch(int[] networks, int[] masks, int address);
+
+    /**
+     * 일치하는 규칙이 하나라도 있는지 확인합니다.
+     */
+    boolean anyMatch(int[] networks, int[] masks, int address);
+
+    /**
+     * 스칼라 구현. 네 칸씩 펼쳐서 비교합니다.
+     */
+    final class Scalar implements AclKernel {
+
+        @Override
+        public int firstMatch(int[] networks, int[] masks, int address) {
+            for (int i = 0; i < networks.length; i += 4) {
+                if ((address & masks[i]) == networks[i]) {
+                    return i;
+                }
+                if ((address & masks[i + 1]) == networks[i + 1]) {
+                    return i + 1;
+                }
+                if ((address & masks[i + 2]) == networks[i + 2]) {
+                    return i + 2;
+                }
+                if ((address & masks[i + 3]) == networks[i + 3]) {
+                    return i + 3;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public boolean anyMatch(int[] networks, int[] masks, int address) {
+            // 분기 없이 네 칸의 차이를 모아서 한 번에 판정
+            for (int i = 0; i < networks.length; i += 4) {
+                int a = (address & masks[i]) ^ networks[i];
+                int b = (address & masks[i + 1]) ^ networks[i + 1];
+                int c = (address & masks[i + 2]) ^ networks[i + 2];
+                int d = (address & masks[i + 3]) ^ networks[i + 3];
+                if (a == 0 | b == 0 | c == 0 | d == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package swnoh.cidr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 블록 추가/삭제 후에도 항상 최소 CIDR 목록 형태를 유지하는 주소 집합.
+ *
+ * 배열 기반 이진 prefix 트리에 저장합니다. 각 자식 칸은 비어 있음(EMPTY),
+ * 전체가 포함됨(FULL), 또는 하위 노드 번호 중 하나입니다.
+ * <ul>
+ *   <li>추가: 블록 위치를 FULL로 만들고, 올라오면서 두 자식이 모두 FULL인 노드를 FULL로 합칩니다.</li>
+ *   <li>삭제: 내려가는 길에 FULL을 만나면 두 FULL 자식으로 쪼개고, 블록 위치를 비운 뒤
+ *       두 자식이 모두 빈 노드를 정리합니다.</li>
+ * </ul>
+ * 한 번의 편집은 O(32)에 제거되는 하위 노드 수를 더한 비용이며,
+ * 제거되는 노드는 만들어진 적이 있는 노드이므로 전체적으로는 편집당 O(32)입니다.
+ *
+ * 반복자는 최소 블록들을 주소 순으로 돌려주며, 반복 중에 집합이 바뀌면
+ * {@link ConcurrentModificationException}을 던집니다. 스레드 안전하지 않습니다.
+ */
+public class AggregatedCidrSet implements Iterable<CidrBlock>, MemoryAccountable {
+
+    private static final int EMPTY = 0;
+
+    private static final int FULL = -1;
+
+    // 노드 n의 자식: children[2n] (비트 0), children[2n + 1] (비트 1). 0번 노드는 사용하지 않음
+    private int[] children = new int[32];
+
+    // 재사용할 노드 목록의 첫 번호 (children[2n]에 다음 번호를 연결)
+    private int freeNode = EMPTY;
+
+    private int nextNode = 1;
+
+    private int root = EMPTY;
+
+    private int blockCount;
+
+    private long addressCount;
+
+    private int modCount;
+
+    public AggregatedCidrSet() {
+    }
+
+    /**
+     * 주어진 블록들을 모두 추가한 집합을 생성합니다.
+     */
+    public static AggregatedCidrSet of(Collection<CidrBlock> blocks) {
+        if (blocks == null) {
+            throw new IllegalArgumentException("CIDR blocks cannot be null");
+        }
+        AggregatedCidrSet set = new AggregatedCidrSet();
+        for (CidrBlock block : blocks) {
+            set.add(block);
+        }
+        return set;
+    }
+
+    /**
+     * 블록의 모든 주소를 집합에 추가합니다.
+     *
+     * @return 집합이 바뀌었으면 true
+     */
+    public boolean add(CidrBlock block) {
+        if (block == null) {
+            throw new IllegalArgumentException("CIDR block cannot be null");
+        }
+        long before = addressCount;
+        root = insert(root, 0, block.getNetworkAddress(), block.getPrefixLength());
+        return changed(before);
+    }
+
+    /**
+     * 블록의 모든 주소를 집합에서 제거합니다. 감싸는 블록은 필요한 만큼 쪼개집니다.
+     *
+     * @return 집합이 바뀌었으면 true
+     */
+    public boolean remove(CidrBlock block) {
+        if (block == null) {
+            throw new IllegalArgumentException("CIDR block cannot be null");
+        }
+        long before = addressCount;
+        root = delete(root, 0, block.getNetworkAddress(), block.getPrefixLength());
+        return changed(before);
+    }
+
+    /**
+     * 주소가 집합에 포함되는지 확인합니다.
+     *
+     * @param address IP 주소 (부호 없는 32비트 값)
+     */
+    public boolean contains(int address) {
+        int ref = root;
+        for (int depth = 0; ref > 0; depth++) {
+            ref = children[2 * ref + ((address >>> (31 - depth)) & 1)];
+        }
+        return ref == FULL;
+    }
+
+    public boolean contains(IpAddress ip) {
+        if (ip == null) {
+            throw new IllegalArgumentException("IP address cannot be null");
+        }
+        return contains(ip.toInt());
+    }
+
+    /**
+     * 블록의 모든 주소가 집합에 포함되는지 확인합니다.
+     */
+    public boolean containsAll(CidrBlock block) {
+        if (block == null) {
+            throw new IllegalArgumentException("CIDR block cannot be null");
+        }
+        int address = (int) block.getNetworkAddress();
+        int ref = root;
+        for (int depth = 0; ref > 0 && depth < block.getPrefixLength(); depth++) {
+            ref = children[2 * ref + ((address >>> (31 - depth)) & 1)];
+        }
+        return ref == FULL;
+    }
+
+    /**
+     * 최소 블록 개수를 반환합니다.
+     */
+    public int size() {
+        return blockCount;
+    }
+
+    /**
+     * 항목은 합쳐진 블록 수이며, 트리 노드 배열의 여유 용량과 재사용 대기 중인 노드도 포함합니다.
+     */
+    @Override
+    public MemoryFootprint footprint() {
+        return MemoryFootprint.builder(blockCount, MemoryFootprint.REFERENCE + 5 * Integer.BYTES + Long.BYTES)
+                .array(children)
+                .build();
+    }
+
+    public boolean isEmpty() {
+        return root == EMPTY;
+    }
+
+    /**
+     * 포함된 주소 개수를 반환합니다.
+     */
+    public long addressCount() {
+        return addressCount;
+    }
+
+    public void clear() {
+        Arrays.fill(children, 0);
+        freeNode = EMPTY;
+        nextNode = 1;
+        root = EMPTY;
+        blockCount = 0;
+        addressCount = 0;
+        modCount++;
+    }
+
+    /**
+     * 현재 최소 블록 목록을 주소 순으로 반환합니다.
+     */
+    public List<CidrBlock> getBlocks() {
+        List<CidrBlock> blocks = new ArrayList<>(blockCount);
+        for (CidrBlock block : this) {
+            blocks.add(block);
+        }
+        return blocks;
+    }
+
+    /**
+     * 최소 블록들을 주소 순으로 돌려주는 반복자.
+     */
+    @Override
+    public Iterator<CidrBlock> iterator() {
+        return new BlockIterator();
+    }
+
+    private int insert(int ref, int depth, long network, int prefixLength) {
+        if (ref == FULL) {
+            return FULL;
+        }
+        if (depth == prefixLength) {
+            release(ref, depth);
+            blockCount++;
+            addressCount += 1L << (32 - depth);
+            return FULL;
+        }
+        if (ref == EMPTY) {
+            ref = allocate(EMPTY, EMPTY);
+        }
+
+        int slot = 2 * ref + bit(network, depth);
+        int child = insert(children[slot], depth + 1, network, prefixLength);
+        children[slot] = child;
+
+        // 짝(buddy)이 모두 채워졌으면 부모 하나로 합침
+        if (children[2 * ref] == FULL && children[2 * ref + 1] == FULL) {
+            free(ref);
+            blockCount--;
+            return FULL;
+        }
+        return ref;
+    }
+
+    private int delete(int ref, int depth, long network, int prefixLength) {
+        if (ref == EMPTY) {
+            return EMPTY;
+        }
+        if (depth == prefixLength) {
+            release(ref, depth);
+            return EMPTY;
+        }
+        if (ref == FULL) {
+            // 감싸는 블록을 두 절반으로 쪼갬
+            ref = allocate(FULL, FULL);
+            blockCount++;
+        }
+
+        int slot = 2 * ref + bit(network, depth);
+        int child = delete(children[slot], depth + 1, network, prefixLength);
+        children[slot] = child;
+
+        if (children[2 * ref] == EMPTY && children[2 * ref + 1] == EMPTY) {
+            free(ref);
+            return EMPTY;
+        }
+        return ref;
+    }
+
+    // ref가 가리키는 하위 트리를 모두 비우고 개수를 갱신
+    private void release(int ref, int depth) {
+        if (ref == FULL) {
+            blockCount--;
+            addressCount -= 1L << (32 - depth);
+        } else if (ref > 0) {
+            release(children[2 * ref], depth + 1);
+            release(children[2 * ref + 1], depth + 1);
+            free(ref);
+        }
+    }
+
+    private int allocate(int zero, int one) {
+        int node;
+        if (freeNode != EMPTY) {
+            node = freeNode;
+            freeNode = children[2 * node];
+        } else {
+            node = nextNode++;
+            if (2 * node + 1 >= children.length) {
+                children = Arrays.copyOf(children, children.length * 2);
+            }
+        }
+        children[2 * node] = zero;
+        children[2 * node + 1] = one;
+        return node;
+    }
+
+    private void free(int node) {
+        children[2 * node] = freeNode;
+        children[2 * node + 1] = EMPTY;
+        freeNode = node;
+    }
+
+    private boolean changed(long before) {
+        if (addressCount != before) {
+            modCount++;
+            return true;
+        }
+        return false;
+    }
+
+    private static int bit(long network, int depth) {
+        return (int) (network >>> (31 - depth)) & 1;
+    }
+
+    /**
+     * 명시적 스택으로 트리를 왼쪽부터 훑는 반복자.
+     */
+    private class BlockIterator implements Iterator<CidrBlock> {
+        // 스택 항목: 자식 칸 값, 해당 위치의 네트워크 주소, 깊이
+        private final int[] refs = new int[34];
+        private final long[] networks = new long[34];
+        private final int[] depths = new int[34];
+        private int top;
+        private final int expectedModCount = modCount;
+
+        BlockIterator() {
+            if (root != EMPTY) {
+                push(root, 0L, 0);
+            }
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return top > 0;
+        }
+
+        @Override
+        public CidrBlock next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (top == 0) {
+                throw new NoSuchElementException();
+            }
+            top--;
+            CidrBlock block = CidrBlock.of(networks[top], depths[top]);
+            advance();
+            return block;
+        }
+
+        // 스택 맨 위가 FULL 칸이 될 때까지 펼침
+        private void advance() {
+            while (top > 0 && refs[top - 1] != FULL) {
+                top--;
+                int ref = refs[top];
+                long network = networks[top];
+                int depth = depths[top];
+                // 오른쪽을 먼저 넣어야 왼쪽이 먼저 나옴
+                if (children[2 * ref + 1] != EMPTY) {
+                    push(children[2 * ref + 1], network | (1L << (31 - depth)), depth + 1);
+                }
+                if (children[2 * ref] != EMPTY) {
+                    push(children[2 * ref], network, depth + 1);
+                }
+            }
+        }
+
+        private void push(int ref, long network, int depth) {
+            refs[top] = ref;
+            networks[top] = network;
+            depths[top] = depth;
+            top++;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package swnoh.cidr;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -36,9 +38,29 @@ public class CidrBlock {
         }
     }
 
+    private CidrBlock(IpAddress ipAddress, int prefixLength) {
+        if (prefixLength < 0 || prefixLength > 32) {
+            throw new IllegalArgumentException("Prefix length must be between 0 and 32");
+        }
+        this.ipAddress = ipAddress;
+        this.prefixLength = prefixLength;
+    }
+
     public static CidrBlock of(String cidr) {
         return new CidrBlock(cidr);
     }
+
+    /**
+     * 네트워크 주소(long)와 prefix length로 CIDR 블록을 생성합니다.
+     * 문자열 파싱 없이 내부 연산 결과를 CidrBlock으로 되돌릴 때 사용합니다.
+     *
+     * @param networkAddress 네트워크 주소 (0 ~ 4294967295)
+     * @param prefixLength prefix length (0-32)
+     * @return CIDR 블록
+     */
+    static CidrBlock of(long networkAddress, int prefixLength) {
+        return new CidrBlock(IpAddress.fromLong(networkAddress), prefixLength);
+    }
     
     public String normalize() {
         // IP를 long으로 변환
@@ -211,7 +233,7 @@ public class CidrBlock {
      *
      * @return 네트워크 주소 (long 형식)
      */
-    private long getNetworkAddress() {
+    long getNetworkAddress() {
         long mask = getMask();
         return ipAddress.toLong() & mask;
     }
@@ -379,8 +401,48 @@ public class CidrBlock {
         return prefixLength;
     }
 
+    /**
+     * CIDR 문자열을 바이트 배열에 ASCII로 기록합니다.
+     *
+     * @param dst 기록할 배열 (offset부터 최대 18바이트 필요)
+     * @param offset 기록 시작 위치
+     * @return 기록이 끝난 다음 위치
+     */
+    public int writeTo(byte[] dst, int offset) {
+        offset = ipAddress.writeTo(dst, offset);
+        dst[offset++] = '/';
+        if (prefixLength >= 10) {
+            dst[offset++] = (byte) ('0' + prefixLength / 10);
+        }
+        dst[offset++] = (byte) ('0' + prefixLength % 10);
+        return offset;
+    }
+
+    /**
+     * CIDR 문자열을 버퍼의 현재 위치에 ASCII로 기록합니다.
+     */
+    public void writeTo(ByteBuffer dst) {
+        ipAddress.writeTo(dst);
+        dst.put((byte) '/');
+        if (prefixLength >= 10) {
+            dst.put((byte) ('0' + prefixLength / 10));
+        }
+        dst.put((byte) ('0' + prefixLength % 10));
+    }
+
+    /**
+     * CIDR 문자열을 StringBuilder에 덧붙입니다.
+     *
+     * @return 전달받은 StringBuilder
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        return ipAddress.appendTo(sb).append('/').append(prefixLength);
+    }
+
     @Override
     public String toString() {
-        return ipAddress.toString() + "/" + prefixLength;
+        byte[] buffer = new byte[IpAddress.MAX_TEXT_LENGTH + 3];
+        int length = writeTo(buffer, 0);
+        return new String(buffer, 0, length, StandardCharsets.ISO_8859_1);
     }
 }
@@ -0,0 +1,499 @@
+package swnoh.cidr;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 대용량 CIDR/IP 텍스트를 여러 스레드에서 나누어 파싱하는 벌크 파서.
+ *
+ * 입력을 줄바꿈 경계에 맞춘 청크로 나눈 뒤 {@link ForkJoinPool}에서 청크별로 동시에 파싱하고,
+ * 결과를 입력 순서대로 이어 붙여 {@link CidrColumns}에 담습니다.
+ * 결과는 순차 파싱과 항상 같습니다.
+ *
+ * 한 줄에 하나의 항목을 기대하며, 다음 형식을 지원합니다.
+ * <ul>
+ *     <li>{@code 192.168.1.0/24} - CIDR</li>
+ *     <li>{@code 192.168.1.1} - 단일 IP (/32로 처리)</li>
+ *     <li>빈 줄과 {@code #}으로 시작하는 주석 줄은 건너뜀</li>
+ * </ul>
+ * 앞뒤 공백과 CRLF 줄바꿈은 허용합니다.
+ */
+public class CidrBulkParser {
+
+    // 기본 청크 크기 (1MB)
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    // 건너뛰는 줄 (빈 줄, 주석)
+    static final long SKIP = -1L;
+
+    // 형식 오류
+    static final long INVALID = -2L;
+
+    private final ForkJoinPool pool;
+
+    private final int chunkSize;
+
+    /**
+     * 공용 ForkJoinPool과 기본 청크 크기(1MB)를 사용하는 파서를 생성합니다.
+     */
+    public CidrBulkParser() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param pool 파싱에 사용할 ForkJoinPool
+     * @param chunkSize 청크 하나의 대략적인 바이트 크기
+     */
+    public CidrBulkParser(ForkJoinPool pool, int chunkSize) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 바이트 배열을 파싱합니다.
+     */
+    public ParseResult parse(byte[] data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Data cannot be null");
+        }
+        return parse(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * 버퍼의 position부터 limit까지를 파싱합니다. 버퍼의 position은 변경하지 않습니다.
+     */
+    public ParseResult parse(ByteBuffer data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Data cannot be null");
+        }
+        List<int[]> chunks = split(data, data.position(), data.limit(), chunkSize);
+        return pool.invoke(new ParseTask(data, chunks));
+    }
+
+    /**
+     * 파일을 메모리 매핑해서 파싱합니다. (2GB 미만 파일)
+     */
+    public ParseResult parse(Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("File is too large to map: " + size);
+            }
+            return parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /**
+     * 파일을 메모리 매핑해서 처음부터 한 줄씩 읽으며 유효한 항목마다 consumer를 호출합니다. (2GB 미만 파일)
+     *
+     * 결과를 모아 두지 않으므로 필요한 항목만 골라 담으면 힙 사용량이 파일 크기와 무관합니다.
+     * 항목 번호는 같은 파일을 {@link #parse(Path)}한 결과의 {@link CidrColumns} 인덱스와 같습니다.
+     *
+     * @param file     읽을 파일
+     * @param consumer 항목 번호, 주소, prefix length를 받는 콜백
+     * @return 형식 오류 줄 수
+     */
+    public static int forEachEntry(Path file, EntryConsumer consumer) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null");
+        }
+        if (consumer == null) {
+            throw new IllegalArgumentException("Consumer cannot be null");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("File is too large to map: " + size);
+            }
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int entries = 0;
+            int errors = 0;
+            int lineStart = 0;
+            int to = (int) size;
+            while (lineStart < to) {
+                int lineEnd = lineStart;
+                while (lineEnd < to && data.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                long entry = parseEntry(data, lineStart, lineEnd);
+                if (entry >= 0) {
+                    consumer.accept(entries++, (int) (entry >>> 8), (int) (entry & 0xFF));
+                } else if (entry == INVALID) {
+                    errors++;
+                }
+                lineStart = lineEnd + 1;
+            }
+            return errors;
+        }
+    }
+
+    /**
+     * {@link #forEachEntry(Path, EntryConsumer)}에서 항목 하나를 받는 콜백.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+
+        void accept(int index, int address, int prefixLength);
+    }
+
+    /**
+     * [from, to) 범위를 줄바꿈 경계에 맞춘 청크들로 나눕니다.
+     */
+    static List<int[]> split(ByteBuffer data, int from, int to, int chunkSize) {
+        List<int[]> chunks = new ArrayList<>();
+        int start = from;
+        while (start < to) {
+            int end = (int) Math.min((long) start + chunkSize, to);
+            while (end < to && data.get(end - 1) != '\n') {
+                end++;
+            }
+            chunks.add(new int[]{start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * [from, to) 범위의 청크 하나를 순차적으로 파싱합니다.
+     */
+    static ChunkReport parseChunk(ByteBuffer data, int chunkIndex, int from, int to, CidrColumns out) {
+        List<ParseError> errors = new ArrayList<>();
+        int lineCount = 0;
+        int lineStart = from;
+        int entriesBefore = out.size();
+
+        while (lineStart < to) {
+            int lineEnd = lineStart;
+            while (lineEnd < to && data.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            lineCount++;
+
+            long entry = parseEntry(data, lineStart, lineEnd);
+            if (entry >= 0) {
+                out.add((int) (entry >>> 8), (int) (entry & 0xFF));
+            } else if (entry == INVALID) {
+                errors.add(new ParseError(lineCount, describe(data, lineStart, lineEnd)));
+            }
+            lineStart = lineEnd + 1;
+        }
+
+        return new ChunkReport(chunkIndex, from, to, lineCount, out.size() - entriesBefore, errors);
+    }
+
+    /**
+     * 한 줄을 파싱합니다.
+     *
+     * @return (주소 << 8 | prefix) 형태의 값, 빈 줄/주석이면 {@link #SKIP}, 형식 오류면 {@link #INVALID}
+     */
+    static long parseEntry(ByteBuffer data, int from, int to) {
+        // 앞뒤 공백 제거
+        while (from < to && isSpace(data.get(from))) {
+            from++;
+        }
+        while (to > from && isSpace(data.get(to - 1))) {
+            to--;
+        }
+        if (from == to || data.get(from) == '#') {
+            return SKIP;
+        }
+
+        long address = 0;
+        int position = from;
+        for (int octetIndex = 0; octetIndex < 4; octetIndex++) {
+            if (octetIndex > 0) {
+                if (position >= to || data.get(position) != '.') {
+                    return INVALID;
+                }
+                position++;
+            }
+            int octet = 0;
+            int digits = 0;
+            while (position < to && digits < 4) {
+                int c = data.get(position) - '0';
+                if (c < 0 || c > 9) {
+                    break;
+                }
+                octet = octet * 10 + c;
+                digits++;
+                position++;
+            }
+            if (digits == 0 || digits > 3 || octet > 255) {
+                return INVALID;
+            }
+            address = (address << 8) | octet;
+        }
+
+        int prefixLength = 32;
+        if (position < to) {
+            if (data.get(position) != '/') {
+                return INVALID;
+            }
+            position++;
+            int digits = 0;
+            prefixLength = 0;
+            while (position < to && digits < 3) {
+                int c = data.get(position) - '0';
+                if (c < 0 || c > 9) {
+                    return INVALID;
+                }
+                prefixLength = prefixLength * 10 + c;
+                digits++;
+                position++;
+            }
+            if (digits == 0 || position != to || prefixLength > 32) {
+                return INVALID;
+            }
+        }
+
+        return (address << 8) | prefixLength;
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static String describe(ByteBuffer data, int from, int to) {
+        int length = Math.min(to - from, 64);
+        byte[] text = new byte[length];
+        for (int i = 0; i < length; i++) {
+            text[i] = data.get(from + i);
+        }
+        return "Invalid CIDR: " + new String(text, StandardCharsets.UTF_8).trim();
+    }
+
+    /**
+     * 청크 작업들을 fork한 뒤 입력 순서대로 결과를 합치는 루트 작업.
+     */
+    private static class ParseTask extends RecursiveTask<ParseResult> {
+        private static final long serialVersionUID = 1L;
+
+        private final ByteBuffer data;
+        private final List<int[]> chunks;
+
+        ParseTask(ByteBuffer data, List<int[]> chunks) {
+            this.data = data;
+            this.chunks = chunks;
+        }
+
+        @Override
+        protected ParseResult compute() {
+            List<ChunkTask> tasks = new ArrayList<>(chunks.size());
+            for (int i = 0; i < chunks.size(); i++) {
+                tasks.add(new ChunkTask(data, i, chunks.get(i)[0], chunks.get(i)[1]));
+            }
+            ForkJoinTask.invokeAll(tasks);
+
+            int total = 0;
+            for (ChunkTask task : tasks) {
+                total += task.columns.size();
+            }
+
+            CidrColumns columns = new CidrColumns(total);
+            List<ChunkReport> reports = new ArrayList<>(tasks.size());
+            int lineOffset = 0;
+            for (ChunkTask task : tasks) {
+                ChunkReport report = task.join().withLineOffset(lineOffset);
+                columns.addAll(task.columns);
+                reports.add(report);
+                lineOffset += report.getLineCount();
+            }
+            return new ParseResult(columns, reports);
+        }
+    }
+
+    private static class ChunkTask extends RecursiveTask<ChunkReport> {
+        private static final long serialVersionUID = 1L;
+
+        private final ByteBuffer data;
+        private final int chunkIndex;
+        private final int from;
+        private final int to;
+        private final CidrColumns columns;
+
+        ChunkTask(ByteBuffer data, int chunkIndex, int from, int to) {
+            this.data = data;
+            this.chunkIndex = chunkIndex;
+            this.from = from;
+            this.to = to;
+            // 한 줄 평균 16바이트 정도로 가정한 초기 용량
+            this.columns = new CidrColumns(Math.max(16, (to - from) / 16));
+        }
+
+        @Override
+        protected ChunkReport compute() {
+            return parseChunk(data, chunkIndex, from, to, columns);
+        }
+    }
+
+    /**
+     * 파싱 결과: 컬럼 데이터와 청크별 리포트.
+     */
+    public static class ParseResult {
+        private final CidrColumns columns;
+        private final List<ChunkReport> chunks;
+
+        ParseResult(CidrColumns columns, List<ChunkReport> chunks) {
+            this.columns = columns;
+            this.chunks = Collections.unmodifiableList(chunks);
+        }
+
+        /**
+         * 파싱된 항목들 (입력 순서).
+         */
+        public CidrColumns getColumns() {
+            return columns;
+        }
+
+        /**
+         * 청크별 리포트 (입력 순서).
+         */
+        public List<ChunkReport> getChunks() {
+            return chunks;
+        }
+
+        /**
+         * 모든 청크의 오류를 입력 순서대로 반환합니다.
+         */
+        public List<ParseError> getErrors() {
+            List<ParseError> errors = new ArrayList<>();
+            for (ChunkReport chunk : chunks) {
+                errors.addAll(chunk.getErrors());
+            }
+            return errors;
+        }
+
+        public int getErrorCount() {
+            int count = 0;
+            for (ChunkReport chunk : chunks) {
+                count += chunk.getErrors().size();
+            }
+            return count;
+        }
+
+        public int getLineCount() {
+            int count = 0;
+            for (ChunkReport chunk : chunks) {
+                count += chunk.getLineCount();
+            }
+            return count;
+        }
+    }
+
+    /**
+     * 청크 하나의 파싱 리포트.
+     */
+    public static class ChunkReport {
+        private final int chunkIndex;
+        private final int startOffset;
+        private final int endOffset;
+        private final int lineCount;
+        private final int entryCount;
+        private final List<ParseError> errors;
+        private final int firstLine;
+
+        ChunkReport(int chunkIndex, int startOffset, int endOffset, int lineCount, int entryCount,
+                    List<ParseError> errors) {
+            this(chunkIndex, startOffset, endOffset, lineCount, entryCount, errors, 1);
+        }
+
+        private ChunkReport(int chunkIndex, int startOffset, int endOffset, int lineCount, int entryCount,
+                            List<ParseError> errors, int firstLine) {
+            this.chunkIndex = chunkIndex;
+            this.startOffset = startOffset;
+            this.endOffset = endOffset;
+            this.lineCount = lineCount;
+            this.entryCount = entryCount;
+            this.errors = Collections.unmodifiableList(errors);
+            this.firstLine = firstLine;
+        }
+
+        /**
+         * 청크 내부 줄 번호를 전체 입력 기준 줄 번호로 바꾼 리포트를 반환합니다.
+         */
+        ChunkReport withLineOffset(int lineOffset) {
+            List<ParseError> shifted = new ArrayList<>(errors.size());
+            for (ParseError error : errors) {
+                shifted.add(new ParseError(error.getLineNumber() + lineOffset, error.getMessage()));
+            }
+            return new ChunkReport(chunkIndex, startOffset, endOffset, lineCount, entryCount, shifted,
+                    lineOffset + 1);
+        }
+
+        public int getChunkIndex() {
+            return chunkIndex;
+        }
+
+        public int getStartOffset() {
+            return startOffset;
+        }
+
+        public int getEndOffset() {
+            return endOffset;
+        }
+
+        /**
+         * 청크의 첫 줄 번호 (1부터 시작, 전체 입력 기준).
+         */
+        public int getFirstLine() {
+            return firstLine;
+        }
+
+        public int getLineCount() {
+            return lineCount;
+        }
+
+        public int getEntryCount() {
+            return entryCount;
+        }
+
+        public List<ParseError> getErrors() {
+            return errors;
+        }
+    }
+
+    /**
+     * 파싱 오류 하나. 줄 번호는 1부터 시작합니다.
+     */
+    public static class ParseError {
+        private final int lineNumber;
+        private final String message;
+
+        ParseError(int lineNumber, String message) {
+            this.lineNumber = lineNumber;
+            this.message = message;
+        }
+
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "line " + lineNumber + ": " + message;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package swnoh.cidr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CIDR 항목을 primitive 배열 두 개(주소 int[], prefix byte[])에 저장하는 가변 컬럼 저장소.
+ *
+ * 항목마다 CidrBlock 객체를 만들지 않으므로 대량의 항목을 적은 메모리로 보관할 수 있습니다.
+ * 주소는 입력 그대로(호스트 비트 포함) 저장됩니다. 스레드 안전하지 않습니다.
+ */
+public class CidrColumns implements MemoryAccountable {
+
+    private int[] addresses;
+
+    private byte[] prefixLengths;
+
+    private int size;
+
+    public CidrColumns() {
+        this(16);
+    }
+
+    public CidrColumns(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity must not be negative: " + initialCapacity);
+        }
+        this.addresses = new int[initialCapacity];
+        this.prefixLengths = new byte[initialCapacity];
+    }
+
+    /**
+     * 항목 하나를 추가합니다.
+     *
+     * @param address IP 주소 (int)
+     * @param prefixLength prefix length (0-32)
+     */
+    public void add(int address, int prefixLength) {
+        if (prefixLength < 0 || prefixLength > 32) {
+            throw new IllegalArgumentException("Prefix length must be between 0 and 32");
+        }
+        ensureCapacity(size + 1);
+        addresses[size] = address;
+        prefixLengths[size] = (byte) prefixLength;
+        size++;
+    }
+
+    /**
+     * 다른 컬럼 저장소의 항목을 모두 뒤에 덧붙입니다.
+     */
+    public void addAll(CidrColumns other) {
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.addresses, 0, addresses, size, other.size);
+        System.arraycopy(other.prefixLengths, 0, prefixLengths, size, other.size);
+        size += other.size;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > addresses.length) {
+            int capacity = Math.max(required, Math.max(16, addresses.length + (addresses.length >> 1)));
+            addresses = Arrays.copyOf(addresses, capacity);
+            prefixLengths = Arrays.copyOf(prefixLengths, capacity);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 항목은 저장된 CIDR 개수이며, 배열의 여유 용량도 포함합니다.
+     */
+    @Override
+    public MemoryFootprint footprint() {
+        return MemoryFootprint.builder(size, 2 * MemoryFootprint.REFERENCE + Integer.BYTES)
+                .array(addresses)
+                .array(prefixLengths)
+                .build();
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * i번째 항목의 주소를 반환합니다.
+     */
+    public int getAddress(int i) {
+        checkIndex(i);
+        return addresses[i];
+    }
+
+    /**
+     * i번째 항목의 prefix length를 반환합니다.
+     */
+    public int getPrefixLength(int i) {
+        checkIndex(i);
+        return prefixLengths[i];
+    }
+
+    /**
+     * i번째 항목을 CidrBlock으로 반환합니다.
+     */
+    public CidrBlock get(int i) {
+        checkIndex(i);
+        return CidrBlock.of(addresses[i] & 0xFFFFFFFFL, prefixLengths[i]);
+    }
+
+    /**
+     * 주소 컬럼을 크기에 맞게 복사해 반환합니다.
+     */
+    public int[] toAddressArray() {
+        return Arrays.copyOf(addresses, size);
+    }
+
+    /**
+     * prefix 컬럼을 크기에 맞게 복사해 반환합니다.
+     */
+    public byte[] toPrefixLengthArray() {
+        return Arrays.copyOf(prefixLengths, size);
+    }
+
+    /**
+     * 모든 항목을 CidrBlock 목록으로 변환합니다.
+     */
+    public List<CidrBlock> toCidrBlocks() {
+        List<CidrBlock> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(CidrBlock.of(addresses[i] & 0xFFFFFFFFL, prefixLengths[i]));
+        }
+        return result;
+    }
+
+    /**
+     * 모든 항목을 제거합니다. (배열은 재사용)
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package swnoh.cidr;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 두 CIDR 집합의 차이. (새로 추가된 주소 범위와 제거된 주소 범위)
+ *
+ * 추가/제거 목록은 각각 주소 집합의 차이를 최소 개수의 CIDR 블록으로 표현한 것입니다.
+ * {@link #encode()}로 압축된 바이트 배열을 만들어 전송하고,
+ * 수신 측에서는 {@link #decode(byte[])} 후 {@link #applyTo(List)}로 기존 집합에 반영합니다.
+ *
+ * <pre>
+ * CidrDiff diff = CidrUtils.diff(oldBlocks, newBlocks);
+ * byte[] delta = diff.encode();
+ * ...
+ * List&lt;CidrBlock&gt; updated = CidrDiff.decode(delta).applyTo(currentBlocks);
+ * </pre>
+ */
+public class CidrDiff implements MemoryAccountable {
+
+    // 인코딩 형식 버전
+    private static final int FORMAT_VERSION = 1;
+
+    private final long[] addedRanges;
+
+    private final long[] removedRanges;
+
+    private final List<CidrBlock> added;
+
+    private final List<CidrBlock> removed;
+
+    CidrDiff(long[] addedRanges, long[] removedRanges) {
+        this.addedRanges = addedRanges;
+        this.removedRanges = removedRanges;
+        this.added = Collections.unmodifiableList(CidrRanges.toBlocks(addedRanges));
+        this.removed = Collections.unmodifiableList(CidrRanges.toBlocks(removedRanges));
+    }
+
+    /**
+     * 이전 집합과 새 집합의 차이를 계산합니다.
+     * 두 목록을 합쳐진 구간 배열로 만든 뒤 한 번씩 훑어서 차이를 구합니다.
+     */
+    static CidrDiff between(List<CidrBlock> oldBlocks, List<CidrBlock> newBlocks) {
+        long[] oldRanges = CidrRanges.fromBlocks(oldBlocks);
+        long[] newRanges = CidrRanges.fromBlocks(newBlocks);
+        return new CidrDiff(CidrRanges.subtract(newRanges, oldRanges), CidrRanges.subtract(oldRanges, newRanges));
+    }
+
+    /**
+     * 새 집합에만 있는 주소 범위를 최소 CIDR 목록으로 반환합니다.
+     */
+    public List<CidrBlock> getAdded() {
+        return added;
+    }
+
+    /**
+     * 이전 집합에만 있던 주소 범위를 최소 CIDR 목록으로 반환합니다.
+     */
+    public List<CidrBlock> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * 항목은 추가·제거 블록 수의 합입니다. 구간 배열과 두 블록 목록(읽기 전용 래퍼 포함)을 더합니다.
+     */
+    @Override
+    public MemoryFootprint footprint() {
+        return MemoryFootprint.builder(added.size() + removed.size(), 4 * MemoryFootprint.REFERENCE)
+                .array(addedRanges)
+                .array(removedRanges)
+                .blocks(added)
+                .blocks(removed)
+                .objects(2, MemoryFootprint.REFERENCE)
+                .build();
+    }
+
+    /**
+     * 변경 사항이 없는지 확인합니다.
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty();
+    }
+
+    /**
+     * 기존 CIDR 집합에 이 변경 사항을 적용한 결과를 최소 CIDR 목록으로 반환합니다.
+     *
+     * @param base 변경을 적용할 기존 집합
+     * @return (base - removed) + added
+     */
+    public List<CidrBlock> applyTo(List<CidrBlock> base) {
+        if (base == null) {
+            throw new IllegalArgumentException("Base CIDR blocks cannot be null");
+        }
+        long[] ranges = CidrRanges.fromBlocks(base);
+        ranges = CidrRanges.union(CidrRanges.subtract(ranges, removedRanges), addedRanges);
+        return CidrRanges.toBlocks(ranges);
+    }
+
+    /**
+     * 변경 사항을 압축된 바이트 배열로 인코딩합니다.
+     *
+     * 형식: [version][removed 블록 수][removed 블록들][added 블록 수][added 블록들]
+     * 각 블록은 (직전 블록 네트워크 주소와의 차이 varint, prefix 1바이트)로 기록됩니다.
+     * 블록 수는 변경된 블록 수에 비례하므로 전체 목록이 아닌 변경분만 전송됩니다.
+     */
+    public byte[] encode() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + (added.size() + removed.size()) * 3);
+        out.write(FORMAT_VERSION);
+        encodeBlocks(removed, out);
+        encodeBlocks(added, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * {@link #encode()}로 만든 바이트 배열을 복원합니다.
+     *
+     * @throws IllegalArgumentException 형식이 잘못된 경우
+     */
+    public static CidrDiff decode(byte[] encoded) {
+        if (encoded == null || encoded.length == 0) {
+            throw new IllegalArgumentException("Encoded diff cannot be null or empty");
+        }
+        if (encoded[0] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported diff format version: " + encoded[0]);
+        }
+        int[] position = {1};
+        long[] removedRanges = decodeRanges(encoded, position);
+        long[] addedRanges = decodeRanges(encoded, position);
+        if (position[0] != encoded.length) {
+            throw new IllegalArgumentException("Trailing bytes in encoded diff");
+        }
+        return new CidrDiff(addedRanges, removedRanges);
+    }
+
+    private static void encodeBlocks(List<CidrBlock> blocks, ByteArrayOutputStream out) {
+        writeVarint(out, blocks.size());
+        long previous = 0;
+        for (CidrBlock block : blocks) {
+            long network = block.getNetworkAddress();
+            writeVarint(out, network - previous);
+            out.write(block.getPrefixLength());
+            previous = network;
+        }
+    }
+
+    private static long[] decodeRanges(byte[] in, int[] position) {
+        long count = readVarint(in, position);
+        if (count > in.length) {
+            throw new IllegalArgumentException("Invalid block count: " + count);
+        }
+        CidrRanges.Builder builder = new CidrRanges.Builder((int) count * 2);
+        long network = 0;
+        // 앞 블록의 끝. 인코딩한 블록은 정렬되어 있고 겹치지 않으므로 다음 블록은 여기서 시작하거나 그 뒤
+        long previousEnd = 0;
+        for (long i = 0; i < count; i++) {
+            network += readVarint(in, position);
+            if (position[0] >= in.length) {
+                throw new IllegalArgumentException("Truncated encoded diff");
+            }
+            int prefixLength = in[position[0]++];
+            if (prefixLength < 0 || prefixLength > 32 || network < 0 || network > 0xFFFFFFFFL) {
+                throw new IllegalArgumentException("Invalid block in encoded diff");
+            }
+            long size = 1L << (32 - prefixLength);
+            // 정렬된 네트워크 주소는 끝이 2^32를 넘지 않음
+            if ((network & (size - 1)) != 0) {
+                throw new IllegalArgumentException("Misaligned block in encoded diff: "
+                        + IpAddress.fromLong(network) + "/" + prefixLength);
+            }
+            if (network < previousEnd) {
+                throw new IllegalArgumentException("Overlapping or unsorted block in encoded diff: "
+                        + IpAddress.fromLong(network) + "/" + prefixLength);
+            }
+            builder.add(network, network + size);
+            previousEnd = network + size;
+        }
+        return builder.toArray();
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(byte[] in, int[] position) {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            if (position[0] >= in.length || shift > 35) {
+                throw new IllegalArgumentException("Truncated encoded diff");
+            }
+            byte b = in[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CidrDiff{added=" + added + ", removed=" + removed + "}";
+    }
+}
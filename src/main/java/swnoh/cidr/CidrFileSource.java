@@ -0,0 +1,654 @@
+package swnoh.cidr;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 디스크의 CIDR 목록 파일들을 감시하면서 바뀔 때마다 다시 읽는 소스.
+ *
+ * 파일 형식은 {@link CidrBulkParser}와 같습니다 (한 줄에 CIDR 하나, # 주석).
+ * 여러 파일의 항목을 모두 합친 주소 집합을 불변 {@link View}로 만들어 한 번에 교체하므로,
+ * 읽는 쪽은 {@link #getView()}로 얻은 뷰를 락 없이 계속 사용할 수 있습니다.
+ *
+ * 변경 반영 방식:
+ * <ul>
+ *   <li>{@link WatchService} 이벤트를 debounce 시간 동안 모아서 한 번에 다시 읽습니다.</li>
+ *   <li>바뀐 파일만 다시 읽고, 나머지 파일은 이전에 파싱한 구간을 그대로 씁니다.</li>
+ *   <li>파일이 뒤에 덧붙여지기만 했으면 (이전 끝부분이 그대로면) 늘어난 부분만 파싱해서
+ *       현재 뷰에 합칩니다.</li>
+ * </ul>
+ *
+ * 다시 읽을 때마다 {@link Listener}에 소요 시간과 항목 수가 담긴 {@link ReloadStats}가 전달됩니다.
+ */
+public class CidrFileSource implements Closeable, MemoryAccountable {
+
+    // 덧붙이기 판정에 쓰는 이전 파일 끝부분 크기
+    private static final int FINGERPRINT_BYTES = 4096;
+
+    // 이벤트가 계속 들어와도 debounce의 이 배수만큼 지나면 다시 읽음
+    private static final int MAX_DEBOUNCE_ROUNDS = 10;
+
+    private final Map<Path, FileState> files = new LinkedHashMap<>();
+
+    private final CidrBulkParser parser;
+
+    private final long debounceNanos;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private final WatchService watchService;
+
+    private final Thread watcher;
+
+    private volatile View view = new View(0, CidrRanges.EMPTY, 0);
+
+    private volatile ReloadStats lastReload;
+
+    private CidrFileSource(Collection<Path> paths, Duration debounce, CidrBulkParser parser) throws IOException {
+        for (Path path : paths) {
+            Path normalized = path.toAbsolutePath().normalize();
+            files.put(normalized, new FileState(normalized));
+        }
+        this.parser = parser;
+        this.debounceNanos = debounce.toNanos();
+
+        // 첫 읽기 도중의 변경을 놓치지 않도록 감시를 먼저 등록한 뒤 읽음
+        this.watchService = FileSystems.getDefault().newWatchService();
+        try {
+            Set<Path> directories = new HashSet<>();
+            for (Path path : files.keySet()) {
+                if (directories.add(path.getParent())) {
+                    path.getParent().register(watchService,
+                            StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY,
+                            StandardWatchEventKinds.ENTRY_DELETE);
+                }
+            }
+            reload(files.keySet());
+        } catch (IOException | RuntimeException e) {
+            try {
+                watchService.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+
+        this.watcher = new Thread(this::watchLoop, "cidr-file-source");
+        this.watcher.setDaemon(true);
+        this.watcher.start();
+    }
+
+    /**
+     * 파일들을 읽어 첫 뷰를 만들고 감시를 시작합니다.
+     *
+     * 아직 없는 파일은 빈 목록으로 취급하며, 나중에 생성되면 읽습니다.
+     *
+     * @param paths    감시할 CIDR 목록 파일들
+     * @param debounce 마지막 변경 이벤트 후 다시 읽기까지 기다릴 시간
+     * @return 감시 중인 소스
+     * @throws IOException 감시를 시작할 수 없는 경우
+     */
+    public static CidrFileSource open(Collection<Path> paths, Duration debounce) throws IOException {
+        return open(paths, debounce, new CidrBulkParser());
+    }
+
+    /**
+     * 주어진 파서로 파일들을 읽어 첫 뷰를 만들고 감시를 시작합니다.
+     */
+    public static CidrFileSource open(Collection<Path> paths, Duration debounce, CidrBulkParser parser)
+            throws IOException {
+        if (paths == null || paths.isEmpty()) {
+            throw new IllegalArgumentException("Paths cannot be null or empty");
+        }
+        if (debounce == null || debounce.isNegative()) {
+            throw new IllegalArgumentException("Debounce must be non-negative: " + debounce);
+        }
+        if (parser == null) {
+            throw new IllegalArgumentException("Parser cannot be null");
+        }
+        return new CidrFileSource(paths, debounce, parser);
+    }
+
+    /**
+     * 현재 뷰를 반환합니다.
+     */
+    public View getView() {
+        return view;
+    }
+
+    /**
+     * 가장 최근 다시 읽기의 통계를 반환합니다.
+     */
+    public ReloadStats getLastReload() {
+        return lastReload;
+    }
+
+    public void addListener(Listener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 감시 이벤트를 기다리지 않고 모든 파일을 즉시 확인해서 다시 읽습니다.
+     * 바뀌지 않은 파일은 크기와 수정 시각만 확인하고 넘어갑니다.
+     *
+     * @return 이번 다시 읽기의 통계
+     */
+    public ReloadStats refresh() {
+        return reload(files.keySet());
+    }
+
+    /**
+     * 항목은 현재 뷰의 연속 주소 구간 수입니다. 현재 뷰와 파일별로 보관하는 구간 배열,
+     * 덧붙이기 판정용 끝부분 바이트를 포함하며, 감시 스레드와 경로 객체는 제외합니다.
+     * 비어 있는 구간 배열은 모든 파일이 같은 상수를 공유하지만 파일마다 따로 셉니다.
+     */
+    @Override
+    public synchronized MemoryFootprint footprint() {
+        View current = view;
+        int tableLength = Math.max(16, Integer.highestOneBit(Math.max(1, files.size() + files.size() / 3)) << 1);
+        MemoryFootprint.Builder builder = MemoryFootprint.builder(current.getRangeCount(),
+                        7 * MemoryFootprint.REFERENCE + Long.BYTES)
+                .add(current.footprint())
+                // LinkedHashMap 객체와 테이블, 파일마다 Entry와 FileState
+                .objects(1, 4 * MemoryFootprint.REFERENCE + 4 * Integer.BYTES + 1)
+                .bytes(MemoryFootprint.arraySize(MemoryFootprint.REFERENCE, tableLength))
+                .objects(files.size(), Integer.BYTES + 5 * MemoryFootprint.REFERENCE)
+                .objects(files.size(), 5 * MemoryFootprint.REFERENCE + 2 * Long.BYTES + 2 * Integer.BYTES + 1);
+        for (FileState state : files.values()) {
+            builder.array(state.ranges).array(state.appendedRanges).array(state.fingerprint);
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        watcher.interrupt();
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                Set<Path> changed = new HashSet<>();
+                collect(watchService.take(), changed);
+
+                // 이벤트가 debounce 시간 동안 잠잠해질 때까지 모음
+                for (int round = 0; round < MAX_DEBOUNCE_ROUNDS; round++) {
+                    WatchKey next = watchService.poll(debounceNanos, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    collect(next, changed);
+                }
+
+                if (!changed.isEmpty()) {
+                    try {
+                        reload(changed);
+                    } catch (RuntimeException e) {
+                        // 뷰 구성 중의 예상 못 한 실패로 감시가 멈추지 않도록 알리고 계속함
+                        Thread thread = Thread.currentThread();
+                        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // close() 호출로 종료
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changed.addAll(files.keySet());
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context());
+            if (files.containsKey(path)) {
+                changed.add(path);
+            }
+        }
+        key.reset();
+    }
+
+    private synchronized ReloadStats reload(Collection<Path> changed) {
+        long started = System.nanoTime();
+        View current = view;
+
+        long[] ranges = current.ranges;
+        boolean rebuild = false;
+        int appendedFiles = 0;
+        int reparsedFiles = 0;
+        long parsedBytes = 0;
+
+        for (Path path : changed) {
+            FileState state = files.get(path);
+            Change change;
+            try {
+                change = state.refresh(parser);
+            } catch (IOException e) {
+                notifyError(path, e);
+                continue;
+            } catch (RuntimeException e) {
+                // 파서 등의 예상 못 한 실패도 이 파일만 건너뛰고 감시는 계속함
+                notifyError(path, new IOException("Failed to reload " + path, e));
+                continue;
+            }
+
+            if (change == Change.APPENDED) {
+                // 덧붙인 부분만 현재 뷰에 합침
+                ranges = CidrRanges.union(ranges, state.appendedRanges);
+                appendedFiles++;
+            } else if (change == Change.REWRITTEN) {
+                rebuild = true;
+                reparsedFiles++;
+            }
+            parsedBytes += state.parsedBytes;
+        }
+
+        if (rebuild) {
+            // 바뀐 파일은 다시 파싱했고, 나머지는 파일별 구간을 그대로 합침
+            ranges = CidrRanges.EMPTY;
+            for (FileState state : files.values()) {
+                ranges = CidrRanges.union(ranges, state.ranges);
+            }
+        }
+
+        int entryCount = 0;
+        int errorCount = 0;
+        for (FileState state : files.values()) {
+            entryCount += state.entryCount;
+            errorCount += state.errorCount;
+        }
+
+        View next = current;
+        if (appendedFiles > 0 || reparsedFiles > 0 || current.version == 0) {
+            next = new View(current.version + 1, ranges, entryCount);
+            view = next;
+        }
+
+        ReloadStats stats = new ReloadStats(next.version, changed.size(), appendedFiles, reparsedFiles,
+                parsedBytes, System.nanoTime() - started, entryCount, next.getRangeCount(), errorCount);
+        lastReload = stats;
+        if (next != current) {
+            for (Listener listener : listeners) {
+                try {
+                    listener.onReload(next, stats);
+                } catch (RuntimeException e) {
+                    // 리스너 하나의 실패가 다른 리스너나 감시 스레드를 멈추지 않도록 함
+                    notifyError(null, new IOException("Listener failed on version " + next.version, e));
+                }
+            }
+        }
+        return stats;
+    }
+
+    private void notifyError(Path path, IOException error) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onError(path, error);
+            } catch (RuntimeException e) {
+                // 더 전달할 곳이 없으므로 스레드의 예외 처리기에 알리고 계속함
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+
+    private enum Change {
+        UNCHANGED, APPENDED, REWRITTEN
+    }
+
+    /**
+     * 파일 하나의 마지막 파싱 상태.
+     */
+    private static final class FileState {
+        private final Path path;
+
+        private long size;
+        private FileTime modified;
+
+        // 마지막 파싱 시 파일이 줄바꿈으로 끝났는지 (덧붙이기 판정 조건)
+        private boolean complete = true;
+
+        // 파싱한 영역의 마지막 FINGERPRINT_BYTES 바이트
+        private byte[] fingerprint = new byte[0];
+
+        private long[] ranges = CidrRanges.EMPTY;
+        private long[] appendedRanges = CidrRanges.EMPTY;
+        private int entryCount;
+        private int errorCount;
+        private long parsedBytes;
+
+        FileState(Path path) {
+            this.path = path;
+        }
+
+        Change refresh(CidrBulkParser parser) throws IOException {
+            parsedBytes = 0;
+            appendedRanges = CidrRanges.EMPTY;
+
+            FileChannel channel;
+            try {
+                channel = FileChannel.open(path, StandardOpenOption.READ);
+            } catch (NoSuchFileException e) {
+                if (size == 0 && modified == null) {
+                    return Change.UNCHANGED;
+                }
+                reset(0, null, new byte[0]);
+                return Change.REWRITTEN;
+            }
+
+            try (channel) {
+                long newSize = channel.size();
+                FileTime newModified = Files.getLastModifiedTime(path);
+                if (newSize > Integer.MAX_VALUE) {
+                    throw new IOException("File is too large: " + path + " (" + newSize + " bytes)");
+                }
+                if (newSize == size && newModified.equals(modified)) {
+                    return Change.UNCHANGED;
+                }
+
+                if (complete && newSize > size && size > 0 && sameFingerprint(channel)) {
+                    ByteBuffer tail = read(channel, size, newSize);
+                    CidrBulkParser.ParseResult result = parser.parse(tail);
+                    appendedRanges = CidrRanges.fromColumns(result.getColumns());
+                    ranges = CidrRanges.union(ranges, appendedRanges);
+                    entryCount += result.getColumns().size();
+                    errorCount += result.getErrorCount();
+                    parsedBytes = newSize - size;
+                    remember(newSize, newModified, concat(fingerprint, tail.array()));
+                    return Change.APPENDED;
+                }
+
+                ByteBuffer content = read(channel, 0, newSize);
+                CidrBulkParser.ParseResult result = parser.parse(content);
+                ranges = CidrRanges.fromColumns(result.getColumns());
+                entryCount = result.getColumns().size();
+                errorCount = result.getErrorCount();
+                parsedBytes = newSize;
+                remember(newSize, newModified, content.array());
+                return Change.REWRITTEN;
+            }
+        }
+
+        private boolean sameFingerprint(FileChannel channel) throws IOException {
+            ByteBuffer current = read(channel, size - fingerprint.length, size);
+            return Arrays.equals(current.array(), fingerprint);
+        }
+
+        // parsed: 파일 끝에서 끝나는 바이트들
+        private void remember(long newSize, FileTime newModified, byte[] parsed) {
+            byte[] last = Arrays.copyOfRange(parsed, Math.max(0, parsed.length - FINGERPRINT_BYTES), parsed.length);
+            size = newSize;
+            modified = newModified;
+            complete = newSize == 0 || last[last.length - 1] == '\n';
+            fingerprint = last;
+        }
+
+        private static byte[] concat(byte[] head, byte[] tail) {
+            byte[] result = Arrays.copyOf(head, head.length + tail.length);
+            System.arraycopy(tail, 0, result, head.length, tail.length);
+            return result;
+        }
+
+        private void reset(long newSize, FileTime newModified, byte[] last) {
+            size = newSize;
+            modified = newModified;
+            complete = true;
+            fingerprint = last;
+            ranges = CidrRanges.EMPTY;
+            entryCount = 0;
+            errorCount = 0;
+        }
+
+        private static ByteBuffer read(FileChannel channel, long from, long to) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate((int) (to - from));
+            long position = from;
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new IOException("File was truncated while reading");
+                }
+                position += read;
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    /**
+     * 감시 중인 모든 파일의 항목을 합친 불변 주소 집합.
+     */
+    public static final class View implements MemoryAccountable {
+        private final long version;
+        private final long[] ranges;
+        private final int entryCount;
+
+        View(long version, long[] ranges, int entryCount) {
+            this.version = version;
+            this.ranges = ranges;
+            this.entryCount = entryCount;
+        }
+
+        /**
+         * 뷰 버전. 새 뷰가 게시될 때마다 1씩 증가합니다.
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * 주소가 어느 파일의 항목에든 포함되는지 확인합니다.
+         *
+         * @param address IP 주소 (부호 없는 32비트 값)
+         */
+        public boolean contains(int address) {
+            long value = address & 0xFFFFFFFFL;
+            int low = 0;
+            int high = ranges.length / 2 - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (ranges[mid * 2] > value) {
+                    high = mid - 1;
+                } else if (ranges[mid * 2 + 1] <= value) {
+                    low = mid + 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public boolean contains(IpAddress ip) {
+            if (ip == null) {
+                throw new IllegalArgumentException("IP address cannot be null");
+            }
+            return contains(ip.toInt());
+        }
+
+        /**
+         * 합쳐진 주소 집합을 최소 개수의 CIDR 블록으로 반환합니다.
+         */
+        public List<CidrBlock> getBlocks() {
+            return Collections.unmodifiableList(CidrRanges.toBlocks(ranges));
+        }
+
+        /**
+         * 모든 파일에서 읽은 항목 수 (중복 포함).
+         */
+        public int getEntryCount() {
+            return entryCount;
+        }
+
+        /**
+         * 합쳐진 연속 주소 구간 수.
+         */
+        public int getRangeCount() {
+            return ranges.length / 2;
+        }
+
+        /**
+         * 포함된 주소 개수.
+         */
+        public long getAddressCount() {
+            return CidrRanges.addressCount(ranges);
+        }
+
+        /**
+         * 항목은 연속 주소 구간 수입니다.
+         */
+        @Override
+        public MemoryFootprint footprint() {
+            return MemoryFootprint.builder(getRangeCount(), Long.BYTES + MemoryFootprint.REFERENCE + Integer.BYTES)
+                    .array(ranges)
+                    .build();
+        }
+    }
+
+    /**
+     * 다시 읽기 한 번의 통계.
+     */
+    public static final class ReloadStats {
+        private final long version;
+        private final int changedFiles;
+        private final int appendedFiles;
+        private final int reparsedFiles;
+        private final long parsedBytes;
+        private final long latencyNanos;
+        private final int entryCount;
+        private final int rangeCount;
+        private final int errorCount;
+
+        ReloadStats(long version, int changedFiles, int appendedFiles, int reparsedFiles, long parsedBytes,
+                    long latencyNanos, int entryCount, int rangeCount, int errorCount) {
+            this.version = version;
+            this.changedFiles = changedFiles;
+            this.appendedFiles = appendedFiles;
+            this.reparsedFiles = reparsedFiles;
+            this.parsedBytes = parsedBytes;
+            this.latencyNanos = latencyNanos;
+            this.entryCount = entryCount;
+            this.rangeCount = rangeCount;
+            this.errorCount = errorCount;
+        }
+
+        /**
+         * 다시 읽기 후의 뷰 버전.
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * 확인한 파일 수.
+         */
+        public int getChangedFiles() {
+            return changedFiles;
+        }
+
+        /**
+         * 덧붙인 부분만 파싱한 파일 수.
+         */
+        public int getAppendedFiles() {
+            return appendedFiles;
+        }
+
+        /**
+         * 전체를 다시 파싱한 파일 수 (삭제된 파일 포함).
+         */
+        public int getReparsedFiles() {
+            return reparsedFiles;
+        }
+
+        /**
+         * 파싱한 바이트 수.
+         */
+        public long getParsedBytes() {
+            return parsedBytes;
+        }
+
+        /**
+         * 파일 확인부터 뷰 게시까지 걸린 시간 (나노초).
+         */
+        public long getLatencyNanos() {
+            return latencyNanos;
+        }
+
+        /**
+         * 모든 파일의 항목 수.
+         */
+        public int getEntryCount() {
+            return entryCount;
+        }
+
+        /**
+         * 합쳐진 연속 주소 구간 수.
+         */
+        public int getRangeCount() {
+            return rangeCount;
+        }
+
+        /**
+         * 모든 파일의 형식 오류 줄 수.
+         */
+        public int getErrorCount() {
+            return errorCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ReloadStats{version=%d, files=%d (appended=%d, reparsed=%d), bytes=%d, "
+                            + "latency=%.3fms, entries=%d, ranges=%d, errors=%d}",
+                    version, changedFiles, appendedFiles, reparsedFiles, parsedBytes,
+                    latencyNanos / 1_000_000.0, entryCount, rangeCount, errorCount);
+        }
+    }
+
+    /**
+     * 새 뷰 게시와 파일 읽기 오류를 전달받는 콜백.
+     */
+    public interface Listener {
+
+        void onReload(View view, ReloadStats stats);
+
+        /**
+         * 파일을 읽지 못했거나 리스너가 예외를 던졌을 때 호출됩니다.
+         * 리스너 실패는 path가 null이며 원래 예외가 cause에 담깁니다.
+         */
+        default void onError(Path path, IOException error) {
+        }
+    }
+}
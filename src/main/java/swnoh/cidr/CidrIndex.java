@@ -0,0 +1,230 @@
+package swnoh.cidr;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CIDR 블록 목록에 대한 읽기 전용 longest-prefix-match 인덱스.
+ *
+ * 중첩된 블록들을 겹치지 않는 기본 구간(elementary interval)으로 펼쳐서
+ * 구간 시작 주소 배열 하나와 결과 배열 하나에 저장합니다.
+ * 조회는 시작 주소 배열에 대한 이진 탐색 한 번으로 끝납니다.
+ *
+ * 조회 결과는 생성 시 전달한 리스트에서의 블록 인덱스입니다.
+ * 같은 블록이 여러 번 주어지면 먼저 나온 인덱스가 사용됩니다.
+ */
+public class CidrIndex implements CidrLookup, MemoryAccountable {
+
+    private final List<CidrBlock> blocks;
+
+    // 구간 시작 주소 (부호 비트를 뒤집어 signed 비교로 정렬 순서를 유지)
+    private final int[] starts;
+
+    // 각 구간에 해당하는 블록 인덱스 (없으면 NO_MATCH)
+    private final int[] values;
+
+    private CidrIndex(List<CidrBlock> blocks, int[] starts, int[] values) {
+        this.blocks = blocks;
+        this.starts = starts;
+        this.values = values;
+    }
+
+    /**
+     * CIDR 블록 목록으로 인덱스를 생성합니다.
+     *
+     * @param cidrBlocks 인덱싱할 CIDR 블록들
+     * @return 생성된 인덱스
+     */
+    public static CidrIndex of(List<CidrBlock> cidrBlocks) {
+        if (cidrBlocks == null) {
+            throw new IllegalArgumentException("CIDR blocks cannot be null");
+        }
+
+        List<CidrBlock> blocks = List.copyOf(cidrBlocks);
+
+        // 1. (네트워크 주소, prefix, 입력 인덱스) 순으로 정렬
+        //    같은 시작 주소에서는 큰 블록(짧은 prefix)이 먼저 옵니다.
+        long[] keys = CidrKeys.sortedKeys(blocks);
+
+        // 2. 열린 블록 스택을 유지하면서 기본 구간으로 펼침
+        IntervalBuilder builder = new IntervalBuilder(keys.length * 2 + 1);
+        builder.emit(0L, NO_MATCH);
+
+        long[] stackStarts = new long[33];
+        long[] stackEnds = new long[33];
+        int[] stackIds = new int[33];
+        int depth = 0;
+
+        for (long key : keys) {
+            long start = CidrKeys.network(key);
+            long end = CidrKeys.end(key);
+            int id = CidrKeys.index(key);
+
+            while (depth > 0 && stackEnds[depth - 1] < start) {
+                long closedEnd = stackEnds[--depth];
+                builder.emit(closedEnd + 1, depth > 0 ? stackIds[depth - 1] : NO_MATCH);
+            }
+
+            // 동일한 블록이 이미 열려 있으면 먼저 나온 것을 유지
+            if (depth > 0 && stackStarts[depth - 1] == start && stackEnds[depth - 1] == end) {
+                continue;
+            }
+
+            builder.emit(start, id);
+            stackStarts[depth] = start;
+            stackEnds[depth] = end;
+            stackIds[depth] = id;
+            depth++;
+        }
+
+        while (depth > 0) {
+            long closedEnd = stackEnds[--depth];
+            if (closedEnd < 0xFFFFFFFFL) {
+                builder.emit(closedEnd + 1, depth > 0 ? stackIds[depth - 1] : NO_MATCH);
+            }
+        }
+
+        return new CidrIndex(blocks, builder.starts(), builder.values());
+    }
+
+    @Override
+    public int lookup(int address) {
+        return values[find(address ^ Integer.MIN_VALUE, 0, starts.length)];
+    }
+
+    /**
+     * 주어진 IP 주소에 가장 길게 일치하는 블록의 인덱스를 반환합니다.
+     *
+     * @param ip 조회할 IP 주소
+     * @return 블록 인덱스, 없으면 {@link #NO_MATCH}
+     */
+    public int lookup(IpAddress ip) {
+        if (ip == null) {
+            throw new IllegalArgumentException("IP address cannot be null");
+        }
+        return lookup(ip.toInt());
+    }
+
+    /**
+     * 주어진 IP 주소에 가장 길게 일치하는 블록을 반환합니다.
+     *
+     * @param ip 조회할 IP 주소 문자열
+     * @return 일치하는 블록, 없으면 null
+     */
+    public CidrBlock findLongestMatch(String ip) {
+        if (ip == null) {
+            throw new IllegalArgumentException("IP address cannot be null");
+        }
+        int id = lookup(IpAddress.fromString(ip).toInt());
+        return id == NO_MATCH ? null : blocks.get(id);
+    }
+
+    /**
+     * 구간 배열의 [from, to) 범위에서 flipped 주소 이하인 마지막 구간을 찾습니다.
+     * from 위치의 구간은 항상 주소 이하라고 가정합니다.
+     */
+    int find(int flippedAddress, int from, int to) {
+        int low = from;
+        int high = to - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (starts[mid] <= flippedAddress) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 인덱스 번호에 해당하는 블록을 반환합니다.
+     */
+    public CidrBlock get(int id) {
+        return blocks.get(id);
+    }
+
+    /**
+     * 인덱싱된 블록 개수를 반환합니다.
+     */
+    public int size() {
+        return blocks.size();
+    }
+
+    /**
+     * 항목은 블록 수이며, 생성 시 받은 {@link CidrBlock} 객체들을 포함합니다.
+     */
+    @Override
+    public MemoryFootprint footprint() {
+        return MemoryFootprint.builder(blocks.size(), 3 * MemoryFootprint.REFERENCE)
+                .blocks(blocks)
+                .array(starts)
+                .array(values)
+                .build();
+    }
+
+    /**
+     * 펼쳐진 기본 구간의 개수를 반환합니다.
+     */
+    public int intervalCount() {
+        return starts.length;
+    }
+
+    /**
+     * 인덱싱된 블록 목록을 반환합니다. (수정 불가)
+     */
+    public List<CidrBlock> getBlocks() {
+        return blocks;
+    }
+
+    // 구간 시작 주소 배열 (부호 비트가 뒤집힌 값)
+    int[] starts() {
+        return starts;
+    }
+
+    int[] values() {
+        return values;
+    }
+
+    /**
+     * 기본 구간을 차례로 쌓으면서 같은 값의 인접 구간을 합치는 빌더.
+     */
+    private static class IntervalBuilder {
+        private int[] starts;
+        private int[] values;
+        private int size;
+
+        IntervalBuilder(int capacity) {
+            this.starts = new int[capacity];
+            this.values = new int[capacity];
+        }
+
+        void emit(long start, int value) {
+            int flipped = (int) start ^ Integer.MIN_VALUE;
+
+            // 같은 시작 주소면 덮어씀
+            if (size > 0 && starts[size - 1] == flipped) {
+                size--;
+            }
+            // 직전 구간과 값이 같으면 합침
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            starts[size] = flipped;
+            values[size] = value;
+            size++;
+        }
+
+        int[] starts() {
+            return Arrays.copyOf(starts, size);
+        }
+
+        int[] values() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package swnoh.cidr;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * CIDR 블록 목록에 대한 읽기 전용 포함/교차 질의 인덱스.
+ *
+ * CIDR 블록은 서로 겹치면 반드시 한쪽이 다른 쪽을 포함하므로, 시작 주소 순으로
+ * 정렬한 배열에 각 블록을 직접 감싸는 블록(부모)의 위치만 기록하면
+ * 중첩 구조 전체가 표현됩니다 (nested-interval layout).
+ *
+ * <ul>
+ *   <li>주소를 포함하는 모든 블록: 이진 탐색 후 부모를 따라 올라감 - O(log n + k)</li>
+ *   <li>범위와 겹치는 모든 블록: 시작 주소를 포함하는 블록 + 범위 안에서 시작하는 연속 구간 - O(log n + k)</li>
+ * </ul>
+ *
+ * 결과는 생성 시 전달한 리스트에서의 블록 인덱스이며 {@link IntConsumer}로 전달되므로
+ * 질의 중에 객체를 할당하지 않습니다. 같은 블록이 여러 번 주어지면 모두 보고됩니다.
+ */
+public class CidrIntervalIndex implements MemoryAccountable {
+
+    private static final int NO_PARENT = -1;
+
+    private final List<CidrBlock> blocks;
+
+    // 정렬된 블록의 시작/마지막 주소 (부호 비트를 뒤집은 값)
+    private final int[] starts;
+    private final int[] ends;
+
+    // 직접 감싸는 블록의 정렬 위치 (없으면 NO_PARENT)
+    private final int[] parents;
+
+    // 정렬 위치 → 입력 인덱스
+    private final int[] ids;
+
+    private CidrIntervalIndex(List<CidrBlock> blocks, int[] starts, int[] ends, int[] parents, int[] ids) {
+        this.blocks = blocks;
+        this.starts = starts;
+        this.ends = ends;
+        this.parents = parents;
+        this.ids = ids;
+    }
+
+    /**
+     * CIDR 블록 목록으로 인덱스를 생성합니다.
+     *
+     * @param cidrBlocks 인덱싱할 CIDR 블록들
+     * @return 생성된 인덱스
+     */
+    public static CidrIntervalIndex of(List<CidrBlock> cidrBlocks) {
+        if (cidrBlocks == null) {
+            throw new IllegalArgumentException("CIDR blocks cannot be null");
+        }
+
+        List<CidrBlock> blocks = List.copyOf(cidrBlocks);
+
+        // (네트워크 주소, prefix, 입력 인덱스) 순 정렬: 감싸는 블록이 항상 먼저 옵니다.
+        long[] keys = CidrKeys.sortedKeys(blocks);
+        int n = keys.length;
+        int[] starts = new int[n];
+        int[] ends = new int[n];
+        int[] parents = new int[n];
+        int[] ids = new int[n];
+
+        // 열린 블록 스택의 맨 위가 다음 블록의 부모 후보
+        int[] stack = new int[n];
+        int depth = 0;
+        for (int i = 0; i < n; i++) {
+            long start = CidrKeys.network(keys[i]);
+            long end = CidrKeys.end(keys[i]);
+            starts[i] = (int) start ^ Integer.MIN_VALUE;
+            ends[i] = (int) end ^ Integer.MIN_VALUE;
+            ids[i] = CidrKeys.index(keys[i]);
+
+            while (depth > 0 && ends[stack[depth - 1]] < starts[i]) {
+                depth--;
+            }
+            parents[i] = depth > 0 ? stack[depth - 1] : NO_PARENT;
+            stack[depth++] = i;
+        }
+
+        return new CidrIntervalIndex(blocks, starts, ends, parents, ids);
+    }
+
+    /**
+     * 주소를 포함하는 모든 블록의 인덱스를 가장 작은 블록부터 차례로 전달합니다.
+     *
+     * @param address  IP 주소 (부호 없는 32비트 값)
+     * @param consumer 블록 인덱스를 받을 콜백
+     */
+    public void forEachContaining(int address, IntConsumer consumer) {
+        int flipped = address ^ Integer.MIN_VALUE;
+        int i = lastStartAtOrBefore(flipped);
+
+        // 시작 주소가 주소 이하인 마지막 블록은 주소를 포함하는 가장 깊은 블록이거나
+        // 그 자손이므로, 부모를 따라 올라가면 포함하는 블록을 만납니다.
+        while (i != NO_PARENT && ends[i] < flipped) {
+            i = parents[i];
+        }
+        for (; i != NO_PARENT; i = parents[i]) {
+            consumer.accept(ids[i]);
+        }
+    }
+
+    /**
+     * 주소를 포함하는 모든 블록의 인덱스를 가장 작은 블록부터 차례로 전달합니다.
+     *
+     * @param ip       조회할 IP 주소
+     * @param consumer 블록 인덱스를 받을 콜백
+     */
+    public void forEachContaining(IpAddress ip, IntConsumer consumer) {
+        if (ip == null) {
+            throw new IllegalArgumentException("IP address cannot be null");
+        }
+        forEachContaining(ip.toInt(), consumer);
+    }
+
+    /**
+     * [first, last] 범위와 겹치는 모든 블록의 인덱스를 전달합니다.
+     *
+     * first를 포함하는 블록들(작은 블록부터)이 먼저 오고,
+     * 이어서 범위 안에서 시작하는 블록들이 시작 주소 순으로 옵니다.
+     *
+     * @param first    범위의 첫 주소 (부호 없는 32비트 값)
+     * @param last     범위의 마지막 주소 (부호 없는 32비트 값, 포함)
+     * @param consumer 블록 인덱스를 받을 콜백
+     */
+    public void forEachIntersecting(int first, int last, IntConsumer consumer) {
+        int flippedFirst = first ^ Integer.MIN_VALUE;
+        int flippedLast = last ^ Integer.MIN_VALUE;
+        if (flippedFirst > flippedLast) {
+            throw new IllegalArgumentException("Range start must not be greater than range end");
+        }
+
+        forEachContaining(first, consumer);
+        for (int i = lastStartAtOrBefore(flippedFirst) + 1; i < starts.length && starts[i] <= flippedLast; i++) {
+            consumer.accept(ids[i]);
+        }
+    }
+
+    /**
+     * 주어진 블록과 겹치는 모든 블록의 인덱스를 전달합니다.
+     *
+     * @param cidrBlock 질의 범위
+     * @param consumer  블록 인덱스를 받을 콜백
+     */
+    public void forEachIntersecting(CidrBlock cidrBlock, IntConsumer consumer) {
+        if (cidrBlock == null) {
+            throw new IllegalArgumentException("CIDR block cannot be null");
+        }
+        long network = cidrBlock.getNetworkAddress();
+        forEachIntersecting((int) network, (int) lastAddress(network, cidrBlock.getPrefixLength()), consumer);
+    }
+
+    /**
+     * 주어진 블록 안에 완전히 들어가는 모든 블록의 인덱스를 시작 주소 순으로 전달합니다.
+     * 주어진 블록과 같은 블록도 포함됩니다.
+     *
+     * @param cidrBlock 질의 범위
+     * @param consumer  블록 인덱스를 받을 콜백
+     */
+    public void forEachWithin(CidrBlock cidrBlock, IntConsumer consumer) {
+        if (cidrBlock == null) {
+            throw new IllegalArgumentException("CIDR block cannot be null");
+        }
+        long network = cidrBlock.getNetworkAddress();
+        int flippedFirst = (int) network ^ Integer.MIN_VALUE;
+        int flippedLast = (int) lastAddress(network, cidrBlock.getPrefixLength()) ^ Integer.MIN_VALUE;
+
+        // 범위 안에서 시작하는 블록은 질의 블록 안에 있거나 질의 블록을 감쌉니다.
+        // 감싸는 블록은 같은 시작 주소에서 더 짧은 prefix이므로 맨 앞 몇 개뿐입니다.
+        for (int i = firstStartAtOrAfter(flippedFirst); i < starts.length && starts[i] <= flippedLast; i++) {
+            if (ends[i] <= flippedLast) {
+                consumer.accept(ids[i]);
+            }
+        }
+    }
+
+    /**
+     * 인덱스 번호에 해당하는 블록을 반환합니다.
+     */
+    public CidrBlock get(int id) {
+        return blocks.get(id);
+    }
+
+    /**
+     * 인덱싱된 블록 개수를 반환합니다.
+     */
+    public int size() {
+        return blocks.size();
+    }
+
+    /**
+     * 항목은 블록 수이며, 생성 시 받은 {@link CidrBlock} 객체들과 정렬 배열 네 개를 포함합니다.
+     */
+    @Override
+    public MemoryFootprint footprint() {
+        return MemoryFootprint.builder(blocks.size(), 5 * MemoryFootprint.REFERENCE)
+                .blocks(blocks)
+                .array(starts)
+                .array(ends)
+                .array(parents)
+                .array(ids)
+                .build();
+    }
+
+    // 시작 주소가 flipped 이하인 마지막 정렬 위치 (없으면 -1)
+    private int lastStartAtOrBefore(int flipped) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= flipped) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
+    // 시작 주소가 flipped 이상인 첫 정렬 위치
+    private int firstStartAtOrAfter(int flipped) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < flipped) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long lastAddress(long network, int prefixLength) {
+        return network | (0xFFFFFFFFL >>> prefixLength);
+    }
+}
@@ -0,0 +1,60 @@
+package swnoh.cidr;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CIDR 블록을 정렬 가능한 long 키로 묶는 내부 유틸리티.
+ *
+ * 키 구성 (상위 비트부터): 네트워크 주소 32비트 | prefix length 6비트 | 입력 인덱스 26비트.
+ * 부호 비트를 뒤집어 저장하므로 {@link Arrays#sort(long[])}의 결과가
+ * (네트워크 주소 오름차순, prefix 오름차순, 입력 인덱스 오름차순)이 됩니다.
+ */
+final class CidrKeys {
+
+    static final int INDEX_BITS = 26;
+
+    static final int MAX_BLOCKS = 1 << INDEX_BITS;
+
+    private CidrKeys() {
+    }
+
+    /**
+     * 블록 목록을 키 배열로 변환해 정렬합니다.
+     */
+    static long[] sortedKeys(List<CidrBlock> blocks) {
+        if (blocks.size() >= MAX_BLOCKS) {
+            throw new IllegalArgumentException("Too many CIDR blocks: " + blocks.size());
+        }
+        long[] keys = new long[blocks.size()];
+        for (int i = 0; i < keys.length; i++) {
+            CidrBlock block = blocks.get(i);
+            keys[i] = pack(block.getNetworkAddress(), block.getPrefixLength(), i);
+        }
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    static long pack(long networkAddress, int prefixLength, int index) {
+        return ((networkAddress << 32) | ((long) prefixLength << INDEX_BITS) | index) ^ Long.MIN_VALUE;
+    }
+
+    static long network(long key) {
+        return (key ^ Long.MIN_VALUE) >>> 32;
+    }
+
+    static int prefixLength(long key) {
+        return (int) (key >>> INDEX_BITS) & 0x3F;
+    }
+
+    static int index(long key) {
+        return (int) key & (MAX_BLOCKS - 1);
+    }
+
+    /**
+     * 블록의 마지막 주소를 반환합니다.
+     */
+    static long end(long key) {
+        return network(key) + (1L << (32 - prefixLength(key))) - 1;
+    }
+}
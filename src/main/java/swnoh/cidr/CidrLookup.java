@@ -0,0 +1,35 @@
+package swnoh.cidr;
+
+/**
+ * 32비트 IP 주소로 CIDR 규칙을 조회하는 구조의 공통 인터페이스.
+ *
+ * 주소는 부호 없는 32비트 값을 int에 담아 전달합니다. (예: {@link IpAddress#toInt()})
+ */
+public interface CidrLookup {
+
+    /**
+     * 일치하는 규칙이 없을 때 반환되는 값.
+     */
+    int NO_MATCH = -1;
+
+    /**
+     * 주어진 주소에 일치하는 규칙 번호를 반환합니다.
+     *
+     * @param address 조회할 IP 주소 (int)
+     * @return 일치하는 규칙 번호, 없으면 {@link #NO_MATCH}
+     */
+    int lookup(int address);
+
+    /**
+     * 여러 주소를 한 번에 조회합니다.
+     *
+     * @param addresses 조회할 IP 주소 배열
+     * @param results 결과를 기록할 배열
+     * @param count 조회할 주소 개수
+     */
+    default void lookupAll(int[] addresses, int[] results, int count) {
+        for (int i = 0; i < count; i++) {
+            results[i] = lookup(addresses[i]);
+        }
+    }
+}
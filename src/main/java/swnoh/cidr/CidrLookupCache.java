@@ -0,0 +1,298 @@
+package swnoh.cidr;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 다른 {@link CidrLookup} 앞에 두는 스레드별 최근 조회 캐시.
+ *
+ * 스레드마다 고정 크기의 2-way set-associative 캐시를 long 배열 하나로 둡니다.
+ * 각 항목은 (주소 &lt;&lt; 32 | 결과 + 2) 형태이며, 0은 빈 칸을 뜻합니다.
+ * 세트 안에서는 최근에 채운 항목을 앞쪽 칸에 두고, 밀려난 항목이 뒤쪽 칸으로 갑니다.
+ *
+ * 규칙이 바뀌면 {@link #invalidate()}로 세대(epoch)를 올립니다.
+ * 각 스레드는 다음 조회 때 세대가 바뀐 것을 보고 자기 캐시를 비웁니다.
+ *
+ * 적중/부재 횟수는 스레드별 카운터에 일반 long으로 세고, 통계를 읽을 때 모든 스레드의 값을 더합니다.
+ * 조회 경로에서 공유 카운터를 갱신하지 않는 대신, 다른 스레드의 최근 조회는 조금 늦게 반영될 수 있습니다.
+ * 캐시 항목 배열은 {@link ThreadLocal}만 가지고 있으므로 스레드가 끝나면 함께 사라집니다.
+ * 카운터 목록에는 소유 스레드를 약한 참조로 두고, 끝난 스레드의 카운터는 통계를 읽거나
+ * 새 스레드가 등록될 때 누적 합계에 더한 뒤 목록에서 뺍니다. 따라서 스레드가 계속 바뀌어도
+ * 목록과 메모리는 살아 있는 스레드 수에 비례합니다.
+ */
+public class CidrLookupCache implements CidrLookup, MemoryAccountable {
+
+    /**
+     * 기본 스레드별 캐시 항목 수.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final int WAYS = 2;
+
+    private static final int MIN_REAP_THRESHOLD = 16;
+
+    private final CidrLookup delegate;
+
+    // 세트 번호 마스크 (세트 수 - 1)
+    private final int setMask;
+
+    private final int capacity;
+
+    private final ThreadLocal<Slots> slots;
+
+    // 살아 있을 수 있는 스레드의 카운터 (this로 보호)
+    private final List<Counters> registry = new ArrayList<>();
+
+    // 등록 시 이 크기에 이르면 끝난 스레드의 카운터를 정리 (this로 보호)
+    private int reapThreshold = MIN_REAP_THRESHOLD;
+
+    // 정리한 스레드들의 마지막 resetStats() 이후 횟수 (this로 보호)
+    private long retiredHits;
+    private long retiredMisses;
+
+    private volatile int epoch;
+
+    private CidrLookupCache(CidrLookup delegate, int capacity) {
+        this.delegate = delegate;
+        this.capacity = capacity;
+        this.setMask = capacity / WAYS - 1;
+        this.slots = ThreadLocal.withInitial(() -> new Slots(capacity, epoch, register()));
+    }
+
+    /**
+     * 기본 크기의 캐시로 조회 구조를 감쌉니다.
+     *
+     * @param delegate 실제 조회 구조
+     * @return 캐시가 붙은 조회 구조
+     */
+    public static CidrLookupCache of(CidrLookup delegate) {
+        return of(delegate, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 주어진 크기의 캐시로 조회 구조를 감쌉니다.
+     *
+     * @param delegate 실제 조회 구조
+     * @param capacity 스레드별 캐시 항목 수 (2 이상의 2의 거듭제곱)
+     * @return 캐시가 붙은 조회 구조
+     */
+    public static CidrLookupCache of(CidrLookup delegate, int capacity) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate lookup cannot be null");
+        }
+        if (capacity < WAYS || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two >= 2: " + capacity);
+        }
+        return new CidrLookupCache(delegate, capacity);
+    }
+
+    @Override
+    public int lookup(int address) {
+        return lookup(address, currentSlots());
+    }
+
+    @Override
+    public void lookupAll(int[] addresses, int[] results, int count) {
+        Slots current = currentSlots();
+        for (int i = 0; i < count; i++) {
+            results[i] = lookup(addresses[i], current);
+        }
+    }
+
+    private int lookup(int address, Slots current) {
+        long[] entries = current.entries;
+        int hash = address * 0x9E3779B9;
+        int set = ((hash ^ (hash >>> 16)) & setMask) * WAYS;
+        long tag = (long) address << 32;
+
+        long first = entries[set];
+        if ((first & 0xFFFFFFFF00000000L) == tag && first != 0) {
+            current.counters.hits++;
+            return (int) first - 2;
+        }
+        long second = entries[set + 1];
+        if ((second & 0xFFFFFFFF00000000L) == tag && second != 0) {
+            // 최근에 쓴 항목을 앞 칸으로
+            entries[set] = second;
+            entries[set + 1] = first;
+            current.counters.hits++;
+            return (int) second - 2;
+        }
+
+        current.counters.misses++;
+        int value = delegate.lookup(address);
+        entries[set + 1] = first;
+        entries[set] = tag | ((value + 2) & 0xFFFFFFFFL);
+        return value;
+    }
+
+    private Slots currentSlots() {
+        Slots current = slots.get();
+        int currentEpoch = epoch;
+        if (current.epoch != currentEpoch) {
+            Arrays.fill(current.entries, 0L);
+            current.epoch = currentEpoch;
+        }
+        return current;
+    }
+
+    /**
+     * 모든 스레드의 캐시를 무효화합니다. 감싼 조회 구조의 규칙이 바뀐 뒤 호출합니다.
+     */
+    public void invalidate() {
+        synchronized (this) {
+            epoch++;
+        }
+    }
+
+    /**
+     * 감싼 조회 구조를 반환합니다.
+     */
+    public CidrLookup getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 스레드별 캐시 항목 수를 반환합니다.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 누적 캐시 적중 수를 반환합니다.
+     */
+    public synchronized long getHitCount() {
+        reap();
+        long sum = retiredHits;
+        for (Counters counters : registry) {
+            sum += counters.hits - counters.hitsAtReset;
+        }
+        return sum;
+    }
+
+    /**
+     * 누적 캐시 부재 수를 반환합니다.
+     */
+    public synchronized long getMissCount() {
+        reap();
+        long sum = retiredMisses;
+        for (Counters counters : registry) {
+            sum += counters.misses - counters.missesAtReset;
+        }
+        return sum;
+    }
+
+    /**
+     * 누적 적중률(0.0 ~ 1.0)을 반환합니다. 조회가 없었으면 0.0입니다.
+     */
+    public double getHitRate() {
+        long hitCount = getHitCount();
+        long total = hitCount + getMissCount();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    /**
+     * 적중/부재 카운터를 0으로 되돌립니다.
+     * 카운터는 각 스레드만 쓰므로, 지우는 대신 현재 값을 기준점으로 기록합니다.
+     */
+    public synchronized void resetStats() {
+        reap();
+        retiredHits = 0;
+        retiredMisses = 0;
+        for (Counters counters : registry) {
+            counters.hitsAtReset = counters.hits;
+            counters.missesAtReset = counters.misses;
+        }
+    }
+
+    /**
+     * 카운터를 등록한 스레드 중 아직 정리되지 않은 수를 반환합니다.
+     */
+    synchronized int registeredThreadCount() {
+        return registry.size();
+    }
+
+    /**
+     * 항목은 살아 있는 스레드별 캐시의 칸 수입니다. 끝난 스레드는 정리한 뒤 계산합니다.
+     * 감싼 조회 구조가 {@link MemoryAccountable}이면 그 크기도 포함합니다.
+     */
+    @Override
+    public synchronized MemoryFootprint footprint() {
+        reap();
+        int threads = registry.size();
+        MemoryFootprint.Builder builder = MemoryFootprint.builder((long) threads * capacity,
+                        3 * MemoryFootprint.REFERENCE + 4 * Integer.BYTES + 2 * Long.BYTES)
+                // ThreadLocal, ArrayList와 그 배열
+                .objects(1, MemoryFootprint.REFERENCE + Integer.BYTES)
+                .objects(1, MemoryFootprint.REFERENCE + 2 * Integer.BYTES)
+                .bytes(MemoryFootprint.arraySize(MemoryFootprint.REFERENCE, threads))
+                // 스레드마다 Slots, Counters, 소유 스레드 약한 참조와 항목 배열
+                .objects(threads, 2 * MemoryFootprint.REFERENCE + Integer.BYTES)
+                .objects(threads, MemoryFootprint.REFERENCE + 4 * Long.BYTES)
+                .objects(threads, 4 * MemoryFootprint.REFERENCE)
+                .bytes(threads * MemoryFootprint.arraySize(Long.BYTES, capacity));
+        if (delegate instanceof MemoryAccountable) {
+            builder.add(((MemoryAccountable) delegate).footprint());
+        }
+        return builder.build();
+    }
+
+    private synchronized Counters register() {
+        if (registry.size() >= reapThreshold) {
+            reap();
+            // 살아 있는 스레드가 많으면 기준을 늘려 등록마다 전체를 훑지 않도록 함
+            reapThreshold = Math.max(MIN_REAP_THRESHOLD, registry.size() * 2);
+        }
+        Counters counters = new Counters(Thread.currentThread());
+        registry.add(counters);
+        return counters;
+    }
+
+    /**
+     * 끝난 스레드의 카운터를 누적 합계에 더하고 목록에서 뺍니다.
+     * 스레드 종료는 isAlive()가 false를 반환하는 것보다 먼저 일어나므로 마지막 값을 볼 수 있습니다.
+     */
+    private void reap() {
+        for (Iterator<Counters> it = registry.iterator(); it.hasNext(); ) {
+            Counters counters = it.next();
+            Thread owner = counters.owner.get();
+            if (owner == null || !owner.isAlive()) {
+                retiredHits += counters.hits - counters.hitsAtReset;
+                retiredMisses += counters.misses - counters.missesAtReset;
+                it.remove();
+            }
+        }
+    }
+
+    private static final class Slots {
+        final long[] entries;
+        int epoch;
+        final Counters counters;
+
+        Slots(int capacity, int epoch, Counters counters) {
+            this.entries = new long[capacity];
+            this.epoch = epoch;
+            this.counters = counters;
+        }
+    }
+
+    private static final class Counters {
+        final WeakReference<Thread> owner;
+
+        // 소유 스레드만 증가시킴
+        long hits;
+        long misses;
+
+        // resetStats() 시점의 값 (resetStats()만 씀)
+        long hitsAtReset;
+        long missesAtReset;
+
+        Counters(Thread owner) {
+            this.owner = new WeakReference<>(owner);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package swnoh.cidr;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 대량의 CIDR 블록에서 포함/겹침 관계를 찾는 sweep-line 분석기.
+ *
+ * CIDR 블록 두 개는 서로 떨어져 있거나 한쪽이 다른 쪽을 완전히 포함합니다.
+ * 따라서 블록들을 (네트워크 주소, prefix) 순으로 정렬한 뒤 열린 블록 스택을 유지하며 한 번 훑으면
+ * 모든 포함 관계를 O(n log n + k)에 찾을 수 있습니다. (k: 보고되는 포함 쌍의 수)
+ *
+ * 결과는 {@link Listener}로 즉시 전달되며, 분석기가 사용하는 메모리는 k와 무관하게 O(n)입니다.
+ * 모든 인덱스는 입력 리스트에서의 위치입니다.
+ */
+public class CidrOverlapAnalyzer {
+
+    // 중첩 깊이는 /0 ~ /32로 최대 33이지만, 동일한 블록이 반복되면 더 깊어질 수 있어 필요 시 확장합니다.
+    private static final int INITIAL_STACK = 33;
+
+    private CidrOverlapAnalyzer() {
+    }
+
+    /**
+     * 분석 결과를 전달받는 콜백.
+     *
+     * 콜백에 전달되는 배열은 분석기 내부 버퍼이므로 호출이 끝난 뒤에는 보관하지 마세요.
+     */
+    public interface Listener {
+
+        /**
+         * 다른 블록에 포함된 블록을 발견했을 때 호출됩니다.
+         *
+         * @param innerIndex 포함된 블록의 인덱스
+         * @param ancestors 포함하는 블록들의 인덱스 (가장 바깥 블록부터)
+         * @param depth ancestors에서 유효한 개수
+         */
+        void onContained(int innerIndex, int[] ancestors, int depth);
+
+        /**
+         * 서로 겹치는 블록 그룹(최상위 블록 하나와 그 안의 모든 블록)이 끝났을 때 호출됩니다.
+         * 다른 블록과 겹치지 않는 단독 블록에 대해서는 호출되지 않습니다.
+         *
+         * @param members 그룹에 속한 블록 인덱스들 (주소 순, 첫 번째가 최상위 블록)
+         * @param from members에서 그룹이 시작하는 위치
+         * @param to members에서 그룹이 끝나는 위치 (exclusive)
+         */
+        default void onGroup(int[] members, int from, int to) {
+        }
+    }
+
+    /**
+     * 블록 목록을 분석하고 결과를 리스너로 전달합니다.
+     *
+     * @param cidrBlocks 분석할 CIDR 블록들
+     * @param listener 결과를 받을 리스너
+     * @return 분석 요약
+     */
+    public static Summary analyze(List<CidrBlock> cidrBlocks, Listener listener) {
+        if (cidrBlocks == null) {
+            throw new IllegalArgumentException("CIDR blocks cannot be null");
+        }
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+
+        long[] keys = CidrKeys.sortedKeys(cidrBlocks);
+
+        // 주소 순으로 정렬된 입력 인덱스 (그룹 콜백에 그대로 노출)
+        int[] ordered = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            ordered[i] = CidrKeys.index(keys[i]);
+        }
+
+        long[] stackEnds = new long[INITIAL_STACK];
+        int[] stackIds = new int[INITIAL_STACK];
+        // 스택 각 깊이까지의 가장 작은 입력 인덱스 (shadowing 판정용)
+        int[] stackMinIds = new int[INITIAL_STACK];
+        int depth = 0;
+
+        long containmentPairs = 0;
+        int containedCount = 0;
+        int shadowedCount = 0;
+        int groupCount = 0;
+        int maxDepth = 0;
+
+        int groupStart = 0;
+
+        for (int i = 0; i < keys.length; i++) {
+            long start = CidrKeys.network(keys[i]);
+            long end = CidrKeys.end(keys[i]);
+            int id = ordered[i];
+
+            while (depth > 0 && stackEnds[depth - 1] < start) {
+                depth--;
+            }
+
+            if (depth == 0) {
+                if (i - groupStart > 1) {
+                    listener.onGroup(ordered, groupStart, i);
+                    groupCount++;
+                }
+                groupStart = i;
+            } else {
+                listener.onContained(id, stackIds, depth);
+                containmentPairs += depth;
+                containedCount++;
+                if (stackMinIds[depth - 1] < id) {
+                    shadowedCount++;
+                }
+            }
+
+            if (depth == stackIds.length) {
+                stackEnds = Arrays.copyOf(stackEnds, depth * 2);
+                stackIds = Arrays.copyOf(stackIds, depth * 2);
+                stackMinIds = Arrays.copyOf(stackMinIds, depth * 2);
+            }
+            stackEnds[depth] = end;
+            stackIds[depth] = id;
+            stackMinIds[depth] = depth > 0 ? Math.min(stackMinIds[depth - 1], id) : id;
+            depth++;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+
+        if (keys.length - groupStart > 1) {
+            listener.onGroup(ordered, groupStart, keys.length);
+            groupCount++;
+        }
+
+        return new Summary(keys.length, containmentPairs, containedCount, shadowedCount, groupCount, maxDepth);
+    }
+
+    /**
+     * 분석 요약 정보.
+     */
+    public static class Summary {
+        private final int blockCount;
+        private final long containmentPairs;
+        private final int containedCount;
+        private final int shadowedCount;
+        private final int groupCount;
+        private final int maxDepth;
+
+        Summary(int blockCount, long containmentPairs, int containedCount, int shadowedCount,
+                int groupCount, int maxDepth) {
+            this.blockCount = blockCount;
+            this.containmentPairs = containmentPairs;
+            this.containedCount = containedCount;
+            this.shadowedCount = shadowedCount;
+            this.groupCount = groupCount;
+            this.maxDepth = maxDepth;
+        }
+
+        /**
+         * 분석한 블록 개수.
+         */
+        public int getBlockCount() {
+            return blockCount;
+        }
+
+        /**
+         * (포함하는 블록, 포함된 블록) 쌍의 총 개수.
+         */
+        public long getContainmentPairs() {
+            return containmentPairs;
+        }
+
+        /**
+         * 다른 블록에 포함된 블록의 개수.
+         */
+        public int getContainedCount() {
+            return containedCount;
+        }
+
+        /**
+         * 입력 순서상 앞선 블록에 포함되어 적용될 수 없는(shadowed) 블록의 개수.
+         * 첫 번째로 일치하는 규칙이 적용되는 방화벽 규칙 목록을 기준으로 합니다.
+         */
+        public int getShadowedCount() {
+            return shadowedCount;
+        }
+
+        /**
+         * 두 개 이상의 블록으로 이루어진 겹침 그룹의 개수.
+         */
+        public int getGroupCount() {
+            return groupCount;
+        }
+
+        /**
+         * 가장 깊은 포함 체인의 길이 (단독 블록은 1).
+         */
+        public int getMaxDepth() {
+            return maxDepth;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("blocks=%d, containmentPairs=%d, contained=%d, shadowed=%d, groups=%d, maxDepth=%d",
+                    blockCount, containmentPairs, containedCount, shadowedCount, groupCount, maxDepth);
+        }
+    }
+}
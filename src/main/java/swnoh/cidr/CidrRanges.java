@@ -0,0 +1,191 @@
+package swnoh.cidr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 주소 집합을 정렬된 구간 배열로 다루는 내부 유틸리티.
+ *
+ * 구간 배열은 [start0, end0, start1, end1, ...] 형태의 long 배열이며,
+ * end는 포함하지 않는 값(exclusive, 최대 2^32)입니다.
+ * 구간들은 정렬되어 있고 서로 겹치거나 맞닿지 않습니다.
+ */
+final class CidrRanges {
+
+    static final long[] EMPTY = new long[0];
+
+    private static final long ADDRESS_SPACE = 1L << 32;
+
+    private CidrRanges() {
+    }
+
+    /**
+     * CIDR 블록 목록을 합쳐진 구간 배열로 변환합니다.
+     */
+    static long[] fromBlocks(List<CidrBlock> blocks) {
+        return fromSortedKeys(CidrKeys.sortedKeys(blocks), blocks.size());
+    }
+
+    /**
+     * 컬럼 저장소의 항목들을 합쳐진 구간 배열로 변환합니다. 호스트 비트는 무시합니다.
+     */
+    static long[] fromColumns(CidrColumns columns) {
+        long[] keys = new long[columns.size()];
+        for (int i = 0; i < keys.length; i++) {
+            int prefixLength = columns.getPrefixLength(i);
+            long mask = (0xFFFFFFFFL << (32 - prefixLength)) & 0xFFFFFFFFL;
+            keys[i] = CidrKeys.pack((columns.getAddress(i) & 0xFFFFFFFFL) & mask, prefixLength, 0);
+        }
+        Arrays.sort(keys);
+        return fromSortedKeys(keys, keys.length);
+    }
+
+    /**
+     * {@link CidrKeys} 순으로 정렬된 키 배열의 앞 count개를 구간 배열로 변환합니다.
+     */
+    static long[] fromSortedKeys(long[] keys, int count) {
+        Builder builder = new Builder(Math.max(2, count * 2));
+        for (int i = 0; i < count; i++) {
+            long start = CidrKeys.network(keys[i]);
+            builder.add(start, CidrKeys.end(keys[i]) + 1);
+        }
+        return builder.toArray();
+    }
+
+    /**
+     * 구간 배열을 최소 개수의 CIDR 블록 목록으로 변환합니다.
+     */
+    static List<CidrBlock> toBlocks(long[] ranges) {
+        List<CidrBlock> result = new ArrayList<>();
+        forEachBlock(ranges, (network, prefixLength) -> result.add(CidrBlock.of(network, prefixLength)));
+        return result;
+    }
+
+    /**
+     * 구간 배열을 최소 개수의 CIDR 블록으로 나누어 컬럼 저장소에 담습니다.
+     */
+    static CidrColumns toColumns(long[] ranges) {
+        CidrColumns columns = new CidrColumns(ranges.length);
+        forEachBlock(ranges, (network, prefixLength) -> columns.add((int) network, prefixLength));
+        return columns;
+    }
+
+    /**
+     * 구간 배열을 최소 개수의 CIDR 블록으로 나누어 순서대로 전달합니다.
+     */
+    static void forEachBlock(long[] ranges, BlockVisitor visitor) {
+        for (int i = 0; i < ranges.length; i += 2) {
+            forEachBlock(ranges[i], ranges[i + 1], visitor);
+        }
+    }
+
+    /**
+     * [start, end) 구간을 최소 개수의 CIDR 블록으로 나누어 순서대로 전달합니다.
+     */
+    static void forEachBlock(long start, long end, BlockVisitor visitor) {
+        while (start < end) {
+            // start에 정렬된 가장 큰 블록에서 시작해 구간을 넘지 않을 때까지 줄임
+            long size = start == 0 ? ADDRESS_SPACE : Long.lowestOneBit(start);
+            while (start + size > end) {
+                size >>>= 1;
+            }
+            visitor.visit(start, 32 - Long.numberOfTrailingZeros(size));
+            start += size;
+        }
+    }
+
+    /**
+     * 구간 배열이 포함하는 주소 개수를 반환합니다.
+     */
+    static long addressCount(long[] ranges) {
+        long count = 0;
+        for (int i = 0; i < ranges.length; i += 2) {
+            count += ranges[i + 1] - ranges[i];
+        }
+        return count;
+    }
+
+    /**
+     * a에서 b를 뺀 구간 배열을 반환합니다. O(n + m)
+     */
+    static long[] subtract(long[] a, long[] b) {
+        Builder builder = new Builder(a.length + b.length);
+        int j = 0;
+        for (int i = 0; i < a.length; i += 2) {
+            long start = a[i];
+            long end = a[i + 1];
+
+            // 현재 구간보다 앞에 끝나는 b 구간은 건너뜀
+            while (j < b.length && b[j + 1] <= start) {
+                j += 2;
+            }
+            int k = j;
+            while (k < b.length && b[k] < end) {
+                if (b[k] > start) {
+                    builder.add(start, b[k]);
+                }
+                start = Math.max(start, b[k + 1]);
+                k += 2;
+            }
+            if (start < end) {
+                builder.add(start, end);
+            }
+        }
+        return builder.toArray();
+    }
+
+    /**
+     * a와 b의 합집합 구간 배열을 반환합니다. O(n + m)
+     */
+    static long[] union(long[] a, long[] b) {
+        Builder builder = new Builder(a.length + b.length);
+        int i = 0;
+        int j = 0;
+        while (i < a.length || j < b.length) {
+            if (j >= b.length || (i < a.length && a[i] <= b[j])) {
+                builder.add(a[i], a[i + 1]);
+                i += 2;
+            } else {
+                builder.add(b[j], b[j + 1]);
+                j += 2;
+            }
+        }
+        return builder.toArray();
+    }
+
+    /**
+     * CIDR 블록 하나를 전달받는 콜백.
+     */
+    interface BlockVisitor {
+        void visit(long networkAddress, int prefixLength);
+    }
+
+    /**
+     * 시작 주소 순으로 들어오는 구간을 겹치거나 맞닿으면 합치면서 쌓는 빌더.
+     */
+    static final class Builder {
+        private long[] ranges;
+        private int size;
+
+        Builder(int capacity) {
+            this.ranges = new long[Math.max(2, capacity + (capacity & 1))];
+        }
+
+        void add(long start, long end) {
+            if (size > 0 && start <= ranges[size - 1]) {
+                ranges[size - 1] = Math.max(ranges[size - 1], end);
+                return;
+            }
+            if (size == ranges.length) {
+                ranges = Arrays.copyOf(ranges, size * 2);
+            }
+            ranges[size++] = start;
+            ranges[size++] = end;
+        }
+
+        long[] toArray() {
+            return size == 0 ? EMPTY : Arrays.copyOf(ranges, size);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package swnoh.cidr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * CIDR 블록 정렬 유틸리티.
+ *
+ * 각 블록을 한 번만 (네트워크 주소 32비트 | (32 - prefix) 6비트) 형태의 long 키로 바꾼 뒤,
+ * 키 배열을 8비트씩 LSD 기수 정렬합니다. 정렬 순서는 네트워크 주소 오름차순,
+ * 같은 주소에서는 긴 prefix(작은 블록)가 먼저이며, 같은 키끼리는 입력 순서를 유지합니다.
+ *
+ * 정렬된 목록 대신 순열(정렬 위치 → 입력 인덱스)을 받으면
+ * 블록에 딸린 데이터를 박싱 없이 같은 순서로 재배열할 수 있습니다.
+ */
+public final class CidrSorter {
+
+    private static final int KEY_BITS = 38;
+
+    private static final int RADIX_BITS = 8;
+
+    private static final int BUCKETS = 1 << RADIX_BITS;
+
+    // 병렬 정렬에서 조각 하나의 최소 크기
+    private static final int MIN_PARALLEL_PIECE = 1 << 16;
+
+    private CidrSorter() {
+    }
+
+    /**
+     * 블록들을 정렬한 새 목록을 반환합니다.
+     */
+    public static List<CidrBlock> sort(Collection<CidrBlock> blocks) {
+        List<CidrBlock> list = copyOf(blocks);
+        return reorder(list, sortedPermutation(list));
+    }
+
+    /**
+     * 공용 풀을 사용해 블록들을 정렬한 새 목록을 반환합니다.
+     */
+    public static List<CidrBlock> parallelSort(Collection<CidrBlock> blocks) {
+        List<CidrBlock> list = copyOf(blocks);
+        return reorder(list, parallelSortedPermutation(list));
+    }
+
+    /**
+     * 정렬 순서의 순열을 반환합니다. result[i]는 i번째로 오는 블록의 입력 인덱스입니다.
+     */
+    public static int[] sortedPermutation(List<CidrBlock> blocks) {
+        return permutation(blocks, null);
+    }
+
+    /**
+     * 공용 풀을 사용해 정렬 순서의 순열을 반환합니다.
+     */
+    public static int[] parallelSortedPermutation(List<CidrBlock> blocks) {
+        return permutation(blocks, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 블록의 정렬 키. 네트워크 주소 | (32 - prefix)
+     */
+    static long key(CidrBlock block) {
+        return (block.getNetworkAddress() << 6) | (32 - block.getPrefixLength());
+    }
+
+    private static int[] permutation(List<CidrBlock> blocks, ForkJoinPool pool) {
+        if (blocks == null) {
+            throw new IllegalArgumentException("CIDR blocks cannot be null");
+        }
+        int n = blocks.size();
+        long[] keys = new long[n];
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = key(blocks.get(i));
+            order[i] = i;
+        }
+        sort(keys, order, n, pool);
+        return order;
+    }
+
+    /**
+     * keys의 앞 n개를 정렬하면서 order도 같이 옮깁니다. (안정 정렬)
+     *
+     * @param pool null이면 현재 스레드에서 순차 정렬
+     */
+    static void sort(long[] keys, int[] order, int n, ForkJoinPool pool) {
+        int pieces = pool == null ? 1 : Math.max(1, Math.min(pool.getParallelism() * 2, n / MIN_PARALLEL_PIECE));
+        int pieceSize = Math.max(1, (n + pieces - 1) / pieces);
+
+        long[] sourceKeys = keys;
+        int[] sourceOrder = order;
+        long[] targetKeys = new long[n];
+        int[] targetOrder = new int[n];
+        int[][] counts = new int[pieces][BUCKETS];
+
+        for (int shift = 0; shift < KEY_BITS; shift += RADIX_BITS) {
+            int digitShift = shift;
+            long[] fromKeys = sourceKeys;
+            int[] fromOrder = sourceOrder;
+            long[] toKeys = targetKeys;
+            int[] toOrder = targetOrder;
+
+            // 1. 조각별 자릿값 개수
+            ForkJoinTasks.forEach(pool, pieces, piece -> {
+                int[] pieceCounts = counts[piece];
+                Arrays.fill(pieceCounts, 0);
+                int end = Math.min(n, (piece + 1) * pieceSize);
+                for (int i = piece * pieceSize; i < end; i++) {
+                    pieceCounts[(int) (fromKeys[i] >>> digitShift) & (BUCKETS - 1)]++;
+                }
+            });
+
+            // 모든 키의 자릿값이 같으면 이번 자리는 건너뜀
+            if (isSingleBucket(counts, n)) {
+                continue;
+            }
+
+            // 2. 자릿값 순, 같은 자릿값은 조각 순으로 시작 위치 계산 (안정성 유지)
+            int offset = 0;
+            for (int digit = 0; digit < BUCKETS; digit++) {
+                for (int piece = 0; piece < pieces; piece++) {
+                    int count = counts[piece][digit];
+                    counts[piece][digit] = offset;
+                    offset += count;
+                }
+            }
+
+            // 3. 분배
+            ForkJoinTasks.forEach(pool, pieces, piece -> {
+                int[] cursors = counts[piece];
+                int end = Math.min(n, (piece + 1) * pieceSize);
+                for (int i = piece * pieceSize; i < end; i++) {
+                    int position = cursors[(int) (fromKeys[i] >>> digitShift) & (BUCKETS - 1)]++;
+                    toKeys[position] = fromKeys[i];
+                    toOrder[position] = fromOrder[i];
+                }
+            });
+
+            sourceKeys = toKeys;
+            sourceOrder = toOrder;
+            targetKeys = fromKeys;
+            targetOrder = fromOrder;
+        }
+
+        if (sourceKeys != keys) {
+            System.arraycopy(sourceKeys, 0, keys, 0, n);
+            System.arraycopy(sourceOrder, 0, order, 0, n);
+        }
+    }
+
+    private static boolean isSingleBucket(int[][] counts, int n) {
+        for (int digit = 0; digit < BUCKETS; digit++) {
+            int total = 0;
+            for (int[] pieceCounts : counts) {
+                total += pieceCounts[digit];
+            }
+            if (total != 0) {
+                return total == n;
+            }
+        }
+        return true;
+    }
+
+    private static List<CidrBlock> copyOf(Collection<CidrBlock> blocks) {
+        if (blocks == null) {
+            throw new IllegalArgumentException("CIDR blocks cannot be null");
+        }
+        return new ArrayList<>(blocks);
+    }
+
+    private static List<CidrBlock> reorder(List<CidrBlock> blocks, int[] order) {
+        List<CidrBlock> sorted = new ArrayList<>(order.length);
+        for (int index : order) {
+            sorted.add(blocks.get(index));
+        }
+        return sorted;
+    }
+}
@@ -0,0 +1,232 @@
+package swnoh.cidr;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * prefix 개수 제한에 맞춘 손실 병합(summarize) 결과.
+ *
+ * {@link CidrUtils#summarize(List, int)}로 생성되며,
+ * 결과 블록들은 원래 주소를 모두 포함하고 추가로 포함하게 된 주소 수를 함께 제공합니다.
+ */
+public class CidrSummary {
+
+    private final List<CidrBlock> blocks;
+
+    private final long inputAddressCount;
+
+    private final long coveredAddressCount;
+
+    private CidrSummary(List<CidrBlock> blocks, long inputAddressCount, long coveredAddressCount) {
+        this.blocks = Collections.unmodifiableList(blocks);
+        this.inputAddressCount = inputAddressCount;
+        this.coveredAddressCount = coveredAddressCount;
+    }
+
+    /**
+     * 블록 목록을 최대 maxPrefixes개의 블록으로 요약합니다.
+     *
+     * 1. 입력을 무손실로 병합해 최소 블록 목록을 만듭니다.
+     * 2. 인접한 블록들의 공통 상위 prefix로 압축 prefix 트리(이진 트리)를 만듭니다.
+     * 3. 자식이 모두 잎인 노드 중 합쳤을 때 늘어나는 주소 수가 가장 작은 노드부터
+     *    하나의 블록으로 합치며, 블록 수가 제한 이하가 될 때까지 반복합니다. (O(n log n))
+     */
+    static CidrSummary summarize(List<CidrBlock> cidrBlocks, int maxPrefixes) {
+        long[] ranges = CidrRanges.fromBlocks(cidrBlocks);
+        long inputAddressCount = CidrRanges.addressCount(ranges);
+
+        // 1. 무손실 병합 결과를 primitive 배열로
+        CidrColumns merged = CidrRanges.toColumns(ranges);
+        int n = merged.size();
+        long[] networks = new long[n];
+        int[] prefixLengths = new int[n];
+        for (int i = 0; i < n; i++) {
+            networks[i] = merged.getAddress(i) & 0xFFFFFFFFL;
+            prefixLengths[i] = merged.getPrefixLength(i);
+        }
+
+        if (n <= maxPrefixes) {
+            return new CidrSummary(merged.toCidrBlocks(), inputAddressCount, inputAddressCount);
+        }
+
+        // 2. 인접 블록 사이의 공통 상위 노드로 Cartesian 트리 구성 (prefix가 짧을수록 루트에 가까움)
+        //    내부 노드 i는 블록 i와 i + 1의 공통 상위 노드입니다.
+        //    자식 참조는 내부 노드면 0 이상, 잎(블록 j)이면 -(j + 1)입니다.
+        int internalCount = n - 1;
+        int[] nodePrefix = new int[internalCount];
+        int[] left = new int[internalCount];
+        int[] right = new int[internalCount];
+        int[] parent = new int[internalCount];
+        for (int i = 0; i < internalCount; i++) {
+            nodePrefix[i] = Integer.numberOfLeadingZeros((int) (networks[i] ^ networks[i + 1]));
+        }
+
+        int[] stack = new int[internalCount];
+        int depth = 0;
+        for (int i = 0; i < internalCount; i++) {
+            int lastPopped = -1;
+            while (depth > 0 && nodePrefix[stack[depth - 1]] > nodePrefix[i]) {
+                lastPopped = stack[--depth];
+            }
+            if (lastPopped >= 0) {
+                left[i] = lastPopped;
+                parent[lastPopped] = i;
+            } else {
+                left[i] = -(i + 1);
+            }
+            right[i] = -(i + 2);
+            if (depth > 0) {
+                right[stack[depth - 1]] = i;
+                parent[i] = stack[depth - 1];
+            } else {
+                parent[i] = -1;
+            }
+            stack[depth++] = i;
+        }
+        int root = stack[0];
+
+        // 3. 자식이 모두 잎(원래 블록 또는 이미 합쳐진 노드)인 노드를 비용 순으로 합침
+        boolean[] collapsed = new boolean[internalCount];
+        LongHeap heap = new LongHeap(internalCount);
+        for (int i = 0; i < internalCount; i++) {
+            if (left[i] < 0 && right[i] < 0) {
+                heap.push(candidateKey(i, nodePrefix, left, right, prefixLengths));
+            }
+        }
+
+        int blockCount = n;
+        while (blockCount > maxPrefixes) {
+            int node = (int) (heap.pop() & (CidrKeys.MAX_BLOCKS - 1));
+            collapsed[node] = true;
+            blockCount--;
+
+            int up = parent[node];
+            if (up >= 0 && isLeaf(left[up], collapsed) && isLeaf(right[up], collapsed)) {
+                heap.push(candidateKey(up, nodePrefix, left, right, prefixLengths));
+            }
+        }
+
+        // 4. 합쳐진 노드와 남은 블록을 주소 순으로 수집
+        List<CidrBlock> result = new ArrayList<>(blockCount);
+        long covered = 0;
+        int[] pending = new int[internalCount + 1];
+        int top = 0;
+        pending[top++] = root;
+        while (top > 0) {
+            int ref = pending[--top];
+            if (ref < 0) {
+                int leaf = -ref - 1;
+                result.add(CidrBlock.of(networks[leaf], prefixLengths[leaf]));
+                covered += 1L << (32 - prefixLengths[leaf]);
+            } else if (collapsed[ref]) {
+                long network = networks[ref] & ((0xFFFFFFFFL << (32 - nodePrefix[ref])) & 0xFFFFFFFFL);
+                result.add(CidrBlock.of(network, nodePrefix[ref]));
+                covered += 1L << (32 - nodePrefix[ref]);
+            } else {
+                pending[top++] = right[ref];
+                pending[top++] = left[ref];
+            }
+        }
+
+        return new CidrSummary(result, inputAddressCount, covered);
+    }
+
+    private static boolean isLeaf(int ref, boolean[] collapsed) {
+        return ref < 0 || collapsed[ref];
+    }
+
+    private static long sizeOf(int ref, int[] nodePrefix, int[] prefixLengths) {
+        return 1L << (32 - (ref < 0 ? prefixLengths[-ref - 1] : nodePrefix[ref]));
+    }
+
+    /**
+     * 힙 키: (합쳤을 때 늘어나는 주소 수, 노드 번호)
+     */
+    private static long candidateKey(int node, int[] nodePrefix, int[] left, int[] right, int[] prefixLengths) {
+        long cost = (1L << (32 - nodePrefix[node]))
+                - sizeOf(left[node], nodePrefix, prefixLengths)
+                - sizeOf(right[node], nodePrefix, prefixLengths);
+        return (cost << CidrKeys.INDEX_BITS) | node;
+    }
+
+    /**
+     * 합쳐진 블록 목록 (주소 순).
+     */
+    public List<CidrBlock> getBlocks() {
+        return blocks;
+    }
+
+    /**
+     * 원래 입력이 포함하던 주소 수. (중복 제외)
+     */
+    public long getInputAddressCount() {
+        return inputAddressCount;
+    }
+
+    /**
+     * 결과 블록들이 포함하는 주소 수.
+     */
+    public long getCoveredAddressCount() {
+        return coveredAddressCount;
+    }
+
+    /**
+     * 입력에 없었지만 결과 블록에 포함된 주소 수. (정확한 값)
+     */
+    public long getOverCoverage() {
+        return coveredAddressCount - inputAddressCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CidrSummary{blocks=" + blocks.size() + ", overCoverage=" + getOverCoverage() + "}";
+    }
+
+    /**
+     * long 값을 담는 최소 힙.
+     */
+    private static class LongHeap {
+        private final long[] heap;
+        private int size;
+
+        LongHeap(int capacity) {
+            this.heap = new long[Math.max(1, capacity)];
+        }
+
+        void push(long value) {
+            int i = size++;
+            while (i > 0) {
+                int up = (i - 1) >>> 1;
+                if (heap[up] <= value) {
+                    break;
+                }
+                heap[i] = heap[up];
+                i = up;
+            }
+            heap[i] = value;
+        }
+
+        long pop() {
+            long result = heap[0];
+            long last = heap[--size];
+            int i = 0;
+            while (true) {
+                int child = i * 2 + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (heap[child] >= last) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return result;
+        }
+    }
+}
@@ -27,15 +27,51 @@ public class CidrUtils {
         }
 
         // 1. CIDR 블록을 정규화하고 정렬합니다.
-        List<CidrBlock> normalized = cidrBlocks.stream()
+        List<CidrBlock> normalized = CidrSorter.sort(cidrBlocks.stream()
                 .map(cidr -> CidrBlock.of(cidr.normalize()))
-                .sorted(new CidrComparator())
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
 
         // 2. 재귀적으로 병합 수행
         return performMerge(normalized);
     }
 
+    /**
+     * 두 CIDR 목록의 차이를 계산한다.
+     *
+     * 두 목록을 정렬·병합된 구간 배열로 변환한 뒤 한 번씩 훑어서(O(n + m))
+     * 새로 추가된 주소 범위와 제거된 주소 범위를 각각 최소 CIDR 목록으로 반환한다.
+     *
+     * @param oldBlocks 이전 CIDR 목록
+     * @param newBlocks 새 CIDR 목록
+     * @return 추가/제거된 CIDR 목록
+     */
+    public static CidrDiff diff(List<CidrBlock> oldBlocks, List<CidrBlock> newBlocks) {
+        if (oldBlocks == null || newBlocks == null) {
+            throw new IllegalArgumentException("CIDR blocks cannot be null");
+        }
+        return CidrDiff.between(oldBlocks, newBlocks);
+    }
+
+    /**
+     * CIDR 목록을 최대 maxPrefixes개의 블록으로 요약한다. (손실 병합)
+     *
+     * 장비나 보안 그룹의 prefix 개수 제한에 맞추기 위해, 원래 주소를 모두 포함하면서
+     * 추가로 포함되는 주소 수가 적도록 prefix 트리의 노드를 탐욕적으로 합친다. (O(n log n))
+     *
+     * @param cidrBlocks 요약할 CIDR 블록들
+     * @param maxPrefixes 결과 블록의 최대 개수 (1 이상)
+     * @return 요약된 블록 목록과 추가로 포함된 주소 수
+     */
+    public static CidrSummary summarize(List<CidrBlock> cidrBlocks, int maxPrefixes) {
+        if (cidrBlocks == null) {
+            throw new IllegalArgumentException("CIDR blocks cannot be null");
+        }
+        if (maxPrefixes < 1) {
+            throw new IllegalArgumentException("Max prefixes must be at least 1: " + maxPrefixes);
+        }
+        return CidrSummary.summarize(cidrBlocks, maxPrefixes);
+    }
+
     /**
      * 2. 실제 병합 작업을 수행한다 : 그룹핑 + 병합
      */
@@ -218,29 +254,7 @@ public class CidrUtils {
      * CIDR의 네트워크 주소를 long으로 반환합니다.
      */
     private static long getNetworkAddressAsLong(CidrBlock cidr) {
-        String normalized = cidr.normalize();
-        String networkIp = normalized.split("/")[0];
-        return IpAddress.fromString(networkIp).toLong();
-    }
-
-    /**
-     * CIDR 정렬을 위한 Comparator 클래스.
-     */
-    private static class CidrComparator implements java.util.Comparator<CidrBlock> {
-        @Override
-        public int compare(CidrBlock c1, CidrBlock c2) {
-
-            long network1 = getNetworkAddressAsLong(c1);
-            long network2 = getNetworkAddressAsLong(c2);
-
-            int networkComparison = Long.compare(network1, network2);
-
-            if (networkComparison != 0) {
-                return networkComparison;
-            }
-
-            return Integer.compare(c2.getPrefixLength(), c1.getPrefixLength());
-        }
+        return cidr.getNetworkAddress();
     }
 
 
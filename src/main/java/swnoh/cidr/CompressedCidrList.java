@@ -0,0 +1,409 @@
+package swnoh.cidr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 오래 보관하는 CIDR 목록을 위한 압축된 읽기 전용 목록.
+ *
+ * 입력 블록들을 합치지 않고 (네트워크 주소, prefix) 순으로 정렬한 그대로 보관합니다.
+ * 서로 포함하거나 중복된 블록도 그대로 남으므로 순회하면 입력과 같은 블록들이 나옵니다.
+ * 블록 {@value #GROUP_SIZE}개씩 묶어 바이트 배열 하나에 frame-of-reference 방식으로 비트 단위로 기록합니다.
+ * 각 블록은 직전 블록의 네트워크 주소에서 자기 크기 단위로 몇 칸 떨어져 있는지(k)로 표현합니다.
+ * <pre>
+ * 묶음 = [prefix 1바이트 (묶음 안 블록의 prefix가 모두 같을 때, 다르면 0xFF)] [비트 폭 w 1바이트]
+ *        블록마다 k (w비트) [prefix (6비트, 묶음 안 prefix가 다를 때만)]
+ * network = alignUp(직전 network, 2^(32 - prefix)) + k * 2^(32 - prefix)
+ * </pre>
+ * w는 묶음 안에서 가장 큰 k를 담을 수 있는 비트 수입니다.
+ *
+ * 묶음마다 첫 블록의 네트워크 주소, 바이트 위치, 앞선 묶음들의 블록이 덮는 마지막 주소를 희소 색인(skip index)으로
+ * 두므로, {@link #contains(int)}는 색인을 이진 탐색한 뒤 묶음 하나만 풀어 봅니다.
+ * 앞선 블록들은 모두 찾는 주소 이하에서 시작하므로, 그 끝 중 최댓값이 주소보다 크면 주소를 포함하는 블록이 있습니다.
+ *
+ * 밀집한 목록일수록 k가 작아 블록당 1바이트 미만이 됩니다.
+ * 예를 들어 /24 블록 수백만 개로 된 목록은 int 배열(블록당 4바이트)보다 4배 이상 작습니다.
+ */
+public class CompressedCidrList implements Iterable<CidrBlock>, MemoryAccountable {
+
+    /**
+     * 희소 색인 항목 하나가 가리키는 블록 수.
+     */
+    public static final int GROUP_SIZE = 128;
+
+    // 묶음 안 prefix가 서로 다를 때의 묶음 헤더 값
+    private static final int MIXED_PREFIX = 0xFF;
+
+    private static final int PREFIX_BITS = 6;
+
+    private final byte[] data;
+
+    // 묶음별 첫 블록의 네트워크 주소 (부호 비트를 뒤집어 signed 비교로 정렬 순서를 유지)
+    private final int[] groupStarts;
+
+    // 묶음별 data 시작 위치
+    private final int[] groupOffsets;
+
+    // 묶음별 앞선 모든 블록의 끝 중 최댓값 - 1 (부호 없는 32비트 값, 첫 묶음은 사용하지 않음)
+    private final int[] groupReach;
+
+    private final int size;
+
+    private final long addressCount;
+
+    private CompressedCidrList(byte[] data, int[] groupStarts, int[] groupOffsets, int[] groupReach,
+                               int size, long addressCount) {
+        this.data = data;
+        this.groupStarts = groupStarts;
+        this.groupOffsets = groupOffsets;
+        this.groupReach = groupReach;
+        this.size = size;
+        this.addressCount = addressCount;
+    }
+
+    /**
+     * 블록들을 정렬해 압축된 목록을 생성합니다.
+     */
+    public static CompressedCidrList of(Collection<CidrBlock> blocks) {
+        if (blocks == null) {
+            throw new IllegalArgumentException("CIDR blocks cannot be null");
+        }
+        long[] keys = CidrKeys.sortedKeys(List.copyOf(blocks));
+        return encode(keys);
+    }
+
+    /**
+     * 컬럼 저장소의 항목들을 정렬해 압축된 목록을 생성합니다. 호스트 비트는 무시합니다.
+     * 수백만 개 항목을 {@link CidrBlock} 객체 없이 바로 압축할 때 사용합니다.
+     */
+    public static CompressedCidrList of(CidrColumns columns) {
+        if (columns == null) {
+            throw new IllegalArgumentException("CIDR columns cannot be null");
+        }
+        long[] keys = new long[columns.size()];
+        for (int i = 0; i < keys.length; i++) {
+            int prefixLength = columns.getPrefixLength(i);
+            long mask = (0xFFFFFFFFL << (32 - prefixLength)) & 0xFFFFFFFFL;
+            keys[i] = CidrKeys.pack((columns.getAddress(i) & 0xFFFFFFFFL) & mask, prefixLength, 0);
+        }
+        Arrays.sort(keys);
+        return encode(keys);
+    }
+
+    private static CompressedCidrList encode(long[] keys) {
+        Encoder encoder = new Encoder(keys.length);
+        for (long key : keys) {
+            encoder.add(CidrKeys.network(key), CidrKeys.prefixLength(key));
+        }
+        encoder.flushGroup();
+        return new CompressedCidrList(Arrays.copyOf(encoder.data, encoder.length),
+                Arrays.copyOf(encoder.groupStarts, encoder.groups),
+                Arrays.copyOf(encoder.groupOffsets, encoder.groups),
+                Arrays.copyOf(encoder.groupReach, encoder.groups),
+                keys.length, encoder.addressCount);
+    }
+
+    /**
+     * 주소가 목록의 블록 중 하나에 포함되는지 확인합니다.
+     *
+     * @param address IP 주소 (부호 없는 32비트 값)
+     */
+    public boolean contains(int address) {
+        if (size == 0) {
+            return false;
+        }
+        int flipped = address ^ Integer.MIN_VALUE;
+        int group = lastGroupAtOrBefore(flipped);
+        if (group < 0) {
+            return false;
+        }
+
+        // 앞선 묶음의 블록은 모두 주소 이하에서 시작하므로 끝의 최댓값만 보면 됨
+        long target = address & 0xFFFFFFFFL;
+        if (group > 0 && target <= (groupReach[group] & 0xFFFFFFFFL)) {
+            return true;
+        }
+        Decoder decoder = new Decoder(group);
+        while (decoder.next() && decoder.network <= target) {
+            if (target < decoder.network + decoder.blockSize) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean contains(IpAddress ip) {
+        if (ip == null) {
+            throw new IllegalArgumentException("IP address cannot be null");
+        }
+        return contains(ip.toInt());
+    }
+
+    /**
+     * 블록 개수를 반환합니다. (중복 포함)
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 하나 이상의 블록에 포함된 주소 개수를 반환합니다. 겹치는 주소는 한 번만 셉니다.
+     */
+    public long addressCount() {
+        return addressCount;
+    }
+
+    /**
+     * 압축된 데이터와 희소 색인의 바이트 수를 반환합니다.
+     */
+    public long getCompressedSize() {
+        return data.length + (long) Integer.BYTES * (groupStarts.length + groupOffsets.length + groupReach.length);
+    }
+
+    /**
+     * 항목은 블록 수입니다. {@link #getCompressedSize()}에 객체와 배열 헤더를 더한 값입니다.
+     */
+    @Override
+    public MemoryFootprint footprint() {
+        return MemoryFootprint.builder(size, 4 * MemoryFootprint.REFERENCE + Integer.BYTES + Long.BYTES)
+                .array(data)
+                .array(groupStarts)
+                .array(groupOffsets)
+                .array(groupReach)
+                .build();
+    }
+
+    /**
+     * 블록들을 (네트워크 주소, prefix) 순으로 돌려주는 반복자. 필요한 만큼만 풀어 냅니다.
+     */
+    @Override
+    public Iterator<CidrBlock> iterator() {
+        return new Iterator<>() {
+            private int group;
+            private Decoder decoder = size == 0 ? null : new Decoder(0);
+            private boolean ready;
+
+            @Override
+            public boolean hasNext() {
+                if (ready) {
+                    return true;
+                }
+                while (decoder != null) {
+                    if (decoder.next()) {
+                        ready = true;
+                        return true;
+                    }
+                    decoder = ++group < groupOffsets.length ? new Decoder(group) : null;
+                }
+                return false;
+            }
+
+            @Override
+            public CidrBlock next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ready = false;
+                return CidrBlock.of(decoder.network, decoder.prefixLength);
+            }
+        };
+    }
+
+    /**
+     * 블록들을 목록으로 풀어 반환합니다.
+     */
+    public List<CidrBlock> getBlocks() {
+        List<CidrBlock> blocks = new ArrayList<>(size);
+        for (CidrBlock block : this) {
+            blocks.add(block);
+        }
+        return blocks;
+    }
+
+    // flipped 주소 이하에서 시작하는 마지막 묶음, 없으면 -1
+    private int lastGroupAtOrBefore(int flipped) {
+        int low = 0;
+        int high = groupStarts.length - 1;
+        if (groupStarts[0] > flipped) {
+            return -1;
+        }
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (groupStarts[mid] <= flipped) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 묶음 하나를 앞에서부터 푸는 상태.
+     */
+    private final class Decoder {
+        private final int width;
+        private final boolean mixed;
+        private int remaining;
+        private long bitPosition;
+        long network;
+        long blockSize;
+        int prefixLength;
+
+        Decoder(int group) {
+            int offset = groupOffsets[group];
+            int header = data[offset] & 0xFF;
+            this.mixed = header == MIXED_PREFIX;
+            this.prefixLength = mixed ? 0 : header;
+            this.width = data[offset + 1];
+            this.bitPosition = (long) (offset + 2) * Byte.SIZE;
+            this.remaining = group + 1 < groupOffsets.length ? GROUP_SIZE : size - group * GROUP_SIZE;
+            this.network = (groupStarts[group] ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+        }
+
+        boolean next() {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            long k = readBits(width);
+            if (mixed) {
+                prefixLength = (int) readBits(PREFIX_BITS);
+            }
+            blockSize = 1L << (32 - prefixLength);
+            network = alignUp(network, blockSize) + k * blockSize;
+            return true;
+        }
+
+        private long readBits(int bits) {
+            long value = 0;
+            int read = 0;
+            while (read < bits) {
+                int index = (int) (bitPosition >>> 3);
+                int shift = (int) (bitPosition & 7);
+                int take = Math.min(Byte.SIZE - shift, bits - read);
+                value |= (long) (((data[index] & 0xFF) >>> shift) & ((1 << take) - 1)) << read;
+                read += take;
+                bitPosition += take;
+            }
+            return value;
+        }
+    }
+
+    private static long alignUp(long value, long alignment) {
+        return (value + alignment - 1) & -alignment;
+    }
+
+    private static final class Encoder {
+        byte[] data;
+        int length;
+        int[] groupStarts;
+        int[] groupOffsets;
+        int[] groupReach;
+        int groups;
+        long addressCount;
+
+        // 지금까지 추가한 블록의 끝 중 최댓값 (exclusive)
+        private long reach;
+
+        // 아직 기록하지 않은 묶음의 블록들
+        private final long[] pendingK = new long[GROUP_SIZE];
+        private final int[] pendingPrefix = new int[GROUP_SIZE];
+        private int pending;
+        private long previous;
+
+        Encoder(int blockCount) {
+            this.data = new byte[Math.max(16, blockCount)];
+            int expectedGroups = Math.max(1, blockCount / GROUP_SIZE + 1);
+            this.groupStarts = new int[expectedGroups];
+            this.groupOffsets = new int[expectedGroups];
+            this.groupReach = new int[expectedGroups];
+        }
+
+        void add(long network, int prefixLength) {
+            if (pending == GROUP_SIZE) {
+                flushGroup();
+            }
+            if (pending == 0) {
+                // 묶음마다 첫 블록의 주소에서 다시 시작해서 묶음 하나만으로 풀 수 있게 함
+                if (groups == groupStarts.length) {
+                    groupStarts = Arrays.copyOf(groupStarts, groups * 2);
+                    groupOffsets = Arrays.copyOf(groupOffsets, groups * 2);
+                    groupReach = Arrays.copyOf(groupReach, groups * 2);
+                }
+                groupStarts[groups] = (int) network ^ Integer.MIN_VALUE;
+                groupReach[groups] = (int) (reach - 1);
+                groups++;
+                previous = network;
+            }
+
+            long blockSize = 1L << (32 - prefixLength);
+            pendingK[pending] = (network - alignUp(previous, blockSize)) / blockSize;
+            pendingPrefix[pending] = prefixLength;
+            pending++;
+            previous = network;
+
+            long end = network + blockSize;
+            if (end > reach) {
+                addressCount += end - Math.max(network, reach);
+                reach = end;
+            }
+        }
+
+        void flushGroup() {
+            if (pending == 0) {
+                return;
+            }
+            long maxK = 0;
+            boolean mixed = false;
+            for (int i = 0; i < pending; i++) {
+                maxK = Math.max(maxK, pendingK[i]);
+                mixed |= pendingPrefix[i] != pendingPrefix[0];
+            }
+            int width = Long.SIZE - Long.numberOfLeadingZeros(maxK);
+            int entryBits = width + (mixed ? PREFIX_BITS : 0);
+
+            ensureCapacity(2 + (pending * entryBits + Byte.SIZE - 1) / Byte.SIZE);
+            groupOffsets[groups - 1] = length;
+            data[length++] = (byte) (mixed ? MIXED_PREFIX : pendingPrefix[0]);
+            data[length++] = (byte) width;
+
+            long buffer = 0;
+            int buffered = 0;
+            for (int i = 0; i < pending; i++) {
+                long entry = pendingK[i];
+                int bits = width;
+                if (mixed) {
+                    entry |= (long) pendingPrefix[i] << width;
+                    bits += PREFIX_BITS;
+                }
+                // entry는 최대 38비트이므로 남은 7비트 이하와 합쳐도 long에 들어감
+                buffer |= entry << buffered;
+                buffered += bits;
+                while (buffered >= Byte.SIZE) {
+                    data[length++] = (byte) buffer;
+                    buffer >>>= Byte.SIZE;
+                    buffered -= Byte.SIZE;
+                }
+            }
+            if (buffered > 0) {
+                data[length++] = (byte) buffer;
+            }
+            pending = 0;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > data.length) {
+                data = Arrays.copyOf(data, Math.max(length + extra, data.length + (data.length >> 1)));
+            }
+        }
+    }
+}
@@ -0,0 +1,502 @@
+package swnoh.cidr;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * 블록마다 만료 시간(TTL)이 있는 CIDR 집합. 자동 차단처럼 임시로 추가하는 블록에 사용합니다.
+ *
+ * 블록은 prefix 길이와 네트워크 주소로 만든 long 키의 개방 주소 해시 테이블에 저장합니다.
+ * 조회는 블록이 하나라도 있는 prefix 길이마다 테이블을 한 번씩 읽고 만료 시간을 확인하므로,
+ * 키를 박싱하지 않고 잠금도 잡지 않으며, 추가나 만료 처리와 관계없이 유한한 단계 안에 끝납니다.
+ * 추가·삭제는 테이블 하나의 락으로 직렬화합니다.
+ *
+ * 만료된 블록의 제거는 정리 스레드 하나가 계층형 타이밍 휠로 처리합니다.
+ * 휠은 단계마다 {@value #WHEEL_SIZE}칸이며, 한 칸은 아래 단계 전체 주기에 해당합니다.
+ * (기본 틱 1초일 때 64초, 약 68분, 약 73시간) 틱마다 현재 칸만 처리하므로
+ * 블록 하나의 만료 비용은 분할 상환 O(1)입니다.
+ *
+ * 이미 있는 블록을 다시 추가하면 만료 시간만 늦춥니다. 휠에서는 옮기지 않고,
+ * 원래 칸이 처리될 때 늦춰진 만료 시간을 보고 다시 배치합니다.
+ */
+public class ExpiringCidrSet implements Closeable, MemoryAccountable {
+
+    private static final int WHEEL_BITS = 6;
+
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+
+    private static final int WHEEL_LEVELS = 3;
+
+    private static final Duration DEFAULT_TICK = Duration.ofSeconds(1);
+
+    // 키: 네트워크 주소 << 6 | prefix 길이 (변경은 entries 락을 잡고)
+    private final EntryTable entries = new EntryTable();
+
+    // prefix 길이별 블록 수 (0인 길이는 조회에서 건너뜀)
+    private final AtomicIntegerArray lengthCounts = new AtomicIntegerArray(33);
+
+    // 추가된 뒤 아직 휠에 배치되지 않은 항목
+    private final ConcurrentLinkedQueue<Entry> pending = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder expiredCount = new LongAdder();
+
+    private final LongSupplier clock;
+
+    private final long tickNanos;
+
+    private final long origin;
+
+    // 아래는 정리 스레드만 사용 (housekeeping()은 synchronized)
+    private final Entry[][] wheels = new Entry[WHEEL_LEVELS][WHEEL_SIZE];
+
+    private long currentTick;
+
+    private final Thread housekeeper;
+
+    private ExpiringCidrSet(Duration tick, LongSupplier clock, boolean startThread) {
+        this.clock = clock;
+        this.tickNanos = tick.toNanos();
+        this.origin = clock.getAsLong();
+        if (startThread) {
+            this.housekeeper = new Thread(this::housekeepingLoop, "expiring-cidr-set");
+            this.housekeeper.setDaemon(true);
+            this.housekeeper.start();
+        } else {
+            this.housekeeper = null;
+        }
+    }
+
+    /**
+     * 1초 틱으로 정리 스레드를 시작한 집합을 생성합니다.
+     */
+    public static ExpiringCidrSet start() {
+        return start(DEFAULT_TICK);
+    }
+
+    /**
+     * 주어진 틱 간격으로 정리 스레드를 시작한 집합을 생성합니다.
+     * 만료된 블록은 조회에서 즉시 빠지고, 메모리에서는 최대 틱 하나만큼 늦게 제거됩니다.
+     *
+     * @param tick 정리 간격
+     */
+    public static ExpiringCidrSet start(Duration tick) {
+        checkTick(tick);
+        return new ExpiringCidrSet(tick, System::nanoTime, true);
+    }
+
+    /**
+     * 정리 스레드 없이, 주어진 시계로 동작하는 집합을 생성합니다.
+     * 정리는 {@link #housekeeping()}을 직접 호출해서 진행합니다.
+     */
+    static ExpiringCidrSet withClock(Duration tick, LongSupplier nanoClock) {
+        checkTick(tick);
+        if (nanoClock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        return new ExpiringCidrSet(tick, nanoClock, false);
+    }
+
+    /**
+     * 블록을 추가합니다. 이미 있으면 만료 시간을 늦추기만 합니다. (앞당기지는 않음)
+     *
+     * @param block 추가할 블록
+     * @param ttl   지금부터 유지할 시간
+     * @return 새로 추가되었으면 true, 기존 블록의 만료 시간을 갱신했으면 false
+     */
+    public boolean add(CidrBlock block, Duration ttl) {
+        if (block == null) {
+            throw new IllegalArgumentException("CIDR block cannot be null");
+        }
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("TTL must be positive: " + ttl);
+        }
+        long now = clock.getAsLong();
+        long expiresAt = now + ttl.toNanos();
+        long key = key(block.getNetworkAddress(), block.getPrefixLength());
+        Entry added = null;
+        boolean created = false;
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                created = true;
+                added = new Entry(key, expiresAt);
+                entries.insert(added);
+                lengthCounts.incrementAndGet(block.getPrefixLength());
+            } else if (entry.expiresAt - now <= 0) {
+                // 만료되었지만 아직 정리되지 않은 블록은 휠에 남아 있으므로 만료 시간만 되살림
+                created = true;
+                entry.expiresAt = expiresAt;
+            } else if (expiresAt - entry.expiresAt > 0) {
+                entry.expiresAt = expiresAt;
+            }
+        }
+
+        // 테이블에 보인 뒤에 대기열에 넣어야 정리 스레드가 배치할 때 유효한 항목으로 확인됨
+        if (added != null) {
+            pending.add(added);
+        }
+        return created;
+    }
+
+    /**
+     * 블록을 만료 시간과 관계없이 제거합니다.
+     *
+     * @return 유효한 블록이 있었으면 true
+     */
+    public boolean remove(CidrBlock block) {
+        if (block == null) {
+            throw new IllegalArgumentException("CIDR block cannot be null");
+        }
+        long now = clock.getAsLong();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.remove(key(block.getNetworkAddress(), block.getPrefixLength()));
+            if (entry == null) {
+                return false;
+            }
+            lengthCounts.decrementAndGet(block.getPrefixLength());
+        }
+        return entry.expiresAt - now > 0;
+    }
+
+    /**
+     * 주소가 만료되지 않은 블록 중 하나에 포함되는지 확인합니다.
+     *
+     * @param address IP 주소 (부호 없는 32비트 값)
+     */
+    public boolean contains(int address) {
+        long now = clock.getAsLong();
+        long unsigned = address & 0xFFFFFFFFL;
+        for (int prefixLength = 32; prefixLength >= 0; prefixLength--) {
+            if (lengthCounts.get(prefixLength) == 0) {
+                continue;
+            }
+            long network = unsigned & ((0xFFFFFFFFL << (32 - prefixLength)) & 0xFFFFFFFFL);
+            Entry entry = entries.get(key(network, prefixLength));
+            if (entry != null && entry.expiresAt - now > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean contains(IpAddress ip) {
+        if (ip == null) {
+            throw new IllegalArgumentException("IP address cannot be null");
+        }
+        return contains(ip.toInt());
+    }
+
+    /**
+     * 블록의 남은 유지 시간을 반환합니다.
+     *
+     * @return 남은 시간, 없거나 만료되었으면 null
+     */
+    public Duration getRemaining(CidrBlock block) {
+        if (block == null) {
+            throw new IllegalArgumentException("CIDR block cannot be null");
+        }
+        Entry entry = entries.get(key(block.getNetworkAddress(), block.getPrefixLength()));
+        if (entry == null) {
+            return null;
+        }
+        long remaining = entry.expiresAt - clock.getAsLong();
+        return remaining > 0 ? Duration.ofNanos(remaining) : null;
+    }
+
+    /**
+     * 만료되지 않은 블록 목록을 반환합니다. (순서 없음)
+     */
+    public List<CidrBlock> getBlocks() {
+        long now = clock.getAsLong();
+        List<CidrBlock> blocks = new ArrayList<>();
+        AtomicReferenceArray<Entry> slots = entries.slots;
+        for (int i = 0; i < slots.length(); i++) {
+            Entry entry = slots.get(i);
+            if (entry != null && entry != EntryTable.REMOVED && entry.expiresAt - now > 0) {
+                blocks.add(CidrBlock.of(entry.key >>> 6, (int) (entry.key & 63)));
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * 저장된 블록 수. 만료되었지만 아직 정리되지 않은 블록도 포함합니다.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 정리 스레드가 지금까지 만료 처리한 블록 수.
+     */
+    public long getExpiredCount() {
+        return expiredCount.sum();
+    }
+
+    /**
+     * 항목은 블록 수입니다. 테이블은 삭제된 칸까지 포함한 실제 길이로 계산하고,
+     * 휠에 아직 배치되지 않은 대기 큐의 노드는 포함하지 않습니다.
+     */
+    @Override
+    public MemoryFootprint footprint() {
+        int size = entries.size();
+        return MemoryFootprint.builder(size, 7 * MemoryFootprint.REFERENCE + 3 * Long.BYTES)
+                // 테이블 객체와 슬롯 배열, 항목마다 Entry
+                .objects(1, MemoryFootprint.REFERENCE + 2 * Integer.BYTES)
+                .objects(1, MemoryFootprint.REFERENCE)
+                .bytes(MemoryFootprint.arraySize(MemoryFootprint.REFERENCE, entries.slots.length()))
+                .objects(size, 2 * Long.BYTES + MemoryFootprint.REFERENCE)
+                // prefix 길이별 개수와 타이밍 휠
+                .objects(1, MemoryFootprint.REFERENCE)
+                .bytes(MemoryFootprint.arraySize(Integer.BYTES, lengthCounts.length()))
+                .array(wheels)
+                .bytes(WHEEL_LEVELS * MemoryFootprint.arraySize(MemoryFootprint.REFERENCE, WHEEL_SIZE))
+                .build();
+    }
+
+    @Override
+    public void close() {
+        if (housekeeper != null) {
+            housekeeper.interrupt();
+        }
+    }
+
+    private void housekeepingLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(this, tickNanos);
+            housekeeping();
+        }
+    }
+
+    /**
+     * 새로 추가된 블록을 휠에 배치하고, 현재 시각까지의 틱을 처리합니다.
+     */
+    synchronized void housekeeping() {
+        long now = clock.getAsLong();
+
+        Entry entry;
+        while ((entry = pending.poll()) != null) {
+            schedule(entry, now);
+        }
+
+        long targetTick = (now - origin) / tickNanos;
+        while (currentTick < targetTick) {
+            currentTick++;
+            // 위 단계부터 내려보낸 뒤 0단계의 현재 칸을 처리
+            for (int level = WHEEL_LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                    fire(level, slot(currentTick, level), now);
+                }
+            }
+            fire(0, slot(currentTick, 0), now);
+        }
+    }
+
+    private void fire(int level, int slot, long now) {
+        Entry entry = wheels[level][slot];
+        wheels[level][slot] = null;
+        while (entry != null) {
+            Entry next = entry.next;
+            entry.next = null;
+            if (entries.get(entry.key) == entry) {
+                if (entry.expiresAt - now > 0) {
+                    // 만료 시간이 늦춰졌거나 아래 단계로 내려갈 항목
+                    schedule(entry, now);
+                } else {
+                    expire(entry, now);
+                }
+            }
+            entry = next;
+        }
+    }
+
+    private void schedule(Entry entry, long now) {
+        if (entries.get(entry.key) != entry) {
+            return;
+        }
+        // 만료 시각이 속한 틱 (올림)
+        long deadlineTick = Math.floorDiv(entry.expiresAt - origin + tickNanos - 1, tickNanos);
+        long delta = deadlineTick - currentTick;
+        if (delta <= 0) {
+            if (entry.expiresAt - now <= 0) {
+                expire(entry, now);
+                return;
+            }
+            deadlineTick = currentTick + 1;
+            delta = 1;
+        }
+
+        int level = 0;
+        while (level < WHEEL_LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1))) {
+            level++;
+        }
+        if (delta >= 1L << (WHEEL_BITS * WHEEL_LEVELS)) {
+            // 휠 범위를 넘는 항목은 가장 먼 칸에 두었다가 다시 배치
+            deadlineTick = currentTick + (1L << (WHEEL_BITS * WHEEL_LEVELS)) - 1;
+        }
+        int slot = slot(deadlineTick, level);
+        entry.next = wheels[level][slot];
+        wheels[level][slot] = entry;
+    }
+
+    private void expire(Entry entry, long now) {
+        boolean removed = false;
+        // 그사이 다시 추가되어 만료 시간이 늦춰졌으면 남겨둠
+        synchronized (entries) {
+            if (entries.get(entry.key) == entry && entry.expiresAt - now <= 0) {
+                entries.remove(entry.key);
+                lengthCounts.decrementAndGet((int) (entry.key & 63));
+                removed = true;
+            }
+        }
+        if (removed) {
+            expiredCount.increment();
+        } else if (entries.get(entry.key) == entry) {
+            schedule(entry, now);
+        }
+    }
+
+    private static int slot(long tick, int level) {
+        return (int) (tick >>> (WHEEL_BITS * level)) & (WHEEL_SIZE - 1);
+    }
+
+    private static long key(long network, int prefixLength) {
+        return network << 6 | prefixLength;
+    }
+
+    private static void checkTick(Duration tick) {
+        if (tick == null || tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("Tick must be positive: " + tick);
+        }
+    }
+
+    private static final class Entry {
+        final long key;
+        volatile long expiresAt;
+
+        // 같은 휠 칸의 다음 항목 (정리 스레드 전용)
+        Entry next;
+
+        Entry(long key, long expiresAt) {
+            this.key = key;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * long 키로 {@link Entry}를 찾는 개방 주소(선형 탐사) 해시 테이블.
+     *
+     * 조회는 락 없이 슬롯 배열을 읽고, 변경은 호출하는 쪽이 테이블 락을 잡은 상태에서 합니다.
+     * 삭제한 칸은 {@link #REMOVED}로 표시해서 뒤쪽 항목의 탐사가 끊기지 않게 하고,
+     * 사용 중인 칸(삭제 표시 포함)이 절반을 넘거나 항목이 길이의 1/8 아래로 줄면
+     * 살아 있는 항목만 새 배열로 옮겨 교체합니다.
+     * 교체 전 배열을 읽던 조회는 교체 직전의 내용을 봅니다.
+     */
+    private static final class EntryTable {
+        // 삭제 표시. 키의 하위 6비트가 63이라 실제 키와 겹치지 않음
+        static final Entry REMOVED = new Entry(-1L, 0L);
+
+        private static final int MIN_LENGTH = 16;
+
+        volatile AtomicReferenceArray<Entry> slots = new AtomicReferenceArray<>(MIN_LENGTH);
+
+        private volatile int size;
+
+        // 사용 중인 칸 수 (삭제 표시 포함)
+        private int used;
+
+        Entry get(long key) {
+            AtomicReferenceArray<Entry> table = slots;
+            int mask = table.length() - 1;
+            for (int i = slotOf(key, table.length()); ; i = (i + 1) & mask) {
+                Entry entry = table.get(i);
+                if (entry == null) {
+                    return null;
+                }
+                if (entry.key == key) {
+                    return entry;
+                }
+            }
+        }
+
+        /**
+         * 키가 없는 항목을 추가합니다. 테이블 락이 필요합니다.
+         */
+        void insert(Entry entry) {
+            if ((used + 1) * 2 > slots.length()) {
+                rehash();
+            }
+            AtomicReferenceArray<Entry> table = slots;
+            int mask = table.length() - 1;
+            int i = slotOf(entry.key, table.length());
+            while (table.get(i) != null) {
+                i = (i + 1) & mask;
+            }
+            table.set(i, entry);
+            used++;
+            size++;
+        }
+
+        /**
+         * 키의 항목을 제거해서 반환합니다. 없으면 null. 테이블 락이 필요합니다.
+         */
+        Entry remove(long key) {
+            AtomicReferenceArray<Entry> table = slots;
+            int mask = table.length() - 1;
+            for (int i = slotOf(key, table.length()); ; i = (i + 1) & mask) {
+                Entry entry = table.get(i);
+                if (entry == null) {
+                    return null;
+                }
+                if (entry.key == key) {
+                    table.set(i, REMOVED);
+                    size--;
+                    if (size * 8 < table.length() && table.length() > MIN_LENGTH) {
+                        // 많이 삭제되면 줄임 (길이가 절반 이하가 되므로 분할 상환 O(1))
+                        rehash();
+                    }
+                    return entry;
+                }
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void rehash() {
+            // 옮긴 뒤 사용률이 1/4 이하가 되는 길이 (삭제가 많았으면 줄어듦)
+            int length = Math.max(MIN_LENGTH, Integer.highestOneBit((size + 1) * 4 - 1) << 1);
+            AtomicReferenceArray<Entry> old = slots;
+            AtomicReferenceArray<Entry> table = new AtomicReferenceArray<>(length);
+            int mask = length - 1;
+            for (int j = 0; j < old.length(); j++) {
+                Entry entry = old.get(j);
+                if (entry != null && entry != REMOVED) {
+                    int i = slotOf(entry.key, length);
+                    while (table.get(i) != null) {
+                        i = (i + 1) & mask;
+                    }
+                    table.set(i, entry);
+                }
+            }
+            used = size;
+            slots = table;
+        }
+
+        private static int slotOf(long key, int length) {
+            // 피보나치 해싱: 곱한 값의 상위 log2(length)비트
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - Integer.numberOfTrailingZeros(length)));
+        }
+    }
+}
@@ -0,0 +1,537 @@
+package swnoh.cidr;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 힙에 담을 수 없을 만큼 큰 CIDR 목록을 디스크를 이용해 최소 CIDR 목록으로 합치는 도구.
+ *
+ * <ol>
+ *   <li>입력 파일들을 순차적으로 읽어 {@link CidrBulkParser} 형식으로 파싱하고,
+ *       각 항목을 (시작 주소 | 마지막 주소) long 하나로 메모리 예산만큼 모읍니다.</li>
+ *   <li>가득 차면 정렬하고 겹치거나 맞닿은 구간을 합쳐 임시 run 파일로 내보냅니다.</li>
+ *   <li>run 파일들을 k-way 병합하면서 구간을 다시 합치고, 최소 CIDR 블록으로 나누어
+ *       한 줄에 하나씩 출력 파일에 씁니다. run이 너무 많으면 여러 단계로 나눠 병합합니다.</li>
+ * </ol>
+ *
+ * 모든 파일 입출력은 고정 크기 버퍼를 쓰는 순차 NIO 입출력이므로,
+ * 힙 사용량은 입력 크기와 관계없이 메모리 예산 안에 머뭅니다.
+ */
+public class ExternalCidrMerger {
+
+    private static final long MIN_MEMORY_BUDGET = 64 << 10;
+
+    private static final int MAX_IO_BUFFER_SIZE = 1 << 20;
+
+    // 출력 한 줄의 최대 길이 ("255.255.255.255/32\n")
+    private static final int MAX_LINE_LENGTH = IpAddress.MAX_TEXT_LENGTH + 4;
+
+    private final long memoryBudget;
+
+    private final Path tempDirectory;
+
+    private final int ioBufferSize;
+
+    /**
+     * 임시 파일을 시스템 임시 디렉터리에 두는 병합기를 생성합니다.
+     *
+     * @param memoryBudget 정렬 버퍼와 입출력 버퍼에 쓸 최대 바이트 수 (64KB 이상)
+     */
+    public ExternalCidrMerger(long memoryBudget) {
+        this(memoryBudget, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * 병합기를 생성합니다.
+     *
+     * @param memoryBudget  정렬 버퍼와 입출력 버퍼에 쓸 최대 바이트 수 (64KB 이상)
+     * @param tempDirectory run 파일을 둘 디렉터리
+     */
+    public ExternalCidrMerger(long memoryBudget, Path tempDirectory) {
+        if (memoryBudget < MIN_MEMORY_BUDGET) {
+            throw new IllegalArgumentException("Memory budget must be at least " + MIN_MEMORY_BUDGET + ": " + memoryBudget);
+        }
+        if (tempDirectory == null) {
+            throw new IllegalArgumentException("Temp directory cannot be null");
+        }
+        this.memoryBudget = memoryBudget;
+        this.tempDirectory = tempDirectory;
+        this.ioBufferSize = (int) Math.min(MAX_IO_BUFFER_SIZE, memoryBudget / 8);
+    }
+
+    /**
+     * 입력 파일들을 합쳐 최소 CIDR 목록을 출력 파일에 씁니다.
+     *
+     * @param inputs   CIDR 목록 파일들 (한 줄에 하나, # 주석)
+     * @param output   결과 파일 (덮어씀)
+     * @param listener 진행 상황을 받을 콜백 (null 가능)
+     * @return 병합 결과 요약
+     */
+    public Result merge(List<Path> inputs, Path output, ProgressListener listener) throws IOException {
+        if (inputs == null || output == null) {
+            throw new IllegalArgumentException("Inputs and output cannot be null");
+        }
+        ProgressListener progress = listener != null ? listener : (phase, done, total) -> { };
+
+        // 만든 임시 파일은 모두 여기에 바로 등록해서, 도중에 실패해도 빠짐없이 지움
+        List<Path> tempFiles = new ArrayList<>();
+        try {
+            Result result = new Result();
+            List<Path> runs = new ArrayList<>();
+            spillRuns(inputs, runs, tempFiles, result, progress);
+            result.runCount = runs.size();
+            mergeRuns(runs, tempFiles, output, result, progress);
+            return result;
+        } finally {
+            for (Path file : tempFiles) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    // 1단계: 입력을 읽어 정렬·병합된 run 파일들로 내보냄
+    private void spillRuns(List<Path> inputs, List<Path> runs, List<Path> tempFiles, Result result,
+                           ProgressListener progress) throws IOException {
+        long totalBytes = 0;
+        for (Path input : inputs) {
+            totalBytes += Files.size(input);
+        }
+
+        // 입력 버퍼와 run 출력 버퍼를 뺀 나머지를 정렬 버퍼로 사용
+        long[] keys = new long[(int) Math.min(Integer.MAX_VALUE - 8, (memoryBudget - 2L * ioBufferSize) / Long.BYTES)];
+        int count = 0;
+        long bytesRead = 0;
+
+        ByteBuffer buffer = ByteBuffer.allocate(ioBufferSize);
+        for (Path input : inputs) {
+            try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+                buffer.clear();
+                boolean skipping = false;
+                boolean eof = false;
+                while (!eof) {
+                    int read = channel.read(buffer);
+                    eof = read < 0;
+                    if (read > 0) {
+                        bytesRead += read;
+                    }
+                    buffer.flip();
+
+                    int lineStart = 0;
+                    int limit = buffer.limit();
+                    for (int i = 0; i <= limit; i++) {
+                        boolean endOfLine = i < limit ? buffer.get(i) == '\n' : eof && i > lineStart;
+                        if (!endOfLine) {
+                            continue;
+                        }
+                        if (skipping) {
+                            skipping = false;
+                        } else {
+                            long entry = CidrBulkParser.parseEntry(buffer, lineStart, i);
+                            if (entry >= 0) {
+                                if (count == keys.length) {
+                                    runs.add(writeRun(keys, count, tempFiles));
+                                    count = 0;
+                                }
+                                keys[count++] = rangeKey(entry);
+                                result.inputEntries++;
+                            } else if (entry == CidrBulkParser.INVALID) {
+                                result.invalidLines++;
+                            }
+                        }
+                        lineStart = i + 1;
+                    }
+
+                    buffer.position(Math.min(lineStart, limit));
+                    buffer.compact();
+                    if (!buffer.hasRemaining()) {
+                        // 버퍼보다 긴 줄은 잘못된 줄로 보고 다음 줄바꿈까지 버림
+                        if (!skipping) {
+                            result.invalidLines++;
+                            skipping = true;
+                        }
+                        buffer.clear();
+                    }
+                    progress.onProgress(Phase.PARSE, bytesRead, totalBytes);
+                }
+            }
+        }
+        if (count > 0) {
+            runs.add(writeRun(keys, count, tempFiles));
+        }
+    }
+
+    // 2단계: run 파일들을 k-way 병합 (필요하면 여러 단계)
+    private void mergeRuns(List<Path> runs, List<Path> tempFiles, Path output, Result result,
+                           ProgressListener progress) throws IOException {
+        int fanIn = (int) Math.max(2, Math.min(1024, memoryBudget / ioBufferSize - 1));
+
+        long totalBytes = 0;
+        for (Path run : runs) {
+            totalBytes += Files.size(run);
+        }
+        long[] mergedBytes = {0};
+
+        while (runs.size() > fanIn) {
+            List<Path> group = runs.subList(0, fanIn);
+            Path merged = createTempFile(tempFiles);
+            try (RangeWriter writer = new RangeWriter(merged)) {
+                totalBytes += mergeGroup(group, writer::write, mergedBytes, totalBytes, progress);
+            }
+            // 병합이 끝난 뒤에야 목록에서 빼고 지움
+            for (Path run : group) {
+                Files.deleteIfExists(run);
+            }
+            group.clear();
+            runs.add(merged);
+        }
+
+        try (TextWriter writer = new TextWriter(output)) {
+            mergeGroup(runs, (start, last) -> {
+                CidrRanges.forEachBlock(start, last + 1, (network, prefixLength) -> {
+                    writer.write(network, prefixLength);
+                    result.outputBlocks++;
+                });
+                result.addressCount += last - start + 1;
+            }, mergedBytes, totalBytes, progress);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * run들을 병합하면서 겹치거나 맞닿은 구간을 합쳐 sink에 전달합니다.
+     *
+     * @return 이 단계에서 만든 구간 수 × 8 (다음 단계 run 크기)
+     */
+    private long mergeGroup(List<Path> runs, RangeSink sink, long[] mergedBytes, long totalBytes,
+                            ProgressListener progress) throws IOException {
+        RangeReader[] readers = new RangeReader[runs.size()];
+        int[] heap = new int[runs.size()];
+        int size = 0;
+        long written = 0;
+        try {
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = new RangeReader(runs.get(i));
+                if (readers[i].next()) {
+                    heap[size++] = i;
+                    siftUp(heap, size - 1, readers);
+                }
+            }
+
+            long currentStart = -1;
+            long currentLast = -1;
+            long reported = 0;
+            while (size > 0) {
+                RangeReader top = readers[heap[0]];
+                long start = top.start;
+                long last = top.last;
+                mergedBytes[0] += Long.BYTES;
+
+                if (top.next()) {
+                    siftDown(heap, 0, size, readers);
+                } else {
+                    heap[0] = heap[--size];
+                    siftDown(heap, 0, size, readers);
+                }
+
+                if (currentStart >= 0 && start <= currentLast + 1) {
+                    currentLast = Math.max(currentLast, last);
+                    continue;
+                }
+                if (currentStart >= 0) {
+                    sink.accept(currentStart, currentLast);
+                    written += Long.BYTES;
+                }
+                currentStart = start;
+                currentLast = last;
+
+                if (mergedBytes[0] - reported >= ioBufferSize) {
+                    reported = mergedBytes[0];
+                    progress.onProgress(Phase.MERGE, mergedBytes[0], totalBytes);
+                }
+            }
+            if (currentStart >= 0) {
+                sink.accept(currentStart, currentLast);
+                written += Long.BYTES;
+            }
+            progress.onProgress(Phase.MERGE, mergedBytes[0], totalBytes);
+        } finally {
+            for (RangeReader reader : readers) {
+                if (reader != null) {
+                    reader.close();
+                }
+            }
+        }
+        return written;
+    }
+
+    private Path writeRun(long[] keys, int count, List<Path> tempFiles) throws IOException {
+        // 부호 비트를 뒤집은 키라서 signed 정렬이 시작 주소 순서가 됨
+        Arrays.sort(keys, 0, count);
+        Path run = createTempFile(tempFiles);
+        try (RangeWriter writer = new RangeWriter(run)) {
+            long currentStart = -1;
+            long currentLast = -1;
+            for (int i = 0; i < count; i++) {
+                long key = keys[i] ^ Long.MIN_VALUE;
+                long start = key >>> 32;
+                long last = key & 0xFFFFFFFFL;
+                if (currentStart >= 0 && start <= currentLast + 1) {
+                    currentLast = Math.max(currentLast, last);
+                    continue;
+                }
+                if (currentStart >= 0) {
+                    writer.write(currentStart, currentLast);
+                }
+                currentStart = start;
+                currentLast = last;
+            }
+            if (currentStart >= 0) {
+                writer.write(currentStart, currentLast);
+            }
+        }
+        return run;
+    }
+
+    private Path createTempFile(List<Path> tempFiles) throws IOException {
+        Path file = Files.createTempFile(tempDirectory, "cidr-run-", ".bin");
+        tempFiles.add(file);
+        return file;
+    }
+
+    // 파싱 결과 (주소 << 8 | prefix)를 (시작 주소 << 32 | 마지막 주소) ^ 부호 비트로 변환
+    private static long rangeKey(long entry) {
+        long address = entry >>> 8;
+        int prefixLength = (int) (entry & 0xFF);
+        long hostMask = 0xFFFFFFFFL >>> prefixLength;
+        long start = address & ~hostMask;
+        return ((start << 32) | (start | hostMask)) ^ Long.MIN_VALUE;
+    }
+
+    private static void siftUp(int[] heap, int i, RangeReader[] readers) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (readers[heap[parent]].start <= readers[heap[i]].start) {
+                break;
+            }
+            swap(heap, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int i, int size, RangeReader[] readers) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && readers[heap[child + 1]].start < readers[heap[child]].start) {
+                child++;
+            }
+            if (readers[heap[i]].start <= readers[heap[child]].start) {
+                return;
+            }
+            swap(heap, i, child);
+            i = child;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int t = heap[i];
+        heap[i] = heap[j];
+        heap[j] = t;
+    }
+
+    private interface RangeSink {
+        void accept(long start, long last) throws IOException;
+    }
+
+    /**
+     * run 파일 형식: (시작 주소 &lt;&lt; 32 | 마지막 주소) long의 연속, 시작 주소 순.
+     */
+    private final class RangeWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(ioBufferSize);
+
+        RangeWriter(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void write(long start, long last) throws IOException {
+            if (buffer.remaining() < Long.BYTES) {
+                flush();
+            }
+            buffer.putLong((start << 32) | last);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    private final class RangeReader implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        long start;
+        long last;
+
+        RangeReader(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocateDirect(ioBufferSize - ioBufferSize % Long.BYTES);
+            this.buffer.flip();
+        }
+
+        boolean next() throws IOException {
+            if (buffer.remaining() < Long.BYTES) {
+                buffer.compact();
+                while (buffer.position() < Long.BYTES) {
+                    if (channel.read(buffer) < 0) {
+                        buffer.flip();
+                        return false;
+                    }
+                }
+                buffer.flip();
+            }
+            long value = buffer.getLong();
+            start = value >>> 32;
+            last = value & 0xFFFFFFFFL;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * 결과 파일에 "a.b.c.d/p" 줄을 쓰는 출력. 방문자 안에서 쓰므로 입출력 오류는 unchecked로 감쌉니다.
+     */
+    private final class TextWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(ioBufferSize);
+
+        TextWriter(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void write(long network, int prefixLength) {
+            try {
+                if (buffer.remaining() < MAX_LINE_LENGTH) {
+                    flush();
+                }
+                IpAddress.writeTo((int) network, buffer);
+                buffer.put((byte) '/');
+                if (prefixLength >= 10) {
+                    buffer.put((byte) ('0' + prefixLength / 10));
+                }
+                buffer.put((byte) ('0' + prefixLength % 10));
+                buffer.put((byte) '\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * 진행 단계.
+     */
+    public enum Phase {
+        /** 입력 파싱과 run 파일 생성 */
+        PARSE,
+        /** run 파일 병합 */
+        MERGE
+    }
+
+    /**
+     * 진행 상황을 전달받는 콜백. done/total은 해당 단계에서 처리한/전체 바이트 수입니다.
+     */
+    public interface ProgressListener {
+        void onProgress(Phase phase, long done, long total);
+    }
+
+    /**
+     * 병합 결과 요약.
+     */
+    public static class Result {
+        private long inputEntries;
+        private long invalidLines;
+        private int runCount;
+        private long outputBlocks;
+        private long addressCount;
+
+        /**
+         * 파싱된 입력 항목 수.
+         */
+        public long getInputEntries() {
+            return inputEntries;
+        }
+
+        /**
+         * 형식이 잘못되어 건너뛴 줄 수.
+         */
+        public long getInvalidLines() {
+            return invalidLines;
+        }
+
+        /**
+         * 1단계에서 만든 run 파일 수.
+         */
+        public int getRunCount() {
+            return runCount;
+        }
+
+        /**
+         * 출력한 최소 CIDR 블록 수.
+         */
+        public long getOutputBlocks() {
+            return outputBlocks;
+        }
+
+        /**
+         * 결과에 포함된 주소 수.
+         */
+        public long getAddressCount() {
+            return addressCount;
+        }
+    }
+}
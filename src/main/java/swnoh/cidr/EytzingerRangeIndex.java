@@ -0,0 +1,165 @@
+package swnoh.cidr;
+
+import java.util.List;
+
+/**
+ * 구간 경계를 Eytzinger(BFS) 순서로 저장하는 읽기 전용 longest-prefix-match 인덱스.
+ *
+ * {@link CidrIndex}와 같은 기본 구간을 사용하지만, 정렬 배열 대신 완전 이진 트리를 너비 우선 순서로 배열에 담습니다.
+ * 탐색 경로의 처음 몇 단계가 항상 배열 앞쪽의 같은 캐시 라인에 모이고,
+ * 한 노드의 자손 16개(4단계 아래)가 한 캐시 라인에 연속으로 놓이므로
+ * 표가 L2 캐시보다 커져도 일반 이진 탐색보다 캐시 미스가 적습니다.
+ *
+ * 탐색은 비교 결과를 인덱스 계산에 그대로 더하는 분기 없는 형태이며,
+ * 트리를 완전 이진 트리로 채워 모든 조회가 같은 횟수만큼 반복합니다.
+ * Java에는 prefetch 명령이 없으므로, {@link #lookupAll(int[], int[], int)}은
+ * 여러 조회를 한 단계씩 번갈아 진행해 메모리 접근을 겹치는 방식으로 지연시간을 숨깁니다.
+ */
+public class EytzingerRangeIndex implements CidrLookup, MemoryAccountable {
+
+    // 배치 조회에서 동시에 진행하는 조회 수
+    private static final int INTERLEAVE = 4;
+
+    private final CidrIndex source;
+
+    // 1부터 시작하는 BFS 순서의 구간 시작 주소 (부호 비트가 뒤집힌 값)
+    private final int[] keys;
+
+    // keys와 같은 위치의 블록 인덱스
+    private final int[] values;
+
+    // 트리 높이 (조회마다 반복하는 횟수)
+    private final int height;
+
+    private EytzingerRangeIndex(CidrIndex source) {
+        this.source = source;
+
+        int[] sortedStarts = source.starts();
+        int[] sortedValues = source.values();
+        int n = sortedStarts.length;
+
+        // 완전 이진 트리 크기(2^h - 1)로 채움. 남는 자리는 가장 큰 키와 마지막 구간의 값으로 채워
+        // 어떤 주소에서도 결과가 달라지지 않도록 합니다.
+        int h = 32 - Integer.numberOfLeadingZeros(n);
+        int size = (1 << h) - 1;
+        this.height = h;
+        this.keys = new int[size + 1];
+        this.values = new int[size + 1];
+        this.values[0] = NO_MATCH;
+
+        int[] cursor = {0};
+        layout(1, size, sortedStarts, sortedValues, n, cursor);
+    }
+
+    /**
+     * 정렬 순서(in-order)대로 BFS 배열을 채웁니다. 재귀 깊이는 트리 높이(최대 32)입니다.
+     */
+    private void layout(int k, int size, int[] sortedStarts, int[] sortedValues, int n, int[] cursor) {
+        if (k > size) {
+            return;
+        }
+        layout(2 * k, size, sortedStarts, sortedValues, n, cursor);
+        int i = cursor[0]++;
+        if (i < n) {
+            keys[k] = sortedStarts[i];
+            values[k] = sortedValues[i];
+        } else {
+            keys[k] = Integer.MAX_VALUE;
+            values[k] = sortedValues[n - 1];
+        }
+        layout(2 * k + 1, size, sortedStarts, sortedValues, n, cursor);
+    }
+
+    /**
+     * CIDR 블록 목록으로 인덱스를 생성합니다.
+     */
+    public static EytzingerRangeIndex of(List<CidrBlock> cidrBlocks) {
+        return of(CidrIndex.of(cidrBlocks));
+    }
+
+    /**
+     * 이미 만들어진 {@link CidrIndex}의 구간으로 인덱스를 생성합니다.
+     */
+    public static EytzingerRangeIndex of(CidrIndex index) {
+        if (index == null) {
+            throw new IllegalArgumentException("Index cannot be null");
+        }
+        return new EytzingerRangeIndex(index);
+    }
+
+    @Override
+    public int lookup(int address) {
+        int x = address ^ Integer.MIN_VALUE;
+        int k = 1;
+        for (int level = 0; level < height; level++) {
+            k = (k << 1) | (keys[k] <= x ? 1 : 0);
+        }
+        // 마지막으로 오른쪽으로 내려간 노드가 x 이하인 가장 큰 키
+        return values[k >>> (Integer.numberOfTrailingZeros(k) + 1)];
+    }
+
+    /**
+     * 여러 주소를 {@value #INTERLEAVE}개씩 묶어, 각 조회를 한 단계씩 번갈아 진행합니다.
+     * 한 조회의 메모리 접근을 기다리는 동안 다른 조회의 접근이 함께 진행됩니다.
+     */
+    @Override
+    public void lookupAll(int[] addresses, int[] results, int count) {
+        int i = 0;
+        for (; i + INTERLEAVE <= count; i += INTERLEAVE) {
+            int x0 = addresses[i] ^ Integer.MIN_VALUE;
+            int x1 = addresses[i + 1] ^ Integer.MIN_VALUE;
+            int x2 = addresses[i + 2] ^ Integer.MIN_VALUE;
+            int x3 = addresses[i + 3] ^ Integer.MIN_VALUE;
+            int k0 = 1;
+            int k1 = 1;
+            int k2 = 1;
+            int k3 = 1;
+            for (int level = 0; level < height; level++) {
+                k0 = (k0 << 1) | (keys[k0] <= x0 ? 1 : 0);
+                k1 = (k1 << 1) | (keys[k1] <= x1 ? 1 : 0);
+                k2 = (k2 << 1) | (keys[k2] <= x2 ? 1 : 0);
+                k3 = (k3 << 1) | (keys[k3] <= x3 ? 1 : 0);
+            }
+            results[i] = values[k0 >>> (Integer.numberOfTrailingZeros(k0) + 1)];
+            results[i + 1] = values[k1 >>> (Integer.numberOfTrailingZeros(k1) + 1)];
+            results[i + 2] = values[k2 >>> (Integer.numberOfTrailingZeros(k2) + 1)];
+            results[i + 3] = values[k3 >>> (Integer.numberOfTrailingZeros(k3) + 1)];
+        }
+        for (; i < count; i++) {
+            results[i] = lookup(addresses[i]);
+        }
+    }
+
+    /**
+     * 인덱스 번호에 해당하는 블록을 반환합니다.
+     */
+    public CidrBlock get(int id) {
+        return source.get(id);
+    }
+
+    /**
+     * 인덱싱된 블록 개수를 반환합니다.
+     */
+    public int size() {
+        return source.size();
+    }
+
+    /**
+     * 항목은 블록 수이며, 원본 {@link CidrIndex}의 크기를 포함합니다.
+     */
+    @Override
+    public MemoryFootprint footprint() {
+        return MemoryFootprint.builder(source.size(), 3 * MemoryFootprint.REFERENCE + Integer.BYTES)
+                .add(source.footprint())
+                .array(keys)
+                .array(values)
+                .build();
+    }
+
+    /**
+     * 기본 구간 개수를 반환합니다. (채움 자리 제외)
+     */
+    public int intervalCount() {
+        return source.intervalCount();
+    }
+}
@@ -0,0 +1,72 @@
+package swnoh.cidr;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * 조각 번호별 작업을 {@link ForkJoinPool}에서 나눠 실행하는 내부 유틸리티.
+ */
+final class ForkJoinTasks {
+
+    private ForkJoinTasks() {
+    }
+
+    /**
+     * 0부터 taskCount - 1까지의 작업 번호마다 body를 실행하고 모두 끝날 때까지 기다립니다.
+     * 풀이 없거나 작업이 하나뿐이면 호출한 스레드에서 차례로 실행합니다.
+     */
+    static void forEach(ForkJoinPool pool, int taskCount, IntConsumer body) {
+        if (pool == null || taskCount == 1) {
+            for (int task = 0; task < taskCount; task++) {
+                body.accept(task);
+            }
+            return;
+        }
+        pool.invoke(new ForEachTask(taskCount, body));
+    }
+
+    /**
+     * 작업 번호를 각각 fork해서 실행하는 작업.
+     */
+    private static class ForEachTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int taskCount;
+        private final IntConsumer body;
+
+        ForEachTask(int taskCount, IntConsumer body) {
+            this.taskCount = taskCount;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            List<RecursiveAction> tasks = new ArrayList<>(taskCount);
+            for (int i = 0; i < taskCount; i++) {
+                tasks.add(new TaskAction(i, body));
+            }
+            ForkJoinTask.invokeAll(tasks);
+        }
+    }
+
+    private static class TaskAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int task;
+        private final IntConsumer body;
+
+        TaskAction(int task, IntConsumer body) {
+            this.task = task;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            body.accept(task);
+        }
+    }
+}
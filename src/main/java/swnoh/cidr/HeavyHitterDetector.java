@@ -0,0 +1,532 @@
+package swnoh.cidr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * IP 주소 스트림에서 트래픽 비중이 큰 prefix를 찾는 계층적 heavy hitter(HHH) 탐지기.
+ *
+ * 관찰할 prefix 길이마다 k = ⌈1/ε⌉로 정한 유한 개의 카운터를 둡니다.
+ * 각 prefix의 추정 개수는 실제 개수보다 작지 않고, 많아야 εN만큼 큽니다. (N: 전체 개수)
+ * 메모리는 스트림 크기와 관계없이 (prefix 길이 수 × k)에 비례합니다.
+ *
+ * 여러 스레드에서 {@link #offer(int)}를 호출할 수 있습니다. 주소는 스레드별 버퍼에 모았다가
+ * 버퍼가 차면 한 번에 반영합니다. 이때 버퍼를 정렬하므로 같은 prefix에 속한 주소가
+ * 붙어 있게 되고, 짧은 prefix일수록 카운터 갱신 횟수가 크게 줄어듭니다.
+ * 잠금은 prefix 길이마다 따로 있고, 버퍼는 다음 길이의 잠금을 잡은 뒤 앞 길이의 잠금을 놓으며
+ * (hand-over-hand) 짧은 길이부터 차례로 반영됩니다. 따라서 여러 스레드의 버퍼가 서로 다른 길이에서
+ * 동시에 반영되고, 모든 잠금을 같은 순서로 잡는 스냅샷에는 버퍼가 전부 반영되었거나 전혀 반영되지 않습니다.
+ * 다른 스레드의 버퍼에 남아 있는 주소(스레드당 {@value #BATCH_SIZE}개 미만)는
+ * 버퍼가 찰 때까지 스냅샷에 나타나지 않습니다.
+ *
+ * 스냅샷은 긴 prefix부터 heavy hitter를 고르고, 짧은 prefix의 개수에서는 이미 고른
+ * 하위 heavy hitter의 개수를 뺀(discounted) 값이 임계값을 넘을 때만 결과에 넣습니다.
+ */
+public class HeavyHitterDetector implements MemoryAccountable {
+
+    /**
+     * 스레드별로 모았다가 한 번에 반영하는 주소 수.
+     */
+    public static final int BATCH_SIZE = 1024;
+
+    private final double epsilon;
+
+    // 오름차순 prefix 길이
+    private final int[] prefixLengths;
+
+    private final Level[] levels;
+
+    private final ThreadLocal<Batch> batches;
+
+    // 지금까지 만든 스레드별 버퍼 수 (메모리 추정용)
+    private final AtomicInteger batchesCreated = new AtomicInteger();
+
+    // 반영된 주소 수 (levels[0].lock으로 보호)
+    private long total;
+
+    private HeavyHitterDetector(double epsilon, int[] prefixLengths) {
+        this.epsilon = epsilon;
+        this.prefixLengths = prefixLengths;
+        this.batches = ThreadLocal.withInitial(() -> {
+            batchesCreated.incrementAndGet();
+            return new Batch();
+        });
+        int capacity = (int) Math.ceil(1 / epsilon);
+        this.levels = new Level[prefixLengths.length];
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = new Level(prefixLengths[i], capacity);
+        }
+    }
+
+    /**
+     * /8부터 /32까지 모든 prefix 길이를 관찰하는 탐지기를 생성합니다.
+     *
+     * @param epsilon 허용 오차 (전체 개수 대비 비율, 0 초과 1 미만)
+     */
+    public static HeavyHitterDetector of(double epsilon) {
+        int[] prefixLengths = new int[25];
+        for (int i = 0; i < prefixLengths.length; i++) {
+            prefixLengths[i] = 8 + i;
+        }
+        return of(epsilon, prefixLengths);
+    }
+
+    /**
+     * 주어진 prefix 길이들을 관찰하는 탐지기를 생성합니다.
+     *
+     * @param epsilon       허용 오차 (전체 개수 대비 비율, 0 초과 1 미만)
+     * @param prefixLengths 관찰할 prefix 길이들 (0~32)
+     */
+    public static HeavyHitterDetector of(double epsilon, int... prefixLengths) {
+        if (!(epsilon > 0 && epsilon < 1) || 1 / epsilon > 1 << 24) {
+            throw new IllegalArgumentException("Epsilon must be between 2^-24 and 1: " + epsilon);
+        }
+        if (prefixLengths == null || prefixLengths.length == 0) {
+            throw new IllegalArgumentException("Prefix lengths cannot be empty");
+        }
+        int[] sorted = Arrays.stream(prefixLengths).sorted().distinct().toArray();
+        if (sorted[0] < 0 || sorted[sorted.length - 1] > 32) {
+            throw new IllegalArgumentException("Prefix length must be between 0 and 32: " + Arrays.toString(prefixLengths));
+        }
+        return new HeavyHitterDetector(epsilon, sorted);
+    }
+
+    /**
+     * 주소 하나를 기록합니다.
+     *
+     * @param address IP 주소 (부호 없는 32비트 값)
+     */
+    public void offer(int address) {
+        Batch batch = batches.get();
+        batch.addresses[batch.size++] = address;
+        if (batch.size == BATCH_SIZE) {
+            apply(batch);
+        }
+    }
+
+    public void offer(IpAddress ip) {
+        if (ip == null) {
+            throw new IllegalArgumentException("IP address cannot be null");
+        }
+        offer(ip.toInt());
+    }
+
+    /**
+     * 현재 스레드의 버퍼에 남은 주소를 반영합니다.
+     */
+    public void flush() {
+        Batch batch = batches.get();
+        if (batch.size > 0) {
+            apply(batch);
+        }
+    }
+
+    /**
+     * 현재 스레드의 버퍼를 반영한 뒤 전체 개수의 threshold 비율 이상인 heavy hitter를 구합니다.
+     *
+     * @param threshold 보고 기준 비율 (epsilon 이상 1 이하)
+     */
+    public Snapshot snapshot(double threshold) {
+        checkThreshold(threshold);
+        flush();
+        lockAll();
+        try {
+            return computeSnapshot(threshold);
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * 스냅샷을 구한 뒤 모든 카운터를 비웁니다. 주기적으로 호출해 시간 구간별 결과를 얻을 때 사용합니다.
+     *
+     * @param threshold 보고 기준 비율 (epsilon 이상 1 이하)
+     */
+    public Snapshot snapshotAndReset(double threshold) {
+        checkThreshold(threshold);
+        flush();
+        lockAll();
+        try {
+            Snapshot snapshot = computeSnapshot(threshold);
+            for (Level level : levels) {
+                level.clear();
+            }
+            total = 0;
+            return snapshot;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    public double getEpsilon() {
+        return epsilon;
+    }
+
+    /**
+     * 관찰하는 prefix 길이들을 오름차순으로 반환합니다.
+     */
+    public int[] getPrefixLengths() {
+        return prefixLengths.clone();
+    }
+
+    /**
+     * 항목은 모든 prefix 길이에서 사용 중인 카운터 수입니다.
+     * 스레드별 버퍼는 지금까지 만든 개수로 계산하므로 이미 끝난 스레드의 버퍼도 포함될 수 있습니다.
+     */
+    @Override
+    public MemoryFootprint footprint() {
+        long counters = 0;
+        lockAll();
+        try {
+            for (Level level : levels) {
+                counters += level.size;
+            }
+        } finally {
+            unlockAll();
+        }
+        int threads = batchesCreated.get();
+        MemoryFootprint.Builder builder = MemoryFootprint.builder(counters,
+                        5 * MemoryFootprint.REFERENCE + Double.BYTES + Long.BYTES)
+                .array(prefixLengths)
+                .array(levels)
+                .objects(levels.length, 5 * Integer.BYTES + 6 * MemoryFootprint.REFERENCE + Long.BYTES)
+                // 단계마다 ReentrantLock과 내부 동기화 객체
+                .objects(levels.length, MemoryFootprint.REFERENCE)
+                .objects(levels.length, 3 * MemoryFootprint.REFERENCE + Integer.BYTES)
+                // ThreadLocal, AtomicInteger, 스레드마다 Batch 객체와 주소 배열
+                .objects(1, MemoryFootprint.REFERENCE + Integer.BYTES)
+                .objects(1, Integer.BYTES)
+                .objects(threads, MemoryFootprint.REFERENCE + Integer.BYTES)
+                .bytes(threads * MemoryFootprint.arraySize(Integer.BYTES, BATCH_SIZE));
+        for (Level level : levels) {
+            builder.array(level.keys).array(level.counts)
+                    .array(level.spareKeys).array(level.spareCounts)
+                    .array(level.scratch);
+        }
+        return builder.build();
+    }
+
+    private void checkThreshold(double threshold) {
+        if (!(threshold >= epsilon && threshold <= 1)) {
+            throw new IllegalArgumentException("Threshold must be between epsilon and 1: " + threshold);
+        }
+    }
+
+    private void apply(Batch batch) {
+        int[] addresses = batch.addresses;
+        int size = batch.size;
+        batch.size = 0;
+        // 정렬하면 같은 prefix의 주소가 모든 길이에서 연속 구간이 됨
+        Arrays.sort(addresses, 0, size);
+
+        // 다음 단계의 잠금을 잡은 뒤 앞 단계를 놓아서, 뒤따르는 버퍼나 스냅샷이 앞지르지 못하게 함
+        levels[0].lock.lock();
+        total += size;
+        for (int l = 0; l < levels.length; l++) {
+            Level level = levels[l];
+            int mask = level.mask;
+            int i = 0;
+            while (i < size) {
+                int key = addresses[i] & mask;
+                int j = i + 1;
+                while (j < size && (addresses[j] & mask) == key) {
+                    j++;
+                }
+                level.add(key, j - i);
+                i = j;
+            }
+            if (l + 1 < levels.length) {
+                levels[l + 1].lock.lock();
+            }
+            level.lock.unlock();
+        }
+    }
+
+    private void lockAll() {
+        for (Level level : levels) {
+            level.lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int l = levels.length - 1; l >= 0; l--) {
+            levels[l].lock.unlock();
+        }
+    }
+
+    private Snapshot computeSnapshot(double threshold) {
+        long minCount = (long) Math.ceil(threshold * total);
+        List<HeavyHitter> found = new ArrayList<>();
+
+        for (int l = levels.length - 1; l >= 0; l--) {
+            Level level = levels[l];
+            int reportedBelow = found.size();
+            for (int slot = 0; slot < level.counts.length; slot++) {
+                long count = level.counts[slot] + level.offset;
+                if (level.counts[slot] == 0 || count < minCount) {
+                    continue;
+                }
+                long network = level.keys[slot] & 0xFFFFFFFFL;
+                long discounted = count - descendantCount(found, reportedBelow, network, level.prefixLength);
+                if (discounted >= minCount) {
+                    found.add(new HeavyHitter(CidrBlock.of(network, level.prefixLength),
+                            count, level.offset, Math.max(0, discounted)));
+                }
+            }
+        }
+
+        found.sort(Comparator.comparingLong(HeavyHitter::getDiscountedCount).reversed());
+        return new Snapshot(total, found);
+    }
+
+    /**
+     * 이미 고른 (더 긴 prefix의) heavy hitter 중 주어진 블록에 속하면서
+     * 다른 고른 블록에 포함되지 않는 것들의 최소 개수 합.
+     */
+    private static long descendantCount(List<HeavyHitter> found, int limit, long network, int prefixLength) {
+        long sum = 0;
+        for (int i = 0; i < limit; i++) {
+            HeavyHitter candidate = found.get(i);
+            if (!contains(network, prefixLength, candidate.block)) {
+                continue;
+            }
+            boolean nested = false;
+            for (int j = 0; j < limit && !nested; j++) {
+                HeavyHitter other = found.get(j);
+                nested = j != i && other.block.getPrefixLength() < candidate.block.getPrefixLength()
+                        && other.block.getPrefixLength() > prefixLength
+                        && contains(other.block.getNetworkAddress(), other.block.getPrefixLength(), candidate.block);
+            }
+            if (!nested) {
+                sum += candidate.getMinCount();
+            }
+        }
+        return sum;
+    }
+
+    private static boolean contains(long network, int prefixLength, CidrBlock block) {
+        long mask = (0xFFFFFFFFL << (32 - prefixLength)) & 0xFFFFFFFFL;
+        return block.getPrefixLength() > prefixLength && (block.getNetworkAddress() & mask) == network;
+    }
+
+    private static final class Batch {
+        final int[] addresses = new int[BATCH_SIZE];
+        int size;
+    }
+
+    /**
+     * prefix 길이 하나의 카운터 집합 (Misra-Gries 방식).
+     *
+     * 키 → 개수를 선형 탐사 해시 표에 최대 2k개까지 둡니다. 표가 차면 (k+1)번째로 큰 개수 v를
+     * 모든 카운터에서 빼고 0 이하가 된 카운터를 버립니다. 매번 k+1개 이상의 카운터에서 v씩 빼므로
+     * 뺀 총량(offset)은 N/(k+1)을 넘지 않고, 실제 개수는 [카운터 값, 카운터 값 + offset] 안에 있습니다.
+     * 정리는 새 키 k개마다 한 번 이하로 일어나므로 갱신 비용은 분할 상환 O(1)입니다.
+     * 정리할 때는 미리 만들어 둔 두 번째 표에 남은 카운터를 옮긴 뒤 두 표를 맞바꾸므로 새로 할당하지 않습니다.
+     */
+    private static final class Level {
+        final int prefixLength;
+        final int mask;
+        final int capacity;
+
+        final ReentrantLock lock = new ReentrantLock();
+
+        // counts[i] == 0이면 빈 칸
+        int[] keys;
+        long[] counts;
+
+        // 정리할 때 남은 카운터를 옮겨 담는 표
+        int[] spareKeys;
+        long[] spareCounts;
+        final int tableMask;
+        int size;
+
+        // 지금까지 모든 카운터에서 뺀 총량 (최대 과소 추정량)
+        long offset;
+
+        private final long[] scratch;
+
+        Level(int prefixLength, int capacity) {
+            this.prefixLength = prefixLength;
+            this.mask = prefixLength == 0 ? 0 : -1 << (32 - prefixLength);
+            this.capacity = capacity;
+            int tableSize = Integer.highestOneBit(2 * capacity) << 2;
+            this.keys = new int[tableSize];
+            this.counts = new long[tableSize];
+            this.spareKeys = new int[tableSize];
+            this.spareCounts = new long[tableSize];
+            this.tableMask = tableSize - 1;
+            this.scratch = new long[2 * capacity];
+        }
+
+        void add(int key, long weight) {
+            int h = hash(key) & tableMask;
+            while (counts[h] != 0) {
+                if (keys[h] == key) {
+                    counts[h] += weight;
+                    return;
+                }
+                h = (h + 1) & tableMask;
+            }
+            keys[h] = key;
+            counts[h] = weight;
+            if (++size == scratch.length) {
+                purge();
+            }
+        }
+
+        void clear() {
+            Arrays.fill(counts, 0);
+            size = 0;
+            offset = 0;
+        }
+
+        // (k+1)번째로 큰 개수를 모든 카운터에서 빼고 남은 카운터로 표를 다시 만듦
+        private void purge() {
+            int n = 0;
+            for (long count : counts) {
+                if (count != 0) {
+                    scratch[n++] = count;
+                }
+            }
+            long cut = select(scratch, n, n - capacity - 1);
+            offset += cut;
+
+            int[] oldKeys = keys;
+            long[] oldCounts = counts;
+            int[] newKeys = spareKeys;
+            long[] newCounts = spareCounts;
+            Arrays.fill(newCounts, 0);
+            size = 0;
+            for (int i = 0; i < oldCounts.length; i++) {
+                if (oldCounts[i] > cut) {
+                    int h = hash(oldKeys[i]) & tableMask;
+                    while (newCounts[h] != 0) {
+                        h = (h + 1) & tableMask;
+                    }
+                    newKeys[h] = oldKeys[i];
+                    newCounts[h] = oldCounts[i] - cut;
+                    size++;
+                }
+            }
+            keys = newKeys;
+            counts = newCounts;
+            spareKeys = oldKeys;
+            spareCounts = oldCounts;
+        }
+
+        // values[0, n)에서 오름차순 rank번째 값 (quickselect, values 순서는 바뀜)
+        private static long select(long[] values, int n, int rank) {
+            int lo = 0;
+            int hi = n - 1;
+            while (lo < hi) {
+                long pivot = values[(lo + hi) >>> 1];
+                int i = lo;
+                int j = hi;
+                while (i <= j) {
+                    while (values[i] < pivot) {
+                        i++;
+                    }
+                    while (values[j] > pivot) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        long t = values[i];
+                        values[i++] = values[j];
+                        values[j--] = t;
+                    }
+                }
+                if (rank <= j) {
+                    hi = j;
+                } else if (rank >= i) {
+                    lo = i;
+                } else {
+                    return values[rank];
+                }
+            }
+            return values[rank];
+        }
+
+        private static int hash(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    /**
+     * 탐지된 heavy hitter prefix 하나.
+     */
+    public static final class HeavyHitter {
+        private final CidrBlock block;
+        private final long count;
+        private final long error;
+        private final long discountedCount;
+
+        HeavyHitter(CidrBlock block, long count, long error, long discountedCount) {
+            this.block = block;
+            this.count = count;
+            this.error = error;
+            this.discountedCount = discountedCount;
+        }
+
+        public CidrBlock getBlock() {
+            return block;
+        }
+
+        /**
+         * 추정 개수. 실제 개수 이상입니다.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * 확실한 최소 개수 (추정 개수 - 최대 오차).
+         */
+        public long getMinCount() {
+            return count - error;
+        }
+
+        /**
+         * 결과에 포함된 하위 heavy hitter의 개수를 뺀 추정 개수.
+         */
+        public long getDiscountedCount() {
+            return discountedCount;
+        }
+
+        @Override
+        public String toString() {
+            return block + "=" + discountedCount + " (count " + count + ", error " + error + ")";
+        }
+    }
+
+    /**
+     * 한 시점의 heavy hitter 목록.
+     */
+    public static final class Snapshot {
+        private final long total;
+        private final List<HeavyHitter> heavyHitters;
+
+        Snapshot(long total, List<HeavyHitter> heavyHitters) {
+            this.total = total;
+            this.heavyHitters = List.copyOf(heavyHitters);
+        }
+
+        /**
+         * 스냅샷에 반영된 전체 주소 수.
+         */
+        public long getTotal() {
+            return total;
+        }
+
+        /**
+         * discounted 개수가 큰 순서의 heavy hitter 목록.
+         */
+        public List<HeavyHitter> getHeavyHitters() {
+            return heavyHitters;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package swnoh.cidr;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * CIDR 블록들의 사용 가능한 호스트 주소를 한 줄에 하나씩 파일로 내보내는 도구.
+ *
+ * 호스트 규칙은 {@link CidrBlock#getUsableIpCount()}와 같습니다.
+ * /32는 주소 하나, /31은 두 주소 모두, 그 외에는 네트워크/브로드캐스트 주소를 뺀 범위입니다.
+ *
+ * 주소 문자열은 작은 byte 배열에서 만든 뒤 재사용하는 direct {@link ByteBuffer}에 모아
+ * 큰 단위로 채널에 씁니다. gzip을 켜면 같은 버퍼에 deflate 결과를 바로 받아 씁니다.
+ * 블록 크기 제한이 없으므로 수십억 개의 주소도 일정한 메모리로 내보낼 수 있습니다.
+ *
+ * 버퍼를 재사용하므로 한 인스턴스를 여러 스레드에서 동시에 사용할 수 없습니다.
+ */
+public class HostListExporter {
+
+    private static final int DEFAULT_BUFFER_SIZE = 4 << 20;
+
+    private static final int MIN_BUFFER_SIZE = 64;
+
+    // 주소 문자열을 만드는 작업 배열 크기
+    private static final int STAGING_SIZE = 64 << 10;
+
+    private static final int LINE_LENGTH = IpAddress.MAX_TEXT_LENGTH + 1;
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final ByteBuffer buffer;
+
+    private final byte[] staging;
+
+    /**
+     * 기본 크기(4MB)의 버퍼로 생성합니다.
+     */
+    public HostListExporter() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 주어진 크기의 direct 버퍼로 생성합니다.
+     *
+     * @param bufferSize 채널에 한 번에 쓸 바이트 수
+     */
+    public HostListExporter(int bufferSize) {
+        if (bufferSize < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Buffer size must be at least " + MIN_BUFFER_SIZE + ": " + bufferSize);
+        }
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.staging = new byte[Math.min(STAGING_SIZE, bufferSize)];
+    }
+
+    /**
+     * 파일을 새로 만들거나 덮어쓰면서 호스트 목록을 내보냅니다.
+     *
+     * @param blocks 내보낼 CIDR 블록들 (주어진 순서대로, 중복 제거 없음)
+     * @param file   출력 파일
+     * @param gzip   gzip으로 압축할지 여부
+     * @return 내보낸 주소 개수
+     */
+    public long export(Collection<CidrBlock> blocks, Path file, boolean gzip) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            return export(blocks, channel, gzip);
+        }
+    }
+
+    /**
+     * 채널에 호스트 목록을 내보냅니다. 채널은 닫지 않습니다.
+     *
+     * @param blocks  내보낼 CIDR 블록들 (주어진 순서대로, 중복 제거 없음)
+     * @param channel 출력 채널
+     * @param gzip    gzip으로 압축할지 여부
+     * @return 내보낸 주소 개수
+     */
+    public long export(Collection<CidrBlock> blocks, WritableByteChannel channel, boolean gzip) throws IOException {
+        if (blocks == null) {
+            throw new IllegalArgumentException("CIDR blocks cannot be null");
+        }
+        if (channel == null) {
+            throw new IllegalArgumentException("Channel cannot be null");
+        }
+
+        buffer.clear();
+        Sink sink = gzip ? new GzipSink(channel) : new PlainSink(channel);
+        try {
+            return write(blocks, sink);
+        } finally {
+            sink.close();
+        }
+    }
+
+    private long write(Collection<CidrBlock> blocks, Sink sink) throws IOException {
+        long count = 0;
+        int length = 0;
+
+        for (CidrBlock block : blocks) {
+            long network = block.getNetworkAddress();
+            int prefixLength = block.getPrefixLength();
+            long first = network;
+            long last = network;
+            if (prefixLength == 31) {
+                last = network + 1;
+            } else if (prefixLength < 31) {
+                first = network + 1;
+                last = network + (1L << (32 - prefixLength)) - 2;
+            }
+
+            for (long address = first; address <= last; address++) {
+                if (length > staging.length - LINE_LENGTH) {
+                    sink.write(staging, length);
+                    length = 0;
+                }
+                length = IpAddress.writeTo((int) address, staging, length);
+                staging[length++] = '\n';
+            }
+            count += last - first + 1;
+        }
+
+        sink.write(staging, length);
+        sink.finish();
+        return count;
+    }
+
+    private void flush(WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private interface Sink {
+        void write(byte[] bytes, int length) throws IOException;
+
+        void finish() throws IOException;
+
+        default void close() {
+        }
+    }
+
+    private final class PlainSink implements Sink {
+        private final WritableByteChannel channel;
+
+        PlainSink(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(byte[] bytes, int length) throws IOException {
+            int offset = 0;
+            while (offset < length) {
+                if (!buffer.hasRemaining()) {
+                    flush(channel);
+                }
+                int n = Math.min(buffer.remaining(), length - offset);
+                buffer.put(bytes, offset, n);
+                offset += n;
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            flush(channel);
+        }
+    }
+
+    /**
+     * deflate 결과를 direct 버퍼로 바로 받고 gzip 헤더/트레일러를 직접 붙이는 출력.
+     */
+    private final class GzipSink implements Sink {
+        private final WritableByteChannel channel;
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        private final CRC32 crc = new CRC32();
+        private long size;
+
+        GzipSink(WritableByteChannel channel) {
+            this.channel = channel;
+            buffer.put(GZIP_HEADER);
+        }
+
+        @Override
+        public void write(byte[] bytes, int length) throws IOException {
+            crc.update(bytes, 0, length);
+            size += length;
+            deflater.setInput(bytes, 0, length);
+            while (!deflater.needsInput()) {
+                if (!buffer.hasRemaining()) {
+                    flush(channel);
+                }
+                deflater.deflate(buffer);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            deflater.finish();
+            while (!deflater.finished()) {
+                if (!buffer.hasRemaining()) {
+                    flush(channel);
+                }
+                deflater.deflate(buffer);
+            }
+            if (buffer.remaining() < 8) {
+                flush(channel);
+            }
+            putIntLittleEndian((int) crc.getValue());
+            putIntLittleEndian((int) size);
+            flush(channel);
+        }
+
+        @Override
+        public void close() {
+            deflater.end();
+        }
+
+        private void putIntLittleEndian(int value) {
+            buffer.put((byte) value);
+            buffer.put((byte) (value >>> 8));
+            buffer.put((byte) (value >>> 16));
+            buffer.put((byte) (value >>> 24));
+        }
+    }
+}
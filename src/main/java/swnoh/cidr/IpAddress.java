@@ -1,6 +1,26 @@
 package swnoh.cidr;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 public class IpAddress {
+
+    /**
+     * 점-십진 표기 IP 문자열의 최대 길이 ("255.255.255.255")
+     */
+    public static final int MAX_TEXT_LENGTH = 15;
+
+    // 옥텟(0~255)별 십진 문자열 테이블: [길이, 숫자1, 숫자2, 숫자3] * 256
+    private static final byte[] OCTET_DIGITS = new byte[256 * 4];
+
+    static {
+        for (int octet = 0; octet < 256; octet++) {
+            byte[] digits = Integer.toString(octet).getBytes(StandardCharsets.US_ASCII);
+            OCTET_DIGITS[octet * 4] = (byte) digits.length;
+            System.arraycopy(digits, 0, OCTET_DIGITS, octet * 4 + 1, digits.length);
+        }
+    }
+
     private final int[] octets;
     
     private IpAddress(String ipAddress) {
@@ -57,6 +77,16 @@ public class IpAddress {
     }
 
 
+    /**
+     * IP 주소를 32비트 int로 변환합니다. (부호 없는 값으로 해석해야 합니다)
+     *
+     * @return
+     */
+    public int toInt() {
+        return (octets[0] << 24) | (octets[1] << 16) | (octets[2] << 8) | octets[3];
+    }
+
+
     public static IpAddress fromString(String ipAddress) {
         return new IpAddress(ipAddress);
     }
@@ -75,9 +105,125 @@ public class IpAddress {
         return new IpAddress(octets);
     }
     
+    public static IpAddress fromInt(int ipAsInt) {
+        return fromLong(ipAsInt & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * IP 주소 문자열을 바이트 배열에 ASCII로 기록합니다.
+     *
+     * @param dst 기록할 배열 (offset부터 최대 {@link #MAX_TEXT_LENGTH}바이트 필요)
+     * @param offset 기록 시작 위치
+     * @return 기록이 끝난 다음 위치
+     */
+    public int writeTo(byte[] dst, int offset) {
+        return writeTo(toInt(), dst, offset);
+    }
+
+    /**
+     * IP 주소 문자열을 버퍼의 현재 위치에 ASCII로 기록합니다.
+     */
+    public void writeTo(ByteBuffer dst) {
+        writeTo(toInt(), dst);
+    }
+
+    /**
+     * IP 주소 문자열을 StringBuilder에 덧붙입니다.
+     *
+     * @return 전달받은 StringBuilder
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        return appendTo(toInt(), sb);
+    }
+
+    /**
+     * int로 표현된 IP 주소를 바이트 배열에 ASCII로 기록합니다. (객체 할당 없음)
+     *
+     * @param address IP 주소 (int)
+     * @param dst 기록할 배열 (offset부터 최대 {@link #MAX_TEXT_LENGTH}바이트 필요)
+     * @param offset 기록 시작 위치
+     * @return 기록이 끝난 다음 위치
+     */
+    public static int writeTo(int address, byte[] dst, int offset) {
+        offset = writeOctet(address >>> 24, dst, offset);
+        dst[offset++] = '.';
+        offset = writeOctet((address >>> 16) & 0xFF, dst, offset);
+        dst[offset++] = '.';
+        offset = writeOctet((address >>> 8) & 0xFF, dst, offset);
+        dst[offset++] = '.';
+        return writeOctet(address & 0xFF, dst, offset);
+    }
+
+    /**
+     * int로 표현된 IP 주소를 버퍼의 현재 위치에 ASCII로 기록합니다. (객체 할당 없음)
+     */
+    public static void writeTo(int address, ByteBuffer dst) {
+        writeOctet(address >>> 24, dst);
+        dst.put((byte) '.');
+        writeOctet((address >>> 16) & 0xFF, dst);
+        dst.put((byte) '.');
+        writeOctet((address >>> 8) & 0xFF, dst);
+        dst.put((byte) '.');
+        writeOctet(address & 0xFF, dst);
+    }
+
+    /**
+     * int로 표현된 IP 주소를 StringBuilder에 덧붙입니다. (객체 할당 없음)
+     *
+     * @return 전달받은 StringBuilder
+     */
+    public static StringBuilder appendTo(int address, StringBuilder sb) {
+        appendOctet(address >>> 24, sb);
+        sb.append('.');
+        appendOctet((address >>> 16) & 0xFF, sb);
+        sb.append('.');
+        appendOctet((address >>> 8) & 0xFF, sb);
+        sb.append('.');
+        appendOctet(address & 0xFF, sb);
+        return sb;
+    }
+
+    /**
+     * int로 표현된 IP 주소를 문자열로 변환합니다.
+     */
+    public static String toString(int address) {
+        byte[] buffer = new byte[MAX_TEXT_LENGTH];
+        int length = writeTo(address, buffer, 0);
+        return new String(buffer, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    private static int writeOctet(int octet, byte[] dst, int offset) {
+        int base = octet << 2;
+        int length = OCTET_DIGITS[base];
+        dst[offset] = OCTET_DIGITS[base + 1];
+        if (length > 1) {
+            dst[offset + 1] = OCTET_DIGITS[base + 2];
+            if (length > 2) {
+                dst[offset + 2] = OCTET_DIGITS[base + 3];
+            }
+        }
+        return offset + length;
+    }
+
+    private static void writeOctet(int octet, ByteBuffer dst) {
+        int base = octet << 2;
+        int length = OCTET_DIGITS[base];
+        for (int i = 1; i <= length; i++) {
+            dst.put(OCTET_DIGITS[base + i]);
+        }
+    }
+
+    private static void appendOctet(int octet, StringBuilder sb) {
+        int base = octet << 2;
+        int length = OCTET_DIGITS[base];
+        for (int i = 1; i <= length; i++) {
+            sb.append((char) OCTET_DIGITS[base + i]);
+        }
+    }
+
     @Override
     public String toString() {
-        return String.format("%d.%d.%d.%d", octets[0], octets[1], octets[2], octets[3]);
+        return toString(toInt());
     }
     
     @Override
@@ -0,0 +1,193 @@
+package swnoh.cidr;
+
+import java.util.Arrays;
+
+/**
+ * 음이 아닌 long 키와 int 값을 저장하는 open addressing 해시 맵.
+ *
+ * 키와 값을 primitive 배열에 그대로 저장하므로 조회/삽입/삭제 시 객체를 할당하지 않습니다.
+ * 선형 탐사를 사용하며, 삭제 시 뒤따르는 항목을 당겨와 tombstone을 남기지 않습니다.
+ * 스레드 안전하지 않습니다.
+ */
+final class LongIntHashMap {
+
+    private static final long EMPTY = -1L;
+
+    private long[] keys;
+
+    private int[] values;
+
+    private int mask;
+
+    // 곱셈 해시의 상위 log2(용량) 비트를 쓰기 위한 shift
+    private int shift;
+
+    private int size;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        shift = Long.numberOfLeadingZeros(mask);
+    }
+
+    private int slotOf(long key) {
+        // Fibonacci hashing: 곱의 상위 비트가 키의 모든 비트에 의존하므로 용량에 맞춰 상위 비트를 씀
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    /**
+     * 키에 해당하는 값을 반환합니다.
+     *
+     * @return 값, 키가 없으면 missingValue
+     */
+    int get(long key, int missingValue) {
+        int slot = slotOf(key);
+        while (true) {
+            long current = keys[slot];
+            if (current == key) {
+                return values[slot];
+            }
+            if (current == EMPTY) {
+                return missingValue;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    boolean containsKey(long key) {
+        int slot = slotOf(key);
+        while (true) {
+            long current = keys[slot];
+            if (current == key) {
+                return true;
+            }
+            if (current == EMPTY) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * 키에 값을 저장합니다. 기존 값은 덮어씁니다.
+     */
+    void put(long key, int value) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Key must not be negative: " + key);
+        }
+        int slot = slotOf(key);
+        while (true) {
+            long current = keys[slot];
+            if (current == key) {
+                values[slot] = value;
+                return;
+            }
+            if (current == EMPTY) {
+                keys[slot] = key;
+                values[slot] = value;
+                if (++size * 2 > keys.length) {
+                    rehash(keys.length * 2);
+                }
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * 키를 삭제합니다.
+     *
+     * @return 삭제된 값, 키가 없으면 missingValue
+     */
+    int remove(long key, int missingValue) {
+        int slot = slotOf(key);
+        while (true) {
+            long current = keys[slot];
+            if (current == EMPTY) {
+                return missingValue;
+            }
+            if (current == key) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int removed = values[slot];
+        size--;
+
+        // 뒤따르는 항목 중 원래 자리로 당겨올 수 있는 것들을 이동 (backward shift)
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = slotOf(keys[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    MemoryFootprint footprint() {
+        return MemoryFootprint.builder(size, 2 * MemoryFootprint.REFERENCE + 3 * Integer.BYTES)
+                .array(keys)
+                .array(values)
+                .build();
+    }
+
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    /**
+     * 저장된 모든 키-값 쌍을 순회합니다. 순회 중에는 맵을 수정하지 마세요.
+     */
+    void forEach(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                visitor.visit(keys[i], values[i]);
+            }
+        }
+    }
+
+    // 내부 배열 용량 (메모리 계산용)
+    int capacity() {
+        return keys.length;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != EMPTY) {
+                int slot = slotOf(key);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    interface Visitor {
+        void visit(long key, int value);
+    }
+}
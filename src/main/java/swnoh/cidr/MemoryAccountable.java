@@ -0,0 +1,16 @@
+package swnoh.cidr;
+
+/**
+ * 차지하는 메모리를 추정해 보고하는 자료구조의 공통 인터페이스.
+ *
+ * 컨테이너 크기를 정하거나 메모리 지표를 주기적으로 내보낼 때 사용합니다.
+ */
+public interface MemoryAccountable {
+
+    /**
+     * 현재 메모리 사용량 추정치를 반환합니다. 내부 배열 길이로 계산하므로 항목 수와 관계없이 빠릅니다.
+     *
+     * @see MemoryFootprint
+     */
+    MemoryFootprint footprint();
+}
@@ -0,0 +1,210 @@
+package swnoh.cidr;
+
+import java.util.Collection;
+
+/**
+ * 자료구조 하나가 차지하는 메모리의 추정치.
+ *
+ * 힙을 탐색하지 않고 내부 배열의 길이와 필드 구성으로 계산하므로, 항목 수와 관계없이 비용이 작아
+ * 주기적으로 지표로 내보낼 수 있습니다. 크기는 압축 참조(compressed oops)를 쓰는 64비트 HotSpot 기준입니다.
+ * <ul>
+ *     <li>객체 헤더 12바이트, 참조 4바이트, 배열 헤더 16바이트, 8바이트 정렬</li>
+ *     <li>필드는 빈틈없이 채워진다고 가정합니다. (JDK 15 이후의 필드 배치와 거의 같음)</li>
+ * </ul>
+ * 힙이 32GB를 넘어 압축 참조가 꺼지면 참조가 많은 구조는 실제보다 작게 추정됩니다.
+ *
+ * <ul>
+ *     <li>shallow: 자료구조 객체 자체의 크기</li>
+ *     <li>retained: 자료구조가 붙잡고 있는 배열과 객체 전체 (shallow 포함, off-heap 포함).
+ *         호출자와 공유하는 {@link CidrBlock} 객체도 포함합니다.</li>
+ *     <li>off-heap: direct buffer처럼 힙 밖에 둔 메모리</li>
+ * </ul>
+ *
+ * @see MemoryAccountable
+ */
+public final class MemoryFootprint {
+
+    static final int OBJECT_HEADER = 12;
+
+    static final int ARRAY_HEADER = 16;
+
+    static final int REFERENCE = 4;
+
+    private static final int ALIGNMENT = 8;
+
+    // CidrBlock(IpAddress 참조, prefix) + IpAddress(옥텟 배열 참조) + int[4]
+    static final long CIDR_BLOCK_BYTES = objectSize(REFERENCE + Integer.BYTES)
+            + objectSize(REFERENCE) + arraySize(Integer.BYTES, 4);
+
+    // List.copyOf / ArrayList 객체 (요소 배열 참조, 크기 등 필드 8바이트 가정)
+    private static final long LIST_BYTES = objectSize(REFERENCE + Integer.BYTES * 2);
+
+    private final long entryCount;
+
+    private final long shallowBytes;
+
+    private final long retainedBytes;
+
+    private final long offHeapBytes;
+
+    private MemoryFootprint(long entryCount, long shallowBytes, long retainedBytes, long offHeapBytes) {
+        this.entryCount = entryCount;
+        this.shallowBytes = shallowBytes;
+        this.retainedBytes = retainedBytes;
+        this.offHeapBytes = offHeapBytes;
+    }
+
+    /**
+     * {@link CidrBlock} 목록이 차지하는 메모리를 추정합니다. 목록 객체, 참조 배열,
+     * 블록마다 CidrBlock, IpAddress, 옥텟 배열 객체를 포함합니다.
+     */
+    public static MemoryFootprint ofBlocks(Collection<CidrBlock> blocks) {
+        if (blocks == null) {
+            throw new IllegalArgumentException("CIDR blocks cannot be null");
+        }
+        return new MemoryFootprint(blocks.size(), LIST_BYTES, blockListSize(blocks.size()), 0);
+    }
+
+    /**
+     * 항목 수. 항목의 의미는 자료구조마다 다르며 각 {@code footprint()} 문서에 적혀 있습니다.
+     */
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public long getShallowBytes() {
+        return shallowBytes;
+    }
+
+    public long getRetainedBytes() {
+        return retainedBytes;
+    }
+
+    public long getOnHeapBytes() {
+        return retainedBytes - offHeapBytes;
+    }
+
+    public long getOffHeapBytes() {
+        return offHeapBytes;
+    }
+
+    /**
+     * 항목 하나당 retained 바이트 수. 항목이 없으면 0.
+     */
+    public double getBytesPerEntry() {
+        return entryCount == 0 ? 0 : (double) retainedBytes / entryCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MemoryFootprint[entries=%d, shallow=%d, retained=%d, onHeap=%d, offHeap=%d, perEntry=%.2f]",
+                entryCount, shallowBytes, retainedBytes, getOnHeapBytes(), offHeapBytes, getBytesPerEntry());
+    }
+
+    static long objectSize(long fieldBytes) {
+        return align(OBJECT_HEADER + fieldBytes);
+    }
+
+    static long arraySize(int elementBytes, long length) {
+        return align(ARRAY_HEADER + elementBytes * length);
+    }
+
+    // 목록 객체 + 참조 배열 + 블록 객체들
+    static long blockListSize(int size) {
+        return LIST_BYTES + arraySize(REFERENCE, size) + size * CIDR_BLOCK_BYTES;
+    }
+
+    static long stringSize(String value) {
+        // compact string: Latin-1이면 문자당 1바이트, 아니면 2바이트
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        return objectSize(REFERENCE + Integer.BYTES + 2) + arraySize(bytesPerChar, value.length());
+    }
+
+    private static long align(long bytes) {
+        return (bytes + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    /**
+     * @param entryCount 항목 수
+     * @param fieldBytes 자료구조 객체의 인스턴스 필드 바이트 합
+     */
+    static Builder builder(long entryCount, int fieldBytes) {
+        return new Builder(entryCount, objectSize(fieldBytes));
+    }
+
+    /**
+     * 자료구조가 붙잡고 있는 배열과 객체를 더해 가며 추정치를 만드는 도구. null 배열은 무시합니다.
+     */
+    static final class Builder {
+        private final long entryCount;
+        private final long shallowBytes;
+        private long retainedBytes;
+        private long offHeapBytes;
+
+        private Builder(long entryCount, long shallowBytes) {
+            this.entryCount = entryCount;
+            this.shallowBytes = shallowBytes;
+            this.retainedBytes = shallowBytes;
+        }
+
+        Builder array(int[] array) {
+            return array == null ? this : bytes(arraySize(Integer.BYTES, array.length));
+        }
+
+        Builder array(long[] array) {
+            return array == null ? this : bytes(arraySize(Long.BYTES, array.length));
+        }
+
+        Builder array(byte[] array) {
+            return array == null ? this : bytes(arraySize(Byte.BYTES, array.length));
+        }
+
+        /**
+         * 참조 배열 자체만 더합니다. 요소 객체는 따로 더해야 합니다.
+         */
+        Builder array(Object[] array) {
+            return array == null ? this : bytes(arraySize(REFERENCE, array.length));
+        }
+
+        Builder blocks(Collection<CidrBlock> blocks) {
+            return blocks == null ? this : bytes(blockListSize(blocks.size()));
+        }
+
+        /**
+         * 인스턴스 필드 바이트 합이 fieldBytes인 객체 count개를 더합니다.
+         */
+        Builder objects(long count, int fieldBytes) {
+            return bytes(count * objectSize(fieldBytes));
+        }
+
+        /**
+         * 다른 자료구조의 retained 크기를 더합니다.
+         */
+        Builder add(MemoryFootprint other) {
+            retainedBytes += other.retainedBytes;
+            offHeapBytes += other.offHeapBytes;
+            return this;
+        }
+
+        Builder bytes(long bytes) {
+            retainedBytes += bytes;
+            return this;
+        }
+
+        Builder offHeap(long bytes) {
+            retainedBytes += bytes;
+            offHeapBytes += bytes;
+            return this;
+        }
+
+        MemoryFootprint build() {
+            return new MemoryFootprint(entryCount, shallowBytes, retainedBytes, offHeapBytes);
+        }
+    }
+}
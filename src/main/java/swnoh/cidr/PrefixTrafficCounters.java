@@ -0,0 +1,227 @@
+package swnoh.cidr;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+
+/**
+ * 설정된 CIDR 블록별 바이트/패킷 카운터.
+ *
+ * 주소는 {@link CidrIndex}로 longest-prefix-match 블록 번호를 찾고,
+ * 그 번호의 카운터를 원자적으로 더합니다. 일치하는 블록이 없으면 별도의 미일치 카운터에 더합니다.
+ *
+ * 카운터는 long 배열 하나에 스트라이프(stripe)별 행으로 펼쳐 둡니다.
+ * 스레드는 스레드 ID로 정한 스트라이프에만 쓰므로 서로 다른 스트라이프끼리는 경합이 없고,
+ * 행 사이에는 캐시 라인 여백을 두어 false sharing을 막습니다. 기록 경로에서는 객체를 만들지 않습니다.
+ *
+ * 각 행에는 카운터 뱅크가 두 개 있습니다. 기록은 활성 뱅크에만 하고,
+ * {@link #snapshotAndReset()}은 활성 뱅크를 바꾼 뒤 이전 뱅크에 쓰던 기록이 모두 끝나기를 기다렸다가
+ * 읽고 비웁니다. 따라서 기록 하나의 바이트와 패킷은 항상 같은 스냅샷에 함께 들어가고, 빠지는 기록도 없습니다.
+ */
+public class PrefixTrafficCounters implements MemoryAccountable {
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    // 캐시 라인 두 개 (인접 라인 프리페치까지 고려)
+    private static final int PADDING = 16;
+
+    // 행 머리의 위상(phase) 카운터: 진입 수, 짝수 위상 완료 수, 홀수 위상 완료 수
+    private static final int START = 0;
+    private static final int EVEN_END = 1;
+    private static final int ODD_END = 2;
+
+    private final CidrIndex index;
+
+    private final long[] cells;
+
+    private final int stripeMask;
+
+    // 한 행의 long 개수, 뱅크 하나의 long 개수
+    private final int rowLength;
+    private final int bankLength;
+
+    // 현재 활성 위상이 홀수인지 (this로 보호)
+    private boolean oddPhase;
+
+    private PrefixTrafficCounters(CidrIndex index, int stripes) {
+        this.index = index;
+        this.stripeMask = stripes - 1;
+        // 블록마다 (바이트, 패킷), 마지막 칸은 미일치 카운터
+        this.bankLength = (index.size() + 1) * 2;
+        this.rowLength = PADDING + 2 * bankLength + PADDING;
+        this.cells = new long[PADDING + stripes * rowLength];
+    }
+
+    /**
+     * 사용 가능한 프로세서 수에 맞춘 스트라이프 수로 카운터를 생성합니다.
+     *
+     * @param cidrBlocks 집계할 CIDR 블록들 (카운터 번호는 목록의 인덱스)
+     */
+    public static PrefixTrafficCounters of(List<CidrBlock> cidrBlocks) {
+        return of(cidrBlocks, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+    }
+
+    /**
+     * 주어진 스트라이프 수로 카운터를 생성합니다.
+     *
+     * @param cidrBlocks 집계할 CIDR 블록들 (카운터 번호는 목록의 인덱스)
+     * @param stripes    스트라이프 수 (1 이상의 2의 거듭제곱)
+     */
+    public static PrefixTrafficCounters of(List<CidrBlock> cidrBlocks, int stripes) {
+        if (cidrBlocks == null) {
+            throw new IllegalArgumentException("CIDR blocks cannot be null");
+        }
+        if (stripes < 1 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Stripes must be a power of two: " + stripes);
+        }
+        return new PrefixTrafficCounters(CidrIndex.of(cidrBlocks), stripes);
+    }
+
+    /**
+     * 패킷 하나를 기록합니다.
+     *
+     * @param address 패킷의 IP 주소 (부호 없는 32비트 값)
+     * @param bytes   패킷 크기
+     * @return 기록한 블록 번호, 일치하는 블록이 없으면 {@link CidrLookup#NO_MATCH}
+     */
+    public int record(int address, long bytes) {
+        int id = index.lookup(address);
+        int slot = id == CidrLookup.NO_MATCH ? index.size() : id;
+
+        int row = PADDING + stripe() * rowLength;
+        long critical = (long) LONGS.getAndAdd(cells, row + START, 1L);
+        int cell = row + PADDING + (critical < 0 ? bankLength : 0) + slot * 2;
+        LONGS.getAndAdd(cells, cell, bytes);
+        LONGS.getAndAdd(cells, cell + 1, 1L);
+        LONGS.getAndAdd(cells, row + (critical < 0 ? ODD_END : EVEN_END), 1L);
+        return id;
+    }
+
+    public int record(IpAddress ip, long bytes) {
+        if (ip == null) {
+            throw new IllegalArgumentException("IP address cannot be null");
+        }
+        return record(ip.toInt(), bytes);
+    }
+
+    /**
+     * 지금까지의 카운터 값을 돌려주고 모두 0으로 되돌립니다.
+     * 호출 중에도 다른 스레드의 기록은 멈추지 않으며, 그 기록들은 다음 스냅샷에 들어갑니다.
+     */
+    public synchronized Snapshot snapshotAndReset() {
+        int stripes = stripeMask + 1;
+        boolean nextOdd = !oddPhase;
+        long[] startsAtFlip = new long[stripes];
+
+        // 1. 모든 스트라이프의 위상을 바꿈. 다음 위상의 완료 수를 먼저 초기화해야 함
+        for (int s = 0; s < stripes; s++) {
+            int row = PADDING + s * rowLength;
+            LONGS.setVolatile(cells, row + (nextOdd ? ODD_END : EVEN_END), nextOdd ? Long.MIN_VALUE : 0L);
+            startsAtFlip[s] = (long) LONGS.getAndSet(cells, row + START, nextOdd ? Long.MIN_VALUE : 0L);
+        }
+
+        // 2. 이전 위상에 진입한 기록이 모두 끝나기를 기다림
+        int endOffset = oddPhase ? ODD_END : EVEN_END;
+        for (int s = 0; s < stripes; s++) {
+            int row = PADDING + s * rowLength;
+            while ((long) LONGS.getVolatile(cells, row + endOffset) != startsAtFlip[s]) {
+                Thread.onSpinWait();
+            }
+        }
+
+        // 3. 이전 뱅크를 합산하고 비움
+        long[] totals = new long[bankLength];
+        int bankOffset = PADDING + (oddPhase ? bankLength : 0);
+        for (int s = 0; s < stripes; s++) {
+            int bank = PADDING + s * rowLength + bankOffset;
+            for (int i = 0; i < bankLength; i++) {
+                totals[i] += cells[bank + i];
+                cells[bank + i] = 0;
+            }
+        }
+        oddPhase = nextOdd;
+        return new Snapshot(index, totals);
+    }
+
+    /**
+     * 카운터 번호에 해당하는 블록을 반환합니다.
+     */
+    public CidrBlock get(int id) {
+        return index.get(id);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public int getStripes() {
+        return stripeMask + 1;
+    }
+
+    /**
+     * 항목은 블록 수이며, 블록 인덱스와 스트라이프별 카운터 뱅크 전체를 포함합니다.
+     */
+    @Override
+    public MemoryFootprint footprint() {
+        return MemoryFootprint.builder(index.size(), 2 * MemoryFootprint.REFERENCE + 3 * Integer.BYTES + Byte.BYTES)
+                .add(index.footprint())
+                .array(cells)
+                .build();
+    }
+
+    private int stripe() {
+        long id = Thread.currentThread().getId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & stripeMask;
+    }
+
+    /**
+     * 한 시점까지 누적된 블록별 카운터 값.
+     */
+    public static final class Snapshot {
+        private final CidrIndex index;
+        // 블록마다 (바이트, 패킷), 마지막 칸은 미일치
+        private final long[] totals;
+
+        Snapshot(CidrIndex index, long[] totals) {
+            this.index = index;
+            this.totals = totals;
+        }
+
+        public long getBytes(int id) {
+            return totals[2 * checkId(id)];
+        }
+
+        public long getPackets(int id) {
+            return totals[2 * checkId(id) + 1];
+        }
+
+        /**
+         * 어떤 블록에도 속하지 않은 주소의 바이트 수.
+         */
+        public long getUnmatchedBytes() {
+            return totals[totals.length - 2];
+        }
+
+        /**
+         * 어떤 블록에도 속하지 않은 주소의 패킷 수.
+         */
+        public long getUnmatchedPackets() {
+            return totals[totals.length - 1];
+        }
+
+        public CidrBlock get(int id) {
+            return index.get(id);
+        }
+
+        public int size() {
+            return index.size();
+        }
+
+        private int checkId(int id) {
+            if (id < 0 || id >= index.size()) {
+                throw new IllegalArgumentException("Invalid counter id: " + id);
+            }
+            return id;
+        }
+    }
+}
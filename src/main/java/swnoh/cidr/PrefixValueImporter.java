@@ -0,0 +1,333 @@
+package swnoh.cidr;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * GeoIP/ASN 형식의 CSV를 한 번 읽어 {@link PrefixValueTable}을 만드는 도구.
+ *
+ * 한 줄에 하나의 행을 기대하며, 다음 형식을 지원합니다.
+ * <ul>
+ *     <li>{@code 1.0.0.0,1.0.0.255,AU} - 시작 주소, 마지막 주소, 값</li>
+ *     <li>{@code 1.0.0.0/24,AU} - 네트워크, 값 (호스트 비트는 무시)</li>
+ *     <li>{@code 1.2.3.4,AU} - 단일 주소, 값</li>
+ *     <li>첫 행이 주소로 시작하지 않으면 머리글로 보고 건너뜀</li>
+ *     <li>빈 줄과 {@code #}으로 시작하는 주석 줄은 건너뜀</li>
+ * </ul>
+ * 값은 주소 필드 뒤의 나머지 전부이며, 전체가 큰따옴표로 감싸져 있으면 따옴표를 벗깁니다
+ * ({@code ""}는 {@code "}로). 따라서 MaxMind처럼 열이 여러 개인 CSV는 나머지 열 전체가 값이 됩니다.
+ *
+ * 파일은 고정 크기 버퍼로 순차적으로 읽고, 행마다 문자열이나 {@link CidrBlock}을 만들지 않습니다.
+ * 값은 바이트 그대로 사전에서 찾아 번호로 바꾸고, 처음 보는 값만 사전에 복사합니다.
+ * 구간은 바로 테이블에 이어 붙이므로 테이블과 값 사전 외에 추가로 쓰는 메모리는 버퍼 하나뿐입니다.
+ * 대신 행은 시작 주소 순으로 정렬되어 있고 서로 겹치지 않아야 합니다 (GeoIP 배포 파일의 형식).
+ */
+public class PrefixValueImporter {
+
+    // 기본 버퍼 크기 (1MB)
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    private static final int MIN_BUFFER_SIZE = 256;
+
+    // parseLine 결과: 추가된 행, 빈 줄/주석, 형식 오류, 정렬되지 않았거나 겹치는 행
+    static final int ROW = 0;
+    static final int SKIP = 1;
+    static final int INVALID = 2;
+    static final int UNORDERED = 3;
+
+    private final int bufferSize;
+
+    /**
+     * 기본 버퍼 크기(1MB)를 사용하는 도구를 생성합니다.
+     */
+    public PrefixValueImporter() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param bufferSize 읽기 버퍼 크기 (이보다 긴 줄은 잘못된 줄로 처리)
+     */
+    public PrefixValueImporter(int bufferSize) {
+        if (bufferSize < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Buffer size must be at least " + MIN_BUFFER_SIZE + ": " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * CSV 파일을 읽어 테이블을 만듭니다.
+     *
+     * @param file CSV 파일
+     * @return 테이블과 읽기 요약
+     * @throws IllegalArgumentException 행이 정렬되어 있지 않거나 겹치는 경우
+     */
+    public Result load(Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null");
+        }
+
+        Result result = new Result();
+        PrefixValueTable.Builder builder = new PrefixValueTable.Builder();
+        ValueDictionary dictionary = new ValueDictionary();
+        ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+        byte[] scratch = new byte[bufferSize];
+        long lineNumber = 0;
+        boolean headerAllowed = true;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            boolean skipping = false;
+            boolean eof = false;
+            while (!eof) {
+                eof = channel.read(buffer) < 0;
+                buffer.flip();
+
+                byte[] bytes = buffer.array();
+                int lineStart = 0;
+                int limit = buffer.limit();
+                for (int i = 0; i <= limit; i++) {
+                    boolean endOfLine = i < limit ? bytes[i] == '\n' : eof && i > lineStart;
+                    if (!endOfLine) {
+                        continue;
+                    }
+                    lineNumber++;
+                    if (skipping) {
+                        skipping = false;
+                    } else {
+                        int status = parseLine(buffer, lineStart, i, builder, dictionary, scratch);
+                        if (status == ROW) {
+                            result.rowCount++;
+                            headerAllowed = false;
+                        } else if (status == INVALID && !headerAllowed) {
+                            result.invalidLines++;
+                        } else if (status == INVALID) {
+                            headerAllowed = false;
+                        } else if (status == UNORDERED) {
+                            throw new IllegalArgumentException("CSV rows must be sorted by address and must not overlap"
+                                    + " (line " + lineNumber + ")");
+                        }
+                    }
+                    lineStart = i + 1;
+                }
+
+                buffer.position(Math.min(lineStart, limit));
+                buffer.compact();
+                if (!buffer.hasRemaining()) {
+                    // 버퍼보다 긴 줄은 잘못된 줄로 보고 다음 줄바꿈까지 버림
+                    if (!skipping) {
+                        result.invalidLines++;
+                        headerAllowed = false;
+                        skipping = true;
+                    }
+                    buffer.clear();
+                }
+            }
+        }
+
+        result.table = builder.build(dictionary.toValues());
+        return result;
+    }
+
+    /**
+     * 한 줄을 파싱해 테이블에 추가합니다.
+     */
+    static int parseLine(ByteBuffer buffer, int from, int to, PrefixValueTable.Builder builder,
+                         ValueDictionary dictionary, byte[] scratch) {
+        byte[] bytes = buffer.array();
+        while (from < to && isSpace(bytes[from])) {
+            from++;
+        }
+        while (to > from && isSpace(bytes[to - 1])) {
+            to--;
+        }
+        if (from == to || bytes[from] == '#') {
+            return SKIP;
+        }
+
+        int firstComma = indexOf(bytes, ',', from, to);
+        if (firstComma < 0) {
+            return INVALID;
+        }
+        long first = CidrBulkParser.parseEntry(buffer, from, firstComma);
+        if (first < 0) {
+            return INVALID;
+        }
+
+        long start = first >>> 8;
+        long end;
+        int valueFrom;
+        if (indexOf(bytes, '/', from, firstComma) >= 0) {
+            long size = 1L << (32 - (int) (first & 0xFF));
+            start &= -size;
+            end = start + size;
+            valueFrom = firstComma + 1;
+        } else {
+            int secondComma = indexOf(bytes, ',', firstComma + 1, to);
+            long last = secondComma < 0 || indexOf(bytes, '/', firstComma + 1, secondComma) >= 0
+                    ? CidrBulkParser.INVALID
+                    : CidrBulkParser.parseEntry(buffer, firstComma + 1, secondComma);
+            if (last >= 0) {
+                end = (last >>> 8) + 1;
+                if (end <= start) {
+                    return INVALID;
+                }
+                valueFrom = secondComma + 1;
+            } else {
+                end = start + 1;
+                valueFrom = firstComma + 1;
+            }
+        }
+
+        int id = internValue(bytes, valueFrom, to, dictionary, scratch);
+        return builder.add(start, end, id) ? ROW : UNORDERED;
+    }
+
+    private static int internValue(byte[] bytes, int from, int to, ValueDictionary dictionary, byte[] scratch) {
+        while (from < to && isSpace(bytes[from])) {
+            from++;
+        }
+        if (to - from < 2 || bytes[from] != '"' || bytes[to - 1] != '"') {
+            return dictionary.intern(bytes, from, to);
+        }
+        int length = 0;
+        for (int i = from + 1; i < to - 1; i++) {
+            scratch[length++] = bytes[i];
+            if (bytes[i] == '"' && i + 1 < to - 1 && bytes[i + 1] == '"') {
+                i++;
+            }
+        }
+        return dictionary.intern(scratch, 0, length);
+    }
+
+    private static int indexOf(byte[] bytes, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * 값의 UTF-8 바이트를 번호로 바꾸는 사전. 처음 보는 값만 바이트를 복사하고,
+     * 문자열은 마지막에 한 번씩만 만듭니다.
+     */
+    static final class ValueDictionary {
+        private byte[] data = new byte[4096];
+        private int used;
+
+        // 값 번호별 data 시작 위치 (offsets[id] ~ offsets[id + 1])
+        private int[] offsets = new int[257];
+        private int[] hashes = new int[257];
+        private int size;
+
+        // 값 번호 + 1, 비어 있으면 0
+        private int[] slots = new int[512];
+
+        int intern(byte[] bytes, int from, int to) {
+            int hash = hash(bytes, from, to);
+            int mask = slots.length - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                int id = slots[slot] - 1;
+                if (id < 0) {
+                    id = add(bytes, from, to, hash);
+                    slots[slot] = id + 1;
+                    if (size * 2 > slots.length) {
+                        rehash();
+                    }
+                    return id;
+                }
+                if (hashes[id] == hash
+                        && Arrays.equals(data, offsets[id], offsets[id + 1], bytes, from, to)) {
+                    return id;
+                }
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        String[] toValues() {
+            String[] values = new String[size];
+            for (int id = 0; id < size; id++) {
+                values[id] = new String(data, offsets[id], offsets[id + 1] - offsets[id], StandardCharsets.UTF_8);
+            }
+            return values;
+        }
+
+        private int add(byte[] bytes, int from, int to, int hash) {
+            int length = to - from;
+            if (used + length > data.length) {
+                data = Arrays.copyOf(data, Math.max(used + length, data.length * 2));
+            }
+            if (size + 1 == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                hashes = Arrays.copyOf(hashes, offsets.length);
+            }
+            System.arraycopy(bytes, from, data, used, length);
+            used += length;
+            hashes[size] = hash;
+            offsets[size + 1] = used;
+            return size++;
+        }
+
+        private void rehash() {
+            slots = new int[slots.length * 2];
+            int mask = slots.length - 1;
+            for (int id = 0; id < size; id++) {
+                int slot = hashes[id] & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = id + 1;
+            }
+        }
+
+        private static int hash(byte[] bytes, int from, int to) {
+            int h = 1;
+            for (int i = from; i < to; i++) {
+                h = 31 * h + bytes[i];
+            }
+            return (h ^ (h >>> 16)) * 0x9E3779B9;
+        }
+    }
+
+    /**
+     * 읽기 결과.
+     */
+    public static class Result {
+        private PrefixValueTable table;
+        private long rowCount;
+        private long invalidLines;
+
+        /**
+         * 만들어진 테이블.
+         */
+        public PrefixValueTable getTable() {
+            return table;
+        }
+
+        /**
+         * 테이블에 들어간 행 수.
+         */
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * 형식이 잘못되어 건너뛴 줄 수 (머리글 제외).
+         */
+        public long getInvalidLines() {
+            return invalidLines;
+        }
+    }
+}
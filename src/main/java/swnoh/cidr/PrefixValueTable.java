@@ -0,0 +1,192 @@
+package swnoh.cidr;
+
+import java.util.Arrays;
+
+/**
+ * 주소 구간마다 값(국가 코드, ASN 등)을 붙여 둔 읽기 전용 조회 테이블.
+ *
+ * 주소 공간을 겹치지 않는 구간으로 나누고, 구간의 시작 주소 배열과 값 번호 배열 두 개만 둡니다.
+ * 같은 값은 사전({@link #getValue(int)})에 한 번만 두고 번호로 참조하며, 맞닿은 구간의 값이 같으면
+ * 하나로 합칩니다. 값이 없는 빈 구간은 번호 -1로 표시합니다.
+ * 조회는 시작 주소 배열에 대한 이진 탐색 한 번입니다.
+ *
+ * 보통 {@link PrefixValueImporter}로 CSV에서 생성합니다.
+ * 불변 객체이므로 여러 스레드에서 동시에 조회할 수 있습니다.
+ */
+public class PrefixValueTable implements MemoryAccountable {
+
+    /**
+     * 값이 없는 주소의 값 번호.
+     */
+    public static final int NO_VALUE = -1;
+
+    private static final long ADDRESS_SPACE = 1L << 32;
+
+    // 구간 시작 주소 (부호 비트를 뒤집어 signed 비교로 정렬 순서를 유지)
+    private final int[] starts;
+
+    // 구간별 값 번호, 빈 구간은 NO_VALUE
+    private final int[] valueIds;
+
+    private final String[] values;
+
+    PrefixValueTable(int[] starts, int[] valueIds, String[] values) {
+        this.starts = starts;
+        this.valueIds = valueIds;
+        this.values = values;
+    }
+
+    /**
+     * 주소의 값 번호를 반환합니다.
+     *
+     * @param address IP 주소 (부호 없는 32비트 값)
+     * @return 값 번호, 없으면 {@link #NO_VALUE}
+     */
+    public int lookupId(int address) {
+        int i = Arrays.binarySearch(starts, address ^ Integer.MIN_VALUE);
+        if (i < 0) {
+            i = -i - 2;
+            if (i < 0) {
+                return NO_VALUE;
+            }
+        }
+        return valueIds[i];
+    }
+
+    /**
+     * 주소의 값을 반환합니다.
+     *
+     * @param address IP 주소 (부호 없는 32비트 값)
+     * @return 값, 없으면 null
+     */
+    public String lookup(int address) {
+        int id = lookupId(address);
+        return id == NO_VALUE ? null : values[id];
+    }
+
+    public String lookup(IpAddress ip) {
+        if (ip == null) {
+            throw new IllegalArgumentException("IP address cannot be null");
+        }
+        return lookup(ip.toInt());
+    }
+
+    /**
+     * 값 번호에 해당하는 값을 반환합니다.
+     */
+    public String getValue(int id) {
+        if (id < 0 || id >= values.length) {
+            throw new IllegalArgumentException("Value id out of range: " + id);
+        }
+        return values[id];
+    }
+
+    /**
+     * 서로 다른 값의 개수.
+     */
+    public int getValueCount() {
+        return values.length;
+    }
+
+    /**
+     * 저장된 구간 개수 (빈 구간 포함).
+     */
+    public int getRangeCount() {
+        return starts.length;
+    }
+
+    /**
+     * 항목은 구간 수(빈 구간 포함)이며, 값 사전의 문자열을 포함합니다.
+     */
+    @Override
+    public MemoryFootprint footprint() {
+        MemoryFootprint.Builder builder = MemoryFootprint.builder(starts.length, 3 * MemoryFootprint.REFERENCE)
+                .array(starts)
+                .array(valueIds)
+                .array(values);
+        for (String value : values) {
+            builder.bytes(MemoryFootprint.stringSize(value));
+        }
+        return builder.build();
+    }
+
+    /**
+     * 값이 있는 구간들을 최소 CIDR 블록으로 나누어 주소 순으로 전달합니다.
+     */
+    public void forEachPrefix(PrefixVisitor visitor) {
+        if (visitor == null) {
+            throw new IllegalArgumentException("Visitor cannot be null");
+        }
+        for (int i = 0; i < starts.length; i++) {
+            int id = valueIds[i];
+            if (id == NO_VALUE) {
+                continue;
+            }
+            long start = (starts[i] ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+            long end = i + 1 < starts.length ? (starts[i + 1] ^ Integer.MIN_VALUE) & 0xFFFFFFFFL : ADDRESS_SPACE;
+            String value = values[id];
+            CidrRanges.forEachBlock(start, end,
+                    (network, prefixLength) -> visitor.visit(CidrBlock.of(network, prefixLength), value));
+        }
+    }
+
+    /**
+     * {@link #forEachPrefix(PrefixVisitor)}가 블록마다 호출하는 콜백.
+     */
+    @FunctionalInterface
+    public interface PrefixVisitor {
+        void visit(CidrBlock block, String value);
+    }
+
+    /**
+     * 시작 주소 순으로 구간을 받아 테이블을 만드는 도구. 맞닿은 구간의 값이 같으면 합칩니다.
+     */
+    static final class Builder {
+        private int[] starts = new int[1024];
+        private int[] valueIds = new int[1024];
+        private int count;
+
+        // 마지막 구간의 끝 (exclusive)
+        private long end;
+
+        /**
+         * 구간 [start, end)를 추가합니다.
+         *
+         * @return 직전 구간과 겹치거나 순서가 어긋나 추가하지 못하면 false
+         */
+        boolean add(long start, long rangeEnd, int valueId) {
+            if (start < end || rangeEnd <= start) {
+                return false;
+            }
+            if (start > end && count > 0) {
+                append(end, NO_VALUE);
+            }
+            if (count == 0 || valueIds[count - 1] != valueId) {
+                append(start, valueId);
+            }
+            end = rangeEnd;
+            return true;
+        }
+
+        int size() {
+            return count;
+        }
+
+        PrefixValueTable build(String[] values) {
+            if (end < ADDRESS_SPACE && count > 0) {
+                append(end, NO_VALUE);
+            }
+            return new PrefixValueTable(Arrays.copyOf(starts, count), Arrays.copyOf(valueIds, count), values);
+        }
+
+        private void append(long start, int valueId) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count + (count >> 1));
+                valueIds = Arrays.copyOf(valueIds, starts.length);
+            }
+            starts[count] = (int) start ^ Integer.MIN_VALUE;
+            valueIds[count] = valueId;
+            count++;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package swnoh.cidr;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 큰 주소 배치를 상위 비트 기준 샤드로 나눠 여러 코어에서 조회하는 실행기.
+ *
+ * 주소 공간을 2^shardBits개의 샤드로 나누고, 각 샤드에 해당하는 {@link CidrIndex}의
+ * 구간 범위를 미리 계산해 둡니다. 배치 조회는 세 단계로 진행됩니다.
+ * <ol>
+ *   <li>입력을 여러 조각으로 나눠 조각별·샤드별 주소 개수를 셉니다.</li>
+ *   <li>개수로 계산한 위치에 (주소, 입력 위치) 쌍을 샤드별로 모읍니다. (counting sort)</li>
+ *   <li>샤드마다 자기 구간 범위 안에서만 이진 탐색하고 결과를 입력 위치에 되돌려 씁니다.</li>
+ * </ol>
+ * 한 샤드를 처리하는 동안에는 인덱스의 좁은 범위만 읽으므로 작업 집합이 캐시에 머뭅니다.
+ *
+ * 작업 버퍼를 재사용하기 때문에 {@link #lookupAll}은 한 번에 하나씩 실행되며,
+ * 각 호출이 풀의 모든 스레드를 사용합니다.
+ */
+public class ShardedBatchLookup implements CidrLookup, MemoryAccountable {
+
+    // 이보다 작은 배치는 나누지 않고 현재 스레드에서 바로 조회
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 14;
+
+    private static final int MAX_SHARD_BITS = 16;
+
+    private final CidrIndex index;
+    private final int[] starts;
+    private final int[] values;
+
+    private final ForkJoinPool pool;
+
+    private final int shardBits;
+
+    // 샤드별 인덱스 구간 범위 [shardFrom[s], shardTo[s])
+    private final int[] shardFrom;
+    private final int[] shardTo;
+
+    // 샤드 순으로 모은 주소와 원래 입력 위치 (호출 간 재사용)
+    private int[] shardedAddresses = new int[0];
+    private int[] shardedPositions = new int[0];
+
+    private ShardedBatchLookup(CidrIndex index, int shardBits, ForkJoinPool pool) {
+        this.index = index;
+        this.starts = index.starts();
+        this.values = index.values();
+        this.pool = pool;
+        this.shardBits = shardBits;
+
+        int shardCount = 1 << shardBits;
+        this.shardFrom = new int[shardCount];
+        this.shardTo = new int[shardCount];
+        for (int s = 0; s < shardCount; s++) {
+            long first = (long) s << (32 - shardBits);
+            long last = first + (1L << (32 - shardBits)) - 1;
+            shardFrom[s] = index.find((int) first ^ Integer.MIN_VALUE, 0, starts.length);
+            shardTo[s] = index.find((int) last ^ Integer.MIN_VALUE, 0, starts.length) + 1;
+        }
+    }
+
+    /**
+     * 공용 풀과 코어 수에 맞춘 샤드 수로 실행기를 생성합니다.
+     *
+     * @param index 조회할 인덱스
+     * @return 생성된 실행기
+     */
+    public static ShardedBatchLookup of(CidrIndex index) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        // 코어당 샤드 여러 개를 두어 샤드별 주소 수 편차를 흡수
+        int shardBits = 32 - Integer.numberOfLeadingZeros(pool.getParallelism() * 8 - 1);
+        return of(index, Math.max(4, shardBits), pool);
+    }
+
+    /**
+     * 주어진 샤드 비트 수와 풀로 실행기를 생성합니다.
+     *
+     * @param index     조회할 인덱스
+     * @param shardBits 샤드를 나눌 상위 비트 수 (0 ~ 16)
+     * @param pool      조회에 사용할 풀
+     * @return 생성된 실행기
+     */
+    public static ShardedBatchLookup of(CidrIndex index, int shardBits, ForkJoinPool pool) {
+        if (index == null) {
+            throw new IllegalArgumentException("Index cannot be null");
+        }
+        if (shardBits < 0 || shardBits > MAX_SHARD_BITS) {
+            throw new IllegalArgumentException("Shard bits must be between 0 and " + MAX_SHARD_BITS + ": " + shardBits);
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        return new ShardedBatchLookup(index, shardBits, pool);
+    }
+
+    @Override
+    public int lookup(int address) {
+        return index.lookup(address);
+    }
+
+    @Override
+    public synchronized void lookupAll(int[] addresses, int[] results, int count) {
+        if (count < 0 || count > addresses.length || count > results.length) {
+            throw new IllegalArgumentException("Invalid count: " + count);
+        }
+        if (count < SEQUENTIAL_THRESHOLD || pool.getParallelism() == 1) {
+            for (int i = 0; i < count; i++) {
+                results[i] = index.lookup(addresses[i]);
+            }
+            return;
+        }
+
+        if (shardedAddresses.length < count) {
+            shardedAddresses = new int[count];
+            shardedPositions = new int[count];
+        }
+        int[] sortedAddresses = shardedAddresses;
+        int[] sortedPositions = shardedPositions;
+
+        int shardCount = 1 << shardBits;
+        int shift = 32 - shardBits;
+        int pieces = Math.min(pool.getParallelism() * 4, count / (SEQUENTIAL_THRESHOLD / 4));
+        int pieceSize = (count + pieces - 1) / pieces;
+
+        // 1. 조각별 샤드 개수
+        int[][] counts = new int[pieces][shardCount];
+        ForkJoinTasks.forEach(pool, pieces, piece -> {
+            int[] pieceCounts = counts[piece];
+            int end = Math.min(count, (piece + 1) * pieceSize);
+            for (int i = piece * pieceSize; i < end; i++) {
+                pieceCounts[shard(addresses[i], shift)]++;
+            }
+        });
+
+        // 2. 샤드 순, 같은 샤드 안에서는 조각 순으로 쓰기 시작 위치 계산
+        int[] shardOffsets = new int[shardCount + 1];
+        int offset = 0;
+        for (int s = 0; s < shardCount; s++) {
+            shardOffsets[s] = offset;
+            for (int piece = 0; piece < pieces; piece++) {
+                int n = counts[piece][s];
+                counts[piece][s] = offset;
+                offset += n;
+            }
+        }
+        shardOffsets[shardCount] = offset;
+
+        ForkJoinTasks.forEach(pool, pieces, piece -> {
+            int[] cursors = counts[piece];
+            int end = Math.min(count, (piece + 1) * pieceSize);
+            for (int i = piece * pieceSize; i < end; i++) {
+                int position = cursors[shard(addresses[i], shift)]++;
+                sortedAddresses[position] = addresses[i];
+                sortedPositions[position] = i;
+            }
+        });
+
+        // 3. 샤드별로 좁은 구간 범위에서 조회 후 입력 순서로 되돌려 씀
+        //    연속된 샤드들을 주소 수가 비슷하도록 묶어 한 작업으로 처리
+        //    (주소가 몰린 샤드는 혼자 한 작업이 되고, 빈 샤드들은 한 작업에 모임)
+        int groups = Math.min(shardCount, pool.getParallelism() * 8);
+        ForkJoinTasks.forEach(pool, groups, group -> {
+            int first = firstShardAtOrAfter(shardOffsets, (long) count * group / groups);
+            int last = group + 1 == groups
+                    ? shardCount
+                    : firstShardAtOrAfter(shardOffsets, (long) count * (group + 1) / groups);
+            for (int s = first; s < last; s++) {
+                int from = shardFrom[s];
+                int to = shardTo[s];
+                for (int k = shardOffsets[s]; k < shardOffsets[s + 1]; k++) {
+                    int slot = index.find(sortedAddresses[k] ^ Integer.MIN_VALUE, from, to);
+                    results[sortedPositions[k]] = values[slot];
+                }
+            }
+        });
+    }
+
+    /**
+     * 샤드를 나누는 상위 비트 수를 반환합니다.
+     */
+    public int getShardBits() {
+        return shardBits;
+    }
+
+    /**
+     * 샤드 하나가 차지하는 인덱스 구간 수를 반환합니다.
+     */
+    public int getShardIntervalCount(int shard) {
+        return shardTo[shard] - shardFrom[shard];
+    }
+
+    /**
+     * 항목은 인덱스의 블록 수이며, 인덱스 크기와 재사용하는 작업 버퍼를 포함합니다.
+     * 풀은 공유 자원이므로 포함하지 않습니다.
+     */
+    @Override
+    public synchronized MemoryFootprint footprint() {
+        return MemoryFootprint.builder(index.size(), 8 * MemoryFootprint.REFERENCE + Integer.BYTES)
+                .add(index.footprint())
+                .array(shardFrom)
+                .array(shardTo)
+                .array(shardedAddresses)
+                .array(shardedPositions)
+                .build();
+    }
+
+    /**
+     * 시작 위치가 target 이상인 첫 샤드 번호를 반환합니다. 없으면 샤드 수.
+     */
+    private static int firstShardAtOrAfter(int[] shardOffsets, long target) {
+        int low = 0;
+        int high = shardOffsets.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (shardOffsets[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int shard(int address, int shift) {
+        // shift가 32이면 (샤드 1개) 시프트 없이 0이 되도록 long으로 계산
+        return (int) ((address & 0xFFFFFFFFL) >>> shift);
+    }
+}
@@ -0,0 +1,127 @@
+package swnoh.cidr;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 작은 규칙 목록(수백 개 이하)을 위한 선형 탐색 매처.
+ *
+ * 규칙을 네트워크 주소 배열과 마스크 배열(struct-of-arrays)로 저장하고,
+ * 모든 규칙에 대해 (주소 &amp; mask) == network를 차례로 비교합니다.
+ * 규칙 수가 적으면 트리나 이진 탐색보다 분기 예측과 캐시 면에서 유리합니다.
+ *
+ * 실행 환경에 jdk.incubator.vector 모듈이 있으면 ({@code --add-modules jdk.incubator.vector})
+ * 여러 규칙을 한 번에 비교하는 벡터 구현을 쓰고, 없으면 스칼라 구현을 씁니다.
+ *
+ * 조회 결과는 입력 순서상 처음 일치한 규칙의 인덱스입니다 (ACL의 first-match 의미).
+ */
+public class SmallAclMatcher implements CidrLookup, MemoryAccountable {
+
+    private static final AclKernel KERNEL = loadKernel();
+
+    private final List<CidrBlock> rules;
+
+    // 규칙 수를 AclKernel.PADDING의 배수로 채운 배열
+    private final int[] networks;
+    private final int[] masks;
+
+    private SmallAclMatcher(List<CidrBlock> rules, int[] networks, int[] masks) {
+        this.rules = rules;
+        this.networks = networks;
+        this.masks = masks;
+    }
+
+    /**
+     * 규칙 목록으로 매처를 생성합니다.
+     *
+     * @param cidrBlocks 규칙 (앞에 있을수록 우선)
+     * @return 생성된 매처
+     */
+    public static SmallAclMatcher of(List<CidrBlock> cidrBlocks) {
+        if (cidrBlocks == null) {
+            throw new IllegalArgumentException("CIDR blocks cannot be null");
+        }
+
+        List<CidrBlock> rules = List.copyOf(cidrBlocks);
+        int padded = (rules.size() + AclKernel.PADDING - 1) / AclKernel.PADDING * AclKernel.PADDING;
+        int[] networks = new int[padded];
+        int[] masks = new int[padded];
+        // 채운 칸: mask 0이면 (address & 0) == 0 이므로 network를 -1로 두어 절대 일치하지 않게 함
+        Arrays.fill(networks, rules.size(), padded, -1);
+
+        for (int i = 0; i < rules.size(); i++) {
+            CidrBlock rule = rules.get(i);
+            networks[i] = (int) rule.getNetworkAddress();
+            masks[i] = (int) ((0xFFFFFFFFL << (32 - rule.getPrefixLength())) & 0xFFFFFFFFL);
+        }
+        return new SmallAclMatcher(rules, networks, masks);
+    }
+
+    @Override
+    public int lookup(int address) {
+        int i = KERNEL.firstMatch(networks, masks, address);
+        return i < 0 ? NO_MATCH : i;
+    }
+
+    /**
+     * 주소와 일치하는 규칙이 하나라도 있는지 확인합니다.
+     *
+     * @param address IP 주소 (부호 없는 32비트 값)
+     */
+    public boolean matches(int address) {
+        return KERNEL.anyMatch(networks, masks, address);
+    }
+
+    /**
+     * 주소와 일치하는 규칙이 하나라도 있는지 확인합니다.
+     *
+     * @param ip 확인할 IP 주소
+     */
+    public boolean matches(IpAddress ip) {
+        if (ip == null) {
+            throw new IllegalArgumentException("IP address cannot be null");
+        }
+        return matches(ip.toInt());
+    }
+
+    /**
+     * 인덱스 번호에 해당하는 규칙을 반환합니다.
+     */
+    public CidrBlock get(int id) {
+        return rules.get(id);
+    }
+
+    public int size() {
+        return rules.size();
+    }
+
+    /**
+     * 항목은 규칙 수입니다.
+     */
+    @Override
+    public MemoryFootprint footprint() {
+        return MemoryFootprint.builder(rules.size(), 3 * MemoryFootprint.REFERENCE)
+                .blocks(rules)
+                .array(networks)
+                .array(masks)
+                .build();
+    }
+
+    /**
+     * 벡터 구현을 사용 중인지 반환합니다.
+     */
+    public static boolean isVectorized() {
+        return !(KERNEL instanceof AclKernel.Scalar);
+    }
+
+    private static AclKernel loadKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return new AclKernel.Scalar();
+        }
+        try {
+            return (AclKernel) Class.forName("swnoh.cidr.VectorAclKernel").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new AclKernel.Scalar();
+        }
+    }
+}
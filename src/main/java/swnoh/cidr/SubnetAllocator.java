@@ -0,0 +1,441 @@
+package swnoh.cidr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 버디 할당(buddy allocation) 방식의 서브넷 할당기. (IPAM)
+ *
+ * prefix length마다 비어 있는 블록의 free list를 두고,
+ * 할당 시에는 필요한 크기가 될 때까지 큰 블록을 반으로 나누며,
+ * 반납 시에는 짝(buddy) 블록이 비어 있으면 다시 합칩니다.
+ * 할당/반납은 prefix 단계 수(최대 32)에 비례하는 시간에 끝나며, 후보 서브넷 목록을 만들지 않습니다.
+ *
+ * 모든 public 메서드는 스레드 안전합니다.
+ *
+ * <pre>
+ * SubnetAllocator allocator = SubnetAllocator.of(List.of(CidrBlock.of("10.0.0.0/8")));
+ * CidrBlock subnet = allocator.allocate(24);   // 10.0.0.0/24
+ * allocator.release(subnet);
+ * </pre>
+ */
+public class SubnetAllocator implements MemoryAccountable {
+
+    // 할당 실패를 나타내는 주소 값
+    public static final long NONE = -1L;
+
+    private final List<CidrBlock> pools;
+
+    // 풀 루트 블록: 네트워크 주소 -> prefix (버디 병합이 풀 경계를 넘지 않도록)
+    private final LongIntHashMap poolRoots;
+
+    // prefix별 비어 있는 블록 목록
+    private final FreeList[] freeLists = new FreeList[33];
+
+    // 할당된 블록: 네트워크 주소 -> prefix
+    private final LongIntHashMap allocated = new LongIntHashMap(1024);
+
+    private final long totalAddresses;
+
+    private long freeAddresses;
+
+    private final int minPoolPrefix;
+
+    private SubnetAllocator(List<CidrBlock> pools) {
+        this.pools = pools;
+        this.poolRoots = new LongIntHashMap(pools.size());
+        for (int i = 0; i <= 32; i++) {
+            freeLists[i] = new FreeList();
+        }
+
+        long total = 0;
+        int minPrefix = 32;
+        for (CidrBlock pool : pools) {
+            long network = pool.getNetworkAddress();
+            poolRoots.put(network, pool.getPrefixLength());
+            freeLists[pool.getPrefixLength()].add(network);
+            total += pool.getTotalIpCount();
+            minPrefix = Math.min(minPrefix, pool.getPrefixLength());
+        }
+        this.totalAddresses = total;
+        this.freeAddresses = total;
+        this.minPoolPrefix = minPrefix;
+    }
+
+    /**
+     * 주소 풀 목록으로 할당기를 생성합니다.
+     *
+     * @param pools 할당에 사용할 주소 풀 (서로 겹치면 안 됨)
+     * @return 할당기
+     * @throws IllegalArgumentException 풀이 비어 있거나 서로 겹치는 경우
+     */
+    public static SubnetAllocator of(List<CidrBlock> pools) {
+        if (pools == null || pools.isEmpty()) {
+            throw new IllegalArgumentException("At least one pool is required");
+        }
+
+        List<CidrBlock> normalized = new ArrayList<>(pools.size());
+        for (CidrBlock pool : pools) {
+            normalized.add(CidrBlock.of(pool.getNetworkAddress(), pool.getPrefixLength()));
+        }
+
+        CidrOverlapAnalyzer.analyze(normalized,
+                (inner, ancestors, depth) -> {
+                    throw new IllegalArgumentException(
+                            "Pools must not overlap: " + normalized.get(ancestors[depth - 1]) + ", " + normalized.get(inner));
+                });
+
+        return new SubnetAllocator(Collections.unmodifiableList(normalized));
+    }
+
+    /**
+     * 스냅샷으로부터 할당 상태를 복원한 할당기를 생성합니다.
+     */
+    public static SubnetAllocator restore(Snapshot snapshot) {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Snapshot cannot be null");
+        }
+        SubnetAllocator allocator = of(snapshot.getPools());
+        for (CidrBlock block : snapshot.getAllocations()) {
+            allocator.reserve(block);
+        }
+        return allocator;
+    }
+
+    /**
+     * 지정한 크기의 서브넷을 할당합니다.
+     *
+     * @param prefixLength 할당할 서브넷의 prefix length
+     * @return 할당된 서브넷, 남은 공간이 없으면 null
+     */
+    public CidrBlock allocate(int prefixLength) {
+        long network = allocateAddress(prefixLength);
+        return network == NONE ? null : CidrBlock.of(network, prefixLength);
+    }
+
+    /**
+     * 지정한 크기의 서브넷을 할당하고 네트워크 주소만 반환합니다. (CidrBlock 객체를 만들지 않음)
+     *
+     * @param prefixLength 할당할 서브넷의 prefix length
+     * @return 할당된 서브넷의 네트워크 주소, 남은 공간이 없으면 {@link #NONE}
+     */
+    public synchronized long allocateAddress(int prefixLength) {
+        checkPrefixLength(prefixLength);
+
+        // 요청 크기 이상인 가장 작은 빈 블록 찾기
+        int level = prefixLength;
+        while (level >= minPoolPrefix && freeLists[level].isEmpty()) {
+            level--;
+        }
+        if (level < minPoolPrefix) {
+            return NONE;
+        }
+
+        long network = freeLists[level].pop();
+
+        // 필요한 크기가 될 때까지 반으로 나누고, 뒤쪽 절반(buddy)은 free list에 넣음
+        while (level < prefixLength) {
+            level++;
+            freeLists[level].add(network + (1L << (32 - level)));
+        }
+
+        allocated.put(network, prefixLength);
+        freeAddresses -= 1L << (32 - prefixLength);
+        return network;
+    }
+
+    /**
+     * 할당된 서브넷을 반납합니다. 짝 블록이 비어 있으면 자동으로 합쳐집니다.
+     *
+     * @param block 반납할 서브넷
+     * @throws IllegalArgumentException 할당된 서브넷이 아닌 경우
+     */
+    public void release(CidrBlock block) {
+        if (block == null) {
+            throw new IllegalArgumentException("CIDR block cannot be null");
+        }
+        release(block.getNetworkAddress(), block.getPrefixLength());
+    }
+
+    /**
+     * 네트워크 주소와 prefix로 서브넷을 반납합니다.
+     */
+    public synchronized void release(long networkAddress, int prefixLength) {
+        checkPrefixLength(prefixLength);
+        if (allocated.get(networkAddress, -1) != prefixLength) {
+            throw new IllegalArgumentException("Not an allocated subnet: "
+                    + IpAddress.fromLong(networkAddress) + "/" + prefixLength);
+        }
+        allocated.remove(networkAddress, -1);
+        freeAddresses += 1L << (32 - prefixLength);
+        free(networkAddress, prefixLength);
+    }
+
+    /**
+     * 특정 블록을 할당된 상태로 예약합니다. (이미 사용 중인 기존 서브넷 등록)
+     *
+     * @param block 예약할 블록
+     * @throws IllegalArgumentException 풀 밖이거나 이미 할당된 영역과 겹치는 경우
+     */
+    public synchronized void reserve(CidrBlock block) {
+        if (block == null) {
+            throw new IllegalArgumentException("CIDR block cannot be null");
+        }
+        long network = block.getNetworkAddress();
+        int prefixLength = block.getPrefixLength();
+
+        // 블록을 포함하는 빈 블록 찾기
+        int level = prefixLength;
+        while (level >= minPoolPrefix && !freeLists[level].contains(network & maskOf(level))) {
+            level--;
+        }
+        if (level < minPoolPrefix) {
+            throw new IllegalArgumentException("Block is outside the pools or already in use: "
+                    + IpAddress.fromLong(network) + "/" + prefixLength);
+        }
+
+        freeLists[level].remove(network & maskOf(level));
+
+        // 예약할 블록 쪽 절반만 계속 나누고, 반대쪽 절반은 free list에 넣음
+        while (level < prefixLength) {
+            level++;
+            long half = network & maskOf(level);
+            freeLists[level].add(half ^ (1L << (32 - level)));
+        }
+
+        allocated.put(network, prefixLength);
+        freeAddresses -= 1L << (32 - prefixLength);
+    }
+
+    /**
+     * 블록을 free list에 넣으면서 짝 블록과 가능한 만큼 합칩니다.
+     */
+    private void free(long network, int prefixLength) {
+        int level = prefixLength;
+        while (poolRoots.get(network, -1) != level) {
+            long buddy = network ^ (1L << (32 - level));
+            if (!freeLists[level].remove(buddy)) {
+                break;
+            }
+            network &= ~(1L << (32 - level));
+            level--;
+        }
+        freeLists[level].add(network);
+    }
+
+    /**
+     * 현재 할당 상태의 스냅샷을 반환합니다.
+     */
+    public synchronized Snapshot snapshot() {
+        long[] keys = new long[allocated.size()];
+        int[] position = {0};
+        allocated.forEach((network, prefixLength) ->
+                keys[position[0]++] = CidrKeys.pack(network, prefixLength, 0));
+        Arrays.sort(keys);
+
+        List<CidrBlock> allocations = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            allocations.add(CidrBlock.of(CidrKeys.network(key), CidrKeys.prefixLength(key)));
+        }
+        return new Snapshot(pools, Collections.unmodifiableList(allocations));
+    }
+
+    /**
+     * 단편화 통계를 반환합니다.
+     */
+    public synchronized Stats getStats() {
+        int[] freeBlocks = new int[33];
+        int largestFreePrefix = -1;
+        for (int level = 32; level >= 0; level--) {
+            freeBlocks[level] = freeLists[level].size();
+            if (freeBlocks[level] > 0) {
+                largestFreePrefix = level;
+            }
+        }
+        return new Stats(totalAddresses, freeAddresses, allocated.size(), freeBlocks, largestFreePrefix);
+    }
+
+    /**
+     * 할당기가 관리하는 주소 풀 목록을 반환합니다.
+     */
+    public List<CidrBlock> getPools() {
+        return pools;
+    }
+
+    /**
+     * 항목은 할당된 블록 수와 비어 있는 블록 수의 합입니다.
+     * 풀 목록, prefix별 빈 블록 목록과 위치 맵, 할당 맵을 포함합니다.
+     */
+    @Override
+    public synchronized MemoryFootprint footprint() {
+        long freeBlocks = 0;
+        for (FreeList freeList : freeLists) {
+            freeBlocks += freeList.size();
+        }
+        MemoryFootprint.Builder builder = MemoryFootprint.builder(allocated.size() + freeBlocks,
+                        4 * MemoryFootprint.REFERENCE + 2 * Long.BYTES + Integer.BYTES)
+                .blocks(pools)
+                .add(poolRoots.footprint())
+                .add(allocated.footprint())
+                .array(freeLists)
+                .objects(freeLists.length, 2 * MemoryFootprint.REFERENCE + Integer.BYTES);
+        for (FreeList freeList : freeLists) {
+            builder.array(freeList.networks).add(freeList.positions.footprint());
+        }
+        return builder.build();
+    }
+
+    private void checkPrefixLength(int prefixLength) {
+        if (prefixLength < minPoolPrefix || prefixLength > 32) {
+            throw new IllegalArgumentException(
+                    String.format("Prefix length must be between %d and 32: %d", minPoolPrefix, prefixLength));
+        }
+    }
+
+    private static long maskOf(int prefixLength) {
+        return (0xFFFFFFFFL << (32 - prefixLength)) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * 한 prefix 단계의 빈 블록 목록.
+     * 조밀한 배열에 주소를 저장하고, 해시 맵으로 주소 -> 배열 위치를 추적해
+     * 추가/삭제/꺼내기를 모두 O(1)에 처리합니다.
+     */
+    private static class FreeList {
+        private long[] networks = new long[16];
+        private int size;
+        private final LongIntHashMap positions = new LongIntHashMap(16);
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean contains(long network) {
+            return positions.containsKey(network);
+        }
+
+        void add(long network) {
+            if (size == networks.length) {
+                networks = Arrays.copyOf(networks, size * 2);
+            }
+            positions.put(network, size);
+            networks[size++] = network;
+        }
+
+        long pop() {
+            long network = networks[--size];
+            positions.remove(network, -1);
+            return network;
+        }
+
+        boolean remove(long network) {
+            int position = positions.remove(network, -1);
+            if (position < 0) {
+                return false;
+            }
+            long last = networks[--size];
+            if (position != size) {
+                networks[position] = last;
+                positions.put(last, position);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 할당 상태 스냅샷. (주소 풀 + 할당된 블록 목록)
+     */
+    public static class Snapshot {
+        private final List<CidrBlock> pools;
+        private final List<CidrBlock> allocations;
+
+        public Snapshot(List<CidrBlock> pools, List<CidrBlock> allocations) {
+            if (pools == null || allocations == null) {
+                throw new IllegalArgumentException("Pools and allocations cannot be null");
+            }
+            this.pools = List.copyOf(pools);
+            this.allocations = List.copyOf(allocations);
+        }
+
+        public List<CidrBlock> getPools() {
+            return pools;
+        }
+
+        /**
+         * 할당된 블록 목록 (주소 순).
+         */
+        public List<CidrBlock> getAllocations() {
+            return allocations;
+        }
+    }
+
+    /**
+     * 할당기 단편화 통계.
+     */
+    public static class Stats {
+        private final long totalAddresses;
+        private final long freeAddresses;
+        private final int allocatedBlocks;
+        private final int[] freeBlocksByPrefix;
+        private final int largestFreePrefix;
+
+        Stats(long totalAddresses, long freeAddresses, int allocatedBlocks, int[] freeBlocksByPrefix,
+              int largestFreePrefix) {
+            this.totalAddresses = totalAddresses;
+            this.freeAddresses = freeAddresses;
+            this.allocatedBlocks = allocatedBlocks;
+            this.freeBlocksByPrefix = freeBlocksByPrefix;
+            this.largestFreePrefix = largestFreePrefix;
+        }
+
+        public long getTotalAddresses() {
+            return totalAddresses;
+        }
+
+        public long getFreeAddresses() {
+            return freeAddresses;
+        }
+
+        public int getAllocatedBlocks() {
+            return allocatedBlocks;
+        }
+
+        /**
+         * 주어진 prefix length의 빈 블록 개수를 반환합니다.
+         */
+        public int getFreeBlocks(int prefixLength) {
+            return freeBlocksByPrefix[prefixLength];
+        }
+
+        /**
+         * 가장 큰 빈 블록의 prefix length, 빈 블록이 없으면 -1.
+         */
+        public int getLargestFreePrefix() {
+            return largestFreePrefix;
+        }
+
+        /**
+         * 단편화 정도 (0.0 ~ 1.0).
+         * 빈 주소 중 가장 큰 빈 블록 하나로 할당할 수 없는 비율이며, 0이면 빈 공간이 한 블록에 모여 있습니다.
+         */
+        public double getFragmentation() {
+            if (freeAddresses == 0) {
+                return 0.0;
+            }
+            long largest = 1L << (32 - largestFreePrefix);
+            return 1.0 - (double) largest / freeAddresses;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("total=%d, free=%d, allocatedBlocks=%d, largestFree=/%d, fragmentation=%.3f",
+                    totalAddresses, freeAddresses, allocatedBlocks, largestFreePrefix, getFragmentation());
+        }
+    }
+}
@@ -0,0 +1,565 @@
+package swnoh.cidr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 여러 테넌트의 CIDR 허용 목록을 하나로 합친 인덱스.
+ *
+ * 주소 공간을 기본 구간(elementary interval)으로 나누고 구간마다
+ * 해당 구간을 포함하는 테넌트 집합을 붙여 둡니다.
+ * 테넌트 집합은 정렬된 테넌트 id 배열로 압축해 저장하며, 내용이 같은 집합은
+ * 하나만 두고 공유합니다. 따라서 한 주소에 대한 조회는 이진 탐색 한 번으로
+ * 해당 주소를 허용하는 모든 테넌트를 돌려줍니다.
+ *
+ * 조회는 불변 스냅샷을 읽기 때문에 락 없이 여러 스레드에서 호출할 수 있습니다.
+ * 테넌트 갱신은 직렬화되며, 테넌트의 이전·새 허용 구간이 걸친 범위의 구간만 다시 계산하고
+ * 나머지 구간은 배열 복사로 옮겨 새 스냅샷을 만든 뒤 한 번에 교체합니다.
+ * 집합 id는 갱신 사이에 유지되며, 어느 구간도 쓰지 않게 된 집합의 id는 다시 사용합니다.
+ */
+public class TenantCidrIndex implements MemoryAccountable {
+
+    private static final long ADDRESS_SPACE = 1L << 32;
+
+    private static final int[] NO_TENANTS = new int[0];
+
+    // 이벤트 정렬 키에서 이벤트 번호가 차지하는 비트 수
+    private static final int EVENT_BITS = 30;
+
+    // 테넌트별 허용 구간 (CidrRanges 형식), this로 보호
+    private final Map<Integer, long[]> tenants = new HashMap<>();
+
+    // 현재 스냅샷의 집합 id 테이블과 집합별 사용 구간 수, this로 보호
+    private SetTable table = new SetTable();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * 빈 인덱스를 생성합니다.
+     */
+    public TenantCidrIndex() {
+        this.snapshot = Snapshot.EMPTY;
+        table.retain(0);
+    }
+
+    /**
+     * 테넌트별 CIDR 블록 목록으로 인덱스를 한 번에 생성합니다.
+     *
+     * @param allowlists 테넌트 id → 허용 CIDR 블록 목록
+     * @return 생성된 인덱스
+     */
+    public static TenantCidrIndex of(Map<Integer, ? extends Collection<CidrBlock>> allowlists) {
+        if (allowlists == null) {
+            throw new IllegalArgumentException("Allowlists cannot be null");
+        }
+
+        TenantCidrIndex index = new TenantCidrIndex();
+        int eventCount = 0;
+        for (Map.Entry<Integer, ? extends Collection<CidrBlock>> entry : allowlists.entrySet()) {
+            long[] ranges = toRanges(entry.getKey(), entry.getValue());
+            if (ranges.length > 0) {
+                index.tenants.put(entry.getKey(), ranges);
+                eventCount += ranges.length;
+            }
+        }
+        if (eventCount >= 1 << EVENT_BITS) {
+            throw new IllegalArgumentException("Too many ranges: " + eventCount);
+        }
+
+        // 1. 구간 경계마다 (위치, 이벤트 번호) 키를 만들어 정렬
+        //    이벤트는 시작이면 테넌트 id, 끝이면 ~테넌트 id
+        long[] keys = new long[eventCount];
+        int[] events = new int[eventCount];
+        int e = 0;
+        for (Map.Entry<Integer, long[]> entry : index.tenants.entrySet()) {
+            int tenantId = entry.getKey();
+            long[] ranges = entry.getValue();
+            for (int i = 0; i < ranges.length; i++) {
+                keys[e] = (ranges[i] << EVENT_BITS) | e;
+                events[e] = (i & 1) == 0 ? tenantId : ~tenantId;
+                e++;
+            }
+        }
+        Arrays.sort(keys);
+
+        // 2. 경계를 훑으면서 활성 테넌트 집합을 유지하고 구간마다 집합을 붙임
+        SetTable table = new SetTable();
+        IntervalBuilder builder = new IntervalBuilder(eventCount + 1);
+        builder.emit(0L, 0);
+
+        int[] active = new int[16];
+        int activeCount = 0;
+        int k = 0;
+        while (k < eventCount) {
+            long position = keys[k] >>> EVENT_BITS;
+            while (k < eventCount && keys[k] >>> EVENT_BITS == position) {
+                int event = events[(int) (keys[k] & ((1 << EVENT_BITS) - 1))];
+                if (event >= 0) {
+                    if (activeCount == active.length) {
+                        active = Arrays.copyOf(active, activeCount * 2);
+                    }
+                    int at = -Arrays.binarySearch(active, 0, activeCount, event) - 1;
+                    System.arraycopy(active, at, active, at + 1, activeCount - at);
+                    active[at] = event;
+                    activeCount++;
+                } else {
+                    int at = Arrays.binarySearch(active, 0, activeCount, ~event);
+                    System.arraycopy(active, at + 1, active, at, activeCount - at - 1);
+                    activeCount--;
+                }
+                k++;
+            }
+            if (position < ADDRESS_SPACE) {
+                builder.emit(position, table.intern(Arrays.copyOf(active, activeCount)));
+            }
+        }
+
+        int[] values = builder.values();
+        for (int value : values) {
+            table.retain(value);
+        }
+        table.releaseUnused();
+        index.table = table;
+        index.snapshot = new Snapshot(builder.starts(), values, table.toArray(), table.distinctCount());
+        return index;
+    }
+
+    /**
+     * 테넌트의 허용 목록을 통째로 교체합니다. 빈 목록이면 테넌트를 제거합니다.
+     *
+     * 테넌트의 이전·새 허용 구간 중 가장 앞 주소부터 가장 뒤 주소까지의 구간만 다시 계산하므로,
+     * 집합 계산은 O(그 범위의 구간 수 + 새 허용 구간 수)입니다. 범위 밖의 구간은 그대로 복사하지만
+     * 스냅샷이 불변이라 구간 배열 전체를 복사하는 O(전체 구간 수)의 메모리 복사는 남습니다.
+     * 갱신이 끝난 뒤부터 조회에 반영됩니다.
+     *
+     * @param tenantId 테넌트 id (0 이상)
+     * @param blocks   새 허용 CIDR 블록 목록
+     */
+    public synchronized void updateTenant(int tenantId, Collection<CidrBlock> blocks) {
+        long[] ranges = toRanges(tenantId, blocks);
+        long[] previous = ranges.length == 0 ? tenants.remove(tenantId) : tenants.put(tenantId, ranges);
+        if (previous == null) {
+            if (ranges.length == 0) {
+                return;
+            }
+            previous = CidrRanges.EMPTY;
+        }
+
+        // 이전·새 허용 구간 어디에도 걸치지 않는 주소는 테넌트 포함 여부가 바뀌지 않음
+        long low = ADDRESS_SPACE;
+        long high = 0;
+        for (long[] bounds : List.of(previous, ranges)) {
+            if (bounds.length > 0) {
+                low = Math.min(low, bounds[0]);
+                high = Math.max(high, bounds[bounds.length - 1]);
+            }
+        }
+
+        Snapshot current = snapshot;
+        int[] starts = current.starts;
+        int[] values = current.values;
+        int[][] sets = current.sets;
+        int first = current.find((int) low ^ Integer.MIN_VALUE);
+        int last = high < ADDRESS_SPACE ? current.find((int) high ^ Integer.MIN_VALUE) : starts.length - 1;
+
+        IntervalBuilder builder = new IntervalBuilder(starts.length + ranges.length + 2);
+        builder.append(starts, values, 0, first);
+        builder.emit(start(starts, first), values[first]);
+
+        // 기존 집합 id * 2 + 포함 여부 → 테넌트를 넣은/뺀 새 집합 id (한 번씩만 계산)
+        LongIntHashMap mapped = new LongIntHashMap(16);
+        int i = first;
+        int j = 0;
+        long position = low;
+        while (position < high) {
+            while (j < ranges.length && ranges[j] <= position) {
+                j++;
+            }
+            boolean covered = (j & 1) == 1;
+            int setId = values[i];
+            long key = (long) setId << 1 | (covered ? 1 : 0);
+            int id = mapped.get(key, -1);
+            if (id < 0) {
+                id = table.intern(covered ? insert(sets[setId], tenantId) : remove(sets[setId], tenantId));
+                mapped.put(key, id);
+            }
+            builder.emit(position, id);
+
+            long intervalEnd = i + 1 < starts.length ? start(starts, i + 1) : ADDRESS_SPACE;
+            long rangeBoundary = j < ranges.length ? ranges[j] : ADDRESS_SPACE;
+            long next = Math.min(intervalEnd, rangeBoundary);
+            if (intervalEnd == next) {
+                i++;
+            }
+            position = next;
+        }
+        if (high < ADDRESS_SPACE) {
+            builder.emit(high, values[last]);
+        }
+        int regionEnd = builder.size();
+        builder.append(starts, values, last + 1, starts.length);
+
+        // 다시 계산한 범위만 집합별 사용 구간 수를 조정
+        int[] newValues = builder.values();
+        for (int k = first; k < regionEnd; k++) {
+            table.retain(newValues[k]);
+        }
+        for (int k = first; k <= last; k++) {
+            table.release(values[k]);
+        }
+        table.releaseUnused();
+
+        snapshot = new Snapshot(builder.starts(), newValues, table.toArray(), table.distinctCount());
+    }
+
+    private static long start(int[] starts, int i) {
+        return (starts[i] ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * 테넌트를 제거합니다.
+     *
+     * @param tenantId 제거할 테넌트 id
+     */
+    public void removeTenant(int tenantId) {
+        updateTenant(tenantId, List.of());
+    }
+
+    /**
+     * 주어진 주소를 허용하는 테넌트 id들을 오름차순으로 out에 담습니다.
+     *
+     * out이 모자라면 앞에서부터 out.length개만 담고, 반환값으로 전체 개수를 알려줍니다.
+     *
+     * @param address IP 주소 (부호 없는 32비트 값)
+     * @param out     결과를 받을 배열
+     * @return 주소를 허용하는 테넌트 수
+     */
+    public int lookup(int address, int[] out) {
+        Snapshot current = snapshot;
+        int[] tenantIds = current.sets[current.values[current.find(address ^ Integer.MIN_VALUE)]];
+        System.arraycopy(tenantIds, 0, out, 0, Math.min(tenantIds.length, out.length));
+        return tenantIds.length;
+    }
+
+    /**
+     * 주어진 주소를 허용하는 테넌트 id 배열을 반환합니다.
+     *
+     * @param ip 조회할 IP 주소
+     * @return 오름차순 테넌트 id 배열 (없으면 빈 배열)
+     */
+    public int[] lookup(IpAddress ip) {
+        if (ip == null) {
+            throw new IllegalArgumentException("IP address cannot be null");
+        }
+        Snapshot current = snapshot;
+        return current.sets[current.values[current.find(ip.toInt() ^ Integer.MIN_VALUE)]].clone();
+    }
+
+    /**
+     * 테넌트의 허용 목록을 최소 개수의 CIDR 블록으로 반환합니다.
+     */
+    public synchronized List<CidrBlock> getTenantBlocks(int tenantId) {
+        long[] ranges = tenants.get(tenantId);
+        return ranges == null ? List.of() : CidrRanges.toBlocks(ranges);
+    }
+
+    /**
+     * 허용 목록이 비어 있지 않은 테넌트 수를 반환합니다.
+     */
+    public synchronized int tenantCount() {
+        return tenants.size();
+    }
+
+    /**
+     * 현재 스냅샷의 기본 구간 개수를 반환합니다.
+     */
+    public int intervalCount() {
+        return snapshot.starts.length;
+    }
+
+    /**
+     * 중복을 제거한 뒤 남은 서로 다른 테넌트 집합 수를 반환합니다. (빈 집합 포함)
+     */
+    public int distinctSetCount() {
+        return snapshot.distinctSets;
+    }
+
+    /**
+     * 항목은 현재 스냅샷의 기본 구간 수입니다. 테넌트별 허용 구간, 스냅샷의 테넌트 집합과 집합 id 테이블을 포함합니다.
+     */
+    @Override
+    public synchronized MemoryFootprint footprint() {
+        Snapshot current = snapshot;
+        int tableLength = Math.max(16, Integer.highestOneBit(Math.max(1, tenants.size() + tenants.size() / 3)) << 1);
+        MemoryFootprint.Builder builder = MemoryFootprint.builder(current.starts.length, 2 * MemoryFootprint.REFERENCE)
+                // HashMap 객체와 테이블, 테넌트마다 Node와 Integer 키
+                .objects(1, 2 * MemoryFootprint.REFERENCE + 4 * Integer.BYTES)
+                .bytes(MemoryFootprint.arraySize(MemoryFootprint.REFERENCE, tableLength))
+                .objects(tenants.size(), Integer.BYTES + 3 * MemoryFootprint.REFERENCE)
+                .objects(tenants.size(), Integer.BYTES);
+        for (long[] ranges : tenants.values()) {
+            builder.array(ranges);
+        }
+        builder.objects(1, 3 * MemoryFootprint.REFERENCE + Integer.BYTES)
+                .array(current.starts)
+                .array(current.values)
+                .array(current.sets);
+        for (int[] set : current.sets) {
+            builder.array(set);
+        }
+        // 집합 id 테이블: 객체, 배열들, HashMap과 집합마다 Node, SetKey, Integer
+        int distinct = table.distinctCount();
+        int mapLength = Math.max(16, Integer.highestOneBit(Math.max(1, distinct + distinct / 3)) << 1);
+        builder.objects(1, 5 * MemoryFootprint.REFERENCE + 2 * Integer.BYTES)
+                .array(table.sets)
+                .array(table.refs)
+                .array(table.free)
+                .objects(1, 2 * MemoryFootprint.REFERENCE + 4 * Integer.BYTES)
+                .bytes(MemoryFootprint.arraySize(MemoryFootprint.REFERENCE, mapLength))
+                .objects(distinct, Integer.BYTES + 3 * MemoryFootprint.REFERENCE)
+                .objects(distinct, MemoryFootprint.REFERENCE + Integer.BYTES)
+                .objects(distinct, Integer.BYTES);
+        return builder.build();
+    }
+
+    private static long[] toRanges(Integer tenantId, Collection<CidrBlock> blocks) {
+        if (tenantId == null || tenantId < 0) {
+            throw new IllegalArgumentException("Tenant id must be non-negative: " + tenantId);
+        }
+        if (blocks == null) {
+            throw new IllegalArgumentException("CIDR blocks cannot be null");
+        }
+        return CidrRanges.fromBlocks(new ArrayList<>(blocks));
+    }
+
+    private static int[] insert(int[] set, int tenantId) {
+        int at = Arrays.binarySearch(set, tenantId);
+        if (at >= 0) {
+            return set;
+        }
+        at = -at - 1;
+        int[] result = new int[set.length + 1];
+        System.arraycopy(set, 0, result, 0, at);
+        result[at] = tenantId;
+        System.arraycopy(set, at, result, at + 1, set.length - at);
+        return result;
+    }
+
+    private static int[] remove(int[] set, int tenantId) {
+        int at = Arrays.binarySearch(set, tenantId);
+        if (at < 0) {
+            return set;
+        }
+        int[] result = new int[set.length - 1];
+        System.arraycopy(set, 0, result, 0, at);
+        System.arraycopy(set, at + 1, result, at, set.length - at - 1);
+        return result;
+    }
+
+    /**
+     * 조회 시점에 한 번 읽고 끝까지 사용하는 불변 상태.
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(
+                new int[]{Integer.MIN_VALUE}, new int[]{0}, new int[][]{NO_TENANTS}, 1);
+
+        // 구간 시작 주소 (부호 비트를 뒤집은 값)
+        final int[] starts;
+
+        // 각 구간의 테넌트 집합 id
+        final int[] values;
+
+        // 집합 id → 정렬된 테넌트 id 배열 (0번은 빈 집합, 쓰지 않는 id는 null)
+        final int[][] sets;
+
+        final int distinctSets;
+
+        Snapshot(int[] starts, int[] values, int[][] sets, int distinctSets) {
+            this.starts = starts;
+            this.values = values;
+            this.sets = sets;
+            this.distinctSets = distinctSets;
+        }
+
+        int find(int flippedAddress) {
+            int low = 0;
+            int high = starts.length - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (starts[mid] <= flippedAddress) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * 내용이 같은 테넌트 집합에 같은 id를 붙이는 테이블. 0번은 항상 빈 집합입니다.
+     *
+     * 집합마다 그 집합을 쓰는 구간 수를 세어, 0이 된 집합은 지우고 id를 다음 집합에 다시 씁니다.
+     */
+    private static final class SetTable {
+        private final Map<SetKey, Integer> ids = new HashMap<>();
+        private int[][] sets = new int[16][];
+        private int[] refs = new int[16];
+
+        // 사용한 적 있는 id 수
+        private int size;
+
+        // 다시 쓸 수 있는 id
+        private int[] free = new int[16];
+        private int freeCount;
+
+        // 이번 갱신에서 새로 만든 id (구간에 쓰이지 않으면 releaseUnused()에서 지움)
+        private final List<Integer> created = new ArrayList<>();
+
+        SetTable() {
+            intern(NO_TENANTS);
+            created.clear();
+        }
+
+        int intern(int[] tenantIds) {
+            SetKey key = new SetKey(tenantIds);
+            Integer id = ids.get(key);
+            if (id == null) {
+                if (freeCount > 0) {
+                    id = free[--freeCount];
+                } else {
+                    if (size == sets.length) {
+                        sets = Arrays.copyOf(sets, size * 2);
+                        refs = Arrays.copyOf(refs, size * 2);
+                    }
+                    id = size++;
+                }
+                ids.put(key, id);
+                sets[id] = tenantIds;
+                created.add(id);
+            }
+            return id;
+        }
+
+        void retain(int id) {
+            refs[id]++;
+        }
+
+        void release(int id) {
+            if (--refs[id] == 0 && id != 0) {
+                discard(id);
+            }
+        }
+
+        void releaseUnused() {
+            for (int id : created) {
+                if (refs[id] == 0 && id != 0 && sets[id] != null) {
+                    discard(id);
+                }
+            }
+            created.clear();
+        }
+
+        private void discard(int id) {
+            ids.remove(new SetKey(sets[id]));
+            sets[id] = null;
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, freeCount * 2);
+            }
+            free[freeCount++] = id;
+        }
+
+        int distinctCount() {
+            return ids.size();
+        }
+
+        int[][] toArray() {
+            return Arrays.copyOf(sets, size);
+        }
+    }
+
+    private static final class SetKey {
+        private final int[] tenantIds;
+        private final int hash;
+
+        SetKey(int[] tenantIds) {
+            this.tenantIds = tenantIds;
+            this.hash = Arrays.hashCode(tenantIds);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SetKey && Arrays.equals(tenantIds, ((SetKey) o).tenantIds);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * 기본 구간을 차례로 쌓으면서 같은 집합의 인접 구간을 합치는 빌더.
+     */
+    private static final class IntervalBuilder {
+        private int[] starts;
+        private int[] values;
+        private int size;
+
+        IntervalBuilder(int capacity) {
+            this.starts = new int[Math.max(1, capacity)];
+            this.values = new int[Math.max(1, capacity)];
+        }
+
+        void emit(long start, int value) {
+            int flipped = (int) start ^ Integer.MIN_VALUE;
+            if (size > 0 && starts[size - 1] == flipped) {
+                size--;
+            }
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            starts[size] = flipped;
+            values[size] = value;
+            size++;
+        }
+
+        /**
+         * 이미 합쳐진 구간 배열의 [from, to) 부분을 그대로 덧붙입니다. 첫 구간만 직전 구간과 합칠 수 있습니다.
+         */
+        void append(int[] sourceStarts, int[] sourceValues, int from, int to) {
+            if (from >= to) {
+                return;
+            }
+            emit((sourceStarts[from] ^ Integer.MIN_VALUE) & 0xFFFFFFFFL, sourceValues[from]);
+            int count = to - from - 1;
+            if (size + count > starts.length) {
+                starts = Arrays.copyOf(starts, size + count);
+                values = Arrays.copyOf(values, size + count);
+            }
+            System.arraycopy(sourceStarts, from + 1, starts, size, count);
+            System.arraycopy(sourceValues, from + 1, values, size, count);
+            size += count;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] starts() {
+            return size == starts.length ? starts : Arrays.copyOf(starts, size);
+        }
+
+        int[] values() {
+            return size == values.length ? values : Arrays.copyOf(values, size);
+        }
+    }
+}
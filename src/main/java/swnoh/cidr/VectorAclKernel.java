@@ -0,0 +1,39 @@
+package swnoh.cidr;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * jdk.incubator.vector를 사용하는 {@link AclKernel} 구현.
+ *
+ * 이 클래스는 모듈이 있을 때만 {@link SmallAclMatcher}가 리플렉션으로 불러옵니다.
+ */
+final class VectorAclKernel implements AclKernel {
+
+    // 배열은 PADDING(16칸) 단위로만 채워져 있으므로 512비트보다 넓은 벡터(SVE 등)는 쓰지 않음.
+    // 512비트 이하 벡터의 레인 수(2~16)는 모두 PADDING의 약수라 마지막 적재도 배열 안에서 끝남.
+    private static final VectorSpecies<Integer> SPECIES =
+            IntVector.SPECIES_PREFERRED.length() <= AclKernel.PADDING
+                    ? IntVector.SPECIES_PREFERRED
+                    : IntVector.SPECIES_512;
+
+    @Override
+    public int firstMatch(int[] networks, int[] masks, int address) {
+        IntVector broadcast = IntVector.broadcast(SPECIES, address);
+        for (int i = 0; i < networks.length; i += SPECIES.length()) {
+            VectorMask<Integer> matches = broadcast.and(IntVector.fromArray(SPECIES, masks, i))
+                    .compare(VectorOperators.EQ, IntVector.fromArray(SPECIES, networks, i));
+            if (matches.anyTrue()) {
+                return i + matches.firstTrue();
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean anyMatch(int[] networks, int[] masks, int address) {
+        return firstMatch(networks, masks, address) >= 0;
+    }
+}
@@ -0,0 +1,106 @@
+package swnoh.cidr.server;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * {@link CidrLookupServer}에 접속하는 블로킹 클라이언트.
+ *
+ * 하나의 연결을 사용하며 스레드 안전하지 않습니다. 스레드마다 클라이언트를 하나씩 사용하세요.
+ */
+public class CidrLookupClient implements AutoCloseable {
+
+    private final SocketChannel channel;
+
+    private final ByteBuffer buffer = LookupProtocol.newFrameBuffer();
+
+    private CidrLookupClient(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * 서버에 접속합니다.
+     *
+     * @param address 서버 주소 (TCP 또는 Unix 도메인 소켓)
+     * @return 접속된 클라이언트
+     * @throws IOException 접속에 실패한 경우
+     */
+    public static CidrLookupClient connect(SocketAddress address) throws IOException {
+        if (address == null) {
+            throw new IllegalArgumentException("Address cannot be null");
+        }
+        SocketChannel channel = address instanceof UnixDomainSocketAddress
+                ? SocketChannel.open(StandardProtocolFamily.UNIX)
+                : SocketChannel.open();
+        try {
+            channel.connect(address);
+            if (!(address instanceof UnixDomainSocketAddress)) {
+                channel.socket().setTcpNoDelay(true);
+            }
+            return new CidrLookupClient(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 주소들을 조회합니다.
+     *
+     * @param addresses 조회할 주소 배열
+     * @param results 결과를 기록할 배열 (규칙 번호, 없으면 -1)
+     * @param count 조회할 주소 개수 (1 ~ {@link LookupProtocol#MAX_BATCH})
+     * @throws IOException 통신 오류가 발생한 경우
+     */
+    public void lookup(int[] addresses, int[] results, int count) throws IOException {
+        send(addresses, count);
+        receive(results, count);
+    }
+
+    /**
+     * 요청 프레임만 보냅니다. 여러 서버에 먼저 모두 보낸 뒤 응답을 모을 때 사용합니다.
+     */
+    void send(int[] addresses, int count) throws IOException {
+        if (count <= 0 || count > LookupProtocol.MAX_BATCH) {
+            throw new IllegalArgumentException("Batch size must be between 1 and " + LookupProtocol.MAX_BATCH);
+        }
+        LookupProtocol.writeFrame(channel, buffer, addresses, count);
+    }
+
+    /**
+     * {@link #send}로 보낸 요청의 응답 프레임을 읽습니다.
+     */
+    void receive(int[] results, int count) throws IOException {
+        int received = LookupProtocol.readFrame(channel, buffer, results);
+        if (received != count) {
+            throw new IOException("Unexpected response size: " + received + " (expected " + count + ")");
+        }
+    }
+
+    /**
+     * 단일 주소를 조회합니다.
+     */
+    public int lookup(int address) throws IOException {
+        int[] single = {address};
+        int[] result = new int[1];
+        lookup(single, result, 1);
+        return result[0];
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (channel.isOpen()) {
+                LookupProtocol.writeFrame(channel, buffer, new int[0], 0);
+            }
+        } catch (IOException e) {
+            // 이미 끊긴 연결이면 무시
+        } finally {
+            channel.close();
+        }
+    }
+}
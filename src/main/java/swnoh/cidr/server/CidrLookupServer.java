@@ -0,0 +1,205 @@
+package swnoh.cidr.server;
+
+import swnoh.cidr.CidrLookup;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CIDR 조회 인덱스를 {@link LookupProtocol}로 제공하는 임베디드 서버.
+ *
+ * TCP 주소({@link InetSocketAddress})와 Unix 도메인 소켓({@link UnixDomainSocketAddress})을 모두 지원합니다.
+ * 연결마다 스레드 하나를 사용하며, Java 21 이상에서는 가상 스레드를, 그 이하에서는 일반 스레드를 사용합니다.
+ * 각 연결의 요청은 {@link LookupBatcher}에서 다른 연결의 요청과 함께 배치로 처리됩니다.
+ *
+ * <pre>
+ * try (CidrLookupServer server = CidrLookupServer.start(CidrIndex.of(blocks), new InetSocketAddress("127.0.0.1", 0))) {
+ *     SocketAddress address = server.getLocalAddress();
+ *     ...
+ * }
+ * </pre>
+ */
+public class CidrLookupServer implements AutoCloseable {
+
+    private final ServerSocketChannel serverChannel;
+
+    private final SocketAddress localAddress;
+
+    private final LookupBatcher batcher;
+
+    private final ExecutorService connectionExecutor;
+
+    private final Thread acceptThread;
+
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong acceptedConnections = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    private CidrLookupServer(CidrLookup lookup, ServerSocketChannel serverChannel) throws IOException {
+        this.serverChannel = serverChannel;
+        this.localAddress = serverChannel.getLocalAddress();
+        this.batcher = new LookupBatcher(lookup);
+        this.connectionExecutor = newConnectionExecutor();
+        this.acceptThread = new Thread(this::acceptLoop, "cidr-lookup-acceptor");
+        this.acceptThread.setDaemon(true);
+        this.acceptThread.start();
+    }
+
+    /**
+     * 주어진 주소에서 서버를 시작합니다.
+     *
+     * @param lookup 조회에 사용할 인덱스
+     * @param address TCP 또는 Unix 도메인 소켓 주소
+     * @return 시작된 서버
+     * @throws IOException 바인딩에 실패한 경우
+     */
+    public static CidrLookupServer start(CidrLookup lookup, SocketAddress address) throws IOException {
+        if (lookup == null) {
+            throw new IllegalArgumentException("Lookup cannot be null");
+        }
+        if (address == null) {
+            throw new IllegalArgumentException("Address cannot be null");
+        }
+
+        ServerSocketChannel channel;
+        if (address instanceof UnixDomainSocketAddress) {
+            Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+            channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        } else {
+            channel = ServerSocketChannel.open();
+        }
+
+        try {
+            channel.bind(address);
+            return new CidrLookupServer(lookup, channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 가능하면 가상 스레드(Java 21+) 기반 executor를, 아니면 일반 스레드 풀을 생성합니다.
+     */
+    private static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "cidr-lookup-connection");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                connections.add(channel);
+                acceptedConnections.incrementAndGet();
+                try {
+                    connectionExecutor.execute(() -> serve(channel));
+                } catch (RejectedExecutionException e) {
+                    // accept 직후 close()가 실행기를 닫은 경우: 받은 연결을 닫고 종료
+                    connections.remove(channel);
+                    try {
+                        channel.close();
+                    } catch (IOException closeError) {
+                        e.addSuppressed(closeError);
+                    }
+                    break;
+                }
+            } catch (ClosedChannelException e) {
+                break;
+            } catch (IOException e) {
+                if (!running) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private void serve(SocketChannel channel) {
+        ByteBuffer buffer = LookupProtocol.newFrameBuffer();
+        int[] addresses = new int[LookupProtocol.MAX_BATCH];
+        int[] results = new int[LookupProtocol.MAX_BATCH];
+
+        try (channel) {
+            while (running) {
+                int count = LookupProtocol.readFrame(channel, buffer, addresses);
+                if (count <= 0) {
+                    break;
+                }
+                batcher.lookup(addresses, results, count);
+                LookupProtocol.writeFrame(channel, buffer, results, count);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // 연결 오류나 서버 종료 시 해당 연결만 닫습니다.
+        } finally {
+            connections.remove(channel);
+        }
+    }
+
+    /**
+     * 서버가 바인딩된 실제 주소를 반환합니다. (포트 0으로 시작한 경우 할당된 포트 포함)
+     */
+    public SocketAddress getLocalAddress() {
+        return localAddress;
+    }
+
+    /**
+     * 지금까지 수락한 연결 수를 반환합니다.
+     */
+    public long getAcceptedConnections() {
+        return acceptedConnections.get();
+    }
+
+    /**
+     * 요청 배처를 반환합니다. (배치 통계 확인용)
+     */
+    public LookupBatcher getBatcher() {
+        return batcher;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverChannel.close();
+        for (SocketChannel connection : connections) {
+            connection.close();
+        }
+        batcher.close();
+        connectionExecutor.shutdown();
+        try {
+            connectionExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (localAddress instanceof UnixDomainSocketAddress) {
+            Path path = ((UnixDomainSocketAddress) localAddress).getPath();
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package swnoh.cidr.server;
+
+/**
+ * 나노초 단위 지연시간을 기록하는 log-linear 히스토그램.
+ *
+ * 2의 거듭제곱 구간마다 16개의 하위 버킷을 두므로 상대 오차는 약 6% 이내입니다.
+ * 기록은 할당 없이 배열 증가만 수행하며, 스레드 안전하지 않습니다.
+ * 스레드마다 하나씩 기록한 뒤 {@link #add(LatencyHistogram)}로 합치세요.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final long[] counts = new long[64 * SUB_BUCKETS];
+
+    private long totalCount;
+
+    private long max;
+
+    private long sum;
+
+    /**
+     * 지연시간 하나를 기록합니다.
+     *
+     * @param nanos 지연시간 (나노초)
+     */
+    public void record(long nanos) {
+        long value = Math.max(0L, nanos);
+        counts[bucketOf(value)]++;
+        totalCount++;
+        sum += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * 다른 히스토그램의 기록을 합칩니다.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * 주어진 백분위수의 지연시간을 반환합니다. (버킷 상한값)
+     *
+     * @param percentile 0 ~ 100 사이의 백분위수
+     * @return 지연시간 (나노초), 기록이 없으면 0
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+        if (totalCount == 0) {
+            return 0L;
+        }
+        long target = Math.max(1L, (long) Math.ceil(totalCount * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(upperBoundOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0.0 : (double) sum / totalCount;
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int magnitude = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        long base = (1L << magnitude) | ((long) sub << (magnitude - SUB_BUCKET_BITS));
+        return base + (1L << (magnitude - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,174 @@
+package swnoh.cidr.server;
+
+import swnoh.cidr.CidrBlock;
+import swnoh.cidr.CidrIndex;
+import swnoh.cidr.IpAddress;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * {@link CidrLookupServer}에 부하를 거는 로컬 부하 생성기.
+ *
+ * 여러 연결에서 무작위 주소 배치를 반복 전송하고, 요청 단위 왕복 지연시간을 백분위수로 집계합니다.
+ *
+ * <pre>
+ * java swnoh.cidr.server.LoadGenerator [connections] [batchSize] [seconds] [unix-socket-path]
+ * </pre>
+ * 인자를 생략하면 무작위 /8 ~ /24 규칙 10만 개로 localhost 서버를 띄운 뒤 측정합니다.
+ */
+public class LoadGenerator {
+
+    private final SocketAddress address;
+
+    private final int connections;
+
+    private final int batchSize;
+
+    public LoadGenerator(SocketAddress address, int connections, int batchSize) {
+        if (address == null) {
+            throw new IllegalArgumentException("Address cannot be null");
+        }
+        if (connections <= 0) {
+            throw new IllegalArgumentException("Connections must be positive: " + connections);
+        }
+        if (batchSize <= 0 || batchSize > LookupProtocol.MAX_BATCH) {
+            throw new IllegalArgumentException("Batch size must be between 1 and " + LookupProtocol.MAX_BATCH);
+        }
+        this.address = address;
+        this.connections = connections;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 주어진 시간 동안 부하를 생성합니다.
+     *
+     * @param duration 측정 시간
+     * @return 측정 결과
+     */
+    public Report run(Duration duration) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(connections);
+        try {
+            List<Future<LatencyHistogram>> futures = new ArrayList<>(connections);
+            for (int i = 0; i < connections; i++) {
+                long seed = 0x9E3779B97F4A7C15L * (i + 1);
+                futures.add(executor.submit(() -> runConnection(deadline, seed)));
+            }
+
+            LatencyHistogram total = new LatencyHistogram();
+            for (Future<LatencyHistogram> future : futures) {
+                total.add(future.get());
+            }
+            return new Report(total, batchSize, duration);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IllegalStateException("Load generation failed", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private LatencyHistogram runConnection(long deadline, long seed) throws IOException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] addresses = new int[batchSize];
+        int[] results = new int[batchSize];
+
+        try (CidrLookupClient client = CidrLookupClient.connect(address)) {
+            while (System.nanoTime() < deadline) {
+                for (int i = 0; i < batchSize; i++) {
+                    addresses[i] = random.nextInt();
+                }
+                long started = System.nanoTime();
+                client.lookup(addresses, results, batchSize);
+                histogram.record(System.nanoTime() - started);
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * 부하 측정 결과.
+     */
+    public static class Report {
+        private final LatencyHistogram histogram;
+        private final int batchSize;
+        private final Duration duration;
+
+        Report(LatencyHistogram histogram, int batchSize, Duration duration) {
+            this.histogram = histogram;
+            this.batchSize = batchSize;
+            this.duration = duration;
+        }
+
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
+
+        public long getRequestCount() {
+            return histogram.getTotalCount();
+        }
+
+        /**
+         * 초당 조회한 주소 개수를 반환합니다.
+         */
+        public double getLookupsPerSecond() {
+            double seconds = duration.toNanos() / 1_000_000_000.0;
+            return histogram.getTotalCount() * (double) batchSize / seconds;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "requests=%d, lookups/s=%.0f, p50=%.1fus, p90=%.1fus, p99=%.1fus, p99.9=%.1fus, max=%.1fus",
+                    getRequestCount(), getLookupsPerSecond(),
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(90) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMax() / 1000.0);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        SocketAddress bindAddress = args.length > 3
+                ? UnixDomainSocketAddress.of(Path.of(args[3]))
+                : new InetSocketAddress("127.0.0.1", 0);
+
+        SplittableRandom random = new SplittableRandom(42);
+        List<CidrBlock> rules = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            int prefixLength = 8 + random.nextInt(17);
+            long network = (random.nextInt() & 0xFFFFFFFFL) & (0xFFFFFFFFL << (32 - prefixLength)) & 0xFFFFFFFFL;
+            rules.add(CidrBlock.of(IpAddress.fromLong(network) + "/" + prefixLength));
+        }
+
+        try (CidrLookupServer server = CidrLookupServer.start(CidrIndex.of(rules), bindAddress)) {
+            LoadGenerator generator = new LoadGenerator(server.getLocalAddress(), connections, batchSize);
+            Report report = generator.run(Duration.ofSeconds(seconds));
+            System.out.println("server: " + server.getLocalAddress());
+            System.out.println(report);
+            System.out.printf("batches=%d, frames=%d (%.2f frames/batch)%n",
+                    server.getBatcher().getBatchCount(), server.getBatcher().getRequestCount(),
+                    server.getBatcher().getRequestCount() / (double) Math.max(1, server.getBatcher().getBatchCount()));
+        }
+    }
+}
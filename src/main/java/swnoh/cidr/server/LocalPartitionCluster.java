@@ -0,0 +1,180 @@
+package swnoh.cidr.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 한 호스트에서 파티션마다 {@link PartitionWorker} 프로세스를 띄우고 관리하는 도구.
+ *
+ * 워커는 현재 JVM과 같은 java 실행 파일과 클래스패스로 시작하며, loopback 포트를 각자 할당받습니다.
+ * {@link #close()}는 워커의 표준 입력을 닫아 정상 종료시키고, 제때 끝나지 않으면 강제로 종료합니다.
+ *
+ * <pre>
+ * try (LocalPartitionCluster cluster = LocalPartitionCluster.start(cidrFile, 2);
+ *      PartitionedLookupClient client = cluster.connect()) {
+ *     client.lookup(addresses, results, count);
+ * }
+ * </pre>
+ */
+public class LocalPartitionCluster implements AutoCloseable {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    /**
+     * 기본 워커 준비 대기 시간.
+     */
+    public static final Duration DEFAULT_READY_TIMEOUT = Duration.ofSeconds(60);
+
+    // 준비 메시지를 기다리며 출력을 확인하는 간격
+    private static final long READY_POLL_MILLIS = 10;
+
+    private final List<Process> workers;
+
+    private final List<InetSocketAddress> addresses;
+
+    private LocalPartitionCluster(List<Process> workers, List<InetSocketAddress> addresses) {
+        this.workers = workers;
+        this.addresses = addresses;
+    }
+
+    /**
+     * 2^partitionBits개의 워커 프로세스를 시작하고 모두 준비될 때까지 기다립니다.
+     *
+     * @param cidrFile      모든 워커가 읽을 CIDR 목록 파일
+     * @param partitionBits 파티션을 나누는 상위 비트 수
+     * @return 시작된 클러스터
+     * @throws IOException 워커를 시작하지 못했거나 준비 전에 종료된 경우
+     */
+    public static LocalPartitionCluster start(Path cidrFile, int partitionBits) throws IOException {
+        return start(cidrFile, partitionBits, DEFAULT_READY_TIMEOUT);
+    }
+
+    /**
+     * 2^partitionBits개의 워커 프로세스를 시작하고 모두 준비될 때까지 기다립니다.
+     *
+     * @param cidrFile      모든 워커가 읽을 CIDR 목록 파일
+     * @param partitionBits 파티션을 나누는 상위 비트 수
+     * @param readyTimeout  모든 워커가 준비되기까지 기다릴 최대 시간
+     * @return 시작된 클러스터
+     * @throws IOException 워커를 시작하지 못했거나, 준비 전에 종료되었거나, 제한 시간 안에 준비되지 않은 경우
+     */
+    public static LocalPartitionCluster start(Path cidrFile, int partitionBits, Duration readyTimeout)
+            throws IOException {
+        if (cidrFile == null) {
+            throw new IllegalArgumentException("CIDR file cannot be null");
+        }
+        if (readyTimeout == null || readyTimeout.isNegative()) {
+            throw new IllegalArgumentException("Ready timeout must be non-negative: " + readyTimeout);
+        }
+        PartitionIndex.checkPartition(partitionBits, 0);
+
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        String classPath = System.getProperty("java.class.path");
+        List<Process> workers = new ArrayList<>();
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        try {
+            // 모두 먼저 시작해서 파일 읽기와 인덱스 생성이 동시에 진행되게 함
+            for (int p = 0; p < 1 << partitionBits; p++) {
+                workers.add(new ProcessBuilder(java, "-cp", classPath, PartitionWorker.class.getName(),
+                        cidrFile.toAbsolutePath().toString(), Integer.toString(partitionBits), Integer.toString(p))
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start());
+            }
+            long deadline = System.nanoTime() + readyTimeout.toNanos();
+            for (Process worker : workers) {
+                addresses.add(new InetSocketAddress("127.0.0.1", awaitReady(worker, deadline)));
+            }
+        } catch (IOException | RuntimeException e) {
+            new LocalPartitionCluster(workers, addresses).close();
+            throw e;
+        }
+        return new LocalPartitionCluster(workers, List.copyOf(addresses));
+    }
+
+    // 워커가 표준 출력에 "READY <port>"를 쓸 때까지 기다림. 블록되는 readLine 대신 출력을 확인하며 제한 시간을 지킴
+    private static int awaitReady(Process worker, long deadline) throws IOException {
+        InputStream in = worker.getInputStream();
+        StringBuilder line = new StringBuilder();
+        while (true) {
+            if (in.available() > 0 || !worker.isAlive()) {
+                // 끝난 워커는 남은 출력을 읽은 뒤 -1을 돌려주므로 블록되지 않음
+                int c = in.read();
+                if (c < 0 || c == '\n') {
+                    break;
+                }
+                if (c != '\r') {
+                    line.append((char) c);
+                }
+                continue;
+            }
+            if (System.nanoTime() - deadline > 0) {
+                throw new IOException("Partition worker did not become ready in time: " + line);
+            }
+            try {
+                Thread.sleep(READY_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for partition worker");
+            }
+        }
+        if (!line.toString().startsWith("READY ")) {
+            throw new IOException("Partition worker failed to start: " + line);
+        }
+        return Integer.parseInt(line.toString().split(" ")[1]);
+    }
+
+    /**
+     * 모든 워커에 접속한 라우팅 클라이언트를 생성합니다.
+     */
+    public PartitionedLookupClient connect() throws IOException {
+        return PartitionedLookupClient.connect(addresses);
+    }
+
+    /**
+     * 파티션 번호 순서의 워커 주소.
+     */
+    public List<InetSocketAddress> getAddresses() {
+        return addresses;
+    }
+
+    /**
+     * 살아 있는 워커 수.
+     */
+    public int getAliveCount() {
+        int alive = 0;
+        for (Process worker : workers) {
+            if (worker.isAlive()) {
+                alive++;
+            }
+        }
+        return alive;
+    }
+
+    @Override
+    public void close() {
+        for (Process worker : workers) {
+            try {
+                worker.getOutputStream().close();
+            } catch (IOException e) {
+                // 이미 끝난 워커
+            }
+        }
+        for (Process worker : workers) {
+            try {
+                if (!worker.waitFor(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    worker.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                worker.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
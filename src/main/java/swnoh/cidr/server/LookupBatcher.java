@@ -0,0 +1,194 @@
+package swnoh.cidr.server;
+
+import swnoh.cidr.CidrLookup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 여러 연결에서 동시에 들어온 조회 요청을 모아 한 번에 처리하는 배처.
+ *
+ * 연결 스레드는 {@link #lookup(int[], int[], int)}로 요청을 넣고 결과가 채워질 때까지 대기합니다.
+ * 단일 디스패처 스레드가 대기 중인 요청들을 한꺼번에 꺼내 인덱스에 연속으로 질의하므로,
+ * 인덱스 데이터가 캐시에 머무는 동안 여러 요청을 처리할 수 있습니다.
+ */
+public class LookupBatcher implements AutoCloseable {
+
+    private static final int MAX_DRAIN = 1024;
+
+    // 대기 중 깨어나 다시 확인하는 간격 (깨우기를 놓쳐도 멈추지 않도록)
+    private static final long WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final CidrLookup lookup;
+
+    private final LinkedBlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+
+    private final Thread dispatcher;
+
+    private final AtomicLong batchCount = new AtomicLong();
+
+    private final AtomicLong requestCount = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    public LookupBatcher(CidrLookup lookup) {
+        if (lookup == null) {
+            throw new IllegalArgumentException("Lookup cannot be null");
+        }
+        this.lookup = lookup;
+        this.dispatcher = new Thread(this::dispatchLoop, "cidr-lookup-batcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * 주소들을 조회하고 결과가 채워질 때까지 대기합니다.
+     * 인덱스 조회가 실패하면 그 예외를 호출한 스레드에서 다시 던집니다.
+     *
+     * @param addresses 조회할 주소 배열
+     * @param results 결과를 기록할 배열
+     * @param count 조회할 주소 개수
+     * @throws IllegalStateException 배처가 닫힌 경우
+     */
+    public void lookup(int[] addresses, int[] results, int count) {
+        if (addresses == null || results == null) {
+            throw new IllegalArgumentException("Addresses and results cannot be null");
+        }
+        if (count < 0 || count > addresses.length || count > results.length) {
+            throw new IllegalArgumentException("Invalid count: " + count);
+        }
+        if (!running) {
+            throw new IllegalStateException("Batcher is closed");
+        }
+        Request request = new Request(addresses, results, count, Thread.currentThread());
+        queue.add(request);
+        // close()가 큐를 비운 뒤에 넣었으면 깨워 줄 스레드가 없으므로 직접 되돌림
+        if (!running && queue.remove(request)) {
+            throw new IllegalStateException("Batcher is closed");
+        }
+        while (!request.done) {
+            LockSupport.parkNanos(this, WAIT_NANOS);
+        }
+        if (request.failure != null) {
+            throw request.failure;
+        }
+    }
+
+    private void dispatchLoop() {
+        List<Request> batch = new ArrayList<>(MAX_DRAIN);
+        try {
+            while (running) {
+                Request first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_DRAIN - 1);
+                try {
+                    dispatch(batch);
+                } finally {
+                    batch.clear();
+                }
+                batchCount.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // close() 또는 Error로 끝나면 배처를 닫고, 기다리는 요청이 멈춰 있지 않도록 모두 끝냄
+            running = false;
+            failPending();
+        }
+    }
+
+    /**
+     * 배치의 요청을 차례로 조회하고, 어떻게 끝나든 모든 요청을 완료 처리합니다.
+     * 조회 중 {@link Error}가 나면 그 요청과 남은 요청은 실패로 끝내고 Error를 다시 던집니다.
+     */
+    private void dispatch(List<Request> batch) {
+        int processed = 0;
+        try {
+            for (; processed < batch.size(); processed++) {
+                Request request = batch.get(processed);
+                try {
+                    lookup.lookupAll(request.addresses, request.results, request.count);
+                } catch (RuntimeException e) {
+                    request.failure = e;
+                }
+            }
+            requestCount.addAndGet(batch.size());
+        } catch (Error e) {
+            batch.get(processed).failure = new IllegalStateException("Lookup failed", e);
+            processed++;
+            throw e;
+        } finally {
+            for (int i = 0; i < batch.size(); i++) {
+                if (i < processed) {
+                    batch.get(i).complete();
+                } else {
+                    batch.get(i).fail(new IllegalStateException("Batcher is closed"));
+                }
+            }
+        }
+    }
+
+    /**
+     * 지금까지 처리한 배치 개수를 반환합니다.
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * 지금까지 처리한 요청(프레임) 개수를 반환합니다.
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+        failPending();
+    }
+
+    private void failPending() {
+        Request pending;
+        while ((pending = queue.poll()) != null) {
+            pending.fail(new IllegalStateException("Batcher is closed"));
+        }
+    }
+
+    private static class Request {
+        final int[] addresses;
+        final int[] results;
+        final int count;
+        final Thread waiter;
+        // done보다 먼저 기록하고 done으로 발행
+        RuntimeException failure;
+        volatile boolean done;
+
+        Request(int[] addresses, int[] results, int count, Thread waiter) {
+            this.addresses = addresses;
+            this.results = results;
+            this.count = count;
+            this.waiter = waiter;
+        }
+
+        void fail(RuntimeException e) {
+            if (!done) {
+                failure = e;
+                complete();
+            }
+        }
+
+        void complete() {
+            done = true;
+            LockSupport.unpark(waiter);
+        }
+    }
+}
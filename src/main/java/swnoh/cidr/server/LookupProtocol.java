@@ -0,0 +1,96 @@
+package swnoh.cidr.server;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 조회 서버의 바이너리 프로토콜.
+ *
+ * 요청과 응답은 같은 형태의 프레임을 사용합니다. (모두 big-endian)
+ * <pre>
+ * 요청: [int count][int address] * count
+ * 응답: [int count][int result]  * count
+ * </pre>
+ * result는 일치한 규칙 번호이며, 일치하는 규칙이 없으면 -1입니다.
+ * count가 0인 요청은 연결 종료를 의미합니다.
+ */
+public final class LookupProtocol {
+
+    /**
+     * 한 프레임에 담을 수 있는 최대 주소 개수.
+     */
+    public static final int MAX_BATCH = 64 * 1024;
+
+    /**
+     * 최대 크기 프레임을 담을 수 있는 버퍼 크기.
+     */
+    public static final int MAX_FRAME_BYTES = Integer.BYTES * (MAX_BATCH + 1);
+
+    private LookupProtocol() {
+    }
+
+    /**
+     * 프레임 버퍼를 생성합니다.
+     */
+    public static ByteBuffer newFrameBuffer() {
+        return ByteBuffer.allocateDirect(MAX_FRAME_BYTES).order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * 프레임 하나를 읽어 values 배열에 채웁니다.
+     *
+     * @return 프레임의 값 개수, 상대방이 연결을 닫았으면 -1
+     * @throws IOException 프레임이 잘렸거나 형식이 잘못된 경우
+     */
+    public static int readFrame(ReadableByteChannel channel, ByteBuffer buffer, int[] values) throws IOException {
+        buffer.clear().limit(Integer.BYTES);
+        if (!readFully(channel, buffer, true)) {
+            return -1;
+        }
+        int count = buffer.getInt(0);
+        if (count < 0 || count > MAX_BATCH || count > values.length) {
+            throw new IOException("Invalid frame size: " + count);
+        }
+
+        buffer.clear().limit(count * Integer.BYTES);
+        readFully(channel, buffer, false);
+        buffer.flip();
+        buffer.asIntBuffer().get(values, 0, count);
+        return count;
+    }
+
+    /**
+     * values 배열의 앞 count개를 프레임으로 기록합니다.
+     */
+    public static void writeFrame(WritableByteChannel channel, ByteBuffer buffer, int[] values, int count)
+            throws IOException {
+        if (count < 0 || count > MAX_BATCH) {
+            throw new IllegalArgumentException("Invalid frame size: " + count);
+        }
+        buffer.clear();
+        buffer.putInt(count);
+        buffer.asIntBuffer().put(values, 0, count);
+        buffer.position(Integer.BYTES * (count + 1));
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static boolean readFully(ReadableByteChannel channel, ByteBuffer buffer, boolean eofAllowed)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                if (eofAllowed && buffer.position() == 0) {
+                    return false;
+                }
+                throw new EOFException("Connection closed in the middle of a frame");
+            }
+        }
+        return true;
+    }
+}
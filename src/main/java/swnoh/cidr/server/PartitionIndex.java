@@ -0,0 +1,176 @@
+package swnoh.cidr.server;
+
+import swnoh.cidr.CidrBulkParser;
+import swnoh.cidr.CidrColumns;
+import swnoh.cidr.CidrIndex;
+import swnoh.cidr.CidrLookup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * 주소 공간을 상위 비트로 나눈 파티션 하나에 대한 조회 인덱스.
+ *
+ * 파티션 p는 상위 partitionBits 비트가 p인 주소들입니다.
+ * 파티션에 걸치는 블록만 보관하며, 파티션보다 큰 블록(prefix가 partitionBits보다 짧은 블록)은
+ * 걸치는 모든 파티션에 복제합니다. 그래서 파티션 안의 주소에 일치하는 블록은 모두 이 인덱스에 있고,
+ * longest-prefix-match 결과는 전체 목록으로 만든 {@link CidrIndex}와 같습니다.
+ *
+ * 조회 결과는 전체 목록에서의 블록 인덱스입니다. 파티션 밖의 주소는 {@link #NO_MATCH}입니다.
+ */
+public class PartitionIndex implements CidrLookup {
+
+    /**
+     * 허용하는 최대 파티션 비트 수.
+     */
+    public static final int MAX_PARTITION_BITS = 8;
+
+    private final int partitionBits;
+
+    private final int partition;
+
+    private final CidrIndex index;
+
+    // 파티션 인덱스 번호 → 전체 목록 인덱스
+    private final int[] globalIds;
+
+    private final int replicatedCount;
+
+    private PartitionIndex(int partitionBits, int partition, CidrIndex index, int[] globalIds, int replicatedCount) {
+        this.partitionBits = partitionBits;
+        this.partition = partition;
+        this.index = index;
+        this.globalIds = globalIds;
+        this.replicatedCount = replicatedCount;
+    }
+
+    /**
+     * 전체 블록 목록에서 파티션에 걸치는 블록만 골라 인덱스를 생성합니다.
+     *
+     * @param columns       전체 블록 목록 (인덱스가 조회 결과가 됨)
+     * @param partitionBits 파티션을 나누는 상위 비트 수 (0 ~ {@value #MAX_PARTITION_BITS})
+     * @param partition     파티션 번호 (0 ~ 2^partitionBits - 1)
+     */
+    public static PartitionIndex of(CidrColumns columns, int partitionBits, int partition) {
+        if (columns == null) {
+            throw new IllegalArgumentException("CIDR columns cannot be null");
+        }
+        checkPartition(partitionBits, partition);
+
+        Collector collector = new Collector(partitionBits, partition);
+        for (int i = 0; i < columns.size(); i++) {
+            collector.accept(i, columns.getAddress(i), columns.getPrefixLength(i));
+        }
+        return collector.build();
+    }
+
+    /**
+     * CIDR 목록 파일을 한 줄씩 읽으면서 파티션에 걸치는 블록만 골라 인덱스를 생성합니다.
+     * 전체 목록을 힙에 올리지 않으므로, 힙 사용량은 이 파티션의 블록 수에 비례합니다.
+     * 조회 결과는 같은 파일을 {@link swnoh.cidr.CidrBulkParser#parse(Path)}한 목록의 인덱스입니다.
+     *
+     * @param file          CIDR 목록 파일
+     * @param partitionBits 파티션을 나누는 상위 비트 수 (0 ~ {@value #MAX_PARTITION_BITS})
+     * @param partition     파티션 번호 (0 ~ 2^partitionBits - 1)
+     */
+    public static PartitionIndex of(Path file, int partitionBits, int partition) throws IOException {
+        checkPartition(partitionBits, partition);
+        Collector collector = new Collector(partitionBits, partition);
+        CidrBulkParser.forEachEntry(file, collector);
+        return collector.build();
+    }
+
+    @Override
+    public int lookup(int address) {
+        if (partitionOf(address & 0xFFFFFFFFL, partitionBits) != partition) {
+            return NO_MATCH;
+        }
+        int id = index.lookup(address);
+        return id == NO_MATCH ? NO_MATCH : globalIds[id];
+    }
+
+    /**
+     * 주소가 속한 파티션 번호를 반환합니다.
+     */
+    public static int partitionOf(int address, int partitionBits) {
+        return partitionOf(address & 0xFFFFFFFFL, partitionBits);
+    }
+
+    private static int partitionOf(long address, int partitionBits) {
+        return (int) (address >>> (32 - partitionBits));
+    }
+
+    static void checkPartition(int partitionBits, int partition) {
+        if (partitionBits < 0 || partitionBits > MAX_PARTITION_BITS) {
+            throw new IllegalArgumentException("Partition bits must be between 0 and " + MAX_PARTITION_BITS
+                    + ": " + partitionBits);
+        }
+        if (partition < 0 || partition >= 1 << partitionBits) {
+            throw new IllegalArgumentException("Partition must be between 0 and " + ((1 << partitionBits) - 1)
+                    + ": " + partition);
+        }
+    }
+
+    public int getPartitionBits() {
+        return partitionBits;
+    }
+
+    public int getPartition() {
+        return partition;
+    }
+
+    /**
+     * 이 파티션에 보관한 블록 수 (복제된 블록 포함).
+     */
+    public int size() {
+        return globalIds.length;
+    }
+
+    /**
+     * 여러 파티션에 걸쳐 복제된 블록 수.
+     */
+    public int getReplicatedCount() {
+        return replicatedCount;
+    }
+
+    /**
+     * 항목을 하나씩 받아 파티션에 걸치는 블록과 전체 목록 인덱스만 모읍니다.
+     */
+    private static final class Collector implements CidrBulkParser.EntryConsumer {
+        private final int partitionBits;
+        private final int partition;
+        private final CidrColumns kept = new CidrColumns();
+        private int[] globalIds = new int[16];
+        private int replicated;
+
+        Collector(int partitionBits, int partition) {
+            this.partitionBits = partitionBits;
+            this.partition = partition;
+        }
+
+        @Override
+        public void accept(int index, int address, int prefixLength) {
+            long hostMask = 0xFFFFFFFFL >>> prefixLength;
+            long network = address & 0xFFFFFFFFL & ~hostMask;
+            int first = partitionOf(network, partitionBits);
+            int last = partitionOf(network | hostMask, partitionBits);
+            if (partition < first || partition > last) {
+                return;
+            }
+            if (first != last) {
+                replicated++;
+            }
+            if (kept.size() == globalIds.length) {
+                globalIds = Arrays.copyOf(globalIds, globalIds.length * 2);
+            }
+            globalIds[kept.size()] = index;
+            kept.add(address, prefixLength);
+        }
+
+        PartitionIndex build() {
+            return new PartitionIndex(partitionBits, partition, CidrIndex.of(kept.toCidrBlocks()),
+                    Arrays.copyOf(globalIds, kept.size()), replicated);
+        }
+    }
+}
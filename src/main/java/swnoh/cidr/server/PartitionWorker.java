@@ -0,0 +1,55 @@
+package swnoh.cidr.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+
+/**
+ * 파티션 하나를 맡는 조회 워커 프로세스.
+ *
+ * CIDR 목록 파일을 읽어 자기 파티션에 걸치는 블록만 {@link PartitionIndex}로 보관하고,
+ * loopback TCP에서 {@link CidrLookupServer}로 제공합니다. 준비가 끝나면 표준 출력에
+ * {@code READY <port> <blocks> <replicated>} 한 줄을 씁니다.
+ * 표준 입력이 닫히면 (부모 프로세스가 끝나면) 서버를 닫고 종료합니다.
+ *
+ * 파일은 메모리 매핑해서 한 줄씩 읽으며 자기 파티션의 블록만 모으므로, 전체 목록을 힙에 올리지 않습니다.
+ * 힙 최대 사용량은 이 파티션의 블록 수에 비례하며 (모은 블록과 그 인덱스를 함께 가지는 빌드 순간),
+ * 매핑한 파일 페이지는 힙 밖에서 OS가 필요할 때 읽고 내보냅니다.
+ *
+ * <pre>
+ * java swnoh.cidr.server.PartitionWorker &lt;cidr-file&gt; &lt;partition-bits&gt; &lt;partition&gt; [port]
+ * </pre>
+ */
+public final class PartitionWorker {
+
+    private PartitionWorker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: PartitionWorker <cidr-file> <partition-bits> <partition> [port]");
+            System.exit(2);
+        }
+        Path file = Path.of(args[0]);
+        int partitionBits = Integer.parseInt(args[1]);
+        int partition = Integer.parseInt(args[2]);
+        int port = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+
+        PartitionIndex index = PartitionIndex.of(file, partitionBits, partition);
+
+        try (CidrLookupServer server = CidrLookupServer.start(index, new InetSocketAddress("127.0.0.1", port))) {
+            int boundPort = ((InetSocketAddress) server.getLocalAddress()).getPort();
+            System.out.println("READY " + boundPort + " " + index.size() + " " + index.getReplicatedCount());
+            System.out.flush();
+            awaitEndOfInput(System.in);
+        }
+    }
+
+    private static void awaitEndOfInput(InputStream in) throws IOException {
+        byte[] discard = new byte[256];
+        while (in.read(discard) >= 0) {
+            // 부모가 보내는 입력은 사용하지 않음
+        }
+    }
+}
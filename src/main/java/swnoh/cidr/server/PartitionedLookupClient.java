@@ -0,0 +1,191 @@
+package swnoh.cidr.server;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 파티션 워커들({@link PartitionWorker})에 조회를 나눠 보내는 클라이언트 측 라우터.
+ *
+ * 배치의 주소를 상위 비트로 파티션별로 모은 뒤, 해당하는 워커 모두에 요청 프레임을 먼저 보내고
+ * 응답을 차례로 받아 원래 위치에 되돌려 놓습니다. 워커들이 동시에 처리하므로
+ * 배치 하나의 지연시간은 가장 느린 워커 하나의 왕복 시간에 가깝습니다.
+ *
+ * 워커마다 연결 하나를 사용하며 스레드 안전하지 않습니다. 스레드마다 클라이언트를 하나씩 사용하세요.
+ *
+ * 조회 도중 통신 오류가 나면 일부 워커의 응답이 읽히지 않은 채 남아 다음 조회에서 잘못 읽힐 수 있으므로,
+ * 모든 연결을 닫고 이후 조회는 {@link IllegalStateException}으로 거부합니다. 새 클라이언트로 다시 접속하세요.
+ */
+public class PartitionedLookupClient implements AutoCloseable {
+
+    private final int partitionBits;
+
+    private final CidrLookupClient[] clients;
+
+    // 파티션별 요청/응답 배열과 원래 위치
+    private final int[][] partitionAddresses;
+    private final int[][] partitionResults;
+    private final int[][] positions;
+    private final int[] counts;
+
+    // 통신 오류 후 연결을 모두 닫았는지
+    private boolean failed;
+
+    private PartitionedLookupClient(CidrLookupClient[] clients, int partitionBits) {
+        this.partitionBits = partitionBits;
+        this.clients = clients;
+        this.partitionAddresses = new int[clients.length][];
+        this.partitionResults = new int[clients.length][];
+        this.positions = new int[clients.length][];
+        this.counts = new int[clients.length];
+    }
+
+    /**
+     * 파티션 워커들에 접속합니다.
+     *
+     * @param partitions 파티션 번호 순서의 워커 주소 (개수는 2의 거듭제곱)
+     * @return 접속된 클라이언트
+     * @throws IOException 접속에 실패한 경우
+     */
+    public static PartitionedLookupClient connect(List<? extends SocketAddress> partitions) throws IOException {
+        if (partitions == null || partitions.isEmpty() || Integer.bitCount(partitions.size()) != 1
+                || partitions.size() > 1 << PartitionIndex.MAX_PARTITION_BITS) {
+            throw new IllegalArgumentException("Partition count must be a power of two up to "
+                    + (1 << PartitionIndex.MAX_PARTITION_BITS) + ": " + partitions);
+        }
+        CidrLookupClient[] clients = new CidrLookupClient[partitions.size()];
+        try {
+            for (int p = 0; p < clients.length; p++) {
+                clients[p] = CidrLookupClient.connect(partitions.get(p));
+            }
+        } catch (IOException | RuntimeException e) {
+            closeAll(clients);
+            throw e;
+        }
+        return new PartitionedLookupClient(clients, Integer.numberOfTrailingZeros(partitions.size()));
+    }
+
+    /**
+     * 주소들을 조회합니다.
+     *
+     * @param addresses 조회할 주소 배열
+     * @param results 결과를 기록할 배열 (전체 목록의 규칙 번호, 없으면 -1)
+     * @param count 조회할 주소 개수 (1 ~ {@link LookupProtocol#MAX_BATCH})
+     * @throws IOException 통신 오류가 발생한 경우 (모든 연결이 닫힘)
+     * @throws IllegalStateException 이전 조회의 통신 오류로 연결이 닫힌 경우
+     */
+    public void lookup(int[] addresses, int[] results, int count) throws IOException {
+        if (count <= 0 || count > LookupProtocol.MAX_BATCH) {
+            throw new IllegalArgumentException("Batch size must be between 1 and " + LookupProtocol.MAX_BATCH);
+        }
+        if (count > addresses.length || count > results.length) {
+            throw new IllegalArgumentException("Invalid count: " + count);
+        }
+        checkUsable();
+
+        // 어떤 단계에서 실패해도 다음 배치가 이전 주소를 보내지 않도록 counts는 항상 비움
+        try {
+            // 1. 파티션별로 모음
+            for (int i = 0; i < count; i++) {
+                int p = PartitionIndex.partitionOf(addresses[i], partitionBits);
+                int n = counts[p]++;
+                if (partitionAddresses[p] == null || n == partitionAddresses[p].length) {
+                    grow(p, count);
+                }
+                partitionAddresses[p][n] = addresses[i];
+                positions[p][n] = i;
+            }
+
+            // 2. 모든 워커에 먼저 보내고
+            for (int p = 0; p < clients.length; p++) {
+                if (counts[p] > 0) {
+                    clients[p].send(partitionAddresses[p], counts[p]);
+                }
+            }
+            // 3. 응답을 모아 원래 위치로 되돌림
+            for (int p = 0; p < clients.length; p++) {
+                int n = counts[p];
+                if (n == 0) {
+                    continue;
+                }
+                clients[p].receive(partitionResults[p], n);
+                int[] partitionPositions = positions[p];
+                int[] partitionResult = partitionResults[p];
+                for (int j = 0; j < n; j++) {
+                    results[partitionPositions[j]] = partitionResult[j];
+                }
+            }
+        } catch (IOException e) {
+            fail(e);
+            throw e;
+        } finally {
+            Arrays.fill(counts, 0);
+        }
+    }
+
+    /**
+     * 단일 주소를 조회합니다.
+     */
+    public int lookup(int address) throws IOException {
+        checkUsable();
+        try {
+            return clients[PartitionIndex.partitionOf(address, partitionBits)].lookup(address);
+        } catch (IOException e) {
+            fail(e);
+            throw e;
+        }
+    }
+
+    public int getPartitionCount() {
+        return clients.length;
+    }
+
+    private void checkUsable() {
+        if (failed) {
+            throw new IllegalStateException("Client was closed after a communication failure");
+        }
+    }
+
+    // 응답이 어긋난 연결을 다시 쓰지 않도록 모두 닫음
+    private void fail(IOException cause) {
+        failed = true;
+        try {
+            closeAll(clients);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private void grow(int p, int count) {
+        int capacity = partitionAddresses[p] == null
+                ? Math.min(count, 1024)
+                : Math.min(LookupProtocol.MAX_BATCH, partitionAddresses[p].length * 2);
+        partitionAddresses[p] = partitionAddresses[p] == null ? new int[capacity]
+                : Arrays.copyOf(partitionAddresses[p], capacity);
+        positions[p] = positions[p] == null ? new int[capacity] : Arrays.copyOf(positions[p], capacity);
+        partitionResults[p] = new int[capacity];
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeAll(clients);
+    }
+
+    private static void closeAll(CidrLookupClient[] clients) throws IOException {
+        IOException failure = null;
+        for (CidrLookupClient client : clients) {
+            if (client == null) {
+                continue;
+            }
+            try {
+                client.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package swnoh.cidr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AggregatedCidrSetTest {
+
+    @Test
+    @DisplayName("집계 집합 - 짝 블록 추가 시 상위 블록으로 합침")
+    void testAdd_MergesBuddies() {
+        AggregatedCidrSet set = new AggregatedCidrSet();
+        assertTrue(set.add(CidrBlock.of("10.0.0.0/25")));
+        assertTrue(set.add(CidrBlock.of("10.0.1.0/24")));
+        assertTrue(set.add(CidrBlock.of("10.0.0.128/25")));
+        assertFalse(set.add(CidrBlock.of("10.0.0.7/32")));
+
+        assertEquals("[10.0.0.0/23]", set.getBlocks().toString());
+        assertEquals(1, set.size());
+        assertEquals(512, set.addressCount());
+        assertTrue(set.contains(IpAddress.fromString("10.0.1.255")));
+        assertFalse(set.contains(IpAddress.fromString("10.0.2.0")));
+    }
+
+    @Test
+    @DisplayName("집계 집합 - 일부 삭제 시 감싸는 블록을 쪼갬")
+    void testRemove_SplitsCoveringBlock() {
+        AggregatedCidrSet set = AggregatedCidrSet.of(List.of(CidrBlock.of("10.0.0.0/22")));
+        assertTrue(set.remove(CidrBlock.of("10.0.1.5/32")));
+
+        assertEquals("[10.0.0.0/24, 10.0.1.0/30, 10.0.1.4/32, 10.0.1.6/31, 10.0.1.8/29, 10.0.1.16/28, "
+                + "10.0.1.32/27, 10.0.1.64/26, 10.0.1.128/25, 10.0.2.0/23]", set.getBlocks().toString());
+        assertEquals(1023, set.addressCount());
+        assertTrue(set.containsAll(CidrBlock.of("10.0.2.0/23")));
+        assertFalse(set.containsAll(CidrBlock.of("10.0.0.0/22")));
+
+        assertTrue(set.add(CidrBlock.of("10.0.1.5/32")));
+        assertEquals("[10.0.0.0/22]", set.getBlocks().toString());
+
+        assertFalse(set.remove(CidrBlock.of("192.168.0.0/16")));
+        assertTrue(set.remove(CidrBlock.of("0.0.0.0/0")));
+        assertTrue(set.isEmpty());
+        assertEquals(0, set.size());
+    }
+
+    @Test
+    @DisplayName("집계 집합 - 전체 주소와 경계 주소")
+    void testEdges() {
+        AggregatedCidrSet set = new AggregatedCidrSet();
+        set.add(CidrBlock.of("0.0.0.0/1"));
+        set.add(CidrBlock.of("128.0.0.0/1"));
+        assertEquals("[0.0.0.0/0]", set.getBlocks().toString());
+        assertEquals(1L << 32, set.addressCount());
+
+        set.remove(CidrBlock.of("255.255.255.255/32"));
+        assertEquals(32, set.size());
+        assertFalse(set.contains(-1));
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(-2));
+    }
+
+    @Test
+    @DisplayName("집계 집합 - 무작위 편집 결과가 구간 연산과 일치")
+    void testRandomEdits_MatchRanges() {
+        Random random = new Random(17);
+        AggregatedCidrSet set = new AggregatedCidrSet();
+        long[] model = CidrRanges.EMPTY;
+
+        for (int step = 0; step < 3000; step++) {
+            int prefixLength = 8 + random.nextInt(17);
+            long network = ((long) random.nextInt(1 << 10) << 22) & (0xFFFFFFFFL << (32 - prefixLength)) & 0xFFFFFFFFL;
+            network |= (random.nextInt() & 0xFFFFFFFFL) & (0x3FFFFFL) & (0xFFFFFFFFL << (32 - prefixLength));
+            CidrBlock block = CidrBlock.of(network, prefixLength);
+            long[] ranges = CidrRanges.fromBlocks(List.of(block));
+
+            if (random.nextInt(3) == 0) {
+                set.remove(block);
+                model = CidrRanges.subtract(model, ranges);
+            } else {
+                set.add(block);
+                model = CidrRanges.union(model, ranges);
+            }
+
+            if (step % 100 == 0) {
+                assertEquals(CidrRanges.toBlocks(model).toString(), set.getBlocks().toString());
+                assertEquals(CidrRanges.addressCount(model), set.addressCount());
+            }
+        }
+        assertEquals(CidrRanges.toBlocks(model).size(), set.size());
+    }
+
+    @Test
+    @DisplayName("집계 집합 - 반복 중 변경 시 예외")
+    void testIterator_FailFast() {
+        AggregatedCidrSet set = AggregatedCidrSet.of(List.of(CidrBlock.of("10.0.0.0/8"), CidrBlock.of("12.0.0.0/8")));
+        Iterator<CidrBlock> iterator = set.iterator();
+        iterator.next();
+        set.add(CidrBlock.of("14.0.0.0/8"));
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+}
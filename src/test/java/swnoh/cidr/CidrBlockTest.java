@@ -3,6 +3,8 @@ package swnoh.cidr;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -649,4 +651,21 @@ class CidrBlockTest {
         assertEquals(8L, cidr29.getTotalIpCount());
         assertEquals(6L, cidr29.getUsableIpCount());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("CIDR 문자열 출력 - byte[]/ByteBuffer/StringBuilder")
+    void testWriteTo() {
+        CidrBlock cidr = CidrBlock.of("10.0.0.1/8");
+
+        byte[] buffer = new byte[32];
+        int end = cidr.writeTo(buffer, 0);
+        assertEquals("10.0.0.1/8", new String(buffer, 0, end, StandardCharsets.US_ASCII));
+
+        ByteBuffer byteBuffer = ByteBuffer.allocate(32);
+        CidrBlock.of("255.255.255.255/32").writeTo(byteBuffer);
+        assertEquals(18, byteBuffer.position());
+
+        assertEquals("192.168.1.0/24", CidrBlock.of("192.168.1.0/24").appendTo(new StringBuilder()).toString());
+        assertEquals("0.0.0.0/0", CidrBlock.of("0.0.0.0/0").toString());
+    }
+}
@@ -0,0 +1,128 @@
+package swnoh.cidr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CidrBulkParserTest {
+
+    @Test
+    @DisplayName("파싱 - CIDR, 단일 IP, 주석, 빈 줄, CRLF")
+    void testParse_Formats() {
+        String text = "# blocklist\n10.0.0.0/8\r\n\n  192.168.1.1  \n172.16.5.4/12\n";
+        CidrBulkParser.ParseResult result = new CidrBulkParser().parse(text.getBytes(StandardCharsets.US_ASCII));
+
+        CidrColumns columns = result.getColumns();
+        assertEquals(3, columns.size());
+        assertEquals("10.0.0.0/8", columns.get(0).toString());
+        assertEquals("192.168.1.1/32", columns.get(1).toString());
+        assertEquals("172.16.5.4/12", columns.get(2).toString());
+        assertEquals(IpAddress.fromString("172.16.5.4").toInt(), columns.getAddress(2));
+        assertEquals(12, columns.getPrefixLength(2));
+        assertEquals(5, result.getLineCount());
+        assertEquals(0, result.getErrorCount());
+    }
+
+    @Test
+    @DisplayName("파싱 - 잘못된 줄은 전체 기준 줄 번호와 함께 보고")
+    void testParse_Errors() {
+        String text = "10.0.0.0/8\n256.0.0.1\n10.0.0.0/33\n1.2.3\n1.2.3.4/\n1.2.3.4 /8\n1.2.3.4/24\n";
+        CidrBulkParser parser = new CidrBulkParser(ForkJoinPool.commonPool(), 12);
+        CidrBulkParser.ParseResult result = parser.parse(text.getBytes(StandardCharsets.US_ASCII));
+
+        assertEquals(2, result.getColumns().size());
+        List<CidrBulkParser.ParseError> errors = result.getErrors();
+        assertEquals(5, errors.size());
+        assertEquals(2, errors.get(0).getLineNumber());
+        assertEquals(6, errors.get(4).getLineNumber());
+        assertTrue(errors.get(0).getMessage().contains("256.0.0.1"));
+        assertTrue(result.getChunks().size() > 1);
+    }
+
+    @Test
+    @DisplayName("병렬 파싱 - 작은 청크로 나눠도 순차 파싱과 결과가 같음")
+    void testParse_ParallelMatchesSequential() {
+        Random random = new Random(9);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            if (i % 997 == 0) {
+                sb.append("bad line ").append(i).append('\n');
+            } else if (i % 3 == 0) {
+                IpAddress.appendTo(random.nextInt(), sb).append('\n');
+            } else {
+                IpAddress.appendTo(random.nextInt(), sb).append('/').append(random.nextInt(33)).append('\n');
+            }
+        }
+        byte[] data = sb.toString().getBytes(StandardCharsets.US_ASCII);
+
+        CidrBulkParser.ParseResult sequential = new CidrBulkParser(ForkJoinPool.commonPool(), Integer.MAX_VALUE)
+                .parse(data);
+        CidrBulkParser.ParseResult parallel = new CidrBulkParser(new ForkJoinPool(4), 4096).parse(data);
+
+        assertEquals(1, sequential.getChunks().size());
+        assertTrue(parallel.getChunks().size() > 10);
+        assertArrayEquals(sequential.getColumns().toAddressArray(), parallel.getColumns().toAddressArray());
+        assertArrayEquals(sequential.getColumns().toPrefixLengthArray(), parallel.getColumns().toPrefixLengthArray());
+        assertEquals(sequential.getErrors().toString(), parallel.getErrors().toString());
+        assertEquals(21, parallel.getErrorCount());
+        assertEquals(20000, parallel.getLineCount());
+
+        int entries = 0;
+        int expectedFirstLine = 1;
+        for (CidrBulkParser.ChunkReport chunk : parallel.getChunks()) {
+            assertEquals(expectedFirstLine, chunk.getFirstLine());
+            expectedFirstLine += chunk.getLineCount();
+            entries += chunk.getEntryCount();
+        }
+        assertEquals(parallel.getColumns().size(), entries);
+    }
+
+    @Test
+    @DisplayName("파일/ByteBuffer 입력 - 마지막 줄에 줄바꿈이 없어도 파싱")
+    void testParse_FileAndBuffer() throws Exception {
+        Path file = Files.createTempFile("cidr", ".txt");
+        try {
+            Files.writeString(file, "10.0.0.0/24\n10.0.1.0/24");
+            CidrBulkParser.ParseResult result = new CidrBulkParser().parse(file);
+            assertEquals(2, result.getColumns().size());
+            assertEquals("10.0.1.0/24", result.getColumns().get(1).toString());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap("xx1.1.1.1\n2.2.2.2/31".getBytes(StandardCharsets.US_ASCII));
+        buffer.position(2);
+        CidrBulkParser.ParseResult result = new CidrBulkParser().parse(buffer);
+        assertEquals(2, result.getColumns().size());
+        assertEquals(2, buffer.position());
+    }
+
+    @Test
+    @DisplayName("순차 항목 순회 - parse 결과와 같은 번호, 주소, 오류 수")
+    void testForEachEntry() throws Exception {
+        Path file = Files.createTempFile("cidr", ".txt");
+        try {
+            Files.writeString(file, "# list\n10.0.0.0/24\nbad\n\n192.168.1.1\r\n172.16.0.0/12");
+            CidrColumns expected = new CidrBulkParser().parse(file).getColumns();
+            CidrColumns visited = new CidrColumns();
+            int errors = CidrBulkParser.forEachEntry(file, (index, address, prefixLength) -> {
+                assertEquals(visited.size(), index);
+                visited.add(address, prefixLength);
+            });
+            assertEquals(1, errors);
+            assertEquals(expected.toCidrBlocks().toString(), visited.toCidrBlocks().toString());
+            assertThrows(IllegalArgumentException.class, () -> CidrBulkParser.forEachEntry(file, null));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package swnoh.cidr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CidrDiffTest {
+
+    private static List<String> strings(List<CidrBlock> blocks) {
+        return blocks.stream().map(CidrBlock::toString).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("diff - 추가/제거된 범위를 최소 CIDR로 반환")
+    void testDiff_Basic() {
+        List<CidrBlock> oldBlocks = Arrays.asList(
+                CidrBlock.of("10.0.0.0/24"),
+                CidrBlock.of("192.168.0.0/24")
+        );
+        List<CidrBlock> newBlocks = Arrays.asList(
+                CidrBlock.of("10.0.0.0/25"),
+                CidrBlock.of("192.168.0.0/23")
+        );
+
+        CidrDiff diff = CidrUtils.diff(oldBlocks, newBlocks);
+
+        assertEquals(List.of("192.168.1.0/24"), strings(diff.getAdded()));
+        assertEquals(List.of("10.0.0.128/25"), strings(diff.getRemoved()));
+        assertFalse(diff.isEmpty());
+    }
+
+    @Test
+    @DisplayName("diff - 표현만 다르고 주소 집합이 같으면 변경 없음")
+    void testDiff_SameAddressSet() {
+        List<CidrBlock> oldBlocks = List.of(CidrBlock.of("10.0.0.0/23"));
+        List<CidrBlock> newBlocks = Arrays.asList(
+                CidrBlock.of("10.0.1.0/24"),
+                CidrBlock.of("10.0.0.0/24"),
+                CidrBlock.of("10.0.0.5/32")
+        );
+
+        assertTrue(CidrUtils.diff(oldBlocks, newBlocks).isEmpty());
+    }
+
+    @Test
+    @DisplayName("diff - 큰 블록에서 일부가 빠지면 남은 범위를 최소 블록으로 표현")
+    void testDiff_HoleInLargeBlock() {
+        CidrDiff diff = CidrUtils.diff(
+                List.of(CidrBlock.of("10.0.0.1/32"), CidrBlock.of("10.0.0.0/30")),
+                List.of(CidrBlock.of("0.0.0.0/0")));
+
+        assertTrue(diff.getRemoved().isEmpty());
+        assertEquals(30, diff.getAdded().size());
+        assertEquals("0.0.0.0/5", diff.getAdded().get(0).toString());
+        assertEquals("128.0.0.0/1", diff.getAdded().get(29).toString());
+    }
+
+    @Test
+    @DisplayName("delta 인코딩 - encode/decode 후 적용하면 새 집합과 같아짐")
+    void testEncodeDecodeApply() {
+        Random random = new Random(5);
+        List<CidrBlock> oldBlocks = TestBlocks.randomBlocks(random, 500, 16, 32);
+        List<CidrBlock> newBlocks = new ArrayList<>(oldBlocks.subList(20, oldBlocks.size()));
+        newBlocks.addAll(TestBlocks.randomBlocks(random, 30, 16, 32));
+
+        CidrDiff diff = CidrUtils.diff(oldBlocks, newBlocks);
+        byte[] encoded = diff.encode();
+        CidrDiff decoded = CidrDiff.decode(encoded);
+
+        assertEquals(strings(diff.getAdded()), strings(decoded.getAdded()));
+        assertEquals(strings(diff.getRemoved()), strings(decoded.getRemoved()));
+
+        List<CidrBlock> applied = decoded.applyTo(oldBlocks);
+        assertTrue(CidrUtils.diff(applied, newBlocks).isEmpty());
+        assertTrue(encoded.length < (diff.getAdded().size() + diff.getRemoved().size()) * 6 + 8);
+    }
+
+    @Test
+    @DisplayName("delta 인코딩 - 잘못된 입력 거부")
+    void testDecode_Invalid() {
+        assertThrows(IllegalArgumentException.class, () -> CidrDiff.decode(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> CidrDiff.decode(new byte[]{9, 0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> CidrDiff.decode(new byte[]{1, 1, 5}));
+        // 0.0.0.1/24: 네트워크 주소가 prefix에 맞게 정렬되지 않음
+        assertThrows(IllegalArgumentException.class, () -> CidrDiff.decode(new byte[]{1, 1, 1, 24, 0}));
+        // 255.255.255.0/16: 주소 공간 끝을 넘는 블록
+        assertThrows(IllegalArgumentException.class,
+                () -> CidrDiff.decode(new byte[]{1, 1, -128, -2, -1, -1, 15, 16, 0}));
+        // 0.0.0.0/24 뒤에 차이 0으로 같은 블록: 앞 블록과 겹침
+        assertThrows(IllegalArgumentException.class, () -> CidrDiff.decode(new byte[]{1, 2, 0, 24, 0, 24, 0}));
+        // 0.0.0.0/16 뒤에 0.0.1.0/24: 앞 블록 안에서 시작
+        assertThrows(IllegalArgumentException.class, () -> CidrDiff.decode(new byte[]{1, 2, 0, 16, 0, 2, 24, 0}));
+        // 같은 배치의 정상 입력은 통과
+        assertEquals(2, CidrDiff.decode(new byte[]{1, 2, 0, 24, -128, 4, 24, 0}).getRemoved().size());
+        assertThrows(IllegalArgumentException.class, () -> CidrUtils.diff(null, List.of()));
+    }
+}
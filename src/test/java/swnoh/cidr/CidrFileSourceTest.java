@@ -0,0 +1,154 @@
+package swnoh.cidr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CidrFileSourceTest {
+
+    @Test
+    @DisplayName("파일 소스 - 첫 로드와 수동 새로고침 (덧붙이기/재작성/삭제)")
+    void testRefresh() throws IOException {
+        Path directory = Files.createTempDirectory("cidr-source");
+        Path first = directory.resolve("first.txt");
+        Path second = directory.resolve("second.txt");
+        Files.write(first, "10.0.0.0/24\n10.0.1.0/24\n".getBytes(StandardCharsets.US_ASCII));
+
+        try (CidrFileSource source = CidrFileSource.open(List.of(first, second), Duration.ofHours(1))) {
+            CidrFileSource.View view = source.getView();
+            assertEquals(1, view.getVersion());
+            assertEquals(2, view.getEntryCount());
+            assertEquals("[10.0.0.0/23]", view.getBlocks().toString());
+            assertFalse(view.contains(IpAddress.fromString("192.168.0.1")));
+
+            // 변경 없음: 새 뷰를 게시하지 않음
+            CidrFileSource.ReloadStats unchanged = source.refresh();
+            assertEquals(1, unchanged.getVersion());
+            assertEquals(0, unchanged.getParsedBytes());
+
+            // 덧붙이기: 늘어난 부분만 파싱
+            byte[] appended = "192.168.0.0/16\nbad line\n".getBytes(StandardCharsets.US_ASCII);
+            Files.write(first, appended, StandardOpenOption.APPEND);
+            CidrFileSource.ReloadStats append = source.refresh();
+            assertEquals(2, append.getVersion());
+            assertEquals(1, append.getAppendedFiles());
+            assertEquals(appended.length, append.getParsedBytes());
+            assertEquals(3, append.getEntryCount());
+            assertEquals(1, append.getErrorCount());
+            assertTrue(source.getView().contains(IpAddress.fromString("192.168.0.1")));
+            assertFalse(view.contains(IpAddress.fromString("192.168.0.1")));
+
+            // 새 파일 생성
+            Files.write(second, "172.16.0.0/12\n".getBytes(StandardCharsets.US_ASCII));
+            CidrFileSource.ReloadStats created = source.refresh();
+            assertEquals(1, created.getReparsedFiles());
+            assertEquals(4, created.getEntryCount());
+            assertEquals(3, source.getView().getRangeCount());
+
+            // 재작성: 전체 다시 파싱
+            Files.write(first, "10.0.0.0/24\n".getBytes(StandardCharsets.US_ASCII));
+            CidrFileSource.ReloadStats rewrite = source.refresh();
+            assertEquals(1, rewrite.getReparsedFiles());
+            assertEquals(0, rewrite.getErrorCount());
+            assertEquals("[10.0.0.0/24, 172.16.0.0/12]", source.getView().getBlocks().toString());
+
+            // 삭제: 빈 목록으로 취급
+            Files.delete(second);
+            source.refresh();
+            assertEquals(1, source.getView().getEntryCount());
+            assertEquals(256, source.getView().getAddressCount());
+        }
+    }
+
+    @Test
+    @DisplayName("파일 소스 - 변경 감시 후 리스너로 새 뷰 게시")
+    void testWatch() throws Exception {
+        Path directory = Files.createTempDirectory("cidr-source");
+        Path file = directory.resolve("list.txt");
+        Files.write(file, "10.0.0.0/8\n".getBytes(StandardCharsets.US_ASCII));
+
+        try (CidrFileSource source = CidrFileSource.open(List.of(file), Duration.ofMillis(50))) {
+            LinkedBlockingQueue<CidrFileSource.ReloadStats> reloads = new LinkedBlockingQueue<>();
+            source.addListener((view, stats) -> reloads.add(stats));
+
+            Files.write(file, "10.0.0.0/8\n11.0.0.0/8\n".getBytes(StandardCharsets.US_ASCII));
+
+            CidrFileSource.ReloadStats stats = reloads.poll(20, TimeUnit.SECONDS);
+            while (stats != null && stats.getEntryCount() != 2) {
+                stats = reloads.poll(20, TimeUnit.SECONDS);
+            }
+            assertNotNull(stats);
+            assertTrue(stats.getLatencyNanos() > 0);
+            assertEquals("[10.0.0.0/7]", source.getView().getBlocks().toString());
+        }
+    }
+
+    @Test
+    @DisplayName("파일 소스 - 리스너가 예외를 던져도 감시가 계속되고 onError로 전달")
+    void testWatch_ListenerFailure() throws Exception {
+        Path directory = Files.createTempDirectory("cidr-source");
+        Path file = directory.resolve("list.txt");
+        Files.write(file, "10.0.0.0/8\n".getBytes(StandardCharsets.US_ASCII));
+
+        try (CidrFileSource source = CidrFileSource.open(List.of(file), Duration.ofMillis(50))) {
+            LinkedBlockingQueue<CidrFileSource.ReloadStats> reloads = new LinkedBlockingQueue<>();
+            LinkedBlockingQueue<IOException> errors = new LinkedBlockingQueue<>();
+            source.addListener((view, stats) -> {
+                throw new IllegalStateException("listener bug");
+            });
+            source.addListener(new CidrFileSource.Listener() {
+                @Override
+                public void onReload(CidrFileSource.View view, CidrFileSource.ReloadStats stats) {
+                    reloads.add(stats);
+                }
+
+                @Override
+                public void onError(Path path, IOException error) {
+                    assertNull(path);
+                    errors.add(error);
+                }
+            });
+
+            for (int entries = 2; entries <= 3; entries++) {
+                StringBuilder text = new StringBuilder();
+                for (int i = 0; i < entries; i++) {
+                    text.append(10 + i).append(".0.0.0/8\n");
+                }
+                Files.write(file, text.toString().getBytes(StandardCharsets.US_ASCII));
+
+                CidrFileSource.ReloadStats stats = reloads.poll(20, TimeUnit.SECONDS);
+                while (stats != null && stats.getEntryCount() != entries) {
+                    stats = reloads.poll(20, TimeUnit.SECONDS);
+                }
+                assertNotNull(stats);
+            }
+
+            IOException error = errors.poll(20, TimeUnit.SECONDS);
+            assertNotNull(error);
+            assertEquals("listener bug", error.getCause().getMessage());
+        }
+    }
+
+    @Test
+    @DisplayName("파일 소스 - 잘못된 인자는 예외")
+    void testOpen_Invalid() {
+        assertThrows(IllegalArgumentException.class, () -> CidrFileSource.open(List.of(), Duration.ZERO));
+        assertThrows(IllegalArgumentException.class,
+                () -> CidrFileSource.open(List.of(Path.of("a.txt")), Duration.ofMillis(-1)));
+
+        // 감시할 디렉터리가 없으면 감시 등록 단계에서 실패
+        Path missing = Path.of("no-such-directory-" + System.nanoTime(), "a.txt");
+        assertThrows(IOException.class, () -> CidrFileSource.open(List.of(missing), Duration.ZERO));
+    }
+}
@@ -0,0 +1,101 @@
+package swnoh.cidr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CidrIndexTest {
+
+    @Test
+    @DisplayName("Longest match - 중첩된 블록 중 가장 긴 prefix 선택")
+    void testLookup_LongestMatch() {
+        CidrIndex index = CidrIndex.of(Arrays.asList(
+                CidrBlock.of("10.0.0.0/8"),
+                CidrBlock.of("10.1.0.0/16"),
+                CidrBlock.of("10.1.2.0/24"),
+                CidrBlock.of("192.168.0.0/16")
+        ));
+
+        assertEquals(2, index.lookup(IpAddress.fromString("10.1.2.3")));
+        assertEquals(1, index.lookup(IpAddress.fromString("10.1.3.3")));
+        assertEquals(0, index.lookup(IpAddress.fromString("10.2.0.1")));
+        assertEquals(3, index.lookup(IpAddress.fromString("192.168.255.255")));
+        assertEquals(CidrLookup.NO_MATCH, index.lookup(IpAddress.fromString("11.0.0.0")));
+        assertEquals("10.1.2.0/24", index.findLongestMatch("10.1.2.200").toString());
+        assertNull(index.findLongestMatch("8.8.8.8"));
+    }
+
+    @Test
+    @DisplayName("Longest match - 주소 공간 경계 (0.0.0.0/0, 255.255.255.255/32)")
+    void testLookup_AddressSpaceEdges() {
+        CidrIndex index = CidrIndex.of(Arrays.asList(
+                CidrBlock.of("0.0.0.0/0"),
+                CidrBlock.of("255.255.255.255/32"),
+                CidrBlock.of("128.0.0.0/1")
+        ));
+
+        assertEquals(0, index.lookup(IpAddress.fromString("0.0.0.0")));
+        assertEquals(0, index.lookup(IpAddress.fromString("127.255.255.255")));
+        assertEquals(2, index.lookup(IpAddress.fromString("128.0.0.0")));
+        assertEquals(2, index.lookup(IpAddress.fromString("255.255.255.254")));
+        assertEquals(1, index.lookup(IpAddress.fromString("255.255.255.255")));
+    }
+
+    @Test
+    @DisplayName("Longest match - 중복 블록은 먼저 나온 인덱스, 호스트 비트는 정규화")
+    void testLookup_DuplicatesAndHostBits() {
+        CidrIndex index = CidrIndex.of(Arrays.asList(
+                CidrBlock.of("172.16.0.0/12"),
+                CidrBlock.of("172.16.5.10/24"),
+                CidrBlock.of("172.16.5.0/24")
+        ));
+
+        assertEquals(1, index.lookup(IpAddress.fromString("172.16.5.99")));
+        assertEquals(0, index.lookup(IpAddress.fromString("172.16.6.0")));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    @DisplayName("Longest match - 무작위 규칙에서 선형 탐색 결과와 일치")
+    void testLookup_MatchesLinearScan() {
+        Random random = new Random(7);
+        List<CidrBlock> blocks = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            int prefixLength = 4 + random.nextInt(29);
+            long network = (random.nextInt() & 0xFFFFFFFFL) & (0xFFFFFFFFL << (32 - prefixLength)) & 0xFFFFFFFFL;
+            blocks.add(CidrBlock.of(IpAddress.fromLong(network) + "/" + prefixLength));
+        }
+        CidrIndex index = CidrIndex.of(blocks);
+
+        for (int i = 0; i < 5000; i++) {
+            IpAddress ip = i % 2 == 0
+                    ? IpAddress.fromInt(random.nextInt())
+                    : IpAddress.fromString(blocks.get(random.nextInt(blocks.size())).getNetworkAddressString());
+
+            int expected = CidrLookup.NO_MATCH;
+            for (int j = 0; j < blocks.size(); j++) {
+                if (blocks.get(j).contains(ip)
+                        && (expected == CidrLookup.NO_MATCH
+                        || blocks.get(j).getPrefixLength() > blocks.get(expected).getPrefixLength())) {
+                    expected = j;
+                }
+            }
+            assertEquals(expected, index.lookup(ip), "ip=" + ip);
+        }
+    }
+
+    @Test
+    @DisplayName("빈 인덱스는 항상 NO_MATCH")
+    void testLookup_Empty() {
+        CidrIndex index = CidrIndex.of(List.of());
+        assertEquals(CidrLookup.NO_MATCH, index.lookup(0));
+        assertEquals(CidrLookup.NO_MATCH, index.lookup(-1));
+        assertThrows(IllegalArgumentException.class, () -> CidrIndex.of(null));
+    }
+}
@@ -0,0 +1,115 @@
+package swnoh.cidr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CidrIntervalIndexTest {
+
+    private static final List<CidrBlock> BLOCKS = Arrays.asList(
+            CidrBlock.of("10.0.0.0/8"),
+            CidrBlock.of("10.1.0.0/16"),
+            CidrBlock.of("10.1.2.0/24"),
+            CidrBlock.of("10.2.0.0/16"),
+            CidrBlock.of("192.168.0.0/16"),
+            CidrBlock.of("10.1.0.0/16")
+    );
+
+    @Test
+    @DisplayName("구간 인덱스 - 주소를 포함하는 모든 블록 (작은 블록부터)")
+    void testForEachContaining() {
+        CidrIntervalIndex index = CidrIntervalIndex.of(BLOCKS);
+
+        assertEquals(List.of(2, 5, 1, 0), containing(index, "10.1.2.3"));
+        assertEquals(List.of(5, 1, 0), containing(index, "10.1.3.3"));
+        assertEquals(List.of(0), containing(index, "10.3.0.0"));
+        assertEquals(List.of(4), containing(index, "192.168.255.255"));
+        assertEquals(List.of(), containing(index, "11.0.0.0"));
+    }
+
+    @Test
+    @DisplayName("구간 인덱스 - 범위와 겹치는 블록과 범위 안의 블록")
+    void testForEachIntersectingAndWithin() {
+        CidrIntervalIndex index = CidrIntervalIndex.of(BLOCKS);
+
+        List<Integer> intersecting = new ArrayList<>();
+        index.forEachIntersecting(CidrBlock.of("10.1.0.0/15"), intersecting::add);
+        assertEquals(List.of(0, 1, 5, 2), intersecting);
+
+        List<Integer> within = new ArrayList<>();
+        index.forEachWithin(CidrBlock.of("10.1.0.0/16"), within::add);
+        assertEquals(List.of(1, 5, 2), within);
+
+        List<Integer> none = new ArrayList<>();
+        index.forEachIntersecting(CidrBlock.of("172.16.0.0/12"), none::add);
+        assertEquals(List.of(), none);
+    }
+
+    @Test
+    @DisplayName("구간 인덱스 - 무작위 블록에서 전체 탐색 결과와 일치")
+    void testMatchesFullScan() {
+        Random random = new Random(3);
+        List<CidrBlock> blocks = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int prefixLength = random.nextInt(33);
+            long network = (random.nextInt(1 << 12) & 0xFFFFFFFFL) << 20 & (0xFFFFFFFFL << (32 - prefixLength)) & 0xFFFFFFFFL;
+            blocks.add(CidrBlock.of(IpAddress.fromLong(network) + "/" + prefixLength));
+        }
+        CidrIntervalIndex index = CidrIntervalIndex.of(blocks);
+
+        for (int q = 0; q < 500; q++) {
+            long first = (random.nextInt() & 0xFFFFFFFFL);
+            long last = Math.min(0xFFFFFFFFL, first + random.nextInt(1 << 24));
+            if (q == 0) {
+                first = 0;
+                last = 0xFFFFFFFFL;
+            }
+
+            List<Integer> expectedContaining = new ArrayList<>();
+            List<Integer> expectedIntersecting = new ArrayList<>();
+            for (int i = 0; i < blocks.size(); i++) {
+                long start = blocks.get(i).getNetworkAddress();
+                long end = start | (0xFFFFFFFFL >>> blocks.get(i).getPrefixLength());
+                if (start <= first && first <= end) {
+                    expectedContaining.add(i);
+                }
+                if (start <= last && first <= end) {
+                    expectedIntersecting.add(i);
+                }
+            }
+
+            List<Integer> actualContaining = new ArrayList<>();
+            index.forEachContaining((int) first, actualContaining::add);
+            List<Integer> actualIntersecting = new ArrayList<>();
+            index.forEachIntersecting((int) first, (int) last, actualIntersecting::add);
+
+            actualContaining.sort(null);
+            actualIntersecting.sort(null);
+            assertEquals(expectedContaining, actualContaining);
+            assertEquals(expectedIntersecting, actualIntersecting);
+        }
+    }
+
+    @Test
+    @DisplayName("구간 인덱스 - 빈 인덱스와 잘못된 범위")
+    void testEdgeCases() {
+        CidrIntervalIndex empty = CidrIntervalIndex.of(List.of());
+        assertEquals(List.of(), containing(empty, "1.2.3.4"));
+
+        CidrIntervalIndex index = CidrIntervalIndex.of(BLOCKS);
+        assertThrows(IllegalArgumentException.class, () -> index.forEachIntersecting(-1, 0, id -> { }));
+        assertThrows(IllegalArgumentException.class, () -> CidrIntervalIndex.of(null));
+    }
+
+    private static List<Integer> containing(CidrIntervalIndex index, String ip) {
+        List<Integer> result = new ArrayList<>();
+        index.forEachContaining(IpAddress.fromString(ip), result::add);
+        return result;
+    }
+}
@@ -0,0 +1,128 @@
+package swnoh.cidr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CidrLookupCacheTest {
+
+    @Test
+    @DisplayName("조회 캐시 - 감싼 조회 구조와 같은 결과, 반복 조회는 적중")
+    void testLookup_MatchesDelegate() {
+        List<CidrBlock> blocks = new ArrayList<>();
+        blocks.add(CidrBlock.of("0.0.0.0/1"));
+        blocks.add(CidrBlock.of("10.0.0.0/8"));
+        blocks.add(CidrBlock.of("255.255.255.255/32"));
+        CidrIndex index = CidrIndex.of(blocks);
+        CidrLookupCache cache = CidrLookupCache.of(index, 64);
+
+        Random random = new Random(1);
+        int[] hot = {0, -1, IpAddress.fromString("10.1.2.3").toInt(), IpAddress.fromString("200.0.0.1").toInt()};
+        for (int i = 0; i < 10000; i++) {
+            int address = i % 2 == 0 ? hot[random.nextInt(hot.length)] : random.nextInt();
+            assertEquals(index.lookup(address), cache.lookup(address));
+        }
+
+        assertEquals(10000, cache.getHitCount() + cache.getMissCount());
+        assertTrue(cache.getHitRate() > 0.4);
+
+        int[] addresses = hot.clone();
+        int[] results = new int[addresses.length];
+        cache.lookupAll(addresses, results, addresses.length);
+        assertArrayEquals(new int[]{0, 2, 1, CidrLookup.NO_MATCH}, results);
+    }
+
+    @Test
+    @DisplayName("조회 캐시 - 무효화 후에는 다시 감싼 조회 구조를 호출")
+    void testInvalidate() {
+        AtomicInteger rule = new AtomicInteger(7);
+        AtomicInteger calls = new AtomicInteger();
+        CidrLookupCache cache = CidrLookupCache.of(address -> {
+            calls.incrementAndGet();
+            return rule.get();
+        }, 2);
+
+        assertEquals(7, cache.lookup(42));
+        assertEquals(7, cache.lookup(42));
+        assertEquals(1, calls.get());
+
+        rule.set(9);
+        cache.invalidate();
+        assertEquals(9, cache.lookup(42));
+        assertEquals(2, calls.get());
+
+        cache.resetStats();
+        assertEquals(0, cache.getHitCount());
+        assertEquals(0.0, cache.getHitRate());
+    }
+
+    @Test
+    @DisplayName("조회 캐시 - 스레드마다 별도 캐시")
+    void testPerThread() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        CidrLookupCache cache = CidrLookupCache.of(address -> {
+            calls.incrementAndGet();
+            return address & 0xFF;
+        });
+
+        cache.lookup(5);
+        Thread other = new Thread(() -> cache.lookup(5));
+        other.start();
+        other.join();
+
+        assertEquals(2, calls.get());
+        assertEquals(5, cache.lookup(5));
+        assertEquals(2, calls.get());
+
+        // 끝난 스레드의 카운터도 통계에 합산됨
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        cache.resetStats();
+        assertEquals(0, cache.getMissCount());
+        cache.lookup(6);
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("조회 캐시 - 짧게 사는 스레드가 많아도 끝난 스레드의 캐시는 남지 않음")
+    void testShortLivedThreads() throws InterruptedException {
+        CidrLookupCache cache = CidrLookupCache.of(address -> address & 0xFF, 1024);
+        int threads = 200;
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                cache.lookup(7);
+                cache.lookup(7);
+            });
+            worker.start();
+            worker.join();
+            assertTrue(cache.registeredThreadCount() <= 17, "registered " + cache.registeredThreadCount());
+        }
+
+        // 통계는 끝난 스레드 몫까지 유지
+        assertEquals(threads, cache.getHitCount());
+        assertEquals(threads, cache.getMissCount());
+        assertEquals(0, cache.registeredThreadCount());
+        assertEquals(0, cache.footprint().getEntryCount());
+
+        cache.resetStats();
+        assertEquals(0, cache.getHitCount());
+        cache.lookup(7);
+        assertEquals(1, cache.registeredThreadCount());
+        assertEquals(1024, cache.footprint().getEntryCount());
+    }
+
+    @Test
+    @DisplayName("조회 캐시 - 잘못된 크기는 예외")
+    void testOf_InvalidCapacity() {
+        CidrIndex index = CidrIndex.of(List.of());
+        assertThrows(IllegalArgumentException.class, () -> CidrLookupCache.of(index, 3));
+        assertThrows(IllegalArgumentException.class, () -> CidrLookupCache.of(index, 1));
+        assertThrows(IllegalArgumentException.class, () -> CidrLookupCache.of(null));
+    }
+}
@@ -0,0 +1,129 @@
+package swnoh.cidr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CidrOverlapAnalyzerTest {
+
+    @Test
+    @DisplayName("포함 체인 - 바깥 블록부터 순서대로 보고")
+    void testAnalyze_ContainmentChain() {
+        List<CidrBlock> blocks = Arrays.asList(
+                CidrBlock.of("10.1.2.0/24"),     // 0
+                CidrBlock.of("10.0.0.0/8"),      // 1
+                CidrBlock.of("192.168.0.0/16"),  // 2
+                CidrBlock.of("10.1.0.0/16")      // 3
+        );
+
+        List<String> chains = new ArrayList<>();
+        List<String> groups = new ArrayList<>();
+        CidrOverlapAnalyzer.Summary summary = CidrOverlapAnalyzer.analyze(blocks, new CidrOverlapAnalyzer.Listener() {
+            @Override
+            public void onContained(int innerIndex, int[] ancestors, int depth) {
+                chains.add(innerIndex + "<" + Arrays.toString(Arrays.copyOf(ancestors, depth)));
+            }
+
+            @Override
+            public void onGroup(int[] members, int from, int to) {
+                groups.add(Arrays.toString(Arrays.copyOfRange(members, from, to)));
+            }
+        });
+
+        assertEquals(Arrays.asList("3<[1]", "0<[1, 3]"), chains);
+        assertEquals(Arrays.asList("[1, 3, 0]"), groups);
+        assertEquals(3, summary.getContainmentPairs());
+        assertEquals(2, summary.getContainedCount());
+        assertEquals(1, summary.getGroupCount());
+        assertEquals(3, summary.getMaxDepth());
+        // 0번(/24)은 뒤에 나오는 1번(/8)에 포함되지만 입력 순서상 먼저이므로 shadowed 아님
+        assertEquals(1, summary.getShadowedCount());
+    }
+
+    @Test
+    @DisplayName("동일 블록 - 먼저 나온 블록이 나중 블록을 shadow")
+    void testAnalyze_DuplicateBlocks() {
+        List<CidrBlock> blocks = Arrays.asList(
+                CidrBlock.of("172.16.0.0/12"),
+                CidrBlock.of("172.16.0.0/12")
+        );
+
+        List<String> chains = new ArrayList<>();
+        CidrOverlapAnalyzer.Summary summary = CidrOverlapAnalyzer.analyze(blocks,
+                (inner, ancestors, depth) -> chains.add(inner + "<" + ancestors[0]));
+
+        assertEquals(List.of("1<0"), chains);
+        assertEquals(1, summary.getShadowedCount());
+    }
+
+    @Test
+    @DisplayName("겹치지 않는 블록 - 보고 없음")
+    void testAnalyze_Disjoint() {
+        List<CidrBlock> blocks = Arrays.asList(
+                CidrBlock.of("10.0.0.0/24"),
+                CidrBlock.of("10.0.1.0/24"),
+                CidrBlock.of("255.255.255.255/32")
+        );
+
+        CidrOverlapAnalyzer.Summary summary = CidrOverlapAnalyzer.analyze(blocks,
+                (inner, ancestors, depth) -> fail("unexpected containment"));
+
+        assertEquals(0, summary.getContainmentPairs());
+        assertEquals(0, summary.getGroupCount());
+        assertEquals(1, summary.getMaxDepth());
+    }
+
+    @Test
+    @DisplayName("무작위 입력 - 모든 쌍 비교 결과와 일치")
+    void testAnalyze_MatchesPairwise() {
+        Random random = new Random(3);
+        List<CidrBlock> blocks = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            int prefixLength = 8 + random.nextInt(17);
+            long network = ((random.nextInt(4) + 10L) << 24 | (random.nextInt() & 0xFFFFFFL))
+                    & (0xFFFFFFFFL << (32 - prefixLength)) & 0xFFFFFFFFL;
+            blocks.add(CidrBlock.of(IpAddress.fromLong(network) + "/" + prefixLength));
+        }
+
+        Set<Long> reported = new HashSet<>();
+        CidrOverlapAnalyzer.analyze(blocks, (inner, ancestors, depth) -> {
+            for (int d = 0; d < depth; d++) {
+                assertTrue(reported.add((long) ancestors[d] << 32 | inner));
+            }
+        });
+
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < blocks.size(); i++) {
+            for (int j = 0; j < blocks.size(); j++) {
+                CidrBlock outer = blocks.get(i);
+                CidrBlock inner = blocks.get(j);
+                if (i == j || outer.getPrefixLength() > inner.getPrefixLength()) {
+                    continue;
+                }
+                boolean contains = outer.contains(IpAddress.fromString(inner.getNetworkAddressString()));
+                boolean identical = outer.getPrefixLength() == inner.getPrefixLength();
+                if (contains && (!identical || i < j)) {
+                    expected.add((long) i << 32 | j);
+                }
+            }
+        }
+        assertEquals(expected, reported);
+    }
+
+    @Test
+    @DisplayName("잘못된 입력 - null")
+    void testAnalyze_NullInput() {
+        assertThrows(IllegalArgumentException.class,
+                () -> CidrOverlapAnalyzer.analyze(null, (inner, ancestors, depth) -> { }));
+        assertThrows(IllegalArgumentException.class,
+                () -> CidrOverlapAnalyzer.analyze(List.of(), null));
+    }
+}
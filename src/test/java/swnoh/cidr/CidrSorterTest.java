@@ -0,0 +1,92 @@
+package swnoh.cidr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CidrSorterTest {
+
+    // 네트워크 주소 오름차순, 같은 주소에서는 긴 prefix 먼저
+    private static final Comparator<CidrBlock> ORDER = Comparator
+            .comparingLong(CidrBlock::getNetworkAddress)
+            .thenComparing(Comparator.comparingInt(CidrBlock::getPrefixLength).reversed());
+
+    @Test
+    @DisplayName("CIDR 정렬 - 네트워크 주소 순, 같은 주소는 작은 블록 먼저")
+    void testSort_Basic() {
+        List<CidrBlock> sorted = CidrSorter.sort(Arrays.asList(
+                CidrBlock.of("192.168.0.0/16"),
+                CidrBlock.of("10.0.0.0/8"),
+                CidrBlock.of("10.0.0.0/24"),
+                CidrBlock.of("255.255.255.255/32"),
+                CidrBlock.of("0.0.0.0/0"),
+                CidrBlock.of("10.0.0.77/16")
+        ));
+
+        assertEquals("[0.0.0.0/0, 10.0.0.0/24, 10.0.0.77/16, 10.0.0.0/8, 192.168.0.0/16, 255.255.255.255/32]",
+                sorted.toString());
+    }
+
+    @Test
+    @DisplayName("CIDR 정렬 - 같은 키는 입력 순서 유지 (안정 순열)")
+    void testSortedPermutation_Stable() {
+        List<CidrBlock> blocks = Arrays.asList(
+                CidrBlock.of("10.0.0.1/24"),
+                CidrBlock.of("9.0.0.0/8"),
+                CidrBlock.of("10.0.0.2/24"),
+                CidrBlock.of("10.0.0.3/24")
+        );
+
+        assertArrayEquals(new int[]{1, 0, 2, 3}, CidrSorter.sortedPermutation(blocks));
+        assertArrayEquals(new int[0], CidrSorter.sortedPermutation(List.of()));
+    }
+
+    @Test
+    @DisplayName("CIDR 정렬 - 순차/병렬 결과가 비교 정렬과 일치")
+    void testSort_MatchesComparator() {
+        Random random = new Random(41);
+        List<CidrBlock> blocks = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            int prefixLength = random.nextInt(33);
+            blocks.add(CidrBlock.of(IpAddress.fromInt(random.nextInt(1 << 20) << 12) + "/" + prefixLength));
+        }
+
+        List<CidrBlock> expected = new ArrayList<>(blocks);
+        expected.sort(ORDER);
+        int[] expectedOrder = new int[blocks.size()];
+        Integer[] boxed = new Integer[blocks.size()];
+        for (int i = 0; i < boxed.length; i++) {
+            boxed[i] = i;
+        }
+        Arrays.sort(boxed, Comparator.comparing(blocks::get, ORDER));
+        for (int i = 0; i < boxed.length; i++) {
+            expectedOrder[i] = boxed[i];
+        }
+
+        assertArrayEquals(expectedOrder, CidrSorter.sortedPermutation(blocks));
+        assertArrayEquals(expectedOrder, CidrSorter.parallelSortedPermutation(blocks));
+        assertEquals(expected.toString(), CidrSorter.parallelSort(blocks).toString());
+
+        long[] keys = new long[blocks.size()];
+        int[] order = new int[blocks.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = CidrSorter.key(blocks.get(i));
+            order[i] = i;
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            CidrSorter.sort(keys, order, keys.length, pool);
+        } finally {
+            pool.shutdown();
+        }
+        assertArrayEquals(expectedOrder, order);
+    }
+}
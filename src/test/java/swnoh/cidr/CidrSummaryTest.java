@@ -0,0 +1,97 @@
+package swnoh.cidr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CidrSummaryTest {
+
+    private static List<String> strings(List<CidrBlock> blocks) {
+        return blocks.stream().map(CidrBlock::toString).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("요약 - 제한 이내면 무손실 병합 결과 그대로")
+    void testSummarize_WithinLimit() {
+        CidrSummary summary = CidrUtils.summarize(Arrays.asList(
+                CidrBlock.of("10.0.0.0/25"),
+                CidrBlock.of("10.0.0.128/25"),
+                CidrBlock.of("192.168.0.0/24")
+        ), 2);
+
+        assertEquals(List.of("10.0.0.0/24", "192.168.0.0/24"), strings(summary.getBlocks()));
+        assertEquals(0, summary.getOverCoverage());
+    }
+
+    @Test
+    @DisplayName("요약 - 가장 적게 늘어나는 쌍부터 합침")
+    void testSummarize_PicksCheapestMerge() {
+        CidrSummary summary = CidrUtils.summarize(Arrays.asList(
+                CidrBlock.of("10.0.0.0/24"),
+                CidrBlock.of("10.0.2.0/24"),   // 10.0.0.0/22로 합치면 512개 추가
+                CidrBlock.of("10.8.0.0/24")    // 앞 블록들과 합치면 훨씬 많이 추가
+        ), 2);
+
+        assertEquals(List.of("10.0.0.0/22", "10.8.0.0/24"), strings(summary.getBlocks()));
+        assertEquals(512, summary.getOverCoverage());
+        assertEquals(768, summary.getInputAddressCount());
+        assertEquals(1024 + 256, summary.getCoveredAddressCount());
+    }
+
+    @Test
+    @DisplayName("요약 - 한 개로 제한하면 모든 블록의 공통 상위 블록")
+    void testSummarize_SinglePrefix() {
+        CidrSummary summary = CidrUtils.summarize(Arrays.asList(
+                CidrBlock.of("10.0.0.1/32"),
+                CidrBlock.of("10.0.0.6/32"),
+                CidrBlock.of("10.0.0.3/32")
+        ), 1);
+
+        assertEquals(List.of("10.0.0.0/29"), strings(summary.getBlocks()));
+        assertEquals(5, summary.getOverCoverage());
+    }
+
+    @Test
+    @DisplayName("요약 - 무작위 입력에서 제한과 포함 관계, 추가 주소 수가 정확함")
+    void testSummarize_Random() {
+        Random random = new Random(21);
+        List<CidrBlock> blocks = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int prefixLength = 20 + random.nextInt(13);
+            long network = ((long) random.nextInt(1 << 20) << 12) & (0xFFFFFFFFL << (32 - prefixLength)) & 0xFFFFFFFFL;
+            blocks.add(CidrBlock.of(IpAddress.fromLong(network) + "/" + prefixLength));
+        }
+
+        for (int limit : new int[]{1, 10, 100, 1000}) {
+            CidrSummary summary = CidrUtils.summarize(blocks, limit);
+            assertTrue(summary.getBlocks().size() <= limit);
+
+            // 원래 주소가 모두 포함되어야 함
+            assertTrue(CidrUtils.diff(blocks, summary.getBlocks()).getRemoved().isEmpty());
+
+            // 추가 주소 수는 diff의 추가분과 정확히 같아야 함
+            long added = CidrUtils.diff(blocks, summary.getBlocks()).getAdded().stream()
+                    .mapToLong(CidrBlock::getTotalIpCount).sum();
+            assertEquals(added, summary.getOverCoverage());
+        }
+
+        long loose = CidrUtils.summarize(blocks, 10).getOverCoverage();
+        long tight = CidrUtils.summarize(blocks, 1000).getOverCoverage();
+        assertTrue(tight <= loose);
+    }
+
+    @Test
+    @DisplayName("요약 - 잘못된 입력")
+    void testSummarize_Invalid() {
+        assertThrows(IllegalArgumentException.class, () -> CidrUtils.summarize(null, 10));
+        assertThrows(IllegalArgumentException.class, () -> CidrUtils.summarize(List.of(), 0));
+        assertTrue(CidrUtils.summarize(List.of(), 1).getBlocks().isEmpty());
+    }
+}
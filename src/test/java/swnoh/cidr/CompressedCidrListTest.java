@@ -0,0 +1,160 @@
+package swnoh.cidr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedCidrListTest {
+
+    @Test
+    @DisplayName("압축 목록 - 원래 블록을 정렬해 저장하고 순서대로 풀어냄")
+    void testOf_SortsAndIterates() {
+        CompressedCidrList list = CompressedCidrList.of(List.of(
+                CidrBlock.of("10.0.1.0/24"),
+                CidrBlock.of("10.0.0.0/24"),
+                CidrBlock.of("10.0.0.7/32"),
+                CidrBlock.of("192.168.0.0/16"),
+                CidrBlock.of("1.2.3.4/32")));
+
+        assertEquals("[1.2.3.4/32, 10.0.0.0/24, 10.0.0.7/32, 10.0.1.0/24, 192.168.0.0/16]",
+                list.getBlocks().toString());
+        assertEquals(5, list.size());
+        assertEquals(1 + 512 + 65536, list.addressCount());
+        assertTrue(list.contains(IpAddress.fromString("10.0.1.255")));
+        assertTrue(list.contains(IpAddress.fromString("1.2.3.4")));
+        assertFalse(list.contains(IpAddress.fromString("1.2.3.5")));
+        assertFalse(list.contains(IpAddress.fromString("10.0.2.0")));
+        assertFalse(list.contains(IpAddress.fromString("0.0.0.0")));
+    }
+
+    @Test
+    @DisplayName("압축 목록 - 무작위 목록의 순회는 정렬한 입력과 같고 조회는 집계 결과와 같음")
+    void testRandom_MatchesRanges() {
+        SplittableRandom random = new SplittableRandom(7);
+        CidrColumns columns = new CidrColumns();
+        for (int i = 0; i < 20_000; i++) {
+            columns.add(random.nextInt(), 8 + random.nextInt(25));
+        }
+        CompressedCidrList list = CompressedCidrList.of(columns);
+        long[] ranges = CidrRanges.fromColumns(columns);
+
+        List<CidrBlock> sorted = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            int hostBits = 32 - columns.getPrefixLength(i);
+            sorted.add(CidrBlock.of((columns.getAddress(i) & 0xFFFFFFFFL) >>> hostBits << hostBits, columns.getPrefixLength(i)));
+        }
+        sorted.sort(Comparator.comparingLong(CidrBlock::getNetworkAddress).thenComparingInt(CidrBlock::getPrefixLength));
+        assertEquals(sorted.toString(), list.getBlocks().toString());
+        assertEquals(columns.size(), list.size());
+        assertEquals(CidrRanges.addressCount(ranges), list.addressCount());
+
+        AggregatedCidrSet reference = AggregatedCidrSet.of(columns.toCidrBlocks());
+        for (int i = 0; i < 200_000; i++) {
+            int address = random.nextInt();
+            assertEquals(reference.contains(address), list.contains(address));
+        }
+        // 블록 경계
+        for (CidrBlock block : list) {
+            int network = (int) block.getNetworkAddress();
+            long size = 1L << (32 - block.getPrefixLength());
+            assertTrue(list.contains(network));
+            assertTrue(list.contains((int) (network + size - 1)));
+            assertEquals(reference.contains(network - 1), list.contains(network - 1));
+            assertEquals(reference.contains((int) (network + size)), list.contains((int) (network + size)));
+        }
+    }
+
+    @Test
+    @DisplayName("압축 목록 - 밀집한 /24 목록은 int 배열보다 4배 이상 작음")
+    void testCompression_DenseList() {
+        // 0.0.0.0/2 안의 /24 중 약 1/8 (약 50만 개)
+        SplittableRandom random = new SplittableRandom(11);
+        CidrColumns columns = new CidrColumns();
+        for (int i = 0; i < 1 << 22; i++) {
+            if (random.nextInt(8) == 0) {
+                columns.add(i << 8, 24);
+            }
+        }
+        CompressedCidrList list = CompressedCidrList.of(columns);
+
+        // 네트워크 주소만 담은 int 배열은 블록당 4바이트
+        long packedBytes = (long) list.size() * Integer.BYTES;
+        assertTrue(list.getCompressedSize() * 4 <= packedBytes,
+                "compressed " + list.getCompressedSize() + " bytes vs " + packedBytes + " bytes");
+        assertEquals(columns.size(), list.size());
+    }
+
+    @Test
+    @DisplayName("압축 목록 - 전체 주소 공간과 마지막 주소")
+    void testEdgeBlocks() {
+        CompressedCidrList all = CompressedCidrList.of(List.of(CidrBlock.of("0.0.0.0/0")));
+        assertEquals("[0.0.0.0/0]", all.getBlocks().toString());
+        assertEquals(1L << 32, all.addressCount());
+        assertTrue(all.contains(0));
+        assertTrue(all.contains(-1));
+
+        List<CidrBlock> blocks = new ArrayList<>();
+        blocks.add(CidrBlock.of("0.0.0.0/32"));
+        for (int i = 0; i < CompressedCidrList.GROUP_SIZE * 3; i++) {
+            blocks.add(CidrBlock.of(IpAddress.fromInt(0x40000000 + i * 4).toString() + "/31"));
+        }
+        blocks.add(CidrBlock.of("255.255.255.255/32"));
+        CompressedCidrList edges = CompressedCidrList.of(blocks);
+        assertEquals(blocks.size(), edges.size());
+        assertEquals(blocks.toString(), edges.getBlocks().toString());
+        assertTrue(edges.contains(0));
+        assertFalse(edges.contains(1));
+        assertTrue(edges.contains(-1));
+        assertFalse(edges.contains(-2));
+        assertTrue(edges.contains(0x40000000 + 4 * 300 + 1));
+        assertFalse(edges.contains(0x40000000 + 4 * 300 + 2));
+    }
+
+    @Test
+    @DisplayName("압축 목록 - 앞선 묶음의 큰 블록이 뒤 묶음 주소를 포함하고 중복도 보관")
+    void testNestedBlocks() {
+        List<CidrBlock> blocks = new ArrayList<>();
+        blocks.add(CidrBlock.of("10.0.0.0/8"));
+        for (int i = 0; i < CompressedCidrList.GROUP_SIZE * 3; i++) {
+            blocks.add(CidrBlock.of(IpAddress.fromInt(0x0A000000 + i * 0x8000).toString() + "/32"));
+        }
+        blocks.add(CidrBlock.of("10.0.0.0/8"));
+        blocks.add(CidrBlock.of("11.0.0.0/32"));
+        CompressedCidrList list = CompressedCidrList.of(blocks);
+
+        assertEquals(blocks.size(), list.size());
+        assertEquals((1L << 24) + 1, list.addressCount());
+        List<CidrBlock> decoded = list.getBlocks();
+        assertEquals("10.0.0.0/8", decoded.get(0).toString());
+        assertEquals("10.0.0.0/8", decoded.get(1).toString());
+        assertEquals("11.0.0.0/32", decoded.get(decoded.size() - 1).toString());
+
+        // 마지막 묶음에 속하는 주소도 첫 묶음의 /8로 포함됨
+        assertTrue(list.contains(IpAddress.fromString("10.255.255.255")));
+        assertTrue(list.contains(IpAddress.fromString("10.200.0.1")));
+        assertTrue(list.contains(IpAddress.fromString("11.0.0.0")));
+        assertFalse(list.contains(IpAddress.fromString("11.0.0.1")));
+        assertFalse(list.contains(IpAddress.fromString("9.255.255.255")));
+    }
+
+    @Test
+    @DisplayName("압축 목록 - 빈 목록")
+    void testEmpty() {
+        CompressedCidrList list = CompressedCidrList.of(List.of());
+        assertTrue(list.isEmpty());
+        assertEquals(0, list.addressCount());
+        assertFalse(list.contains(0));
+        Iterator<CidrBlock> iterator = list.iterator();
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+        assertThrows(IllegalArgumentException.class, () -> CompressedCidrList.of((CidrColumns) null));
+    }
+}
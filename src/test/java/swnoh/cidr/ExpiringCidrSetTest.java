@@ -0,0 +1,198 @@
+package swnoh.cidr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiringCidrSetTest {
+
+    private static final Duration TICK = Duration.ofSeconds(1);
+
+    // 테스트에서 직접 움직이는 시계 (나노초)
+    private final long[] now = {1_000_000_000L};
+
+    private ExpiringCidrSet newSet() {
+        return ExpiringCidrSet.withClock(TICK, () -> now[0]);
+    }
+
+    private void advance(Duration duration, ExpiringCidrSet set) {
+        // 정리 스레드처럼 틱마다 정리
+        long end = now[0] + duration.toNanos();
+        while (now[0] < end) {
+            now[0] = Math.min(end, now[0] + TICK.toNanos());
+            set.housekeeping();
+        }
+    }
+
+    @Test
+    @DisplayName("만료 집합 - TTL이 지나면 조회에서 빠지고 정리됨")
+    void testExpiry() {
+        ExpiringCidrSet set = newSet();
+        assertTrue(set.add(CidrBlock.of("10.0.0.0/8"), Duration.ofMinutes(5)));
+        assertTrue(set.add(CidrBlock.of("192.168.1.7/32"), Duration.ofMinutes(10)));
+        set.housekeeping();
+
+        assertTrue(set.contains(IpAddress.fromString("10.20.30.40")));
+        assertTrue(set.contains(IpAddress.fromString("192.168.1.7")));
+        assertFalse(set.contains(IpAddress.fromString("192.168.1.8")));
+
+        advance(Duration.ofMinutes(5), set);
+        assertFalse(set.contains(IpAddress.fromString("10.20.30.40")));
+        assertTrue(set.contains(IpAddress.fromString("192.168.1.7")));
+        assertEquals(1, set.size());
+        assertEquals(1, set.getExpiredCount());
+
+        advance(Duration.ofMinutes(5), set);
+        assertEquals(0, set.size());
+        assertEquals(2, set.getExpiredCount());
+        assertFalse(set.contains(IpAddress.fromString("192.168.1.7")));
+    }
+
+    @Test
+    @DisplayName("만료 집합 - 다시 추가하면 만료 시간이 늦춰지고, 앞당겨지지는 않음")
+    void testExtend() {
+        ExpiringCidrSet set = newSet();
+        CidrBlock block = CidrBlock.of("203.0.113.0/24");
+        set.add(block, Duration.ofMinutes(5));
+        advance(Duration.ofMinutes(4), set);
+
+        assertFalse(set.add(block, Duration.ofMinutes(5)));
+        assertFalse(set.add(block, Duration.ofSeconds(1)));
+        assertEquals(Duration.ofMinutes(5), set.getRemaining(block));
+
+        advance(Duration.ofMinutes(2), set);
+        assertTrue(set.contains(IpAddress.fromString("203.0.113.1")));
+        assertEquals(0, set.getExpiredCount());
+
+        advance(Duration.ofMinutes(3), set);
+        assertFalse(set.contains(IpAddress.fromString("203.0.113.1")));
+        assertNull(set.getRemaining(block));
+        assertEquals(0, set.size());
+    }
+
+    @Test
+    @DisplayName("만료 집합 - 여러 단계 휠에서 만료 시각 이후 틱 하나 안에 정리됨")
+    void testWheelLevels() {
+        ExpiringCidrSet set = newSet();
+        SplittableRandom random = new SplittableRandom(46);
+        List<CidrBlock> blocks = new ArrayList<>();
+        List<Long> expiries = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            CidrBlock block = CidrBlock.of(IpAddress.fromInt(i << 8) + "/24");
+            long ttl = Duration.ofMinutes(5).toNanos()
+                    + (long) (random.nextDouble() * Duration.ofHours(24).minusMinutes(5).toNanos());
+            set.add(block, Duration.ofNanos(ttl));
+            blocks.add(block);
+            expiries.add(now[0] + ttl);
+        }
+
+        long step = Duration.ofSeconds(37).toNanos();
+        for (long elapsed = 0; elapsed <= Duration.ofHours(25).toNanos(); elapsed += step) {
+            advance(Duration.ofNanos(step), set);
+            int expected = 0;
+            int lagging = 0;
+            for (int i = 0; i < blocks.size(); i++) {
+                if (expiries.get(i) - now[0] > 0) {
+                    expected++;
+                    assertTrue(set.contains((int) blocks.get(i).getNetworkAddress()));
+                } else if (now[0] - expiries.get(i) < TICK.toNanos()) {
+                    lagging++;
+                }
+            }
+            assertEquals(expected, set.getBlocks().size());
+            // 만료된 지 틱 하나가 지난 블록은 남아 있으면 안 됨
+            assertTrue(set.size() >= expected && set.size() <= expected + lagging);
+        }
+        assertEquals(0, set.size());
+        assertEquals(2000, set.getExpiredCount());
+    }
+
+    @Test
+    @DisplayName("만료 집합 - 제거, 만료 후 정리 전에 다시 추가")
+    void testRemoveAndRevive() {
+        ExpiringCidrSet set = newSet();
+        CidrBlock block = CidrBlock.of("172.16.0.0/12");
+        set.add(block, Duration.ofMinutes(5));
+        assertTrue(set.remove(block));
+        assertFalse(set.remove(block));
+        assertFalse(set.contains(IpAddress.fromString("172.16.0.1")));
+        set.housekeeping();
+        assertEquals(0, set.size());
+
+        set.add(block, Duration.ofMinutes(5));
+        set.housekeeping();
+        // 정리 없이 시간만 흐름
+        now[0] += Duration.ofMinutes(6).toNanos();
+        assertFalse(set.contains(IpAddress.fromString("172.16.0.1")));
+        assertTrue(set.add(block, Duration.ofMinutes(5)));
+        set.housekeeping();
+        assertEquals(1, set.size());
+        assertTrue(set.contains(IpAddress.fromString("172.16.0.1")));
+
+        advance(Duration.ofMinutes(5), set);
+        assertEquals(0, set.size());
+        assertEquals(1, set.getExpiredCount());
+    }
+
+    @Test
+    @DisplayName("만료 집합 - 많이 추가·제거해도 남은 블록을 찾고 테이블이 다시 줄어듦")
+    void testChurn() {
+        ExpiringCidrSet set = newSet();
+        long small = set.footprint().getRetainedBytes();
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 5000; i++) {
+                set.add(CidrBlock.of((long) i << 8, 24), Duration.ofMinutes(5));
+            }
+            // 홀수 번째만 남김
+            for (int i = 0; i < 5000; i += 2) {
+                assertTrue(set.remove(CidrBlock.of((long) i << 8, 24)));
+            }
+            assertEquals(2500, set.size());
+            for (int i = 0; i < 5000; i++) {
+                assertEquals(i % 2 == 1, set.contains((i << 8) | 7), "block " + i);
+            }
+            for (int i = 1; i < 5000; i += 2) {
+                set.remove(CidrBlock.of((long) i << 8, 24));
+            }
+        }
+        assertEquals(0, set.size());
+
+        // 비운 테이블은 삭제하면서 줄어듦
+        for (int i = 0; i < 10; i++) {
+            set.add(CidrBlock.of((long) i << 8, 24), Duration.ofMinutes(5));
+        }
+        assertTrue(set.footprint().getRetainedBytes() < small + 10 * 64L);
+        assertEquals(10, set.getBlocks().size());
+    }
+
+    @Test
+    @DisplayName("만료 집합 - 정리 스레드가 만료된 블록을 제거")
+    void testHousekeepingThread() throws InterruptedException {
+        try (ExpiringCidrSet set = ExpiringCidrSet.start(Duration.ofMillis(5))) {
+            set.add(CidrBlock.of("10.0.0.0/24"), Duration.ofMillis(20));
+            set.add(CidrBlock.of("10.0.1.0/24"), Duration.ofHours(1));
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (set.size() > 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(1, set.size());
+            assertTrue(set.contains(IpAddress.fromString("10.0.1.1")));
+            assertFalse(set.contains(IpAddress.fromString("10.0.0.1")));
+        }
+    }
+
+    @Test
+    @DisplayName("만료 집합 - 잘못된 인자")
+    void testInvalidArguments() {
+        ExpiringCidrSet set = newSet();
+        assertThrows(IllegalArgumentException.class, () -> set.add(null, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> set.add(CidrBlock.of("10.0.0.0/8"), Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> ExpiringCidrSet.start(Duration.ZERO));
+    }
+}
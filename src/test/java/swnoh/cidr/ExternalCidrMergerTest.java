@@ -0,0 +1,124 @@
+package swnoh.cidr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalCidrMergerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("외부 병합 - 여러 단계 병합 결과가 메모리 내 병합과 같음")
+    void testMerge_MultiPass() throws IOException {
+        Random random = new Random(43);
+        List<CidrBlock> all = new ArrayList<>();
+        Path first = Files.createTempFile(directory, "cidr-in", ".txt");
+        Path second = Files.createTempFile(directory, "cidr-in", ".txt");
+        StringBuilder text1 = new StringBuilder();
+        StringBuilder text2 = new StringBuilder();
+        for (int i = 0; i < 50_000; i++) {
+            int prefixLength = 16 + random.nextInt(17);
+            String network = IpAddress.fromInt(random.nextInt() & (0xFFFFFFFF << (32 - prefixLength))).toString();
+            all.add(CidrBlock.of(network + "/" + prefixLength));
+            (i % 2 == 0 ? text1 : text2).append(network).append('/').append(prefixLength).append('\n');
+        }
+        Files.writeString(first, text1, StandardCharsets.US_ASCII);
+        Files.writeString(second, text2, StandardCharsets.US_ASCII);
+
+        Path tempDirectory = Files.createTempDirectory(directory, "cidr-runs");
+        Path output = Files.createTempFile(directory, "cidr-out", ".txt");
+        ExternalCidrMerger.Result result = new ExternalCidrMerger(64 << 10, tempDirectory)
+                .merge(List.of(first, second), output, null);
+
+        List<String> expected = CidrRanges.toBlocks(CidrRanges.fromBlocks(all)).stream()
+                .map(CidrBlock::toString)
+                .collect(Collectors.toList());
+        assertEquals(expected, Files.readAllLines(output, StandardCharsets.US_ASCII));
+        assertEquals(50_000, result.getInputEntries());
+        assertEquals(expected.size(), result.getOutputBlocks());
+        assertTrue(result.getRunCount() > 7);
+        try (Stream<Path> left = Files.list(tempDirectory)) {
+            assertEquals(0, left.count());
+        }
+    }
+
+    @Test
+    @DisplayName("외부 병합 - 잘못된 줄, 주석, 호스트 비트, 마지막 줄바꿈 없음")
+    void testMerge_InvalidLines() throws IOException {
+        Path input = Files.createTempFile(directory, "cidr-in", ".txt");
+        Files.writeString(input, "# comment\n10.0.0.1/24\r\nbad line\n10.0.1.0/24\n\n"
+                + "1.2.3.4/33\n" + "9".repeat(100_000) + "\n192.168.0.1", StandardCharsets.US_ASCII);
+
+        Path output = Files.createTempFile(directory, "cidr-out", ".txt");
+        ExternalCidrMerger.Result result = new ExternalCidrMerger(64 << 10).merge(List.of(input), output, null);
+
+        assertEquals(List.of("10.0.0.0/23", "192.168.0.1/32"), Files.readAllLines(output));
+        assertEquals(3, result.getInputEntries());
+        assertEquals(3, result.getInvalidLines());
+        assertEquals(513, result.getAddressCount());
+    }
+
+    @Test
+    @DisplayName("외부 병합 - 진행 상황 콜백")
+    void testMerge_Progress() throws IOException {
+        Path input = Files.createTempFile(directory, "cidr-in", ".txt");
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            text.append(IpAddress.fromInt(i * 4)).append("/30\n");
+        }
+        Files.writeString(input, text, StandardCharsets.US_ASCII);
+        long size = Files.size(input);
+
+        List<long[]> parse = new ArrayList<>();
+        List<long[]> merge = new ArrayList<>();
+        Path output = Files.createTempFile(directory, "cidr-out", ".txt");
+        new ExternalCidrMerger(64 << 10).merge(List.of(input), output, (phase, done, total) ->
+                (phase == ExternalCidrMerger.Phase.PARSE ? parse : merge).add(new long[]{done, total}));
+
+        assertFalse(parse.isEmpty());
+        assertFalse(merge.isEmpty());
+        assertArrayEquals(new long[]{size, size}, parse.get(parse.size() - 1));
+        long[] lastMerge = merge.get(merge.size() - 1);
+        assertEquals(lastMerge[1], lastMerge[0]);
+        assertEquals(List.of("0.0.0.0/16", "0.1.0.0/19", "0.1.32.0/20", "0.1.48.0/21", "0.1.56.0/25"), Files.readAllLines(output));
+    }
+
+    @Test
+    @DisplayName("외부 병합 - 병합 도중 실패해도 run 파일을 모두 지움")
+    void testMerge_FailureCleansUp() throws IOException {
+        Path input = Files.createTempFile(directory, "cidr-in", ".txt");
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 50_000; i++) {
+            text.append(IpAddress.fromInt(i * 16)).append("/29\n");
+        }
+        Files.writeString(input, text, StandardCharsets.US_ASCII);
+
+        // 출력 경로가 디렉터리라서 run을 다 만든 뒤 마지막 단계에서 실패
+        Path tempDirectory = Files.createTempDirectory(directory, "cidr-runs");
+        ExternalCidrMerger merger = new ExternalCidrMerger(64 << 10, tempDirectory);
+        assertThrows(IOException.class, () -> merger.merge(List.of(input), directory, null));
+        try (Stream<Path> left = Files.list(tempDirectory)) {
+            assertEquals(0, left.count());
+        }
+    }
+
+    @Test
+    @DisplayName("외부 병합 - 너무 작은 메모리 예산")
+    void testMerge_SmallBudget() {
+        assertThrows(IllegalArgumentException.class, () -> new ExternalCidrMerger(1024));
+    }
+}
@@ -0,0 +1,74 @@
+package swnoh.cidr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EytzingerRangeIndexTest {
+
+    @Test
+    @DisplayName("Eytzinger 인덱스 - 기본 longest match")
+    void testLookup_Basic() {
+        EytzingerRangeIndex index = EytzingerRangeIndex.of(Arrays.asList(
+                CidrBlock.of("10.0.0.0/8"),
+                CidrBlock.of("10.1.0.0/16"),
+                CidrBlock.of("255.255.255.0/24")
+        ));
+
+        assertEquals(1, index.lookup(IpAddress.fromString("10.1.0.1").toInt()));
+        assertEquals(0, index.lookup(IpAddress.fromString("10.200.0.1").toInt()));
+        assertEquals(2, index.lookup(IpAddress.fromString("255.255.255.255").toInt()));
+        assertEquals(CidrLookup.NO_MATCH, index.lookup(IpAddress.fromString("0.0.0.0").toInt()));
+        assertEquals(CidrLookup.NO_MATCH, index.lookup(IpAddress.fromString("11.0.0.0").toInt()));
+    }
+
+    @Test
+    @DisplayName("Eytzinger 인덱스 - 빈 인덱스와 전체 주소 블록")
+    void testLookup_EdgeSizes() {
+        EytzingerRangeIndex empty = EytzingerRangeIndex.of(List.of());
+        assertEquals(CidrLookup.NO_MATCH, empty.lookup(12345));
+
+        EytzingerRangeIndex all = EytzingerRangeIndex.of(List.of(CidrBlock.of("0.0.0.0/0")));
+        assertEquals(0, all.lookup(0));
+        assertEquals(0, all.lookup(-1));
+    }
+
+    @Test
+    @DisplayName("Eytzinger 인덱스 - 단건/배치 조회가 정렬 배열 이진 탐색과 일치")
+    void testLookup_MatchesCidrIndex() {
+        Random random = new Random(13);
+        for (int size : new int[]{1, 2, 3, 7, 8, 100, 1000, 5000}) {
+            List<CidrBlock> blocks = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                int prefixLength = 8 + random.nextInt(25);
+                long network = (random.nextInt() & 0xFFFFFFFFL) & (0xFFFFFFFFL << (32 - prefixLength)) & 0xFFFFFFFFL;
+                blocks.add(CidrBlock.of(IpAddress.fromLong(network) + "/" + prefixLength));
+            }
+            CidrIndex expected = CidrIndex.of(blocks);
+            EytzingerRangeIndex index = EytzingerRangeIndex.of(expected);
+
+            int[] addresses = new int[1003];
+            for (int i = 0; i < addresses.length; i++) {
+                addresses[i] = i % 4 == 0
+                        ? (int) blocks.get(random.nextInt(size)).getNetworkAddress()
+                        : random.nextInt();
+            }
+            addresses[0] = 0;
+            addresses[1] = -1;
+
+            int[] results = new int[addresses.length];
+            index.lookupAll(addresses, results, addresses.length);
+            for (int i = 0; i < addresses.length; i++) {
+                int want = expected.lookup(addresses[i]);
+                assertEquals(want, index.lookup(addresses[i]));
+                assertEquals(want, results[i]);
+            }
+        }
+    }
+}
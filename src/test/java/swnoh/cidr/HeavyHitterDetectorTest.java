@@ -0,0 +1,130 @@
+package swnoh.cidr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeavyHitterDetectorTest {
+
+    private static final int HEAVY_HOST = IpAddress.fromString("203.0.113.7").toInt();
+    private static final int HEAVY_NETWORK = IpAddress.fromString("198.51.100.0").toInt();
+
+    // 30%: 한 호스트, 30%: 한 /24의 여러 호스트, 40%: 무작위
+    private static void offerTraffic(HeavyHitterDetector detector, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < count; i++) {
+            int kind = random.nextInt(10);
+            if (kind < 3) {
+                detector.offer(HEAVY_HOST);
+            } else if (kind < 6) {
+                detector.offer(HEAVY_NETWORK | random.nextInt(256));
+            } else {
+                detector.offer(random.nextInt());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("HHH 탐지 - 호스트와 서브넷 단위 heavy hitter, 상위 prefix는 할인")
+    void testSnapshot() {
+        HeavyHitterDetector detector = HeavyHitterDetector.of(0.01);
+        offerTraffic(detector, 200_000, 1);
+
+        HeavyHitterDetector.Snapshot snapshot = detector.snapshot(0.2);
+        assertEquals(200_000, snapshot.getTotal());
+        List<String> blocks = snapshot.getHeavyHitters().stream()
+                .map(hitter -> hitter.getBlock().toString())
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(List.of("198.51.100.0/24", "203.0.113.7/32"), blocks);
+
+        for (HeavyHitterDetector.HeavyHitter hitter : snapshot.getHeavyHitters()) {
+            assertTrue(hitter.getMinCount() <= hitter.getCount());
+            assertTrue(hitter.getCount() - hitter.getMinCount() <= 0.01 * snapshot.getTotal());
+            assertTrue(Math.abs(hitter.getDiscountedCount() - 60_000) < 2_000, hitter.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("HHH 탐지 - 추정 개수는 실제 개수 이상, 오차는 εN 이하")
+    void testErrorBound() {
+        HeavyHitterDetector detector = HeavyHitterDetector.of(0.001, 32);
+        SplittableRandom random = new SplittableRandom(2);
+        int[] exact = new int[5000];
+        for (int i = 0; i < 500_000; i++) {
+            // 작은 번호일수록 자주 나오는 치우친 분포
+            int host = (int) (exact.length * Math.pow(random.nextDouble(), 3));
+            exact[host]++;
+            detector.offer(host);
+        }
+
+        HeavyHitterDetector.Snapshot snapshot = detector.snapshot(0.001);
+        assertFalse(snapshot.getHeavyHitters().isEmpty());
+        for (HeavyHitterDetector.HeavyHitter hitter : snapshot.getHeavyHitters()) {
+            int host = (int) hitter.getBlock().getNetworkAddress();
+            assertTrue(hitter.getCount() >= exact[host]);
+            assertTrue(hitter.getCount() - exact[host] <= 500);
+        }
+        for (int host = 0; host < exact.length; host++) {
+            if (exact[host] >= 0.002 * 500_000) {
+                int h = host;
+                assertTrue(snapshot.getHeavyHitters().stream()
+                        .anyMatch(hitter -> hitter.getBlock().getNetworkAddress() == h), "missing " + host);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("HHH 탐지 - 여러 스레드에서 동시에 기록")
+    void testConcurrentOffer() throws InterruptedException {
+        HeavyHitterDetector detector = HeavyHitterDetector.of(0.01, 8, 16, 24, 32);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            long seed = t;
+            threads[t] = new Thread(() -> {
+                offerTraffic(detector, 100_001, seed);
+                detector.flush();
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        HeavyHitterDetector.Snapshot snapshot = detector.snapshot(0.2);
+        assertEquals(400_004, snapshot.getTotal());
+        assertEquals(2, snapshot.getHeavyHitters().size());
+    }
+
+    @Test
+    @DisplayName("HHH 탐지 - 스냅샷 후 초기화")
+    void testSnapshotAndReset() {
+        HeavyHitterDetector detector = HeavyHitterDetector.of(0.05, 24, 32);
+        offerTraffic(detector, 10_000, 3);
+
+        assertEquals(2, detector.snapshotAndReset(0.2).getHeavyHitters().size());
+        HeavyHitterDetector.Snapshot empty = detector.snapshot(0.2);
+        assertEquals(0, empty.getTotal());
+        assertTrue(empty.getHeavyHitters().isEmpty());
+
+        detector.offer(IpAddress.fromString("10.0.0.1"));
+        HeavyHitterDetector.Snapshot single = detector.snapshot(0.5);
+        assertEquals(1, single.getHeavyHitters().size());
+        assertEquals("10.0.0.1/32", single.getHeavyHitters().get(0).getBlock().toString());
+    }
+
+    @Test
+    @DisplayName("HHH 탐지 - 잘못된 설정")
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> HeavyHitterDetector.of(0));
+        assertThrows(IllegalArgumentException.class, () -> HeavyHitterDetector.of(1.5));
+        assertThrows(IllegalArgumentException.class, () -> HeavyHitterDetector.of(0.1, 33));
+        assertThrows(IllegalArgumentException.class, () -> HeavyHitterDetector.of(0.1, new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> HeavyHitterDetector.of(0.1).snapshot(0.01));
+    }
+}
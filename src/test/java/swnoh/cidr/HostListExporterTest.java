@@ -0,0 +1,83 @@
+package swnoh.cidr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HostListExporterTest {
+
+    @TempDir
+    Path directory;
+
+    private static final List<CidrBlock> BLOCKS = Arrays.asList(
+            CidrBlock.of("192.168.1.0/24"),
+            CidrBlock.of("10.0.0.0/31"),
+            CidrBlock.of("10.0.0.9/32"),
+            CidrBlock.of("172.16.0.0/30"),
+            CidrBlock.of("255.255.255.252/30")
+    );
+
+    @Test
+    @DisplayName("호스트 목록 내보내기 - getAllIpAddresses와 같은 결과")
+    void testExport_Plain() throws IOException {
+        Path file = Files.createTempFile(directory, "hosts", ".txt");
+        long count = new HostListExporter(64).export(BLOCKS, file, false);
+
+        List<String> expected = new ArrayList<>();
+        for (CidrBlock block : BLOCKS) {
+            expected.addAll(block.getAllIpAddresses());
+        }
+        assertEquals(expected.size(), count);
+        assertEquals(expected, Files.readAllLines(file, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    @DisplayName("호스트 목록 내보내기 - gzip 출력")
+    void testExport_Gzip() throws IOException {
+        List<CidrBlock> blocks = List.of(CidrBlock.of("10.0.0.0/14"), CidrBlock.of("1.2.3.4/32"));
+        HostListExporter exporter = new HostListExporter(4096);
+
+        Path plain = Files.createTempFile(directory, "hosts", ".txt");
+        Path gzip = Files.createTempFile(directory, "hosts", ".txt.gz");
+        long plainCount = exporter.export(blocks, plain, false);
+        long gzipCount = exporter.export(blocks, gzip, true);
+
+        assertEquals((1L << 18) - 2 + 1, plainCount);
+        assertEquals(plainCount, gzipCount);
+        assertTrue(Files.size(gzip) < Files.size(plain) / 4);
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(gzip))) {
+            assertArrayEquals(Files.readAllBytes(plain), in.readAllBytes());
+        }
+
+        List<String> lines = Files.readAllLines(plain, StandardCharsets.US_ASCII);
+        assertEquals("10.0.0.1", lines.get(0));
+        assertEquals("10.3.255.254", lines.get(lines.size() - 2));
+        assertEquals("1.2.3.4", lines.get(lines.size() - 1));
+    }
+
+    @Test
+    @DisplayName("호스트 목록 내보내기 - 빈 목록과 잘못된 인자")
+    void testExport_EmptyAndInvalid() throws IOException {
+        HostListExporter exporter = new HostListExporter();
+        Path file = Files.createTempFile(directory, "hosts", ".txt.gz");
+        assertEquals(0, exporter.export(List.of(), file, true));
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            assertEquals(0, in.readAllBytes().length);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new HostListExporter(8));
+        assertThrows(IllegalArgumentException.class, () -> exporter.export(null, file, false));
+    }
+}
@@ -2,6 +2,10 @@ package swnoh.cidr;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class IpAddressTest {
@@ -81,4 +85,39 @@ class IpAddressTest {
 
         assertEquals(ip1.hashCode(), ip2.hashCode());
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("byte[]/ByteBuffer/StringBuilder 출력 테스트")
+    void testWriteTo() {
+        IpAddress ip = IpAddress.fromString("192.168.10.7");
+
+        byte[] buffer = new byte[20];
+        buffer[0] = '[';
+        int end = ip.writeTo(buffer, 1);
+        assertEquals(13, end);
+        assertEquals("[192.168.10.7", new String(buffer, 0, end, StandardCharsets.US_ASCII));
+
+        ByteBuffer byteBuffer = ByteBuffer.allocateDirect(32);
+        IpAddress.writeTo(IpAddress.fromString("255.255.255.255").toInt(), byteBuffer);
+        assertEquals(IpAddress.MAX_TEXT_LENGTH, byteBuffer.position());
+        byte[] written = new byte[byteBuffer.flip().remaining()];
+        byteBuffer.get(written);
+        assertEquals("255.255.255.255", new String(written, StandardCharsets.US_ASCII));
+
+        StringBuilder sb = new StringBuilder("ip=");
+        assertSame(sb, ip.appendTo(sb));
+        assertEquals("ip=192.168.10.7", sb.toString());
+    }
+
+    @Test
+    @DisplayName("모든 옥텟 값의 문자열 변환이 Integer.toString과 일치")
+    void testToString_AllOctets() {
+        for (int octet = 0; octet < 256; octet++) {
+            int address = (octet << 24) | (octet << 16) | ((255 - octet) << 8) | (octet / 3);
+            String expected = octet + "." + octet + "." + (255 - octet) + "." + (octet / 3);
+            assertEquals(expected, IpAddress.fromInt(address).toString());
+            assertEquals(expected, IpAddress.toString(address));
+            assertEquals(expected, IpAddress.appendTo(address, new StringBuilder()).toString());
+        }
+    }
+}
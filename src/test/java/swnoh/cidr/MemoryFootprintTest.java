@@ -0,0 +1,174 @@
+package swnoh.cidr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryFootprintTest {
+
+    private static void assertConsistent(MemoryFootprint footprint) {
+        assertTrue(footprint.getShallowBytes() > 0);
+        assertTrue(footprint.getShallowBytes() <= footprint.getRetainedBytes());
+        assertEquals(0, footprint.getShallowBytes() % 8);
+        assertEquals(footprint.getRetainedBytes(), footprint.getOnHeapBytes() + footprint.getOffHeapBytes());
+        assertEquals(0, footprint.getOffHeapBytes());
+        if (footprint.getEntryCount() > 0) {
+            assertEquals((double) footprint.getRetainedBytes() / footprint.getEntryCount(),
+                    footprint.getBytesPerEntry(), 1e-9);
+        } else {
+            assertEquals(0.0, footprint.getBytesPerEntry());
+        }
+    }
+
+    @Test
+    @DisplayName("메모리 추정 - CidrBlock 목록은 블록당 객체 세 개와 참조 하나")
+    void testOfBlocks() {
+        MemoryFootprint footprint = MemoryFootprint.ofBlocks(TestBlocks.randomBlocks(new Random(1), 1000, 8, 32));
+
+        // CidrBlock 24 + IpAddress 16 + int[4] 32 = 72바이트
+        assertEquals(72, MemoryFootprint.CIDR_BLOCK_BYTES);
+        assertEquals(1000, footprint.getEntryCount());
+        assertEquals(24 + (16 + 4 * 1000) + 72 * 1000, footprint.getRetainedBytes());
+        assertEquals(24, footprint.getShallowBytes());
+        assertTrue(footprint.toString().startsWith("MemoryFootprint[entries=1000, shallow=24, retained=76040"));
+        assertConsistent(footprint);
+    }
+
+    @Test
+    @DisplayName("메모리 추정 - 배열 기반 자료구조는 배열 크기의 합")
+    void testArrayBackedStructures() {
+        List<CidrBlock> blocks = TestBlocks.randomBlocks(new Random(2), 5000, 8, 32);
+        CidrColumns columns = new CidrColumns();
+        for (CidrBlock block : blocks) {
+            columns.add((int) block.getNetworkAddress(), block.getPrefixLength());
+        }
+
+        // 블록을 들고 있는 인덱스는 블록 목록의 크기를 포함
+        CidrIndex index = CidrIndex.of(blocks);
+        MemoryFootprint blockBytes = MemoryFootprint.ofBlocks(blocks);
+        MemoryFootprint indexBytes = index.footprint();
+        assertEquals(5000, indexBytes.getEntryCount());
+        assertEquals(24 + blockBytes.getRetainedBytes() + 2 * MemoryFootprint.arraySize(Integer.BYTES, index.intervalCount()),
+                indexBytes.getRetainedBytes());
+
+        EytzingerRangeIndex eytzinger = EytzingerRangeIndex.of(index);
+        assertTrue(eytzinger.footprint().getRetainedBytes() > indexBytes.getRetainedBytes());
+
+        // 압축 목록은 압축 크기에 객체와 배열 헤더만 더함
+        CompressedCidrList compressed = CompressedCidrList.of(columns);
+        long overhead = compressed.footprint().getRetainedBytes() - compressed.getCompressedSize();
+        assertTrue(overhead >= 40 + 4 * 16 && overhead <= 40 + 4 * 24, "overhead " + overhead);
+
+        // 객체 없이 저장하는 구조는 블록 객체 목록보다 훨씬 작음
+        assertTrue(columns.footprint().getBytesPerEntry() < 8);
+        assertTrue(AggregatedCidrSet.of(blocks).footprint().getRetainedBytes() < blockBytes.getRetainedBytes());
+
+        for (MemoryAccountable structure : List.of(columns, index, eytzinger, compressed,
+                CidrIntervalIndex.of(blocks), SmallAclMatcher.of(blocks.subList(0, 16)),
+                AggregatedCidrSet.of(blocks), new AggregatedCidrSet(), new CidrColumns(),
+                TenantCidrIndex.of(Map.of(1, blocks, 2, blocks.subList(0, 100))),
+                PrefixTrafficCounters.of(blocks, 4), ShardedBatchLookup.of(index), valueTable(),
+                CidrDiff.between(blocks, blocks.subList(0, 100)), CidrDiff.between(blocks, blocks))) {
+            assertConsistent(structure.footprint());
+        }
+    }
+
+    private static PrefixValueTable valueTable() {
+        PrefixValueTable.Builder builder = new PrefixValueTable.Builder();
+        builder.add(0, 256, 0);
+        builder.add(1024, 2048, 1);
+        return builder.build(new String[]{"KR", "한국"});
+    }
+
+    @Test
+    @DisplayName("메모리 추정 - 스레드별 캐시와 변경되는 자료구조")
+    void testMutableStructures() throws InterruptedException {
+        List<CidrBlock> blocks = TestBlocks.randomBlocks(new Random(3), 1000, 8, 32);
+        CidrIndex index = CidrIndex.of(blocks);
+        CidrLookupCache cache = CidrLookupCache.of(index, 1024);
+        long empty = cache.footprint().getRetainedBytes();
+        assertTrue(empty > index.footprint().getRetainedBytes());
+
+        cache.lookup(1);
+        MemoryFootprint used = cache.footprint();
+        assertEquals(1024, used.getEntryCount());
+        // 스레드마다 Slots, Counters, 약한 참조와 항목 배열, 등록 목록의 참조 하나
+        assertEquals(MemoryFootprint.objectSize(2 * MemoryFootprint.REFERENCE + Integer.BYTES)
+                        + MemoryFootprint.objectSize(MemoryFootprint.REFERENCE + 4 * Long.BYTES)
+                        + MemoryFootprint.objectSize(4 * MemoryFootprint.REFERENCE)
+                        + MemoryFootprint.arraySize(Long.BYTES, 1024)
+                        + MemoryFootprint.arraySize(MemoryFootprint.REFERENCE, 1) - MemoryFootprint.arraySize(MemoryFootprint.REFERENCE, 0),
+                used.getRetainedBytes() - empty);
+
+        // 끝난 스레드의 캐시는 포함하지 않음
+        Thread other = new Thread(() -> cache.lookup(2));
+        other.start();
+        other.join();
+        assertEquals(used.getRetainedBytes(), cache.footprint().getRetainedBytes());
+        assertConsistent(used);
+
+        SubnetAllocator allocator = SubnetAllocator.of(List.of(CidrBlock.of("10.0.0.0/16")));
+        for (int i = 0; i < 1000; i++) {
+            allocator.allocate(28);
+        }
+        MemoryFootprint allocated = allocator.footprint();
+        // 할당된 블록 1000개와 남은 빈 블록들
+        assertTrue(allocated.getEntryCount() > 1000);
+        assertConsistent(allocated);
+
+        try (ExpiringCidrSet set = ExpiringCidrSet.withClock(Duration.ofSeconds(1), () -> 0L)) {
+            long emptySet = set.footprint().getRetainedBytes();
+            for (CidrBlock block : blocks) {
+                set.add(block, Duration.ofMinutes(1));
+            }
+            MemoryFootprint filled = set.footprint();
+            assertEquals(set.size(), filled.getEntryCount());
+            // 항목마다 Entry와 절반 이하로 채운 테이블의 슬롯 두 칸 이상
+            assertTrue(filled.getRetainedBytes() - emptySet >= set.size() * (32L + 2 * MemoryFootprint.REFERENCE));
+            assertConsistent(filled);
+        }
+
+        HeavyHitterDetector detector = HeavyHitterDetector.of(0.01, 16, 24);
+        for (int i = 0; i < 10_000; i++) {
+            detector.offer(i * 7919);
+        }
+        detector.flush();
+        assertTrue(detector.footprint().getEntryCount() > 0);
+        assertConsistent(detector.footprint());
+    }
+
+    @Test
+    @DisplayName("메모리 추정 - 파일 소스는 현재 뷰와 파일별 구간, 끝부분 바이트를 포함")
+    void testFileSource(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("list.txt");
+        StringBuilder text = new StringBuilder();
+        for (CidrBlock block : TestBlocks.randomBlocks(new Random(4), 1000, 8, 32)) {
+            text.append(block).append('\n');
+        }
+        Files.write(file, text.toString().getBytes(StandardCharsets.US_ASCII));
+
+        try (CidrFileSource source = CidrFileSource.open(List.of(file, directory.resolve("missing.txt")),
+                Duration.ofHours(1))) {
+            CidrFileSource.View view = source.getView();
+            MemoryFootprint footprint = source.footprint();
+            assertEquals(view.getRangeCount(), footprint.getEntryCount());
+            // 현재 뷰와 파일 구간 배열, 4096바이트 끝부분
+            assertTrue(footprint.getRetainedBytes() >= view.footprint().getRetainedBytes()
+                    + MemoryFootprint.arraySize(Long.BYTES, 2 * view.getRangeCount())
+                    + MemoryFootprint.arraySize(1, 4096));
+            assertConsistent(footprint);
+            assertConsistent(view.footprint());
+        }
+    }
+}
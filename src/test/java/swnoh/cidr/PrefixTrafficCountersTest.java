@@ -0,0 +1,118 @@
+package swnoh.cidr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixTrafficCountersTest {
+
+    private static final List<CidrBlock> BLOCKS = List.of(
+            CidrBlock.of("10.0.0.0/8"),
+            CidrBlock.of("10.1.0.0/16"),
+            CidrBlock.of("192.168.0.0/24")
+    );
+
+    private static int address(String ip) {
+        return IpAddress.fromString(ip).toInt();
+    }
+
+    @Test
+    @DisplayName("트래픽 카운터 - longest match 블록과 미일치 카운터에 기록")
+    void testRecord() {
+        PrefixTrafficCounters counters = PrefixTrafficCounters.of(BLOCKS, 4);
+
+        assertEquals(0, counters.record(address("10.2.3.4"), 100));
+        assertEquals(1, counters.record(address("10.1.3.4"), 200));
+        assertEquals(1, counters.record(IpAddress.fromString("10.1.255.255"), 300));
+        assertEquals(2, counters.record(address("192.168.0.9"), 40));
+        assertEquals(CidrLookup.NO_MATCH, counters.record(address("8.8.8.8"), 60));
+
+        PrefixTrafficCounters.Snapshot snapshot = counters.snapshotAndReset();
+        assertEquals(100, snapshot.getBytes(0));
+        assertEquals(1, snapshot.getPackets(0));
+        assertEquals(500, snapshot.getBytes(1));
+        assertEquals(2, snapshot.getPackets(1));
+        assertEquals(40, snapshot.getBytes(2));
+        assertEquals(60, snapshot.getUnmatchedBytes());
+        assertEquals(1, snapshot.getUnmatchedPackets());
+        assertEquals("10.1.0.0/16", snapshot.get(1).toString());
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getBytes(3));
+    }
+
+    @Test
+    @DisplayName("트래픽 카운터 - 스냅샷 후 0으로 초기화, 위상이 여러 번 바뀌어도 누적 없음")
+    void testSnapshotAndReset() {
+        PrefixTrafficCounters counters = PrefixTrafficCounters.of(BLOCKS);
+        for (int round = 1; round <= 5; round++) {
+            for (int i = 0; i < round; i++) {
+                counters.record(address("192.168.0.1"), 10);
+            }
+            PrefixTrafficCounters.Snapshot snapshot = counters.snapshotAndReset();
+            assertEquals(round, snapshot.getPackets(2));
+            assertEquals(round * 10L, snapshot.getBytes(2));
+            assertEquals(0, snapshot.getPackets(0));
+        }
+        assertEquals(0, counters.snapshotAndReset().getPackets(2));
+    }
+
+    @Test
+    @DisplayName("트래픽 카운터 - 동시 기록 중 스냅샷도 기록을 잃거나 나누지 않음")
+    void testConcurrentSnapshot() throws InterruptedException {
+        PrefixTrafficCounters counters = PrefixTrafficCounters.of(BLOCKS, 2);
+        int perThread = 200_000;
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            long seed = t;
+            writers[t] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < perThread; i++) {
+                    counters.record(random.nextBoolean() ? address("10.1.2.3") : random.nextInt(), 7);
+                }
+            });
+        }
+
+        AtomicBoolean done = new AtomicBoolean();
+        long[] packets = new long[1];
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                packets[0] += checkedPackets(counters.snapshotAndReset());
+            }
+        });
+        reader.start();
+        for (Thread writer : writers) {
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        done.set(true);
+        reader.join();
+        packets[0] += checkedPackets(counters.snapshotAndReset());
+
+        assertEquals((long) perThread * writers.length, packets[0]);
+    }
+
+    // 모든 기록이 7바이트이므로 바이트 = 7 × 패킷이어야 함
+    private static long checkedPackets(PrefixTrafficCounters.Snapshot snapshot) {
+        long packets = snapshot.getUnmatchedPackets();
+        assertEquals(7 * snapshot.getUnmatchedPackets(), snapshot.getUnmatchedBytes());
+        for (int id = 0; id < snapshot.size(); id++) {
+            assertEquals(7 * snapshot.getPackets(id), snapshot.getBytes(id));
+            packets += snapshot.getPackets(id);
+        }
+        return packets;
+    }
+
+    @Test
+    @DisplayName("트래픽 카운터 - 잘못된 스트라이프 수")
+    void testInvalidStripes() {
+        assertThrows(IllegalArgumentException.class, () -> PrefixTrafficCounters.of(BLOCKS, 3));
+        assertThrows(IllegalArgumentException.class, () -> PrefixTrafficCounters.of(BLOCKS, 0));
+        assertThrows(IllegalArgumentException.class, () -> PrefixTrafficCounters.of(null, 1));
+    }
+}
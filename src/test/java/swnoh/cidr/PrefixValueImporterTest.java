@@ -0,0 +1,126 @@
+package swnoh.cidr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixValueImporterTest {
+
+    private static Path write(String text) throws IOException {
+        Path file = Files.createTempFile("prefix-values", ".csv");
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    @Test
+    @DisplayName("CSV 가져오기 - 구간/네트워크/단일 주소 형식, 머리글, 따옴표, 주석")
+    void testLoad_Formats() throws IOException {
+        Path file = write("network,country\n"
+                + "# comment\n"
+                + "1.0.0.0,1.0.0.255,AU\r\n"
+                + "1.0.1.0/24,AU\n"
+                + "1.0.4.1/22,\"Foo, \"\"Inc\"\"\"\n"
+                + "\n"
+                + "2.2.2.2,한국\n"
+                + "bad line\n"
+                + "3.0.0.0,2.0.0.0,XX\n"
+                + "255.255.255.255, AU");
+        PrefixValueImporter.Result result = new PrefixValueImporter().load(file);
+        PrefixValueTable table = result.getTable();
+
+        assertEquals(5, result.getRowCount());
+        assertEquals(2, result.getInvalidLines());
+        assertEquals(3, table.getValueCount());
+        assertEquals("AU", table.lookup(IpAddress.fromString("1.0.1.200")));
+        assertNull(table.lookup(IpAddress.fromString("1.0.2.0")));
+        assertEquals("Foo, \"Inc\"", table.lookup(IpAddress.fromString("1.0.7.255")));
+        assertEquals("한국", table.lookup(IpAddress.fromString("2.2.2.2")));
+        assertNull(table.lookup(IpAddress.fromString("2.2.2.3")));
+        assertNull(table.lookup(IpAddress.fromString("0.255.255.255")));
+        assertEquals("AU", table.lookup(-1));
+        assertEquals(PrefixValueTable.NO_VALUE, table.lookupId(0));
+
+        // 맞닿은 AU 두 행은 한 구간으로 합쳐짐
+        List<String> prefixes = new ArrayList<>();
+        table.forEachPrefix((block, value) -> prefixes.add(block + "=" + value));
+        assertEquals(List.of("1.0.0.0/23=AU", "1.0.4.0/22=Foo, \"Inc\"", "2.2.2.2/32=한국", "255.255.255.255/32=AU"),
+                prefixes);
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    @DisplayName("CSV 가져오기 - 작은 버퍼로 읽은 대량 구간이 기준 결과와 같음")
+    void testLoad_RandomRanges() throws IOException {
+        SplittableRandom random = new SplittableRandom(49);
+        int rows = 50_000;
+        long[] starts = new long[rows];
+        long[] ends = new long[rows];
+        String[] values = new String[rows];
+        StringBuilder text = new StringBuilder("start_ip,end_ip,value\n");
+        long position = 0;
+        for (int i = 0; i < rows; i++) {
+            starts[i] = position + random.nextInt(3) * random.nextInt(1 << 16);
+            ends[i] = starts[i] + 1 + random.nextInt(1 << 16);
+            values[i] = "AS" + random.nextInt(3000);
+            position = ends[i];
+            if (random.nextBoolean()) {
+                text.append(IpAddress.fromLong(starts[i])).append(',')
+                        .append(IpAddress.fromLong(ends[i] - 1)).append(',')
+                        .append(values[i]).append('\n');
+            } else {
+                // 같은 구간을 최소 CIDR 블록으로 나눠 network,value 형식으로
+                String value = values[i];
+                CidrRanges.forEachBlock(starts[i], ends[i], (network, prefixLength) -> text
+                        .append(IpAddress.fromLong(network)).append('/').append(prefixLength)
+                        .append(",\"").append(value).append("\"\n"));
+            }
+        }
+        Path file = write(text.toString());
+
+        PrefixValueTable table = new PrefixValueImporter(4096).load(file).getTable();
+        assertTrue(table.getValueCount() > 2000 && table.getValueCount() <= 3000);
+        for (int i = 0; i < 200_000; i++) {
+            int row = random.nextInt(rows);
+            long address = starts[row] + random.nextLong(ends[row] - starts[row]);
+            assertEquals(values[row], table.lookup((int) address));
+            if (row + 1 < rows && ends[row] < starts[row + 1]) {
+                assertNull(table.lookup((int) ends[row]));
+            }
+        }
+        assertNull(table.lookup((int) position));
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    @DisplayName("CSV 가져오기 - 정렬되지 않거나 겹치는 행, 버퍼보다 긴 줄")
+    void testLoad_Errors() throws IOException {
+        Path unordered = write("10.0.0.0/8,A\n9.0.0.0/8,B\n");
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new PrefixValueImporter().load(unordered));
+        assertTrue(e.getMessage().contains("line 2"));
+
+        Path overlapping = write("10.0.0.0,10.0.0.255,A\n10.0.0.128/25,B\n");
+        assertThrows(IllegalArgumentException.class, () -> new PrefixValueImporter().load(overlapping));
+
+        Path longLine = write("1.0.0.0/8,A\n2.0.0.0/8," + "x".repeat(1000) + "\n3.0.0.0/8,C");
+        PrefixValueImporter.Result result = new PrefixValueImporter(256).load(longLine);
+        assertEquals(2, result.getRowCount());
+        assertEquals(1, result.getInvalidLines());
+        assertEquals("C", result.getTable().lookup(IpAddress.fromString("3.1.2.3")));
+        assertNull(result.getTable().lookup(IpAddress.fromString("2.1.2.3")));
+
+        assertThrows(IllegalArgumentException.class, () -> new PrefixValueImporter(16));
+        Files.deleteIfExists(unordered);
+        Files.deleteIfExists(overlapping);
+        Files.deleteIfExists(longLine);
+    }
+}
@@ -0,0 +1,74 @@
+package swnoh.cidr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedBatchLookupTest {
+
+    @Test
+    @DisplayName("샤드 배치 조회 - 결과가 입력 순서대로 단건 조회와 일치")
+    void testLookupAll_MatchesIndex() {
+        CidrIndex index = CidrIndex.of(TestBlocks.randomBlocks(new Random(2), 5000, 8, 32));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int shardBits : new int[]{0, 1, 6, 12}) {
+                ShardedBatchLookup sharded = ShardedBatchLookup.of(index, shardBits, pool);
+
+                Random random = new Random(shardBits);
+                int[] addresses = new int[100_000];
+                for (int i = 0; i < addresses.length; i++) {
+                    addresses[i] = random.nextInt();
+                }
+                // 절반은 한 샤드(10.x.x.x)에 몰리게 해서 작업 묶음이 치우친 경우도 확인
+                for (int i = 0; i < addresses.length; i += 2) {
+                    addresses[i] = 0x0A000000 | (addresses[i] & 0xFFFFFF);
+                }
+                addresses[0] = 0;
+                addresses[1] = -1;
+
+                int count = addresses.length - 7;
+                int[] results = new int[addresses.length];
+                results[count] = 12345;
+                sharded.lookupAll(addresses, results, count);
+
+                for (int i = 0; i < count; i++) {
+                    assertEquals(index.lookup(addresses[i]), results[i]);
+                }
+                assertEquals(12345, results[count]);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("샤드 배치 조회 - 작은 배치와 단건 조회")
+    void testLookup_Small() {
+        List<CidrBlock> blocks = List.of(CidrBlock.of("10.0.0.0/8"), CidrBlock.of("128.0.0.0/1"));
+        CidrIndex index = CidrIndex.of(blocks);
+        ShardedBatchLookup sharded = ShardedBatchLookup.of(index);
+
+        int[] addresses = {IpAddress.fromString("10.1.1.1").toInt(), -1, 0};
+        int[] results = new int[3];
+        sharded.lookupAll(addresses, results, 3);
+        assertArrayEquals(new int[]{0, 1, CidrLookup.NO_MATCH}, results);
+        assertEquals(1, sharded.lookup(IpAddress.fromString("200.0.0.1").toInt()));
+    }
+
+    @Test
+    @DisplayName("샤드 배치 조회 - 샤드별 구간 범위")
+    void testShardIntervals() {
+        CidrIndex index = CidrIndex.of(List.of(CidrBlock.of("10.0.0.0/8"), CidrBlock.of("10.1.0.0/16")));
+        ShardedBatchLookup sharded = ShardedBatchLookup.of(index, 8, ForkJoinPool.commonPool());
+
+        assertEquals(1, sharded.getShardIntervalCount(0));
+        assertEquals(3, sharded.getShardIntervalCount(10));
+        assertThrows(IllegalArgumentException.class, () -> ShardedBatchLookup.of(index, 17, ForkJoinPool.commonPool()));
+    }
+}
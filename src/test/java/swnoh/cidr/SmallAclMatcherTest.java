@@ -0,0 +1,90 @@
+package swnoh.cidr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmallAclMatcherTest {
+
+    @Test
+    @DisplayName("ACL 매처 - 처음 일치한 규칙 (입력 순서 우선)")
+    void testLookup_FirstMatch() {
+        SmallAclMatcher matcher = SmallAclMatcher.of(Arrays.asList(
+                CidrBlock.of("10.1.0.0/16"),
+                CidrBlock.of("10.0.0.0/8"),
+                CidrBlock.of("10.1.2.0/24"),
+                CidrBlock.of("255.255.255.255/32")
+        ));
+
+        assertEquals(0, matcher.lookup(IpAddress.fromString("10.1.2.3").toInt()));
+        assertEquals(1, matcher.lookup(IpAddress.fromString("10.2.0.1").toInt()));
+        assertEquals(3, matcher.lookup(-1));
+        assertEquals(CidrLookup.NO_MATCH, matcher.lookup(0));
+        assertTrue(matcher.matches(IpAddress.fromString("10.9.9.9")));
+        assertFalse(matcher.matches(IpAddress.fromString("11.0.0.0")));
+    }
+
+    @Test
+    @DisplayName("ACL 매처 - 빈 목록과 전체 주소 규칙")
+    void testLookup_Edges() {
+        SmallAclMatcher empty = SmallAclMatcher.of(List.of());
+        assertEquals(CidrLookup.NO_MATCH, empty.lookup(0));
+        assertFalse(empty.matches(-1));
+
+        SmallAclMatcher all = SmallAclMatcher.of(List.of(CidrBlock.of("1.2.3.4/32"), CidrBlock.of("0.0.0.0/0")));
+        assertEquals(1, all.lookup(0));
+        assertEquals(1, all.lookup(-1));
+    }
+
+    @Test
+    @DisplayName("ACL 매처 - 무작위 규칙에서 순차 비교 결과와 일치 (스칼라/벡터)")
+    void testLookup_MatchesLinearScan() {
+        Random random = new Random(9);
+        for (int size : new int[]{1, 5, 16, 17, 100, 255}) {
+            List<CidrBlock> rules = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                int prefixLength = 4 + random.nextInt(29);
+                long network = (random.nextInt() & 0xFFFFFFFFL) & (0xFFFFFFFFL << (32 - prefixLength)) & 0xFFFFFFFFL;
+                rules.add(CidrBlock.of(IpAddress.fromLong(network) + "/" + prefixLength));
+            }
+            SmallAclMatcher matcher = SmallAclMatcher.of(rules);
+
+            for (int q = 0; q < 2000; q++) {
+                int address = q % 2 == 0
+                        ? (int) rules.get(random.nextInt(size)).getNetworkAddress() + random.nextInt(16)
+                        : random.nextInt();
+                int expected = CidrLookup.NO_MATCH;
+                for (int i = 0; i < size; i++) {
+                    if (rules.get(i).contains(IpAddress.fromInt(address))) {
+                        expected = i;
+                        break;
+                    }
+                }
+                assertEquals(expected, matcher.lookup(address));
+                assertEquals(expected != CidrLookup.NO_MATCH, matcher.matches(address));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("ACL 매처 - 스칼라 구현 직접 검증")
+    void testScalarKernel() {
+        int[] networks = new int[AclKernel.PADDING];
+        int[] masks = new int[AclKernel.PADDING];
+        Arrays.fill(networks, -1);
+        networks[6] = 0x0A000000;
+        masks[6] = 0xFF000000;
+
+        AclKernel scalar = new AclKernel.Scalar();
+        assertEquals(6, scalar.firstMatch(networks, masks, 0x0A010203));
+        assertEquals(-1, scalar.firstMatch(networks, masks, 0x0B010203));
+        assertTrue(scalar.anyMatch(networks, masks, 0x0A000000));
+        assertFalse(scalar.anyMatch(networks, masks, 0));
+    }
+}
@@ -0,0 +1,155 @@
+package swnoh.cidr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubnetAllocatorTest {
+
+    @Test
+    @DisplayName("할당 - 풀 앞쪽부터 요청 크기로 분할")
+    void testAllocate_Basic() {
+        SubnetAllocator allocator = SubnetAllocator.of(List.of(CidrBlock.of("10.0.0.0/8")));
+
+        assertEquals("10.0.0.0/24", allocator.allocate(24).toString());
+        assertEquals("10.0.1.0/24", allocator.allocate(24).toString());
+        assertEquals("10.0.2.0/26", allocator.allocate(26).toString());
+        assertEquals("10.0.2.64/28", allocator.allocate(28).toString());
+    }
+
+    @Test
+    @DisplayName("반납 - 짝 블록과 자동 병합되어 풀 전체가 다시 비워짐")
+    void testRelease_Coalesces() {
+        SubnetAllocator allocator = SubnetAllocator.of(List.of(CidrBlock.of("192.168.0.0/16")));
+
+        List<CidrBlock> subnets = new ArrayList<>();
+        for (int i = 0; i < 256; i++) {
+            subnets.add(allocator.allocate(24));
+        }
+        assertNull(allocator.allocate(24));
+        assertEquals(0, allocator.getStats().getFreeAddresses());
+
+        for (CidrBlock subnet : subnets) {
+            allocator.release(subnet);
+        }
+
+        SubnetAllocator.Stats stats = allocator.getStats();
+        assertEquals(65536, stats.getFreeAddresses());
+        assertEquals(1, stats.getFreeBlocks(16));
+        assertEquals(16, stats.getLargestFreePrefix());
+        assertEquals(0.0, stats.getFragmentation(), 1e-9);
+        assertEquals("192.168.0.0/16", allocator.allocate(16).toString());
+    }
+
+    @Test
+    @DisplayName("반납 - 할당되지 않은 블록은 거부")
+    void testRelease_NotAllocated() {
+        SubnetAllocator allocator = SubnetAllocator.of(List.of(CidrBlock.of("10.0.0.0/16")));
+        CidrBlock subnet = allocator.allocate(24);
+
+        assertThrows(IllegalArgumentException.class, () -> allocator.release(CidrBlock.of("10.0.5.0/24")));
+        assertThrows(IllegalArgumentException.class, () -> allocator.release(CidrBlock.of("10.0.0.0/25")));
+        allocator.release(subnet);
+        assertThrows(IllegalArgumentException.class, () -> allocator.release(subnet));
+    }
+
+    @Test
+    @DisplayName("예약 - 기존 블록을 피해서 할당")
+    void testReserve() {
+        SubnetAllocator allocator = SubnetAllocator.of(List.of(CidrBlock.of("10.0.0.0/22")));
+        allocator.reserve(CidrBlock.of("10.0.0.0/24"));
+        allocator.reserve(CidrBlock.of("10.0.2.128/25"));
+
+        assertThrows(IllegalArgumentException.class, () -> allocator.reserve(CidrBlock.of("10.0.0.0/26")));
+        assertThrows(IllegalArgumentException.class, () -> allocator.reserve(CidrBlock.of("11.0.0.0/24")));
+
+        Set<String> allocated = new HashSet<>(Arrays.asList(
+                allocator.allocate(24).toString(), allocator.allocate(24).toString()));
+        assertEquals(Set.of("10.0.1.0/24", "10.0.3.0/24"), allocated);
+        assertEquals("10.0.2.0/25", allocator.allocate(25).toString());
+        assertNull(allocator.allocate(28));
+    }
+
+    @Test
+    @DisplayName("여러 풀 - 풀 경계를 넘어 병합하지 않음")
+    void testMultiplePools() {
+        SubnetAllocator allocator = SubnetAllocator.of(Arrays.asList(
+                CidrBlock.of("10.0.0.0/25"),
+                CidrBlock.of("10.0.0.128/25")
+        ));
+
+        CidrBlock first = allocator.allocate(25);
+        CidrBlock second = allocator.allocate(25);
+        assertNotNull(first);
+        assertNotNull(second);
+        allocator.release(first);
+        allocator.release(second);
+
+        assertEquals(2, allocator.getStats().getFreeBlocks(25));
+        assertEquals(0, allocator.getStats().getFreeBlocks(24));
+        assertThrows(IllegalArgumentException.class, () -> allocator.allocate(24));
+        assertThrows(IllegalArgumentException.class, () -> SubnetAllocator.of(Arrays.asList(
+                CidrBlock.of("10.0.0.0/8"), CidrBlock.of("10.1.0.0/16"))));
+    }
+
+    @Test
+    @DisplayName("스냅샷/복원 - 할당 상태가 그대로 재현됨")
+    void testSnapshotRestore() {
+        SubnetAllocator allocator = SubnetAllocator.of(List.of(CidrBlock.of("172.16.0.0/12")));
+        allocator.allocate(24);
+        CidrBlock released = allocator.allocate(26);
+        allocator.allocate(28);
+        allocator.release(released);
+
+        SubnetAllocator.Snapshot snapshot = allocator.snapshot();
+        assertEquals(Arrays.asList("172.16.0.0/24", "172.16.1.64/28"),
+                snapshot.getAllocations().stream().map(CidrBlock::toString).collect(java.util.stream.Collectors.toList()));
+
+        SubnetAllocator restored = SubnetAllocator.restore(snapshot);
+        assertEquals(allocator.getStats().getFreeAddresses(), restored.getStats().getFreeAddresses());
+        assertEquals(allocator.allocate(26).toString(), restored.allocate(26).toString());
+    }
+
+    @Test
+    @DisplayName("무작위 할당/반납 - 할당 블록이 서로 겹치지 않고 주소 수가 보존됨")
+    void testRandomAllocateRelease() {
+        SubnetAllocator allocator = SubnetAllocator.of(List.of(CidrBlock.of("10.0.0.0/16")));
+        Random random = new Random(11);
+        List<CidrBlock> live = new ArrayList<>();
+        long used = 0;
+
+        for (int i = 0; i < 20000; i++) {
+            if (live.isEmpty() || random.nextInt(3) > 0) {
+                CidrBlock block = allocator.allocate(20 + random.nextInt(13));
+                if (block != null) {
+                    live.add(block);
+                    used += block.getTotalIpCount();
+                }
+            } else {
+                CidrBlock block = live.remove(random.nextInt(live.size()));
+                allocator.release(block);
+                used -= block.getTotalIpCount();
+            }
+            assertEquals(65536 - used, allocator.getStats().getFreeAddresses());
+        }
+
+        CidrOverlapAnalyzer.Summary summary = CidrOverlapAnalyzer.analyze(live,
+                (inner, ancestors, depth) -> fail("overlap: " + live.get(inner)));
+        assertEquals(0, summary.getContainmentPairs());
+
+        Set<String> unique = new HashSet<>();
+        for (CidrBlock block : live) {
+            assertTrue(unique.add(block.toString()));
+            allocator.release(block);
+        }
+        assertEquals(1, allocator.getStats().getFreeBlocks(16));
+    }
+}
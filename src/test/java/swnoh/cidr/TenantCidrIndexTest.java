@@ -0,0 +1,134 @@
+package swnoh.cidr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TenantCidrIndexTest {
+
+    @Test
+    @DisplayName("테넌트 인덱스 - 주소를 허용하는 테넌트 조회")
+    void testLookup_Basic() {
+        Map<Integer, List<CidrBlock>> allowlists = new HashMap<>();
+        allowlists.put(1, List.of(CidrBlock.of("10.0.0.0/8")));
+        allowlists.put(2, List.of(CidrBlock.of("10.1.0.0/16"), CidrBlock.of("192.168.0.0/24")));
+        allowlists.put(3, List.of(CidrBlock.of("10.1.2.0/24")));
+        TenantCidrIndex index = TenantCidrIndex.of(allowlists);
+
+        assertArrayEquals(new int[]{1, 2, 3}, index.lookup(IpAddress.fromString("10.1.2.3")));
+        assertArrayEquals(new int[]{1, 2}, index.lookup(IpAddress.fromString("10.1.3.3")));
+        assertArrayEquals(new int[]{2}, index.lookup(IpAddress.fromString("192.168.0.255")));
+        assertArrayEquals(new int[0], index.lookup(IpAddress.fromString("8.8.8.8")));
+        assertEquals(3, index.tenantCount());
+    }
+
+    @Test
+    @DisplayName("테넌트 인덱스 - 결과 배열이 모자라면 전체 개수를 반환")
+    void testLookup_ShortOutput() {
+        Map<Integer, List<CidrBlock>> allowlists = new HashMap<>();
+        for (int tenant = 0; tenant < 5; tenant++) {
+            allowlists.put(tenant, List.of(CidrBlock.of("0.0.0.0/0")));
+        }
+        TenantCidrIndex index = TenantCidrIndex.of(allowlists);
+
+        int[] out = new int[3];
+        assertEquals(5, index.lookup(-1, out));
+        assertArrayEquals(new int[]{0, 1, 2}, out);
+    }
+
+    @Test
+    @DisplayName("테넌트 인덱스 - 같은 테넌트 집합은 하나로 공유")
+    void testDistinctSets() {
+        Map<Integer, List<CidrBlock>> allowlists = new HashMap<>();
+        allowlists.put(7, List.of(CidrBlock.of("10.0.0.0/24"), CidrBlock.of("10.0.2.0/24"), CidrBlock.of("10.0.4.0/24")));
+        TenantCidrIndex index = TenantCidrIndex.of(allowlists);
+
+        assertEquals(7, index.intervalCount());
+        assertEquals(2, index.distinctSetCount());
+    }
+
+    @Test
+    @DisplayName("테넌트 인덱스 - 증분 갱신 결과가 일괄 생성과 일치")
+    void testUpdateTenant_MatchesBulkBuild() {
+        Random random = new Random(5);
+        Map<Integer, List<CidrBlock>> allowlists = new HashMap<>();
+        TenantCidrIndex incremental = new TenantCidrIndex();
+
+        for (int round = 0; round < 300; round++) {
+            int tenant = random.nextInt(40);
+            List<CidrBlock> blocks = round % 7 == 0 ? List.of() : TestBlocks.randomBlocks(random, 1 + random.nextInt(4), 1, 12);
+            incremental.updateTenant(tenant, blocks);
+            if (blocks.isEmpty()) {
+                allowlists.remove(tenant);
+            } else {
+                allowlists.put(tenant, blocks);
+            }
+            // 다시 계산한 범위의 경계에서도 같은 집합의 구간이 합쳐지고, 쓰지 않는 집합은 지워짐
+            if (round % 10 == 9) {
+                TenantCidrIndex expected = TenantCidrIndex.of(allowlists);
+                assertEquals(expected.intervalCount(), incremental.intervalCount());
+                assertEquals(expected.distinctSetCount(), incremental.distinctSetCount());
+            }
+        }
+        TenantCidrIndex bulk = TenantCidrIndex.of(allowlists);
+
+        assertEquals(allowlists.size(), incremental.tenantCount());
+        assertEquals(bulk.intervalCount(), incremental.intervalCount());
+        assertEquals(bulk.distinctSetCount(), incremental.distinctSetCount());
+
+        int[] out = new int[64];
+        for (int i = 0; i < 5000; i++) {
+            int address = i < 2 ? -i : random.nextInt();
+            List<Integer> expected = new ArrayList<>();
+            for (int tenant = 0; tenant < 40; tenant++) {
+                List<CidrBlock> blocks = allowlists.get(tenant);
+                if (blocks != null && blocks.stream().anyMatch(b -> contains(b, address))) {
+                    expected.add(tenant);
+                }
+            }
+            int count = incremental.lookup(address, out);
+            assertEquals(expected.size(), count);
+            for (int k = 0; k < count; k++) {
+                assertEquals((int) expected.get(k), out[k]);
+            }
+            assertArrayEquals(bulk.lookup(IpAddress.fromInt(address)), incremental.lookup(IpAddress.fromInt(address)));
+        }
+    }
+
+    @Test
+    @DisplayName("테넌트 인덱스 - 테넌트 제거")
+    void testRemoveTenant() {
+        TenantCidrIndex index = new TenantCidrIndex();
+        index.updateTenant(1, List.of(CidrBlock.of("10.0.0.0/8")));
+        index.updateTenant(2, List.of(CidrBlock.of("10.0.0.0/9")));
+        index.removeTenant(1);
+
+        assertArrayEquals(new int[]{2}, index.lookup(IpAddress.fromString("10.0.0.1")));
+        assertArrayEquals(new int[0], index.lookup(IpAddress.fromString("10.200.0.1")));
+        assertEquals(List.of(), index.getTenantBlocks(1));
+        assertEquals(1, index.tenantCount());
+
+        index.removeTenant(2);
+        assertEquals(1, index.intervalCount());
+        assertEquals(1, index.distinctSetCount());
+    }
+
+    @Test
+    @DisplayName("테넌트 인덱스 - 음수 테넌트 id는 예외")
+    void testUpdateTenant_InvalidId() {
+        TenantCidrIndex index = new TenantCidrIndex();
+        assertThrows(IllegalArgumentException.class, () -> index.updateTenant(-1, List.of()));
+    }
+
+    private static boolean contains(CidrBlock block, int address) {
+        long mask = (0xFFFFFFFFL << (32 - block.getPrefixLength())) & 0xFFFFFFFFL;
+        return ((address & 0xFFFFFFFFL) & mask) == block.getNetworkAddress();
+    }
+}
@@ -0,0 +1,28 @@
+package swnoh.cidr;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 테스트용 CIDR 블록 생성 도우미.
+ */
+final class TestBlocks {
+
+    private TestBlocks() {
+    }
+
+    /**
+     * prefix length가 minPrefix 이상 maxPrefix 이하인 임의의 블록 count개를 만듭니다.
+     * 네트워크 주소의 호스트 비트는 0으로 맞춥니다.
+     */
+    static List<CidrBlock> randomBlocks(Random random, int count, int minPrefix, int maxPrefix) {
+        List<CidrBlock> blocks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int prefixLength = minPrefix + random.nextInt(maxPrefix - minPrefix + 1);
+            long network = (random.nextInt() & 0xFFFFFFFFL) & (0xFFFFFFFFL << (32 - prefixLength)) & 0xFFFFFFFFL;
+            blocks.add(CidrBlock.of(IpAddress.fromLong(network) + "/" + prefixLength));
+        }
+        return blocks;
+    }
+}
@@ -0,0 +1,63 @@
+package swnoh.cidr.bench;
+
+import swnoh.cidr.HeavyHitterDetector;
+
+import java.util.SplittableRandom;
+
+/**
+ * {@link HeavyHitterDetector} 기록 처리량 벤치마크.
+ *
+ * <pre>
+ * java -cp build/classes/java/main:build/classes/java/test swnoh.cidr.bench.HeavyHitterBenchmark [스레드 수] [epsilon]
+ * </pre>
+ */
+public class HeavyHitterBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    private static final int STREAM_SIZE = 1 << 22;
+
+    public static void main(String[] args) throws InterruptedException {
+        int threadCount = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        double epsilon = args.length > 1 ? Double.parseDouble(args[1]) : 0.001;
+
+        // 절반은 공격 대역 몇 개에 몰리고, 나머지는 무작위인 트래픽
+        SplittableRandom random = new SplittableRandom(1);
+        int[] stream = new int[STREAM_SIZE];
+        for (int i = 0; i < stream.length; i++) {
+            stream[i] = random.nextBoolean() ? (random.nextInt(4) << 8 | 0x0A000000) | random.nextInt(256) : random.nextInt();
+        }
+
+        for (int[] prefixLengths : new int[][]{{8, 16, 24, 32}, rangeOf(8, 32)}) {
+            for (int round = 0; round < ROUNDS; round++) {
+                HeavyHitterDetector detector = HeavyHitterDetector.of(epsilon, prefixLengths);
+                Thread[] threads = new Thread[threadCount];
+                long start = System.nanoTime();
+                for (int t = 0; t < threads.length; t++) {
+                    threads[t] = new Thread(() -> {
+                        for (int address : stream) {
+                            detector.offer(address);
+                        }
+                        detector.flush();
+                    });
+                    threads[t].start();
+                }
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+                long elapsed = System.nanoTime() - start;
+                int found = detector.snapshot(0.05).getHeavyHitters().size();
+                System.out.printf("levels=%d, threads=%d: %.1f M updates/s (heavy hitters=%d)%n", prefixLengths.length,
+                        threadCount, (double) STREAM_SIZE * threadCount * 1000 / elapsed, found);
+            }
+        }
+    }
+
+    private static int[] rangeOf(int from, int to) {
+        int[] values = new int[to - from + 1];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = from + i;
+        }
+        return values;
+    }
+}
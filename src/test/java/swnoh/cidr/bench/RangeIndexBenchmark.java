@@ -0,0 +1,78 @@
+package swnoh.cidr.bench;
+
+import swnoh.cidr.CidrBlock;
+import swnoh.cidr.CidrIndex;
+import swnoh.cidr.CidrLookup;
+import swnoh.cidr.EytzingerRangeIndex;
+import swnoh.cidr.IpAddress;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 정렬 배열 이진 탐색({@link CidrIndex})과 Eytzinger 배치({@link EytzingerRangeIndex}) 비교 벤치마크.
+ *
+ * <pre>
+ * java -cp build/classes/java/main:build/classes/java/test swnoh.cidr.bench.RangeIndexBenchmark [블록 수]
+ * </pre>
+ */
+public class RangeIndexBenchmark {
+
+    private static final int QUERIES = 1 << 22;
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int blockCount = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+        SplittableRandom random = new SplittableRandom(1);
+        List<CidrBlock> blocks = new ArrayList<>(blockCount);
+        for (int i = 0; i < blockCount; i++) {
+            int prefixLength = 16 + random.nextInt(17);
+            long network = (random.nextInt() & 0xFFFFFFFFL) & (0xFFFFFFFFL << (32 - prefixLength)) & 0xFFFFFFFFL;
+            blocks.add(CidrBlock.of(IpAddress.fromLong(network) + "/" + prefixLength));
+        }
+
+        CidrIndex sorted = CidrIndex.of(blocks);
+        EytzingerRangeIndex eytzinger = EytzingerRangeIndex.of(sorted);
+        System.out.printf("blocks=%d, intervals=%d%n", blockCount, sorted.intervalCount());
+
+        int[] addresses = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            addresses[i] = random.nextInt();
+        }
+        int[] results = new int[QUERIES];
+
+        for (int round = 0; round < ROUNDS; round++) {
+            report("sorted array, single", measureSingle(sorted, addresses));
+            report("eytzinger, single", measureSingle(eytzinger, addresses));
+            report("sorted array, batch", measureBatch(sorted, addresses, results));
+            report("eytzinger, batch", measureBatch(eytzinger, addresses, results));
+            System.out.println();
+        }
+    }
+
+    private static long measureSingle(CidrLookup lookup, int[] addresses) {
+        long started = System.nanoTime();
+        long sink = 0;
+        for (int address : addresses) {
+            sink += lookup.lookup(address);
+        }
+        long elapsed = System.nanoTime() - started;
+        if (sink == 42) {
+            System.out.print("");
+        }
+        return elapsed;
+    }
+
+    private static long measureBatch(CidrLookup lookup, int[] addresses, int[] results) {
+        long started = System.nanoTime();
+        lookup.lookupAll(addresses, results, addresses.length);
+        return System.nanoTime() - started;
+    }
+
+    private static void report(String name, long elapsedNanos) {
+        System.out.printf("%-24s %6.1f ns/lookup%n", name, (double) elapsedNanos / QUERIES);
+    }
+}
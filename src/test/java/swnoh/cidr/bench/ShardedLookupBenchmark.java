@@ -0,0 +1,61 @@
+package swnoh.cidr.bench;
+
+import swnoh.cidr.CidrBlock;
+import swnoh.cidr.CidrIndex;
+import swnoh.cidr.IpAddress;
+import swnoh.cidr.ShardedBatchLookup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * 샤드 배치 조회({@link ShardedBatchLookup})와 parallelStream 단건 조회 비교 벤치마크.
+ *
+ * <pre>
+ * java -cp build/classes/java/main:build/classes/java/test swnoh.cidr.bench.ShardedLookupBenchmark [블록 수] [배치 크기]
+ * </pre>
+ */
+public class ShardedLookupBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int blockCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 1 << 24;
+
+        SplittableRandom random = new SplittableRandom(1);
+        List<CidrBlock> blocks = new ArrayList<>(blockCount);
+        for (int i = 0; i < blockCount; i++) {
+            int prefixLength = 16 + random.nextInt(17);
+            long network = (random.nextInt() & 0xFFFFFFFFL) & (0xFFFFFFFFL << (32 - prefixLength)) & 0xFFFFFFFFL;
+            blocks.add(CidrBlock.of(IpAddress.fromLong(network) + "/" + prefixLength));
+        }
+        CidrIndex index = CidrIndex.of(blocks);
+        ShardedBatchLookup sharded = ShardedBatchLookup.of(index);
+        System.out.printf("blocks=%d, intervals=%d, shardBits=%d, cores=%d%n", blockCount, index.intervalCount(),
+                sharded.getShardBits(), Runtime.getRuntime().availableProcessors());
+
+        int[] addresses = new int[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            addresses[i] = random.nextInt();
+        }
+        int[] results = new int[batchSize];
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long started = System.nanoTime();
+            IntStream.range(0, batchSize).parallel().forEach(i -> results[i] = index.lookup(addresses[i]));
+            report("parallelStream", System.nanoTime() - started, batchSize);
+
+            started = System.nanoTime();
+            sharded.lookupAll(addresses, results, batchSize);
+            report("sharded batch", System.nanoTime() - started, batchSize);
+            System.out.println();
+        }
+    }
+
+    private static void report(String name, long elapsedNanos, int batchSize) {
+        System.out.printf("%-16s %8.1f M lookups/s%n", name, batchSize * 1000.0 / elapsedNanos);
+    }
+}
@@ -0,0 +1,73 @@
+package swnoh.cidr.bench;
+
+import swnoh.cidr.CidrBlock;
+import swnoh.cidr.CidrIndex;
+import swnoh.cidr.CidrLookup;
+import swnoh.cidr.EytzingerRangeIndex;
+import swnoh.cidr.IpAddress;
+import swnoh.cidr.SmallAclMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 규칙 수에 따른 선형 탐색({@link SmallAclMatcher})과 인덱스 구조의 교차점 측정.
+ *
+ * <pre>
+ * java --add-modules jdk.incubator.vector -cp build/classes/java/main:build/classes/java/test \
+ *     swnoh.cidr.bench.SmallAclBenchmark
+ * </pre>
+ */
+public class SmallAclBenchmark {
+
+    private static final int QUERIES = 1 << 20;
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        System.out.println("vectorized=" + SmallAclMatcher.isVectorized());
+        SplittableRandom random = new SplittableRandom(1);
+
+        int[] addresses = new int[QUERIES];
+        for (int size : new int[]{8, 16, 32, 64, 128, 256, 512}) {
+            List<CidrBlock> rules = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                int prefixLength = 8 + random.nextInt(25);
+                long network = (random.nextInt() & 0xFFFFFFFFL) & (0xFFFFFFFFL << (32 - prefixLength)) & 0xFFFFFFFFL;
+                rules.add(CidrBlock.of(IpAddress.fromLong(network) + "/" + prefixLength));
+            }
+            for (int i = 0; i < QUERIES; i++) {
+                addresses[i] = random.nextInt();
+            }
+
+            SmallAclMatcher linear = SmallAclMatcher.of(rules);
+            CidrIndex index = CidrIndex.of(rules);
+            EytzingerRangeIndex eytzinger = EytzingerRangeIndex.of(index);
+
+            double linearNanos = Double.MAX_VALUE;
+            double indexNanos = Double.MAX_VALUE;
+            double eytzingerNanos = Double.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                linearNanos = Math.min(linearNanos, measure(linear, addresses));
+                indexNanos = Math.min(indexNanos, measure(index, addresses));
+                eytzingerNanos = Math.min(eytzingerNanos, measure(eytzinger, addresses));
+            }
+            System.out.printf("rules=%4d  linear %6.1f ns  sorted array %6.1f ns  eytzinger %6.1f ns%n",
+                    size, linearNanos, indexNanos, eytzingerNanos);
+        }
+    }
+
+    private static double measure(CidrLookup lookup, int[] addresses) {
+        long started = System.nanoTime();
+        long sink = 0;
+        for (int address : addresses) {
+            sink += lookup.lookup(address);
+        }
+        double elapsed = (double) (System.nanoTime() - started) / addresses.length;
+        if (sink == 42) {
+            System.out.print("");
+        }
+        return elapsed;
+    }
+}
@@ -0,0 +1,169 @@
+package swnoh.cidr.server;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import swnoh.cidr.CidrBlock;
+import swnoh.cidr.CidrIndex;
+import swnoh.cidr.IpAddress;
+
+import java.net.InetSocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CidrLookupServerTest {
+
+    private final CidrIndex index = CidrIndex.of(Arrays.asList(
+            CidrBlock.of("10.0.0.0/8"),
+            CidrBlock.of("10.1.0.0/16"),
+            CidrBlock.of("192.168.1.0/24")
+    ));
+
+    @Test
+    @DisplayName("TCP 서버 - 배치 조회 결과가 인덱스와 일치")
+    void testTcpLookup() throws Exception {
+        try (CidrLookupServer server = CidrLookupServer.start(index, new InetSocketAddress("127.0.0.1", 0));
+             CidrLookupClient client = CidrLookupClient.connect(server.getLocalAddress())) {
+
+            int[] addresses = {
+                    IpAddress.fromString("10.1.2.3").toInt(),
+                    IpAddress.fromString("10.2.0.0").toInt(),
+                    IpAddress.fromString("192.168.1.77").toInt(),
+                    IpAddress.fromString("8.8.8.8").toInt()
+            };
+            int[] results = new int[addresses.length];
+            client.lookup(addresses, results, addresses.length);
+
+            assertArrayEquals(new int[]{1, 0, 2, -1}, results);
+            assertEquals(2, client.lookup(IpAddress.fromString("192.168.1.1").toInt()));
+        }
+    }
+
+    @Test
+    @DisplayName("Unix 도메인 소켓 서버 - 조회 가능")
+    void testUnixDomainSocketLookup() throws Exception {
+        Path socket = Files.createTempDirectory("cidr-server").resolve("lookup.sock");
+        try (CidrLookupServer server = CidrLookupServer.start(index, UnixDomainSocketAddress.of(socket));
+             CidrLookupClient client = CidrLookupClient.connect(server.getLocalAddress())) {
+            assertEquals(1, client.lookup(IpAddress.fromString("10.1.255.255").toInt()));
+        }
+        assertFalse(Files.exists(socket));
+    }
+
+    @Test
+    @DisplayName("동시 연결 - 여러 연결의 요청이 모두 올바르게 응답됨")
+    void testConcurrentConnections() throws Exception {
+        try (CidrLookupServer server = CidrLookupServer.start(index, new InetSocketAddress("127.0.0.1", 0))) {
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<Boolean>> futures = new ArrayList<>();
+                for (int t = 0; t < 8; t++) {
+                    int thread = t;
+                    futures.add(executor.submit(() -> {
+                        try (CidrLookupClient client = CidrLookupClient.connect(server.getLocalAddress())) {
+                            int[] addresses = new int[256];
+                            int[] results = new int[256];
+                            for (int round = 0; round < 50; round++) {
+                                for (int i = 0; i < addresses.length; i++) {
+                                    addresses[i] = (int) (thread * 7919L + round * 104729L + i * 2654435761L);
+                                }
+                                client.lookup(addresses, results, addresses.length);
+                                for (int i = 0; i < addresses.length; i++) {
+                                    if (results[i] != index.lookup(addresses[i])) {
+                                        return false;
+                                    }
+                                }
+                            }
+                        }
+                        return true;
+                    }));
+                }
+                for (Future<Boolean> future : futures) {
+                    assertTrue(future.get());
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            assertTrue(server.getBatcher().getRequestCount() >= 8 * 50);
+        }
+    }
+
+    @Test
+    @DisplayName("배처 - 조회 실패는 호출자에게 전달되고 디스패처는 계속 동작")
+    void testBatcher_FailureAndClose() {
+        LookupBatcher batcher = new LookupBatcher(address -> {
+            if (address == 13) {
+                throw new IllegalStateException("boom");
+            }
+            return address;
+        });
+        int[] results = new int[2];
+        assertThrows(IllegalArgumentException.class, () -> batcher.lookup(new int[1], results, 2));
+        assertThrows(IllegalStateException.class, () -> batcher.lookup(new int[]{13}, results, 1));
+
+        batcher.lookup(new int[]{7, 9}, results, 2);
+        assertArrayEquals(new int[]{7, 9}, results);
+
+        batcher.close();
+        assertThrows(IllegalStateException.class, () -> batcher.lookup(new int[]{1}, results, 1));
+    }
+
+    @Test
+    @DisplayName("조회 배처 - 조회 중 Error가 나면 기다리던 요청과 이후 요청이 멈추지 않고 실패")
+    void testBatcher_ErrorStopsDispatcher() {
+        LookupBatcher batcher = new LookupBatcher(address -> {
+            if (address == 13) {
+                throw new AssertionError("fatal");
+            }
+            return address;
+        });
+        int[] results = new int[1];
+        batcher.lookup(new int[]{7}, results, 1);
+        assertEquals(7, results[0]);
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> batcher.lookup(new int[]{13}, results, 1));
+        assertTrue(failure.getCause() instanceof AssertionError);
+        assertThrows(IllegalStateException.class, () -> batcher.lookup(new int[]{7}, results, 1));
+        batcher.close();
+    }
+
+    @Test
+    @DisplayName("부하 생성기 - 지연시간 백분위수 집계")
+    void testLoadGenerator() throws Exception {
+        try (CidrLookupServer server = CidrLookupServer.start(index, new InetSocketAddress("127.0.0.1", 0))) {
+            LoadGenerator.Report report = new LoadGenerator(server.getLocalAddress(), 2, 32)
+                    .run(Duration.ofMillis(200));
+
+            assertTrue(report.getRequestCount() > 0);
+            LatencyHistogram histogram = report.getHistogram();
+            assertTrue(histogram.getValueAtPercentile(50) <= histogram.getValueAtPercentile(99));
+            assertTrue(histogram.getValueAtPercentile(99) <= histogram.getMax());
+        }
+    }
+
+    @Test
+    @DisplayName("지연시간 히스토그램 - 백분위수 근사")
+    void testLatencyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        long p50 = histogram.getValueAtPercentile(50);
+        long p99 = histogram.getValueAtPercentile(99);
+        assertTrue(Math.abs(p50 - 500_000) <= 500_000 / 16, "p50=" + p50);
+        assertTrue(Math.abs(p99 - 990_000) <= 990_000 / 16, "p99=" + p99);
+        assertEquals(1_000_000L, histogram.getValueAtPercentile(100));
+        assertEquals(1000, histogram.getTotalCount());
+    }
+}
@@ -0,0 +1,146 @@
+package swnoh.cidr.server;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import swnoh.cidr.CidrBlock;
+import swnoh.cidr.CidrColumns;
+import swnoh.cidr.CidrIndex;
+import swnoh.cidr.IpAddress;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedLookupTest {
+
+    // 파티션보다 큰 블록(/0, /1, /2)과 같은 블록의 중복을 포함한 무작위 목록
+    private static CidrColumns randomColumns(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        CidrColumns columns = new CidrColumns();
+        columns.add(0, 0);
+        columns.add(IpAddress.fromString("128.0.0.0").toInt(), 1);
+        columns.add(IpAddress.fromString("64.0.0.0").toInt(), 2);
+        for (int i = 3; i < count; i++) {
+            columns.add(random.nextInt(), 4 + random.nextInt(29));
+        }
+        columns.add(IpAddress.fromString("64.0.0.0").toInt(), 2);
+        return columns;
+    }
+
+    @Test
+    @DisplayName("파티션 인덱스 - 걸치는 블록은 복제되고 결과는 전체 인덱스와 같음")
+    void testPartitionIndex() {
+        CidrColumns columns = randomColumns(3000, 1);
+        CidrIndex global = CidrIndex.of(columns.toCidrBlocks());
+        PartitionIndex[] partitions = new PartitionIndex[8];
+        int total = 0;
+        for (int p = 0; p < partitions.length; p++) {
+            partitions[p] = PartitionIndex.of(columns, 3, p);
+            total += partitions[p].size();
+        }
+
+        // /0은 8개, /1은 4개, /2는 (중복 포함 두 번) 각각 2개 파티션에 들어감
+        assertEquals(3, partitions[2].getReplicatedCount());
+        assertEquals(columns.size() - 4 + 8 + 4 + 2 * 2, total);
+
+        SplittableRandom random = new SplittableRandom(2);
+        for (int i = 0; i < 100_000; i++) {
+            int address = random.nextInt();
+            int p = PartitionIndex.partitionOf(address, 3);
+            assertEquals(global.lookup(address), partitions[p].lookup(address));
+            assertEquals(-1, partitions[(p + 1) % 8].lookup(address));
+        }
+        assertThrows(IllegalArgumentException.class, () -> PartitionIndex.of(columns, 3, 8));
+        assertThrows(IllegalArgumentException.class, () -> PartitionIndex.of(columns, 9, 0));
+    }
+
+    @Test
+    @DisplayName("파티션 모드 - 여러 워커 프로세스에 나눠 조회해도 단일 인덱스와 같은 결과")
+    void testMultiProcessLookup() throws Exception {
+        CidrColumns columns = randomColumns(5000, 3);
+        List<CidrBlock> blocks = columns.toCidrBlocks();
+        Path file = Files.createTempFile("cidr-partitions", ".txt");
+        StringBuilder text = new StringBuilder("# partitioned test\n");
+        for (CidrBlock block : blocks) {
+            text.append(block).append('\n');
+        }
+        Files.writeString(file, text, StandardCharsets.US_ASCII);
+        CidrIndex global = CidrIndex.of(blocks);
+
+        try (LocalPartitionCluster cluster = LocalPartitionCluster.start(file, 2);
+             PartitionedLookupClient client = cluster.connect()) {
+            assertEquals(4, cluster.getAliveCount());
+            assertEquals(4, client.getPartitionCount());
+
+            SplittableRandom random = new SplittableRandom(4);
+            int[] addresses = new int[4096];
+            int[] results = new int[addresses.length];
+            for (int round = 0; round < 10; round++) {
+                int count = 1 + random.nextInt(addresses.length);
+                for (int i = 0; i < count; i++) {
+                    addresses[i] = random.nextInt();
+                }
+                client.lookup(addresses, results, count);
+                for (int i = 0; i < count; i++) {
+                    assertEquals(global.lookup(addresses[i]), results[i]);
+                }
+            }
+            int address = IpAddress.fromString("200.1.2.3").toInt();
+            assertEquals(global.lookup(address), client.lookup(address));
+
+            // 워커 하나에 직접 접속하면 자기 파티션 밖 주소는 일치 없음
+            try (CidrLookupClient worker = CidrLookupClient.connect(cluster.getAddresses().get(0))) {
+                assertEquals(-1, worker.lookup(address));
+            }
+        }
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    @DisplayName("파티션 클라이언트 - 통신 오류 후에는 연결을 닫고 조회를 거부")
+    void testFailureClosesClient() throws Exception {
+        CidrIndex index = CidrIndex.of(List.of(CidrBlock.of("10.0.0.0/8"), CidrBlock.of("192.168.0.0/16")));
+        CidrLookupServer first = CidrLookupServer.start(index, new InetSocketAddress("127.0.0.1", 0));
+        CidrLookupServer second = CidrLookupServer.start(index, new InetSocketAddress("127.0.0.1", 0));
+        try (PartitionedLookupClient client = PartitionedLookupClient.connect(
+                List.of(first.getLocalAddress(), second.getLocalAddress()))) {
+            int[] addresses = {IpAddress.fromString("10.1.1.1").toInt(), IpAddress.fromString("192.168.1.1").toInt()};
+            int[] results = new int[2];
+            client.lookup(addresses, results, 2);
+            assertArrayEquals(new int[]{0, 1}, results);
+
+            // 배열보다 큰 count는 아무것도 보내지 않고 거부하며, 다음 배치에 영향이 없음
+            assertThrows(IllegalArgumentException.class, () -> client.lookup(addresses, results, 3));
+            assertThrows(IllegalArgumentException.class, () -> client.lookup(addresses, new int[1], 2));
+            int[] swapped = {addresses[1], addresses[0]};
+            client.lookup(swapped, results, 2);
+            assertArrayEquals(new int[]{1, 0}, results);
+
+            // 두 번째 워커가 끊기면 첫 번째 워커의 응답은 읽었어도 클라이언트 전체를 닫음
+            second.close();
+            assertThrows(IOException.class, () -> client.lookup(addresses, results, 2));
+            assertThrows(IllegalStateException.class, () -> client.lookup(addresses, results, 2));
+            assertThrows(IllegalStateException.class, () -> client.lookup(addresses[0]));
+        } finally {
+            first.close();
+        }
+    }
+
+    @Test
+    @DisplayName("파티션 클라이언트 - 워커 수는 2의 거듭제곱")
+    void testInvalidPartitionCount() {
+        List<InetSocketAddress> three = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            three.add(new InetSocketAddress("127.0.0.1", 1));
+        }
+        assertThrows(IllegalArgumentException.class, () -> PartitionedLookupClient.connect(three));
+        assertThrows(IllegalArgumentException.class, () -> PartitionedLookupClient.connect(List.of()));
+    }
+}